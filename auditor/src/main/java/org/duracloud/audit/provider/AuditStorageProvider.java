@@ -8,9 +8,11 @@
 package org.duracloud.audit.provider;
 
 import java.io.InputStream;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.duracloud.audit.logger.ReadLogger;
 import org.duracloud.audit.logger.WriteLogger;
@@ -81,9 +83,43 @@ public class AuditStorageProvider implements StorageProvider {
                                  String spaceACLs,
                                  String sourceSpaceId,
                                  String sourceContentId) {
+        Task writeTask =
+            createWriteTask(action, getUserId(), spaceId, contentId,
+                            contentChecksum, contentMimetype, contentSize,
+                            contentProperties, spaceACLs, sourceSpaceId,
+                            sourceContentId);
+        taskQueue.put(writeTask);
+        writeLogger.log(writeTask);
+    }
+
+    /*
+     * Handles a set of write tasks. Tasks are passed to the task queue in
+     * batches and each is logged.
+     */
+    private void submitWriteTasks(Set<Task> writeTasks) {
+        if (writeTasks.isEmpty()) {
+            return;
+        }
+        taskQueue.put(writeTasks);
+        for (Task writeTask : writeTasks) {
+            writeLogger.log(writeTask);
+        }
+    }
+
+    private Task createWriteTask(String action,
+                                 String userId,
+                                 String spaceId,
+                                 String contentId,
+                                 String contentChecksum,
+                                 String contentMimetype,
+                                 String contentSize,
+                                 Map<String, String> contentProperties,
+                                 String spaceACLs,
+                                 String sourceSpaceId,
+                                 String sourceContentId) {
         AuditTask task = new AuditTask();
         task.setAction(action);
-        task.setUserId(getUserId());
+        task.setUserId(userId);
         task.setDateTime(String.valueOf(System.currentTimeMillis()));
         task.setAccount(account);
         task.setStoreId(storeId);
@@ -97,10 +133,7 @@ public class AuditStorageProvider implements StorageProvider {
         task.setContentProperties(contentProperties);
         task.setSourceSpaceId(sourceSpaceId);
         task.setSourceContentId(sourceContentId);
-
-        Task writeTask = task.writeTask();
-        taskQueue.put(writeTask);
-        writeLogger.log(writeTask);
+        return task.writeTask();
     }
 
     /*
@@ -124,6 +157,11 @@ public class AuditStorageProvider implements StorageProvider {
         readLogger.log(task.writeTask());
     }
 
+    private String getOrNA(Map<String, String> properties, String name) {
+        String value = null == properties ? null : properties.get(name);
+        return null == value ? AuditTask.NA : value;
+    }
+
     private String getUserId() {
         try {
             return userUtil.getCurrentUsername();
@@ -217,6 +255,19 @@ public class AuditStorageProvider implements StorageProvider {
         return contentProps;
     }
 
+    @Override
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        Map<String, Map<String, String>> contentsProps =
+            target.getContentsProperties(spaceId, contentIds);
+
+        String action = AuditTask.ActionType.GET_CONTENT_PROPERTIES.name();
+        for (String contentId : contentsProps.keySet()) {
+            submitReadTask(action, spaceId, contentId, AuditTask.NA);
+        }
+        return contentsProps;
+    }
+
     /*
      * These methods make changes to the state of storage, so audit information
      * needs to be captured for each
@@ -308,6 +359,33 @@ public class AuditStorageProvider implements StorageProvider {
                         contentSize, null, null, AuditTask.NA, AuditTask.NA);
     }
 
+    /*
+     * Audit events are generated from the properties reported for each item
+     * which is deleted, and are submitted to the task queue together.
+     * Properties which are not reported are recorded as not available.
+     */
+    @Override
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        Map<String, Map<String, String>> deleted =
+            target.deleteContents(spaceId, contentIds);
+
+        String action = AuditTask.ActionType.DELETE_CONTENT.name();
+        String userId = getUserId();
+        Set<Task> writeTasks = new HashSet<>();
+        for (Map.Entry<String, Map<String, String>> item : deleted.entrySet()) {
+            Map<String, String> props = item.getValue();
+            writeTasks.add(createWriteTask(
+                action, userId, spaceId, item.getKey(),
+                getOrNA(props, StorageProvider.PROPERTIES_CONTENT_CHECKSUM),
+                getOrNA(props, StorageProvider.PROPERTIES_CONTENT_MIMETYPE),
+                getOrNA(props, StorageProvider.PROPERTIES_CONTENT_SIZE),
+                null, null, AuditTask.NA, AuditTask.NA));
+        }
+        submitWriteTasks(writeTasks);
+        return deleted;
+    }
+
     @Override
     public void setContentProperties(String spaceId, String contentId,
                                      Map<String, String> contentProperties) {
@@ -319,4 +397,27 @@ public class AuditStorageProvider implements StorageProvider {
                         AuditTask.NA);
     }
 
+    /*
+     * Audit events are generated for each item which is updated, and are
+     * submitted to the task queue together.
+     */
+    @Override
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        List<String> updated =
+            target.setContentsProperties(spaceId, contentProperties);
+
+        String action = AuditTask.ActionType.SET_CONTENT_PROPERTIES.name();
+        String userId = getUserId();
+        Set<Task> writeTasks = new HashSet<>();
+        for (String contentId : updated) {
+            writeTasks.add(createWriteTask(
+                action, userId, spaceId, contentId, AuditTask.NA, AuditTask.NA,
+                AuditTask.NA, contentProperties.get(contentId), null,
+                AuditTask.NA, AuditTask.NA));
+        }
+        submitWriteTasks(writeTasks);
+        return updated;
+    }
+
 }
@@ -25,6 +25,8 @@ import org.duracloud.audit.AuditLogUtil;
 import org.duracloud.audit.reader.AuditLogReader;
 import org.duracloud.audit.reader.AuditLogReaderException;
 import org.duracloud.audit.reader.AuditLogReaderNotEnabledException;
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.s3storage.S3StorageProvider;
 import org.duracloud.storage.domain.AuditConfig;
@@ -41,6 +43,11 @@ public class AuditLogReaderImpl implements AuditLogReader {
     private static Logger log =
         LoggerFactory.getLogger(AuditLogReaderImpl.class);
 
+    // Writers to the piped audit log stream are only started when a thread
+    // is available, otherwise the reading caller would wait indefinitely
+    private static final ExecutorPoolConfig AUDIT_LOG_POOL =
+        new ExecutorPoolConfig("audit-log", 10, 0);
+
     private AuditConfig auditConfig;
 
     private StorageProvider storageProvider;
@@ -79,7 +86,9 @@ public class AuditLogReaderImpl implements AuditLogReader {
                 os.close();
             }
 
-            new Thread(new Runnable() {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(AUDIT_LOG_POOL)
+                            .execute(new Runnable() {
                 @Override
                 public void run() {
                     try {
@@ -106,8 +115,10 @@ public class AuditLogReaderImpl implements AuditLogReader {
                                   ex);
                     }
                 }
-            }).start();
+            });
         } catch (StorageException | IOException e) {
+            // A RejectedExecutionException is left unwrapped, so that callers
+            // can report that the service is busy
             throw new AuditLogReaderException(e);
         }
 
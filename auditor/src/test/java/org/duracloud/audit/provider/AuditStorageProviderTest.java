@@ -12,8 +12,12 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.duracloud.audit.logger.ReadLogger;
 import org.duracloud.audit.logger.WriteLogger;
@@ -403,6 +407,44 @@ public class AuditStorageProviderTest extends EasyMockSupport {
 
     }
 
+    @Test
+    public void testDeleteContents() throws Exception {
+        String missingContentId = "missing-content-id";
+        EasyMock.expect(userUtil.getCurrentUsername()).andReturn(user);
+        Capture<Set<Task>> auditTasksCapture = new Capture<>();
+        taskQueue.put(EasyMock.capture(auditTasksCapture));
+        EasyMock.expectLastCall().once();
+        Capture<Task> logCapture = new Capture<>();
+        writeLogger.log(EasyMock.capture(logCapture));
+        EasyMock.expectLastCall().once();
+
+        // The mimetype is not reported for deleted items
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, contentSize + "");
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, contentChecksum);
+
+        // Items which do not exist are left out of the result, and the
+        // properties of the others are not retrieved separately
+        List<String> contentIds = Arrays.asList(contentId, missingContentId);
+        Map<String, Map<String, String>> deleted =
+            Collections.singletonMap(contentId, props);
+        EasyMock.expect(targetProvider.deleteContents(spaceId, contentIds))
+                .andReturn(deleted);
+        replayAll();
+        assertEquals(deleted, provider.deleteContents(spaceId, contentIds));
+
+        Set<Task> auditTasks = auditTasksCapture.getValue();
+        assertEquals(1, auditTasks.size());
+        Task auditTask = auditTasks.iterator().next();
+        assertEquals(auditTask, logCapture.getValue());
+        Map<String, String> taskProps =
+            verifyTask(auditTask, AuditTask.ActionType.DELETE_CONTENT.name());
+        assertEquals(contentId, taskProps.get(AuditTask.CONTENT_ID_PROP));
+        assertEquals(contentSize, Long.parseLong(taskProps.get(AuditTask.CONTENT_SIZE_PROP)));
+        assertEquals(contentChecksum, taskProps.get(AuditTask.CONTENT_CHECKSUM_PROP));
+        assertEquals(AuditTask.NA, taskProps.get(AuditTask.CONTENT_MIMETYPE_PROP));
+    }
+
     @Test
     public void testSetContentProperties() throws Exception {
         Capture<Task> auditTaskCapture = mockAuditCall();
@@ -208,6 +208,7 @@ public class FileChunker {
         long maxChunkSize = options.getMaxChunkSize();
         boolean ignoreLargeFiles = options.isIgnoreLargeFiles();
         boolean preserveChunkMD5s = options.isPreserveChunkMD5s();
+        boolean compressManifests = options.isCompressManifests();
 
         log.debug("loading file: " + destContentId + "[" + fileSize + "]");
         if (fileSize <= maxChunkSize) {
@@ -225,6 +226,7 @@ public class FileChunker {
                                                               fileSize,
                                                               maxChunkSize);
             chunkable.setPreserveChunkMD5s(preserveChunkMD5s);
+            chunkable.getManifest().setCompressed(compressManifests);
 
             contentWriter.write(destSpaceId, chunkable, properties);
 
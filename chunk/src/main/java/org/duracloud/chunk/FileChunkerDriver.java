@@ -175,6 +175,15 @@ public class FileChunkerDriver {
                                              "specified in the 'add' " +
                                              "option will be ignored.");
 
+        Option compressManifests = new Option("z",
+                                              "compress-manifests",
+                                              false,
+                                              "if this option is set, " +
+                                              "manifests will be written " +
+                                              "using the compressed " +
+                                              "encoding, which can only be " +
+                                              "read by current releases");
+
         Options options = new Options();
         options.addOption(username);
         options.addOption(password);
@@ -185,6 +194,7 @@ public class FileChunkerDriver {
         options.addOption(cloud);
         options.addOption(excludeChunkMD5s);
         options.addOption(ignoreLargeFiles);
+        options.addOption(compressManifests);
 
         return options;
     }
@@ -263,6 +273,12 @@ public class FileChunkerDriver {
             ignoreLarge = true;
         }
 
+        // Will manifests be compressed?
+        boolean compressManifests = false;
+        if (cmd.hasOption("compress-manifests")) {
+            compressManifests = true;
+        }
+
         // Will files be filtered?
         IOFileFilter fileFilter = TrueFileFilter.TRUE;
         if (cmd.hasOption("file-filter")) {
@@ -289,7 +305,8 @@ public class FileChunkerDriver {
                                              dirFilter,
                                              chunkSize,
                                              chunkMD5,
-                                             ignoreLarge);
+                                             ignoreLarge,
+                                             compressManifests);
             chunk(fromDir, toDir, options, writer);
 
             // ...or generate test data
@@ -23,6 +23,7 @@ public class FileChunkerOptions {
     private long maxChunkSize = 1000000000; // 1-GB
     private boolean preserveChunkMD5s = true;
     private boolean ignoreLargeFiles = false;
+    private boolean compressManifests = false;
 
     public FileChunkerOptions() {
         // use defaults.
@@ -62,6 +63,20 @@ public class FileChunkerOptions {
         this.ignoreLargeFiles = ignoreLargeFiles;
     }
 
+    public FileChunkerOptions(IOFileFilter fileFilter,
+                              IOFileFilter dirFilter,
+                              long maxChunkSize,
+                              boolean preserveChunkMD5s,
+                              boolean ignoreLargeFiles,
+                              boolean compressManifests) {
+        this(fileFilter,
+             dirFilter,
+             maxChunkSize,
+             preserveChunkMD5s,
+             ignoreLargeFiles);
+        this.compressManifests = compressManifests;
+    }
+
     public IOFileFilter getFileFilter() {
         return fileFilter;
     }
@@ -81,4 +96,15 @@ public class FileChunkerOptions {
     public boolean isIgnoreLargeFiles() {
         return ignoreLargeFiles;
     }
+
+    /**
+     * Manifests written with the compressed encoding are much smaller for
+     * content with many chunks, but can only be read by current releases.
+     *
+     * @return true if chunk manifests are written using the compressed
+     * encoding
+     */
+    public boolean isCompressManifests() {
+        return compressManifests;
+    }
 }
@@ -7,9 +7,11 @@
  */
 package org.duracloud.chunk.manifest;
 
-import java.io.UnsupportedEncodingException;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 
+import org.apache.commons.io.output.DeferredFileOutputStream;
 import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
 import org.duracloud.chunk.stream.KnownLengthInputStream;
 import org.duracloud.common.error.DuraCloudRuntimeException;
@@ -28,10 +30,16 @@ public class ChunksManifest extends ChunksManifestBean {
 
     private int chunkIndex = -1;
     private final static String mimetype = "application/xml";
+    private final static String compressedMimetype = "application/gzip";
     public final static String chunkSuffix = ".dura-chunk-";
     public final static String manifestSuffix = ".dura-manifest";
     private static final int MAX_CHUNKS = 9999;
 
+    // Larger manifest bodies are written to a temporary file
+    private static final int MAX_IN_MEMORY_BODY_BYTES = 1024 * 1024;
+
+    private boolean compressed = false;
+
     public ChunksManifest(ChunksManifestBean bean) {
         this.setEntries(bean.getEntries());
         this.setHeader(bean.getHeader());
@@ -46,6 +54,21 @@ public class ChunksManifest extends ChunksManifestBean {
                                           sourceByteSize));
     }
 
+    /**
+     * Determines whether the body of this manifest is written using the
+     * compressed encoding, which is much smaller for manifests with many
+     * chunks but can only be read by current releases.
+     *
+     * @param compressed true to compress the manifest body
+     */
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     public void setMD5OfSourceContent(String md5) {
         getHeader().setSourceMD5(md5);
     }
@@ -87,19 +110,45 @@ public class ChunksManifest extends ChunksManifestBean {
         }
     }
 
+    /**
+     * Writes the manifest document. Small documents are held in memory,
+     * while larger ones are written to a temporary file, which is deleted
+     * when the returned stream is closed.
+     *
+     * @return manifest document
+     */
     public KnownLengthInputStream getBody() {
-        String xml = ManifestDocumentBinding.createDocumentFrom(this);
-        log.debug("Manifest body: '" + xml + "'");
-
+        DeferredFileOutputStream body =
+            new DeferredFileOutputStream(MAX_IN_MEMORY_BODY_BYTES,
+                                         "manifest-", ".tmp", null);
+        boolean written = false;
         try {
-            return new KnownLengthInputStream(xml);
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+            try {
+                ManifestDocumentBinding.writeDocument(this, body, compressed);
+            } finally {
+                body.close();
+            }
+            log.debug("Manifest body for {}: {} bytes, {} entries",
+                      getManifestId(), body.getByteCount(), getEntries().size());
+            KnownLengthInputStream stream = body.isInMemory()
+                                            ? new KnownLengthInputStream(body.getData())
+                                            : new KnownLengthInputStream(body.getFile());
+            written = true;
+            return stream;
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException("Unable to write manifest " +
+                                                getManifestId() + ": " +
+                                                e.getMessage(), e);
+        } finally {
+            File file = body.getFile();
+            if (!written && null != file && file.exists() && !file.delete()) {
+                log.warn("Unable to delete {}", file);
+            }
         }
     }
 
     public String getMimetype() {
-        return mimetype;
+        return compressed ? compressedMimetype : mimetype;
     }
 
 }
@@ -8,21 +8,21 @@
 package org.duracloud.chunk.manifest.xml;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
-import org.apache.xmlbeans.XmlException;
-import org.apache.xmlbeans.XmlObject;
-import org.duracloud.ChunksManifestDocument;
-import org.duracloud.ChunksManifestType;
 import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.manifest.ChunksManifestBean;
-import org.duracloud.common.error.DuraCloudRuntimeException;
 
 /**
  * This class is a helper utility for binding ChunksManifest objects to a
  * ChunksManifest xml document.
  *
+ * Documents are read and written as streams (see ManifestStreamReader and
+ * ManifestStreamWriter), so that manifests with many chunks are never held
+ * in memory as xml object trees.
+ *
  * @author Andrew Woods
  * Date: Feb 9, 2010
  */
@@ -34,54 +34,41 @@ public class ManifestDocumentBinding {
 
     /**
      * This method binds a ChunksManifest object to the content of the arg xml.
+     * Both plain and compressed documents are supported.
      *
      * @param xml manifest document to be bound to ChunksManifest object
      * @return ChunksManifest object
      */
     public static ChunksManifest createManifestFrom(InputStream xml) {
-        try {
-            ChunksManifestDocument doc = ChunksManifestDocument.Factory.parse(
-                xml);
-            return ManifestElementReader.createManifestFrom(doc);
-        } catch (XmlException e) {
-            throw new DuraCloudRuntimeException(e);
-        } catch (IOException e) {
-            throw new DuraCloudRuntimeException(e);
-        }
+        return ManifestStreamReader.read(xml);
     }
 
     /**
      * This method serializes the arg ChunksManifest object into an xml document.
+     * The whole document is held in memory, so this is only suited to small
+     * manifests, use writeDocument() or ChunksManifest.getBody() otherwise.
      *
      * @param manifest ChunksManifest object to be serialized
      * @return ChunksManifest xml document
      */
     public static String createDocumentFrom(ChunksManifestBean manifest) {
-        ChunksManifestDocument doc = ChunksManifestDocument.Factory
-            .newInstance();
-        if (null != manifest) {
-            ChunksManifestType manifestType = ManifestElementWriter.createChunksManifestElementFrom(
-                manifest);
-            doc.setChunksManifest(manifestType);
-        }
-        return docToString(doc);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ManifestStreamWriter.write(manifest, outputStream, false);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
     }
 
-    private static String docToString(XmlObject doc) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        try {
-            doc.save(outputStream);
-        } catch (IOException e) {
-            throw new DuraCloudRuntimeException(e);
-        } finally {
-            try {
-                outputStream.flush();
-                outputStream.close();
-            } catch (IOException e) {
-                throw new DuraCloudRuntimeException(e);
-            }
-        }
-        return outputStream.toString();
+    /**
+     * This method serializes the arg ChunksManifest object into an xml
+     * document, written to the arg stream.
+     *
+     * @param manifest   ChunksManifest object to be serialized
+     * @param out        stream to which the document is written, not closed
+     * @param compressed true to use the compressed encoding
+     */
+    public static void writeDocument(ChunksManifestBean manifest,
+                                     OutputStream out,
+                                     boolean compressed) {
+        ManifestStreamWriter.write(manifest, out, compressed);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.manifest.xml;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.ChunksManifestBean;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+
+/**
+ * This class reads ChunksManifest xml documents one element at a time,
+ * so that only the resulting ChunksManifest object is held in memory.
+ * Documents written using the compressed encoding (gzip) are detected and
+ * read as well as plain xml documents.
+ */
+public class ManifestStreamReader {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private ManifestStreamReader() {
+        // Ensures no instances are made of this class, as there are only static members.
+    }
+
+    /**
+     * This method binds a ChunksManifest xml document, plain or compressed,
+     * to a ChunksManifest object.
+     *
+     * @param manifest ChunksManifest xml document
+     * @return ChunksManifest object
+     */
+    public static ChunksManifest read(InputStream manifest) {
+        return read(manifest, false).manifest;
+    }
+
+    /**
+     * This method reads only the header of a ChunksManifest xml document,
+     * plain or compressed, and stops reading once the header is complete.
+     * This is sufficient to determine the ID, size and checksum of the
+     * source content, without reading the chunk entries.
+     *
+     * @param manifest ChunksManifest xml document
+     * @return header of the manifest
+     */
+    public static ChunksManifestBean.ManifestHeader readHeader(InputStream manifest) {
+        return read(manifest, true).header;
+    }
+
+    private static Result read(InputStream manifest, boolean headerOnly) {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(decode(manifest));
+            return readManifest(reader, headerOnly);
+        } catch (XMLStreamException | IOException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to read chunks manifest: " + e.getMessage(), e);
+        } finally {
+            if (null != reader) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Nothing further to read
+                }
+            }
+        }
+    }
+
+    /*
+     * Removes the compressed encoding, if present
+     */
+    private static InputStream decode(InputStream manifest) throws IOException {
+        InputStream stream = manifest.markSupported() ? manifest
+                                                      : new BufferedInputStream(manifest);
+        stream.mark(2);
+        int first = stream.read();
+        int second = stream.read();
+        stream.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xFF) &&
+            second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new GZIPInputStream(stream);
+        }
+        return stream;
+    }
+
+    private static Result readManifest(XMLStreamReader reader,
+                                       boolean headerOnly)
+        throws XMLStreamException {
+        ChunksManifestBean.ManifestHeader header = null;
+        List<ChunksManifestBean.ManifestEntry> entries = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            String name = reader.getLocalName();
+            if ("header".equals(name)) {
+                checkSchemaVersion(reader.getAttributeValue(null, "schemaVersion"));
+            } else if ("sourceContent".equals(name)) {
+                header = readHeader(reader);
+                if (headerOnly) {
+                    return new Result(header, null);
+                }
+            } else if ("chunk".equals(name)) {
+                entries.add(readEntry(reader));
+            }
+        }
+
+        if (null == header) {
+            throw new DuraCloudRuntimeException(
+                "Chunks manifest does not include a header");
+        }
+
+        ChunksManifestBean manifestBean = new ChunksManifestBean();
+        manifestBean.setHeader(header);
+        manifestBean.setEntries(entries);
+        return new Result(header, new ChunksManifest(manifestBean));
+    }
+
+    private static void checkSchemaVersion(String schemaVersion) {
+        if (!ChunksManifest.SCHEMA_VERSION.equals(schemaVersion)) {
+            throw new DuraCloudRuntimeException(
+                "Unsupported schema version: " + schemaVersion);
+        }
+    }
+
+    /*
+     * Reads the sourceContent element, leaving the reader at its end
+     */
+    private static ChunksManifestBean.ManifestHeader readHeader(XMLStreamReader reader)
+        throws XMLStreamException {
+        String contentId = reader.getAttributeValue(null, "contentId");
+        String mime = null;
+        String md5 = null;
+        long size = 0;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+            String value = reader.getElementText();
+            if ("mimetype".equals(name)) {
+                mime = value;
+            } else if ("byteSize".equals(name)) {
+                size = parseLong(value);
+            } else if ("md5".equals(name)) {
+                md5 = value;
+            }
+        }
+
+        ChunksManifestBean.ManifestHeader header =
+            new ChunksManifestBean.ManifestHeader(contentId, mime, size);
+        header.setSourceMD5(md5);
+        return header;
+    }
+
+    /*
+     * Reads a chunk element, leaving the reader at its end
+     */
+    private static ChunksManifestBean.ManifestEntry readEntry(XMLStreamReader reader)
+        throws XMLStreamException {
+        String chunkId = reader.getAttributeValue(null, "chunkId");
+        String indexValue = reader.getAttributeValue(null, "index");
+        int index = null == indexValue ? 0 : Integer.parseInt(indexValue.trim());
+        String md5 = null;
+        long size = 0;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+            String value = reader.getElementText();
+            if ("byteSize".equals(name)) {
+                size = parseLong(value);
+            } else if ("md5".equals(name)) {
+                md5 = value;
+            }
+        }
+
+        return new ChunksManifestBean.ManifestEntry(chunkId, md5, index, size);
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new DuraCloudRuntimeException(
+                "Invalid byte size in chunks manifest: " + value, e);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                            false);
+        return factory;
+    }
+
+    private static class Result {
+        private final ChunksManifestBean.ManifestHeader header;
+        private final ChunksManifest manifest;
+
+        private Result(ChunksManifestBean.ManifestHeader header,
+                       ChunksManifest manifest) {
+            this.header = header;
+            this.manifest = manifest;
+        }
+    }
+
+}
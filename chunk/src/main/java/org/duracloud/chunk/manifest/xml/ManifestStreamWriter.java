@@ -0,0 +1,172 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.manifest.xml;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang.StringUtils;
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.ChunksManifestBean;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+
+/**
+ * This class writes ChunksManifest objects as ChunksManifest xml documents
+ * directly to a stream, without first building the document in memory.
+ *
+ * Documents may optionally be written using a compressed encoding (gzip),
+ * which is much smaller for manifests with many chunks. Compressed
+ * manifests can be read by ManifestStreamReader, but not by releases
+ * which preceded it, so the compressed encoding is only suitable once all
+ * readers of a manifest have been updated.
+ */
+public class ManifestStreamWriter {
+
+    public static final String NAMESPACE = "duracloud.org";
+    public static final String PREFIX = "dur";
+
+    private static final XMLOutputFactory OUTPUT_FACTORY =
+        XMLOutputFactory.newInstance();
+
+    private ManifestStreamWriter() {
+        // Ensures no instances are made of this class, as there are only static members.
+    }
+
+    /**
+     * This method writes a ChunksManifest object as a ChunksManifest xml
+     * document. The stream is not closed.
+     *
+     * @param manifest   object to be written
+     * @param out        stream to which the document is written
+     * @param compressed true to write the compressed encoding
+     */
+    public static void write(ChunksManifestBean manifest,
+                             OutputStream out,
+                             boolean compressed) {
+        try {
+            if (compressed) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+                writeDocument(manifest, gzip);
+                gzip.finish();
+            } else {
+                writeDocument(manifest, out);
+            }
+            out.flush();
+        } catch (XMLStreamException | IOException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to write chunks manifest: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeDocument(ChunksManifestBean manifest,
+                                      OutputStream out)
+        throws XMLStreamException, IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 8192);
+        XMLStreamWriter writer =
+            OUTPUT_FACTORY.createXMLStreamWriter(buffered,
+                                                 StandardCharsets.UTF_8.name());
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+
+        writer.setPrefix(PREFIX, NAMESPACE);
+        writer.writeStartElement(PREFIX, "chunksManifest", NAMESPACE);
+        writer.writeNamespace(PREFIX, NAMESPACE);
+        if (null != manifest) {
+            if (null != manifest.getHeader()) {
+                writeHeader(writer, manifest.getHeader());
+            }
+            writeEntries(writer, manifest.getEntries());
+        }
+        writer.writeEndElement();
+
+        writer.writeEndDocument();
+        writer.close();
+        buffered.flush();
+    }
+
+    private static void writeHeader(XMLStreamWriter writer,
+                                    ChunksManifestBean.ManifestHeader header)
+        throws XMLStreamException {
+        writer.writeStartElement("header");
+        writer.writeAttribute("schemaVersion", ChunksManifest.SCHEMA_VERSION);
+
+        writer.writeStartElement("sourceContent");
+        String contentId = header.getSourceContentId();
+        if (!StringUtils.isBlank(contentId)) {
+            writer.writeAttribute("contentId", contentId);
+        }
+
+        String mime = header.getSourceMimetype();
+        if (!StringUtils.isBlank(mime)) {
+            writeElement(writer, "mimetype", mime);
+        }
+
+        long size = header.getSourceByteSize();
+        if (size > -1) {
+            writeElement(writer, "byteSize", String.valueOf(size));
+        }
+
+        String md5 = header.getSourceMD5();
+        if (!StringUtils.isBlank(md5)) {
+            writeElement(writer, "md5", md5);
+        }
+
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    private static void writeEntries(XMLStreamWriter writer,
+                                     List<ChunksManifestBean.ManifestEntry> entries)
+        throws XMLStreamException {
+        writer.writeStartElement("chunks");
+        if (null != entries) {
+            for (ChunksManifestBean.ManifestEntry entry : entries) {
+                writer.writeStartElement("chunk");
+
+                String chunkId = entry.getChunkId();
+                if (!StringUtils.isBlank(chunkId)) {
+                    writer.writeAttribute("chunkId", chunkId);
+                }
+
+                int index = entry.getIndex();
+                if (index > -1) {
+                    writer.writeAttribute("index", String.valueOf(index));
+                }
+
+                long size = entry.getByteSize();
+                if (size > -1) {
+                    writeElement(writer, "byteSize", String.valueOf(size));
+                }
+
+                String md5 = entry.getChunkMD5();
+                if (!StringUtils.isBlank(md5)) {
+                    writeElement(writer, "md5", md5);
+                }
+
+                writer.writeEndElement();
+            }
+        }
+        writer.writeEndElement();
+    }
+
+    private static void writeElement(XMLStreamWriter writer,
+                                     String name,
+                                     String value)
+        throws XMLStreamException {
+        writer.writeStartElement(name);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+}
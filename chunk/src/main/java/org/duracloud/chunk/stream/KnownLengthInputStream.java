@@ -7,30 +7,140 @@
  */
 package org.duracloud.chunk.stream;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 
 /**
- * This wraps ByteArrayInputStream and adds a length field.
+ * A stream of content of known length, held either in memory or in a
+ * temporary file. The stream supports mark() and reset(), so that the
+ * content can be read more than once, as when it is checksummed before it
+ * is written. A temporary file is deleted when the stream is closed.
  *
  * @author Andrew Woods
  * Date: Feb 10, 2010
  */
-public class KnownLengthInputStream extends ByteArrayInputStream {
+public class KnownLengthInputStream extends InputStream {
 
-    private int length;
+    private final byte[] bytes;
+    private final File file;
+    private final int length;
+    private InputStream in;
+    private long position = 0;
+    private long markPosition = 0;
 
     public KnownLengthInputStream(String content) throws UnsupportedEncodingException {
         this(content.getBytes(StandardCharsets.UTF_8.name()));
     }
 
     public KnownLengthInputStream(byte[] bytes) {
-        super(bytes);
+        this.bytes = bytes;
+        this.file = null;
         this.length = bytes.length;
+        this.in = new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * @param file temporary file holding the content, which is deleted when
+     *             this stream is closed
+     * @throws IOException if the file cannot be opened
+     */
+    public KnownLengthInputStream(File file) throws IOException {
+        if (file.length() > Integer.MAX_VALUE) {
+            throw new IOException("Content of " + file + " is too large: " +
+                                  file.length() + " bytes");
+        }
+        this.bytes = null;
+        this.file = file;
+        this.length = (int) file.length();
+        this.in = open();
     }
 
     public int getLength() {
         return length;
     }
+
+    private InputStream open() throws IOException {
+        if (null == file) {
+            return new ByteArrayInputStream(bytes);
+        }
+        return new BufferedInputStream(new FileInputStream(file));
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            position++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) (length - position);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        markPosition = position;
+    }
+
+    /**
+     * Returns to the position of the last mark, or to the start of the
+     * content if no mark was set.
+     */
+    @Override
+    public synchronized void reset() throws IOException {
+        in.close();
+        in = open();
+        long remaining = markPosition;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                throw new IOException("Unable to return to position " +
+                                      markPosition);
+            }
+            remaining -= skipped;
+        }
+        position = markPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            in.close();
+        } finally {
+            if (null != file && file.exists() && !file.delete()) {
+                throw new IOException("Unable to delete " + file);
+            }
+        }
+    }
+
 }
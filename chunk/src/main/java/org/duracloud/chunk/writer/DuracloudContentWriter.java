@@ -359,7 +359,8 @@ public class DuracloudContentWriter implements ContentWriter {
             createRetrier().execute(() -> {
                 try (KnownLengthInputStream manifestBody = manifest.getBody()) {
                     String manifestChecksum =
-                        checksumUtil.generateChecksum(manifest.getBody());
+                        checksumUtil.generateChecksum(manifestBody);
+                    manifestBody.reset();
                     int manifestLength = manifestBody.getLength();
                     addContentThenReport(spaceId,
                                          manifestId,
@@ -92,14 +92,17 @@ public class FilesystemContentWriter implements ContentWriter {
 
         ChunksManifest manifest = chunkable.finalizeManifest();
         KnownLengthInputStream manifestStream = manifest.getBody();
-
-        AddContentResult result =
-            writeContent(spaceId,
-                         manifest.getManifestId(),
-                         manifestStream,
-                         manifestStream.getLength(),
-                         contentProperties);
-        result.setMd5("md5-not-collected-for-manifest");
+        try {
+            AddContentResult result =
+                writeContent(spaceId,
+                             manifest.getManifestId(),
+                             manifestStream,
+                             manifestStream.getLength(),
+                             contentProperties);
+            result.setMd5("md5-not-collected-for-manifest");
+        } finally {
+            IOUtils.closeQuietly(manifestStream);
+        }
 
         return manifest;
     }
@@ -8,6 +8,7 @@
 package org.duracloud.chunk;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -20,6 +21,8 @@ import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.RegexFileFilter;
 import org.duracloud.chunk.error.NotFoundException;
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
 import org.duracloud.chunk.writer.ContentWriter;
 import org.duracloud.chunk.writer.FilesystemContentWriter;
 import org.duracloud.common.util.ChecksumUtil;
@@ -170,6 +173,40 @@ public class FileChunkerTest {
         Assert.assertTrue(manifest.exists());
     }
 
+    @Test
+    public void testCompressManifests() throws Exception {
+        long chunkSize = 1000;
+        long fileSize = chunkSize + chunkSize / 2;
+        String fileName = "compress-manifest-test.txt";
+
+        FileChunkerOptions options =
+            new FileChunkerOptions(FileFilterUtils.trueFileFilter(),
+                                   FileFilterUtils.trueFileFilter(),
+                                   chunkSize,
+                                   true,
+                                   false,
+                                   true);
+        FileChunker chunker = new FileChunker(writer, options);
+        File file = createAndVerifyContent(fileName, fileSize);
+        chunker.addContent(destDir.getPath(), fileName, null, file);
+
+        File manifestFile = new File(destDir, fileName + ".dura-manifest");
+        Assert.assertTrue(manifestFile.exists());
+
+        // Compressed manifests use the gzip encoding
+        byte[] manifestBytes = FileUtils.readFileToByteArray(manifestFile);
+        Assert.assertEquals((byte) 0x1f, manifestBytes[0]);
+        Assert.assertEquals((byte) 0x8b, manifestBytes[1]);
+
+        try (InputStream manifestStream = new FileInputStream(manifestFile)) {
+            ChunksManifest manifest =
+                ManifestDocumentBinding.createManifestFrom(manifestStream);
+            Assert.assertEquals(2, manifest.getEntries().size());
+            Assert.assertEquals(fileSize,
+                                manifest.getHeader().getSourceByteSize());
+        }
+    }
+
     @Test
     public void testIgnoreFlag() throws Exception {
         long chunkSize = 1000;
@@ -10,7 +10,9 @@ package org.duracloud.chunk.manifest;
 import java.io.InputStream;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
 import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
+import org.duracloud.chunk.stream.KnownLengthInputStream;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -89,6 +91,39 @@ public class ChunksManifestTest {
         verifyManifestXml(body);
     }
 
+    @Test
+    public void testGetBodyCompressed() {
+        String chunkId;
+        for (int i = 0; i < NUM_ENTRIES; ++i) {
+            chunkId = chunkIdPrefix + getChunkIndex(i);
+            manifest.addEntry(chunkId, chunkMD5Prefix + i, i);
+        }
+
+        manifest.setCompressed(true);
+        Assert.assertEquals("application/gzip", manifest.getMimetype());
+        verifyManifestXml(manifest.getBody());
+    }
+
+    @Test
+    public void testGetBodyLarge() throws Exception {
+        // Large enough for the body to be written to a temporary file
+        int entries = 9999;
+        for (int i = 0; i < entries; ++i) {
+            manifest.addEntry(chunkIdPrefix + getChunkIndex(i),
+                              String.format("%032d", i), i);
+        }
+
+        try (KnownLengthInputStream body = manifest.getBody()) {
+            Assert.assertTrue(body.getLength() > 1024 * 1024);
+            Assert.assertEquals(body.getLength(), IOUtils.toByteArray(body).length);
+
+            // Read again, as when checksummed before it is written
+            body.reset();
+            ChunksManifest cm = ManifestDocumentBinding.createManifestFrom(body);
+            Assert.assertEquals(entries, cm.getEntries().size());
+        }
+    }
+
     private void verifyManifestXml(InputStream body) {
         ChunksManifest cm = ManifestDocumentBinding.createManifestFrom(body);
         Assert.assertNotNull(cm);
@@ -0,0 +1,123 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.manifest.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.ChunksManifestDocument;
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.ChunksManifestBean;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares reading and writing a manifest of chunks using XMLBeans
+ * documents (as was done previously) with the stream reader and writer,
+ * and reports the size of the plain and compressed encodings.
+ *
+ * A manifest of 100,000 chunks is only used when the chunk.benchmark.large
+ * system property is set to true, as it takes some time to run; the
+ * manifest has 5,000 chunks otherwise.
+ */
+public class ManifestBindingBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(ManifestBindingBenchmarkTest.class);
+
+    private static final int entryCount =
+        Boolean.getBoolean("chunk.benchmark.large") ? 100000 : 5000;
+
+    @Test
+    public void testManifestBenchmark() throws Exception {
+        ChunksManifestBean bean = createManifest();
+
+        // XMLBeans documents
+        long start = System.nanoTime();
+        ChunksManifestDocument doc = ChunksManifestDocument.Factory.newInstance();
+        doc.setChunksManifest(
+            ManifestElementWriter.createChunksManifestElementFrom(bean));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.save(out);
+        byte[] documentXml = out.toByteArray();
+        long documentWriteMillis = elapsedMillis(start);
+
+        start = System.nanoTime();
+        ChunksManifest documentRead = ManifestElementReader.createManifestFrom(
+            ChunksManifestDocument.Factory.parse(new ByteArrayInputStream(documentXml)));
+        long documentReadMillis = elapsedMillis(start);
+        assertEquals(entryCount, documentRead.getEntries().size());
+
+        // Streams
+        start = System.nanoTime();
+        out = new ByteArrayOutputStream();
+        ManifestStreamWriter.write(bean, out, false);
+        byte[] streamXml = out.toByteArray();
+        long streamWriteMillis = elapsedMillis(start);
+
+        start = System.nanoTime();
+        ChunksManifest streamRead =
+            ManifestStreamReader.read(new ByteArrayInputStream(streamXml));
+        long streamReadMillis = elapsedMillis(start);
+        assertEquals(entryCount, streamRead.getEntries().size());
+
+        // Compressed streams
+        start = System.nanoTime();
+        out = new ByteArrayOutputStream();
+        ManifestStreamWriter.write(bean, out, true);
+        byte[] compressed = out.toByteArray();
+        long compressedWriteMillis = elapsedMillis(start);
+
+        start = System.nanoTime();
+        ChunksManifest compressedRead =
+            ManifestStreamReader.read(new ByteArrayInputStream(compressed));
+        long compressedReadMillis = elapsedMillis(start);
+        assertEquals(entryCount, compressedRead.getEntries().size());
+
+        log.info("Manifest of {} chunks, write/read in ms: documents {}/{}, " +
+                 "streams {}/{}, compressed streams {}/{}", entryCount,
+                 documentWriteMillis, documentReadMillis, streamWriteMillis,
+                 streamReadMillis, compressedWriteMillis, compressedReadMillis);
+        log.info("Manifest of {} chunks, size in bytes: plain {}, compressed {}",
+                 entryCount, streamXml.length, compressed.length);
+    }
+
+    private ChunksManifestBean createManifest() {
+        String contentId = "dir/large-file.dat";
+        ChunksManifestBean.ManifestHeader header =
+            new ChunksManifestBean.ManifestHeader(contentId,
+                                                  "application/octet-stream",
+                                                  entryCount * 1000000L);
+        header.setSourceMD5("0123456789abcdef0123456789abcdef");
+
+        List<ChunksManifestBean.ManifestEntry> entries = new ArrayList<>();
+        for (int i = 0; i < entryCount; i++) {
+            entries.add(new ChunksManifestBean.ManifestEntry(
+                contentId + ChunksManifest.chunkSuffix + String.format("%04d", i),
+                String.format("%032x", i * 2654435761L),
+                i,
+                1000000));
+        }
+
+        ChunksManifestBean bean = new ChunksManifestBean();
+        bean.setHeader(header);
+        bean.setEntries(entries);
+        return bean;
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+}
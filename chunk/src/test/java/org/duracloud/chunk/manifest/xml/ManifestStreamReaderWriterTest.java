@@ -0,0 +1,181 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.manifest.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.duracloud.ChunksManifestDocument;
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.ChunksManifestBean;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.junit.Test;
+
+public class ManifestStreamReaderWriterTest {
+
+    private static final String LEGACY_MANIFEST =
+        "<dur:chunksManifest xmlns:dur=\"duracloud.org\">" +
+        "<header schemaVersion=\"0.2\">" +
+        "<sourceContent contentId=\"dir/file.txt\">" +
+        "<mimetype>text/plain</mimetype>" +
+        "<byteSize>15</byteSize>" +
+        "<md5>md5-source</md5>" +
+        "</sourceContent>" +
+        "</header>" +
+        "<chunks>" +
+        "<chunk chunkId=\"dir/file.txt.dura-chunk-0000\" index=\"0\">" +
+        "<byteSize>10</byteSize>" +
+        "<md5>md5-0</md5>" +
+        "</chunk>" +
+        "<chunk chunkId=\"dir/file.txt.dura-chunk-0001\" index=\"1\">" +
+        "<byteSize>5</byteSize>" +
+        "<md5>md5-1</md5>" +
+        "</chunk>" +
+        "</chunks>" +
+        "</dur:chunksManifest>";
+
+    @Test
+    public void testReadLegacyManifest() {
+        ChunksManifest manifest = ManifestStreamReader.read(
+            new ByteArrayInputStream(LEGACY_MANIFEST.getBytes(StandardCharsets.UTF_8)));
+
+        ChunksManifestBean.ManifestHeader header = manifest.getHeader();
+        assertEquals("dir/file.txt", header.getSourceContentId());
+        assertEquals("text/plain", header.getSourceMimetype());
+        assertEquals("md5-source", header.getSourceMD5());
+        assertEquals(15, header.getSourceByteSize());
+
+        List<ChunksManifestBean.ManifestEntry> entries = manifest.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("dir/file.txt.dura-chunk-0001", entries.get(1).getChunkId());
+        assertEquals("md5-1", entries.get(1).getChunkMD5());
+        assertEquals(1, entries.get(1).getIndex());
+        assertEquals(5, entries.get(1).getByteSize());
+    }
+
+    @Test
+    public void testReadHeader() {
+        // Reading stops after the header, so the chunks are never parsed
+        String truncated =
+            LEGACY_MANIFEST.substring(0, LEGACY_MANIFEST.indexOf("<chunk "));
+        ChunksManifestBean.ManifestHeader header = ManifestStreamReader.readHeader(
+            new ByteArrayInputStream(truncated.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("dir/file.txt", header.getSourceContentId());
+        assertEquals("md5-source", header.getSourceMD5());
+        assertEquals(15, header.getSourceByteSize());
+    }
+
+    @Test
+    public void testReadWrite() {
+        verifyReadWrite(false);
+    }
+
+    @Test
+    public void testReadWriteCompressed() {
+        verifyReadWrite(true);
+    }
+
+    @Test
+    public void testCompatibleWithSchema() throws Exception {
+        ChunksManifestBean bean = createManifest(10);
+
+        // Documents written by the stream writer can be read by XMLBeans
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ManifestStreamWriter.write(bean, out, false);
+        ChunksManifestDocument doc = ChunksManifestDocument.Factory.parse(
+            new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(doc.validate());
+        verifyManifest(bean, ManifestElementReader.createManifestFrom(doc));
+
+        // Documents written by XMLBeans can be read by the stream reader
+        ChunksManifestDocument written = ChunksManifestDocument.Factory.newInstance();
+        written.setChunksManifest(
+            ManifestElementWriter.createChunksManifestElementFrom(bean));
+        out = new ByteArrayOutputStream();
+        written.save(out);
+        verifyManifest(bean, ManifestStreamReader.read(
+            new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void testUnsupportedSchemaVersion() {
+        String xml = LEGACY_MANIFEST.replace("0.2", "0.1");
+        try {
+            ManifestStreamReader.read(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+            fail("Exception expected");
+        } catch (DuraCloudRuntimeException e) {
+            assertTrue(e.getMessage().contains("0.1"));
+        }
+    }
+
+    private void verifyReadWrite(boolean compressed) {
+        ChunksManifestBean bean = createManifest(1000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ManifestStreamWriter.write(bean, out, compressed);
+        ChunksManifest manifest = ManifestStreamReader.read(
+            new ByteArrayInputStream(out.toByteArray()));
+
+        verifyManifest(bean, manifest);
+    }
+
+    private ChunksManifestBean createManifest(int numEntries) {
+        String contentId = "dir/file & <name>.txt";
+        ChunksManifestBean.ManifestHeader header =
+            new ChunksManifestBean.ManifestHeader(contentId,
+                                                  "application/octet-stream",
+                                                  numEntries * 100L);
+        header.setSourceMD5("md5-source");
+
+        List<ChunksManifestBean.ManifestEntry> entries = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            entries.add(new ChunksManifestBean.ManifestEntry(
+                contentId + ChunksManifest.chunkSuffix + String.format("%04d", i),
+                "md5-" + i,
+                i,
+                100));
+        }
+
+        ChunksManifestBean bean = new ChunksManifestBean();
+        bean.setHeader(header);
+        bean.setEntries(entries);
+        return bean;
+    }
+
+    private void verifyManifest(ChunksManifestBean expected,
+                                ChunksManifestBean actual) {
+        ChunksManifestBean.ManifestHeader header = expected.getHeader();
+        assertEquals(header.getSourceContentId(),
+                     actual.getHeader().getSourceContentId());
+        assertEquals(header.getSourceMimetype(),
+                     actual.getHeader().getSourceMimetype());
+        assertEquals(header.getSourceMD5(), actual.getHeader().getSourceMD5());
+        assertEquals(header.getSourceByteSize(),
+                     actual.getHeader().getSourceByteSize());
+
+        assertEquals(expected.getEntries().size(), actual.getEntries().size());
+        for (int i = 0; i < expected.getEntries().size(); i++) {
+            ChunksManifestBean.ManifestEntry entry = expected.getEntries().get(i);
+            ChunksManifestBean.ManifestEntry testEntry = actual.getEntries().get(i);
+            assertEquals(entry.getChunkId(), testEntry.getChunkId());
+            assertEquals(entry.getChunkMD5(), testEntry.getChunkMD5());
+            assertEquals(entry.getIndex(), testEntry.getIndex());
+            assertEquals(entry.getByteSize(), testEntry.getByteSize());
+        }
+    }
+
+}
@@ -8,11 +8,15 @@
 package org.duracloud.chunk.stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
 /**
@@ -30,6 +34,25 @@ public class KnownLengthInputStreamTest {
         testString("abc");
     }
 
+    @Test
+    public void testFileResetAndDelete() throws Exception {
+        File file = File.createTempFile("known-length-", ".tmp");
+        FileUtils.writeStringToFile(file, "abcdef", StandardCharsets.UTF_8);
+
+        try (KnownLengthInputStream is = new KnownLengthInputStream(file)) {
+            assertEquals(6, is.getLength());
+            assertEquals("abcdef", IOUtils.toString(is, StandardCharsets.UTF_8));
+
+            is.reset();
+            assertEquals('a', is.read());
+            is.mark(10);
+            assertEquals("bcdef", IOUtils.toString(is, StandardCharsets.UTF_8));
+            is.reset();
+            assertEquals("bcdef", IOUtils.toString(is, StandardCharsets.UTF_8));
+        }
+        assertFalse(file.exists());
+    }
+
     protected void testString(String string)
         throws IOException, UnsupportedEncodingException {
         int length = string.getBytes(StandardCharsets.UTF_8.name()).length;
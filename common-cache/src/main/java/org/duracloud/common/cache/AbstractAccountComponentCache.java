@@ -7,39 +7,285 @@
  */
 package org.duracloud.common.cache;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
+ * A thread-safe cache of account components. Only one instance is created
+ * per account at a time: concurrent requests for an account which is not
+ * yet cached wait for the single creation in progress. Entries are evicted
+ * when they have not been accessed for the configured idle time, and the
+ * least recently used entries are evicted when the cache grows beyond its
+ * maximum size.
+ *
  * @param <T>
  * @author Daniel Bernstein
  */
 public abstract class AbstractAccountComponentCache<T> implements AccountComponentCache<T> {
-    private Map<String, T> cache;
+
+    private final Logger log =
+        LoggerFactory.getLogger(AbstractAccountComponentCache.class);
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final long DEFAULT_MAX_IDLE_SECONDS = 6 * 60 * 60;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private Map<String, CacheEntry<T>> cache;
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long maxIdleNanos = TimeUnit.SECONDS.toNanos(DEFAULT_MAX_IDLE_SECONDS);
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
 
     public AbstractAccountComponentCache() {
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param maxSize the maximum number of accounts to hold in the cache
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param maxIdleSeconds time after which an entry which has not been
+     *                       accessed is evicted, 0 disables idle eviction
+     */
+    public void setMaxIdleSeconds(long maxIdleSeconds) {
+        this.maxIdleNanos = TimeUnit.SECONDS.toNanos(maxIdleSeconds);
     }
 
     protected void remove(String key) {
-        this.cache.remove(key);
+        CacheEntry<T> entry = this.cache.remove(key);
+        if (null != entry) {
+            removed(key, entry);
+        }
     }
 
     protected void removeAll() {
-        this.cache.clear();
+        for (String key : this.cache.keySet()) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Called once an instance has been removed from the cache, whether
+     * explicitly or by eviction, so that it can release any resources it
+     * holds. Requests which retrieved the instance before it was removed may
+     * still be using it.
+     *
+     * @param accountId ID of the account
+     * @param instance  the removed instance
+     */
+    protected void onRemoved(String accountId, T instance) {
+    }
+
+    private void removed(String accountId, CacheEntry<T> entry) {
+        if (entry.instance.isDone() && !entry.instance.isCompletedExceptionally()) {
+            try {
+                onRemoved(accountId, entry.instance.join());
+            } catch (RuntimeException e) {
+                log.warn("Error releasing cache entry for account {}: {}",
+                         accountId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the cached instance for the account, or null if none is cached
+     * or the instance is still being created
+     */
+    protected T getIfCached(String accountId) {
+        CacheEntry<T> entry = this.cache.get(accountId);
+        if (null != entry && entry.instance.isDone() &&
+            !entry.instance.isCompletedExceptionally()) {
+            return entry.instance.join();
+        }
+        return null;
     }
 
     @Override
     public T get(String accountId) {
-        T instance = this.cache.get(accountId);
-        if (instance == null) {
-            instance = createInstance(accountId);
-            this.cache.put(accountId, instance);
+        sweepIfDue();
+
+        CacheEntry<T> entry = this.cache.get(accountId);
+        if (null == entry) {
+            CacheEntry<T> created = new CacheEntry<>();
+            entry = this.cache.putIfAbsent(accountId, created);
+            if (null == entry) {
+                misses.incrementAndGet();
+                load(accountId, created, () -> createInstance(accountId));
+                evictIfOversize(created);
+                return created.instance.join();
+            }
+        }
+
+        hits.incrementAndGet();
+        entry.touch();
+        return await(entry);
+    }
+
+    /**
+     * Creates and caches the instance for an account ahead of the first
+     * request for it, such as after the cached instance was removed due to a
+     * change in the account. Requests made while the instance is being
+     * created wait for it rather than creating their own. Nothing is done if
+     * the account is already cached or being created.
+     *
+     * @param accountId ID of the account
+     * @param creator   creates the instance
+     */
+    protected void preload(String accountId, Supplier<T> creator) {
+        CacheEntry<T> created = new CacheEntry<>();
+        if (null != this.cache.putIfAbsent(accountId, created)) {
+            return;
+        }
+        try {
+            load(accountId, created, creator);
+            evictIfOversize(created);
+        } catch (RuntimeException e) {
+            log.warn("Unable to preload cache entry for account {}: {}",
+                     accountId, e.getMessage());
+        }
+    }
+
+    private void load(String accountId, CacheEntry<T> entry, Supplier<T> creator) {
+        long start = System.nanoTime();
+        try {
+            entry.instance.complete(creator.get());
+        } catch (RuntimeException | Error e) {
+            loadFailures.incrementAndGet();
+            this.cache.remove(accountId, entry);
+            entry.instance.completeExceptionally(e);
+            throw e;
+        } finally {
+            totalLoadNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private T await(CacheEntry<T> entry) {
+        try {
+            return entry.instance.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * Removes entries which have not been accessed within the idle time,
+     * checking no more than once per sweep interval.
+     */
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        if (maxIdleNanos <= 0 || now - last < SWEEP_INTERVAL_NANOS ||
+            !lastSweep.compareAndSet(last, now)) {
+            return;
         }
 
-        return instance;
+        for (Map.Entry<String, CacheEntry<T>> mapEntry : cache.entrySet()) {
+            CacheEntry<T> entry = mapEntry.getValue();
+            if (entry.instance.isDone() &&
+                now - entry.lastAccess > maxIdleNanos &&
+                cache.remove(mapEntry.getKey(), entry)) {
+                evictions.incrementAndGet();
+                log.debug("Evicted idle cache entry for account {}",
+                          mapEntry.getKey());
+                removed(mapEntry.getKey(), entry);
+            }
+        }
+    }
+
+    /*
+     * Removes the least recently accessed entries, other than the one just
+     * added, until the cache is within its maximum size.
+     */
+    private void evictIfOversize(CacheEntry<T> added) {
+        int excess = cache.size() - maxSize;
+        if (excess <= 0) {
+            return;
+        }
+
+        // Access times are captured up front as they may change during sort
+        List<EvictionCandidate<T>> candidates = new ArrayList<>();
+        for (Map.Entry<String, CacheEntry<T>> mapEntry : cache.entrySet()) {
+            CacheEntry<T> entry = mapEntry.getValue();
+            if (entry != added && entry.instance.isDone()) {
+                candidates.add(new EvictionCandidate<>(mapEntry.getKey(), entry));
+            }
+        }
+        candidates.sort((a, b) -> Long.compare(a.lastAccess, b.lastAccess));
+
+        for (int i = 0; i < excess && i < candidates.size(); i++) {
+            EvictionCandidate<T> candidate = candidates.get(i);
+            if (cache.remove(candidate.accountId, candidate.entry)) {
+                evictions.incrementAndGet();
+                log.debug("Evicted least recently used cache entry for " +
+                          "account {}", candidate.accountId);
+                removed(candidate.accountId, candidate.entry);
+            }
+        }
+    }
+
+    @Override
+    public AccountComponentCacheStats getStats() {
+        AccountComponentCacheStats stats = new AccountComponentCacheStats();
+        stats.setName(getClass().getSimpleName());
+        stats.setSize(cache.size());
+        stats.setMaxSize(maxSize);
+        stats.setHits(hits.get());
+        stats.setMisses(misses.get());
+        stats.setLoadFailures(loadFailures.get());
+        stats.setEvictions(evictions.get());
+        stats.setTotalLoadMillis(TimeUnit.NANOSECONDS.toMillis(totalLoadNanos.get()));
+        return stats;
     }
 
     protected abstract T createInstance(String accountId);
 
+    /**
+     * A cached instance, which may still be in the process of being created.
+     */
+    private static class CacheEntry<T> {
+        private final CompletableFuture<T> instance = new CompletableFuture<>();
+        private volatile long lastAccess = System.nanoTime();
+
+        private void touch() {
+            lastAccess = System.nanoTime();
+        }
+    }
+
+    private static class EvictionCandidate<T> {
+        private final String accountId;
+        private final CacheEntry<T> entry;
+        private final long lastAccess;
+
+        private EvictionCandidate(String accountId, CacheEntry<T> entry) {
+            this.accountId = accountId;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+
 }
@@ -20,4 +20,9 @@ public interface AccountComponentCache<T> {
     public T get(String accountId);
 
     void onEvent(AccountChangeEvent event);
+
+    /**
+     * @return usage statistics for this cache
+     */
+    AccountComponentCacheStats getStats();
 }
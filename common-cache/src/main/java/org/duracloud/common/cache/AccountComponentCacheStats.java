@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.cache;
+
+/**
+ * Point-in-time usage statistics for an account component cache.
+ */
+public class AccountComponentCacheStats {
+
+    private String name;
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long loadFailures;
+    private long evictions;
+    private long totalLoadMillis;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    public void setLoadFailures(long loadFailures) {
+        this.loadFailures = loadFailures;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getTotalLoadMillis() {
+        return totalLoadMillis;
+    }
+
+    public void setTotalLoadMillis(long totalLoadMillis) {
+        this.totalLoadMillis = totalLoadMillis;
+    }
+
+    /**
+     * @return average time taken to create a cached instance, in millis
+     */
+    public long getAverageLoadMillis() {
+        return misses == 0 ? 0 : totalLoadMillis / misses;
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A single value which is loaded on first use and then reused until it
+ * reaches its maximum age, for configuration which is read on every build
+ * of an account component but which rarely changes. Only one thread loads
+ * the value at a time; a failed load is not cached.
+ *
+ * @param <T> type of value
+ */
+public class ExpiringValue<T> {
+
+    private final Supplier<T> loader;
+    private final long maxAgeNanos;
+    private volatile Loaded<T> current;
+
+    /**
+     * @param loader       loads the value
+     * @param maxAgeMillis time for which a loaded value is reused
+     */
+    public ExpiringValue(Supplier<T> loader, long maxAgeMillis) {
+        this.loader = loader;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    }
+
+    /**
+     * @return the current value, loading it if it has not been loaded or has
+     * expired
+     */
+    public T get() {
+        Loaded<T> loaded = current;
+        if (isExpired(loaded)) {
+            synchronized (this) {
+                loaded = current;
+                if (isExpired(loaded)) {
+                    loaded = new Loaded<>(loader.get());
+                    current = loaded;
+                }
+            }
+        }
+        return loaded.value;
+    }
+
+    /**
+     * Discards the current value, so that it is loaded again on next use.
+     */
+    public void invalidate() {
+        current = null;
+    }
+
+    private boolean isExpired(Loaded<T> loaded) {
+        return null == loaded || System.nanoTime() - loaded.time >= maxAgeNanos;
+    }
+
+    private static class Loaded<T> {
+        private final T value;
+        private final long time = System.nanoTime();
+
+        private Loaded(T value) {
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.duracloud.common.event.AccountChangeEvent;
+import org.junit.Test;
+
+public class AbstractAccountComponentCacheTest {
+
+    @Test
+    public void testSingleFlightCreation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TestCache cache = new TestCache(release);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit((Callable<Object>) () -> cache.get("account")));
+            }
+            // Give all threads a chance to request the account
+            Thread.sleep(200);
+            release.countDown();
+
+            Object instance = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(instance, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, cache.created.get());
+        AccountComponentCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(threads - 1, stats.getHits());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testRemove() {
+        TestCache cache = new TestCache(null);
+        Object instance = cache.get("account");
+        assertSame(instance, cache.get("account"));
+        assertSame(instance, cache.getIfCached("account"));
+
+        cache.remove("account");
+        assertNull(cache.getIfCached("account"));
+        assertEquals(1, cache.removed.size());
+        assertSame(instance, cache.removed.get(0));
+        assertNotSame(instance, cache.get("account"));
+        assertEquals(2, cache.created.get());
+    }
+
+    @Test
+    public void testSizeEviction() {
+        TestCache cache = new TestCache(null);
+        cache.setMaxSize(2);
+
+        Object instanceA = cache.get("account-a");
+        cache.get("account-b");
+        cache.get("account-c");
+
+        AccountComponentCacheStats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+
+        // The first entry was least recently used, so must be recreated
+        assertEquals(1, cache.removed.size());
+        assertSame(instanceA, cache.removed.get(0));
+        assertNotSame(instanceA, cache.get("account-a"));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        TestCache cache = new TestCache(null);
+        cache.get("account-a");
+        cache.get("account-b");
+
+        cache.onEvent(null);
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals(2, cache.removed.size());
+    }
+
+    @Test
+    public void testCreateFailure() {
+        TestCache cache = new TestCache(null);
+        cache.fail = true;
+        try {
+            cache.get("account");
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            assertEquals("create failed", e.getMessage());
+        }
+        assertEquals(1, cache.getStats().getLoadFailures());
+        assertEquals(0, cache.getStats().getSize());
+
+        // Failures are not cached
+        cache.fail = false;
+        cache.get("account");
+        assertEquals(1, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testPreload() {
+        TestCache cache = new TestCache(null);
+        Object preloaded = new Object();
+        cache.preload("account", () -> preloaded);
+        assertSame(preloaded, cache.get("account"));
+        assertEquals(0, cache.created.get());
+
+        // An account which is already cached is not replaced
+        cache.preload("account", Object::new);
+        assertSame(preloaded, cache.get("account"));
+
+        // Failures are logged rather than thrown, and are not cached
+        cache.preload("failed", () -> {
+            throw new RuntimeException("create failed");
+        });
+        assertNull(cache.getIfCached("failed"));
+        assertEquals(1, cache.getStats().getLoadFailures());
+    }
+
+    private static class TestCache extends AbstractAccountComponentCache<Object> {
+        private CountDownLatch release;
+        private AtomicInteger created = new AtomicInteger();
+        private volatile boolean fail = false;
+        private List<Object> removed = new ArrayList<>();
+
+        public TestCache(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onEvent(AccountChangeEvent event) {
+            removeAll();
+        }
+
+        @Override
+        protected void onRemoved(String accountId, Object instance) {
+            removed.add(instance);
+        }
+
+        @Override
+        protected Object createInstance(String accountId) {
+            if (null != release) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            if (fail) {
+                throw new RuntimeException("create failed");
+            }
+            created.incrementAndGet();
+            return new Object();
+        }
+    }
+
+}
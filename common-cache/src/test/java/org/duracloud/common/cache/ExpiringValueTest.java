@@ -0,0 +1,65 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ExpiringValueTest {
+
+    @Test
+    public void testReuse() {
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringValue<Integer> value =
+            new ExpiringValue<>(loads::incrementAndGet, 60000);
+
+        assertEquals(1, value.get().intValue());
+        assertEquals(1, value.get().intValue());
+
+        value.invalidate();
+        assertEquals(2, value.get().intValue());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringValue<Integer> value =
+            new ExpiringValue<>(loads::incrementAndGet, 10);
+
+        assertEquals(1, value.get().intValue());
+        Thread.sleep(50);
+        assertEquals(2, value.get().intValue());
+    }
+
+    @Test
+    public void testLoadFailure() {
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringValue<Integer> value = new ExpiringValue<>(() -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new RuntimeException("load failed");
+            }
+            return loads.get();
+        }, 60000);
+
+        try {
+            value.get();
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            assertEquals("load failed", e.getMessage());
+        }
+
+        // Failures are not cached
+        assertEquals(2, value.get().intValue());
+    }
+
+}
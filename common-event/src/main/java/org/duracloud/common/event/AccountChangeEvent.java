@@ -7,6 +7,8 @@
  */
 package org.duracloud.common.event;
 
+import java.util.List;
+
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.json.JaxbJsonSerializer;
 
@@ -19,7 +21,8 @@ public class AccountChangeEvent {
         USERS_CHANGED,
         STORAGE_PROVIDERS_CHANGED,
         ALL_ACCOUNTS_CHANGED,
-        STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED;   //indicates that storage provider data cached on a node changed
+        STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED,   //indicates that storage provider data cached on a node changed
+        STORAGE_METADATA_CHANGED;   //indicates that space or content metadata in a storage provider changed
     }
 
     private EventType eventType;
@@ -31,6 +34,27 @@ public class AccountChangeEvent {
      */
     private String sourceHost;
 
+    /*
+     * The storage provider and space to which the event applies, if any.
+     */
+    private String storeId;
+
+    private String spaceId;
+
+    /*
+     * The content items to which a storage metadata change applies, or null
+     * if it applies to the space as a whole.
+     */
+    private List<String> contentIds;
+
+    /*
+     * The change in the number of items in the space and in their total
+     * size, or null if not known.
+     */
+    private Long itemDelta;
+
+    private Long byteDelta;
+
     public AccountChangeEvent() {
     }
 
@@ -44,6 +68,47 @@ public class AccountChangeEvent {
         this.sourceHost = sourceHost;
     }
 
+    /**
+     * @param eventType
+     * @param accountId
+     * @param sourceHost
+     * @param storeId
+     * @param spaceId
+     */
+    public AccountChangeEvent(EventType eventType,
+                              String accountId,
+                              String sourceHost,
+                              String storeId,
+                              String spaceId) {
+        this(eventType, accountId, sourceHost);
+        this.storeId = storeId;
+        this.spaceId = spaceId;
+    }
+
+    /**
+     * @param eventType
+     * @param accountId
+     * @param sourceHost
+     * @param storeId
+     * @param spaceId
+     * @param contentIds
+     * @param itemDelta
+     * @param byteDelta
+     */
+    public AccountChangeEvent(EventType eventType,
+                              String accountId,
+                              String sourceHost,
+                              String storeId,
+                              String spaceId,
+                              List<String> contentIds,
+                              Long itemDelta,
+                              Long byteDelta) {
+        this(eventType, accountId, sourceHost, storeId, spaceId);
+        this.contentIds = contentIds;
+        this.itemDelta = itemDelta;
+        this.byteDelta = byteDelta;
+    }
+
     public EventType getEventType() {
         return this.eventType;
     }
@@ -56,6 +121,26 @@ public class AccountChangeEvent {
         return sourceHost;
     }
 
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public List<String> getContentIds() {
+        return contentIds;
+    }
+
+    public Long getItemDelta() {
+        return itemDelta;
+    }
+
+    public Long getByteDelta() {
+        return byteDelta;
+    }
+
     public static String serialize(AccountChangeEvent accountChangeEvent) {
         JaxbJsonSerializer<AccountChangeEvent> serializer = new JaxbJsonSerializer<>(AccountChangeEvent.class);
         try {
@@ -25,6 +25,13 @@ import org.codehaus.jackson.xc.JaxbAnnotationIntrospector;
  */
 public class JaxbJsonSerializer<T> {
 
+    /*
+     * The mapper is thread-safe once configured, and caches the serializers
+     * and deserializers it builds for each type, so one is shared by all
+     * instances rather than created (and its caches rebuilt) each time.
+     */
+    private static final ObjectMapper MAPPER = createMapper();
+
     private Class type;
     private ObjectMapper mapper;
 
@@ -35,9 +42,11 @@ public class JaxbJsonSerializer<T> {
      */
     public JaxbJsonSerializer(Class<T> type) {
         this.type = type;
+        this.mapper = MAPPER;
+    }
 
-        // Create mapper
-        mapper = new ObjectMapper();
+    private static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
         mapper.configure(SerializationConfig.Feature.INDENT_OUTPUT, true);
 
         // Use JAX-B annotations
@@ -46,6 +55,7 @@ public class JaxbJsonSerializer<T> {
               .withAnnotationIntrospector(introspector);
         mapper.getSerializationConfig()
               .withAnnotationIntrospector(introspector);
+        return mapper;
     }
 
     public String serialize(T object) throws IOException {
@@ -7,6 +7,8 @@
  */
 package org.duracloud.common.sns;
 
+import java.util.List;
+
 /**
  * Defines interface for notifying listeners of account change events.
  *
@@ -47,4 +49,36 @@ public interface AccountChangeNotifier {
      */
     void storageProviderCacheOnNodeChanged(String account);
 
+    /**
+     * Notifies listeners that a node's cached storage provider information
+     * about a single space has changed.
+     *
+     * @param account
+     * @param storeId
+     * @param spaceId
+     */
+    void storageProviderCacheOnNodeChanged(String account,
+                                           String storeId,
+                                           String spaceId);
+
+    /**
+     * Notifies listeners that space or content metadata in a space has changed.
+     *
+     * @param account
+     * @param storeId
+     * @param spaceId
+     * @param contentIds the content items which changed, or null if the space
+     *                   as a whole changed
+     * @param itemDelta  the change in the number of items in the space, or
+     *                   null if not known
+     * @param byteDelta  the change in the total size of the items in the
+     *                   space, or null if not known
+     */
+    void storageMetadataChanged(String account,
+                                String storeId,
+                                String spaceId,
+                                List<String> contentIds,
+                                Long itemDelta,
+                                Long byteDelta);
+
 }
@@ -9,11 +9,13 @@ package org.duracloud.common.sns.impl;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.List;
 
 import com.amazonaws.services.sns.AmazonSNS;
 import com.amazonaws.services.sns.AmazonSNSClientBuilder;
 import org.duracloud.account.db.model.GlobalProperties;
 import org.duracloud.account.db.repo.GlobalPropertiesRepo;
+import org.duracloud.common.cache.ExpiringValue;
 import org.duracloud.common.event.AccountChangeEvent;
 import org.duracloud.common.event.AccountChangeEvent.EventType;
 import org.duracloud.common.sns.AccountChangeNotifier;
@@ -32,6 +34,12 @@ public class AccountChangeNotifierImpl implements AccountChangeNotifier {
 
     private GlobalPropertiesRepo globalPropertiesRepo;
 
+    // The topic rarely changes, so it is read at most once per minute rather
+    // than on every event published
+    private static final long TOPIC_MAX_AGE_MILLIS = 60000;
+
+    private ExpiringValue<String> topicArn;
+
     private static Logger log = LoggerFactory.getLogger(AccountChangeNotifierImpl.class);
 
     /**
@@ -41,6 +49,13 @@ public class AccountChangeNotifierImpl implements AccountChangeNotifier {
     public AccountChangeNotifierImpl(GlobalPropertiesRepo globalPropertiesRepo) {
         this.snsClient = AmazonSNSClientBuilder.defaultClient();
         this.globalPropertiesRepo = globalPropertiesRepo;
+        this.topicArn = new ExpiringValue<>(this::loadTopicArn,
+                                            TOPIC_MAX_AGE_MILLIS);
+    }
+
+    private String loadTopicArn() {
+        GlobalProperties props = globalPropertiesRepo.findAll().get(0);
+        return props.getInstanceNotificationTopicArn();
     }
 
     @Override
@@ -49,6 +64,10 @@ public class AccountChangeNotifierImpl implements AccountChangeNotifier {
     }
 
     private void publish(EventType eventType, String account) {
+        publish(new AccountChangeEvent(eventType, account, getHost()));
+    }
+
+    private String getHost() {
         String host;
         try {
             host = InetAddress.getLocalHost().getHostName();
@@ -56,13 +75,13 @@ public class AccountChangeNotifierImpl implements AccountChangeNotifier {
             log.warn("unable to resolve unknown host: " + e.getMessage(), e);
             host = "unknown";
         }
+        return host;
+    }
 
-        AccountChangeEvent event = new AccountChangeEvent(eventType, account, host);
-
+    private void publish(AccountChangeEvent event) {
         try {
             log.debug("publishing event={}", event);
-            GlobalProperties props = globalPropertiesRepo.findAll().get(0);
-            this.snsClient.publish(props.getInstanceNotificationTopicArn(),
+            this.snsClient.publish(topicArn.get(),
                                    AccountChangeEvent.serialize(event));
             log.info("published event={}", event);
         } catch (Exception e) {
@@ -91,4 +110,32 @@ public class AccountChangeNotifierImpl implements AccountChangeNotifier {
     public void storageProviderCacheOnNodeChanged(String account) {
         publish(EventType.STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED, account);
     }
+
+    @Override
+    public void storageProviderCacheOnNodeChanged(String account,
+                                                  String storeId,
+                                                  String spaceId) {
+        publish(new AccountChangeEvent(EventType.STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED,
+                                       account,
+                                       getHost(),
+                                       storeId,
+                                       spaceId));
+    }
+
+    @Override
+    public void storageMetadataChanged(String account,
+                                       String storeId,
+                                       String spaceId,
+                                       List<String> contentIds,
+                                       Long itemDelta,
+                                       Long byteDelta) {
+        publish(new AccountChangeEvent(EventType.STORAGE_METADATA_CHANGED,
+                                       account,
+                                       getHost(),
+                                       storeId,
+                                       spaceId,
+                                       contentIds,
+                                       itemDelta,
+                                       byteDelta));
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Holds the JAXB contexts and compiled schemas used throughout the process,
+ * so that each is built only once, along with pools of marshallers and
+ * unmarshallers for each bound class.
+ *
+ * Contexts and schemas are thread-safe and may be shared. Marshallers and
+ * unmarshallers are not, so each one acquired from the registry must be
+ * used by a single thread and then released back to the registry. Released
+ * instances are kept for reuse up to the pool size, and discarded beyond it.
+ */
+public class JaxbContextRegistry {
+
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    private static final JaxbContextRegistry INSTANCE =
+        new JaxbContextRegistry(DEFAULT_POOL_SIZE);
+
+    private final int poolSize;
+    private final Map<Class, JAXBContext> contexts = new ConcurrentHashMap<>();
+    private final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+    private final Map<Class, BlockingQueue<Marshaller>> marshallers =
+        new ConcurrentHashMap<>();
+    private final Map<Class, BlockingQueue<Unmarshaller>> unmarshallers =
+        new ConcurrentHashMap<>();
+
+    /**
+     * @param poolSize maximum number of idle marshallers and of idle
+     *                 unmarshallers kept for each class
+     */
+    protected JaxbContextRegistry(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public static JaxbContextRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Retrieves the context for a class, creating it on first use.
+     *
+     * @param clazz class bound by the context
+     * @return context
+     * @throws JAXBException if the context cannot be created
+     */
+    public JAXBContext getContext(Class clazz) throws JAXBException {
+        JAXBContext context = contexts.get(clazz);
+        if (null == context) {
+            // Contexts created concurrently are equivalent, keep the first
+            JAXBContext created = JAXBContext.newInstance(clazz);
+            context = contexts.putIfAbsent(clazz, created);
+            if (null == context) {
+                context = created;
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Retrieves a compiled schema, loading it from the classpath on first
+     * use.
+     *
+     * @param schemaName  name of the schema resource
+     * @param classLoader class loader used to find the schema resource
+     * @return compiled schema
+     * @throws SAXException if the schema cannot be found or compiled
+     */
+    public Schema getSchema(String schemaName, ClassLoader classLoader)
+        throws SAXException {
+        Schema schema = schemas.get(schemaName);
+        if (null == schema) {
+            Schema compiled = compileSchema(schemaName, classLoader);
+            schema = schemas.putIfAbsent(schemaName, compiled);
+            if (null == schema) {
+                schema = compiled;
+            }
+        }
+        return schema;
+    }
+
+    private Schema compileSchema(String schemaName, ClassLoader classLoader)
+        throws SAXException {
+        InputStream schemaStream = classLoader.getResourceAsStream(schemaName);
+        if (null == schemaStream) {
+            throw new SAXException("Schema " + schemaName + " not found");
+        }
+
+        try {
+            SchemaFactory factory =
+                SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            return factory.newSchema(new StreamSource(schemaStream));
+        } finally {
+            try {
+                schemaStream.close();
+            } catch (IOException e) {
+                // The schema has already been read
+            }
+        }
+    }
+
+    /**
+     * Acquires a marshaller for a class, which must be released once it is
+     * no longer in use.
+     *
+     * @param clazz class bound by the marshaller
+     * @return marshaller
+     * @throws JAXBException if a marshaller cannot be created
+     */
+    public Marshaller acquireMarshaller(Class clazz) throws JAXBException {
+        Marshaller marshaller = getPool(marshallers, clazz).poll();
+        if (null == marshaller) {
+            marshaller = getContext(clazz).createMarshaller();
+        }
+        return marshaller;
+    }
+
+    /**
+     * Returns a marshaller for reuse. A marshaller which has been released
+     * must not be used again by the caller.
+     *
+     * @param clazz      class bound by the marshaller
+     * @param marshaller to release
+     */
+    public void releaseMarshaller(Class clazz, Marshaller marshaller) {
+        getPool(marshallers, clazz).offer(marshaller);
+    }
+
+    /**
+     * Acquires an unmarshaller for a class, which must be released once it
+     * is no longer in use. Unmarshallers are reused, so the schema used for
+     * validation should be set by the caller each time one is acquired.
+     *
+     * @param clazz class bound by the unmarshaller
+     * @return unmarshaller
+     * @throws JAXBException if an unmarshaller cannot be created
+     */
+    public Unmarshaller acquireUnmarshaller(Class clazz) throws JAXBException {
+        Unmarshaller unmarshaller = getPool(unmarshallers, clazz).poll();
+        if (null == unmarshaller) {
+            unmarshaller = getContext(clazz).createUnmarshaller();
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Returns an unmarshaller for reuse. An unmarshaller which has been
+     * released must not be used again by the caller.
+     *
+     * @param clazz        class bound by the unmarshaller
+     * @param unmarshaller to release
+     */
+    public void releaseUnmarshaller(Class clazz, Unmarshaller unmarshaller) {
+        getPool(unmarshallers, clazz).offer(unmarshaller);
+    }
+
+    private <P> BlockingQueue<P> getPool(Map<Class, BlockingQueue<P>> pools,
+                                         Class clazz) {
+        return pools.computeIfAbsent(clazz,
+                                     key -> new ArrayBlockingQueue<>(poolSize));
+    }
+
+}
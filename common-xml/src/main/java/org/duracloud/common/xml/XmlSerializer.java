@@ -10,16 +10,12 @@ package org.duracloud.common.xml;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
-import javax.xml.XMLConstants;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
-import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 
 import org.duracloud.common.xml.error.XmlSerializationException;
 import org.xml.sax.SAXException;
@@ -27,6 +23,10 @@ import org.xml.sax.SAXException;
 /**
  * Handles the transfer of java beans to XML and back through JAXB
  *
+ * The JAXB context and schema are shared through the JaxbContextRegistry,
+ * so creating a serializer is inexpensive, and marshallers and
+ * unmarshallers are reused across calls.
+ *
  * @author: Bill Branan
  * Date: 7/8/11
  */
@@ -36,7 +36,7 @@ public class XmlSerializer<T> {
     private String schemaName;
     private String schemaVersion;
 
-    private JAXBContext context;
+    private JaxbContextRegistry registry;
     private Schema schema;
 
     /**
@@ -53,8 +53,9 @@ public class XmlSerializer<T> {
         this.clazz = clazz;
         this.schemaName = schemaName;
         this.schemaVersion = schemaVersion;
+        this.registry = JaxbContextRegistry.getInstance();
         try {
-            context = JAXBContext.newInstance(clazz);
+            registry.getContext(clazz);
         } catch (JAXBException e) {
             throw new XmlSerializationException("Exception encountered " +
                                                 "creating serializer: " +
@@ -62,12 +63,7 @@ public class XmlSerializer<T> {
         }
 
         try {
-            SchemaFactory factory =
-                SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Source schemaSource =
-                new StreamSource(getClass().getClassLoader()
-                                           .getResourceAsStream(schemaName));
-            schema = factory.newSchema(schemaSource);
+            schema = registry.getSchema(schemaName, getClass().getClassLoader());
         } catch (SAXException e) {
             throw new XmlSerializationException("Unable to load schema for " +
                                                 "validation due to: " +
@@ -84,11 +80,15 @@ public class XmlSerializer<T> {
      */
     public String serialize(T obj) {
         try {
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            StringWriter writer = new StringWriter();
-            marshaller.marshal(obj, writer);
-            return writer.toString();
+            Marshaller marshaller = registry.acquireMarshaller(clazz);
+            try {
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+                StringWriter writer = new StringWriter();
+                marshaller.marshal(obj, writer);
+                return writer.toString();
+            } finally {
+                registry.releaseMarshaller(clazz, marshaller);
+            }
         } catch (JAXBException e) {
             throw new XmlSerializationException("Exception encountered " +
                                                 "serializing report: " +
@@ -126,10 +126,14 @@ public class XmlSerializer<T> {
 
     private T deserialize(StreamSource stream) {
         try {
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            unmarshaller.setSchema(schema); // turn on schema validation
-            JAXBElement<T> report = unmarshaller.unmarshal(stream, clazz);
-            return report.getValue();
+            Unmarshaller unmarshaller = registry.acquireUnmarshaller(clazz);
+            try {
+                unmarshaller.setSchema(schema); // turn on schema validation
+                JAXBElement<T> report = unmarshaller.unmarshal(stream, clazz);
+                return report.getValue();
+            } finally {
+                registry.releaseUnmarshaller(clazz, unmarshaller);
+            }
         } catch (JAXBException e) {
             String error = "Exception encountered de-serializing xml " +
                            "using schema " + schemaName + " at version " +
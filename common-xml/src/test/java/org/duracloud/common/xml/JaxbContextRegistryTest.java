@@ -0,0 +1,73 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.xml;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+public class JaxbContextRegistryTest {
+
+    private JaxbContextRegistry registry;
+
+    @Before
+    public void setup() {
+        registry = new JaxbContextRegistry(1);
+    }
+
+    @Test
+    public void testGetContext() throws Exception {
+        assertSame(registry.getContext(TestElement.class),
+                   registry.getContext(TestElement.class));
+    }
+
+    @Test
+    public void testMarshallerPool() throws Exception {
+        Marshaller marshaller1 = registry.acquireMarshaller(TestElement.class);
+        Marshaller marshaller2 = registry.acquireMarshaller(TestElement.class);
+        assertNotSame(marshaller1, marshaller2);
+
+        // Only one idle marshaller is kept
+        registry.releaseMarshaller(TestElement.class, marshaller1);
+        registry.releaseMarshaller(TestElement.class, marshaller2);
+        assertSame(marshaller1, registry.acquireMarshaller(TestElement.class));
+        assertNotSame(marshaller2, registry.acquireMarshaller(TestElement.class));
+    }
+
+    @Test
+    public void testUnmarshallerPool() throws Exception {
+        Unmarshaller unmarshaller =
+            registry.acquireUnmarshaller(TestElement.class);
+        registry.releaseUnmarshaller(TestElement.class, unmarshaller);
+        assertSame(unmarshaller,
+                   registry.acquireUnmarshaller(TestElement.class));
+    }
+
+    @Test
+    public void testSchemaNotFound() {
+        try {
+            registry.getSchema("not-a-schema.xsd", getClass().getClassLoader());
+            fail("Exception expected");
+        } catch (SAXException expected) {
+            // Expected
+        }
+    }
+
+    @XmlRootElement
+    public static class TestElement {
+    }
+
+}
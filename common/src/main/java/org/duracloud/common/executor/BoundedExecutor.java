@@ -0,0 +1,136 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A named thread pool with a fixed maximum number of threads and a bounded
+ * work queue. Tasks submitted when both the threads and the queue are full
+ * are rejected with a RejectedExecutionException (and counted), rather than
+ * causing unbounded thread creation or queue growth.
+ */
+public class BoundedExecutor extends ThreadPoolExecutor {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(BoundedExecutor.class);
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final String name;
+    private final int queueCapacity;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param name          name of the pool, used to name its threads
+     * @param threads       maximum number of threads
+     * @param queueCapacity maximum number of tasks waiting for a thread,
+     *                      0 indicates that tasks are only accepted when a
+     *                      thread is available to run them
+     */
+    public BoundedExecutor(String name, int threads, int queueCapacity) {
+        super(threads,
+              threads,
+              KEEP_ALIVE_SECONDS,
+              TimeUnit.SECONDS,
+              createQueue(queueCapacity),
+              new NamedThreadFactory(name),
+              new CountingAbortPolicy());
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        allowCoreThreadTimeOut(true);
+    }
+
+    private static BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            return new SynchronousQueue<>();
+        }
+        return new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submitted.incrementAndGet();
+        super.execute(command);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a point-in-time snapshot of the state of this pool
+     */
+    public ExecutorStats getStats() {
+        ExecutorStats stats = new ExecutorStats();
+        stats.setName(name);
+        stats.setMaxThreads(getMaximumPoolSize());
+        stats.setPoolSize(getPoolSize());
+        stats.setActiveCount(getActiveCount());
+        stats.setLargestPoolSize(getLargestPoolSize());
+        stats.setQueueSize(getQueue().size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setSubmittedCount(submitted.get());
+        stats.setCompletedCount(getCompletedTaskCount());
+        stats.setRejectedCount(rejected.get());
+        return stats;
+    }
+
+    /**
+     * Rejects tasks by throwing RejectedExecutionException, keeping a count
+     * of the number of rejections.
+     */
+    private static class CountingAbortPolicy
+        implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task,
+                                      ThreadPoolExecutor executor) {
+            BoundedExecutor pool = (BoundedExecutor) executor;
+            pool.rejected.incrementAndGet();
+            String msg = "Task rejected by executor " + pool.name +
+                         ": " + (executor.isShutdown() ? "executor is shut down" :
+                                 "all threads are busy and the queue is full");
+            log.warn(msg);
+            throw new RejectedExecutionException(msg);
+        }
+    }
+
+    /**
+     * Creates daemon threads named after the pool.
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        public NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread =
+                new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.executor;
+
+/**
+ * Sizing of a named pool in the ExecutorRegistry.
+ */
+public class ExecutorPoolConfig {
+
+    private String name;
+    private int threads;
+    private int queueCapacity;
+
+    public ExecutorPoolConfig() {
+    }
+
+    public ExecutorPoolConfig(String name, int threads, int queueCapacity) {
+        this.name = name;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A process-wide registry of named, bounded thread pools used for background
+ * work. Each type of background task is given its own pool so that a burst
+ * of one type of work cannot starve the others, and so that the depth of
+ * each queue can be observed.
+ *
+ * Pools are created on first use. The name and default size of each pool
+ * are defined by the module which uses it, and may be overridden for a
+ * deployment by configuring the registry with a pool of the same name.
+ */
+public class ExecutorRegistry {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(ExecutorRegistry.class);
+
+    private static final int DEFAULT_THREADS = 5;
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+
+    private static final ExecutorRegistry INSTANCE = new ExecutorRegistry();
+
+    private final Map<String, ExecutorPoolConfig> configs =
+        new ConcurrentHashMap<>();
+    private final Map<String, BoundedExecutor> executors =
+        new ConcurrentHashMap<>();
+
+    protected ExecutorRegistry() {
+    }
+
+    /**
+     * @return the shared registry instance
+     */
+    public static ExecutorRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the size of a pool, overriding the default size given by the
+     * module which uses it. Only applies to pools which have not yet been
+     * created.
+     *
+     * @param config pool configuration
+     */
+    public void configure(ExecutorPoolConfig config) {
+        if (executors.containsKey(config.getName())) {
+            log.warn("Executor {} is already running, configuration change " +
+                     "will not take effect", config.getName());
+        }
+        configs.put(config.getName(), config);
+    }
+
+    public void setPoolConfigs(List<ExecutorPoolConfig> poolConfigs) {
+        for (ExecutorPoolConfig config : poolConfigs) {
+            configure(config);
+        }
+    }
+
+    /**
+     * Retrieves the pool with the given name, creating it if necessary.
+     *
+     * @param name pool name
+     * @return the named pool
+     */
+    public BoundedExecutor getExecutor(String name) {
+        return getExecutor(new ExecutorPoolConfig(name,
+                                                  DEFAULT_THREADS,
+                                                  DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Retrieves the named pool, creating it if necessary. A new pool is
+     * sized by the configuration provided to the registry for the pool
+     * name, if any, or otherwise by the given defaults.
+     *
+     * @param defaults name and default size of the pool
+     * @return the named pool
+     */
+    public BoundedExecutor getExecutor(ExecutorPoolConfig defaults) {
+        String name = defaults.getName();
+        BoundedExecutor executor = executors.get(name);
+        if (null == executor || executor.isShutdown()) {
+            synchronized (executors) {
+                executor = executors.get(name);
+                if (null == executor || executor.isShutdown()) {
+                    executor = createExecutor(defaults);
+                    executors.put(name, executor);
+                }
+            }
+        }
+        return executor;
+    }
+
+    private BoundedExecutor createExecutor(ExecutorPoolConfig defaults) {
+        String name = defaults.getName();
+        ExecutorPoolConfig config = configs.get(name);
+        if (null == config) {
+            config = defaults;
+        }
+        int threads = config.getThreads();
+        int queueCapacity = config.getQueueCapacity();
+        log.info("Creating executor {} with {} threads and queue capacity {}",
+                 name, threads, queueCapacity);
+        return new BoundedExecutor(name, threads, queueCapacity);
+    }
+
+    /**
+     * @return statistics for each pool which has been created
+     */
+    public List<ExecutorStats> getStats() {
+        List<ExecutorStats> stats = new ArrayList<>();
+        for (BoundedExecutor executor : executors.values()) {
+            stats.add(executor.getStats());
+        }
+        stats.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return stats;
+    }
+
+    /**
+     * Stops accepting new tasks in all pools, and waits for running tasks
+     * to complete before interrupting any that remain.
+     */
+    public void shutdown() {
+        List<BoundedExecutor> running;
+        synchronized (executors) {
+            running = new ArrayList<>(executors.values());
+            executors.clear();
+        }
+
+        for (BoundedExecutor executor : running) {
+            executor.shutdown();
+        }
+        for (BoundedExecutor executor : running) {
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS,
+                                               TimeUnit.SECONDS)) {
+                    log.warn("Executor {} did not complete in time, " +
+                             "interrupting remaining tasks", executor.getName());
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A pool of large, reusable buffers for copying content streams. Using
+ * large buffers reduces the number of read and write calls needed to move
+ * content, and pooling them avoids allocating a new buffer for each
+ * transfer.
+ *
+ * Buffers are not held while waiting for a buffer to be returned; if the
+ * pool is empty a new buffer is allocated, and buffers returned to a full
+ * pool are discarded.
+ */
+public class BufferPool {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    public static final int DEFAULT_MAX_POOLED = 64;
+
+    private static final BufferPool INSTANCE =
+        new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED);
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * @return the pool shared by content transfers
+     */
+    public static BufferPool getInstance() {
+        return INSTANCE;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return a buffer, which should be released once it is no longer used
+     */
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        if (null == buffer) {
+            buffer = new byte[bufferSize];
+        }
+        return buffer;
+    }
+
+    public void release(byte[] buffer) {
+        if (null != buffer && buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Copies all bytes from the input stream to the output stream using a
+     * pooled buffer. Only a single buffer of data is read ahead of what has
+     * been written, so a slow reader of the output holds back reading from
+     * the input. Neither stream is closed.
+     *
+     * @param input  stream to read from
+     * @param output stream to write to
+     * @return the number of bytes copied
+     * @throws IOException if either stream fails
+     */
+    public long copy(InputStream input, OutputStream output) throws IOException {
+        byte[] buffer = acquire();
+        try {
+            long total = 0;
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+                total += read;
+            }
+            return total;
+        } finally {
+            release(buffer);
+        }
+    }
+
+}
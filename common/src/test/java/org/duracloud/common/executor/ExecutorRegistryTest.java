@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutorRegistryTest {
+
+    private ExecutorRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new ExecutorRegistry();
+    }
+
+    @After
+    public void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    public void testGetExecutor() {
+        registry.configure(new ExecutorPoolConfig("test-pool", 3, 7));
+
+        BoundedExecutor executor = registry.getExecutor("test-pool");
+        assertSame(executor, registry.getExecutor("test-pool"));
+        assertEquals("test-pool", executor.getName());
+        assertEquals(3, executor.getMaximumPoolSize());
+
+        ExecutorStats stats = executor.getStats();
+        assertEquals(7, stats.getQueueCapacity());
+        assertEquals(0, stats.getSubmittedCount());
+
+        // Unconfigured pools are created with defaults
+        assertNotSame(executor, registry.getExecutor("other-pool"));
+    }
+
+    @Test
+    public void testDefaultPoolSize() {
+        // Pools are sized by the defaults given by their users
+        BoundedExecutor executor =
+            registry.getExecutor(new ExecutorPoolConfig("default-pool", 2, 9));
+        assertEquals(2, executor.getMaximumPoolSize());
+        assertEquals(9, executor.getStats().getQueueCapacity());
+        assertSame(executor, registry.getExecutor(
+            new ExecutorPoolConfig("default-pool", 4, 4)));
+
+        // unless configured for the deployment
+        registry.configure(new ExecutorPoolConfig("configured-pool", 6, 11));
+        executor = registry.getExecutor(
+            new ExecutorPoolConfig("configured-pool", 2, 9));
+        assertEquals(6, executor.getMaximumPoolSize());
+        assertEquals(11, executor.getStats().getQueueCapacity());
+    }
+
+    @Test
+    public void testRejection() throws Exception {
+        registry.configure(new ExecutorPoolConfig("bounded", 1, 1));
+        BoundedExecutor executor = registry.getExecutor("bounded");
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                // Exit on interruption
+            }
+        };
+
+        executor.execute(blocker); // occupies the thread
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(blocker); // fills the queue
+
+        try {
+            executor.execute(blocker);
+            fail("Exception expected when pool and queue are full");
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+
+        ExecutorStats stats = executor.getStats();
+        assertEquals(3, stats.getSubmittedCount());
+        assertEquals(1, stats.getRejectedCount());
+        assertEquals(1, stats.getQueueSize());
+        assertEquals(1, stats.getActiveCount());
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getStats().getCompletedCount());
+    }
+
+    @Test
+    public void testStatsAndShutdown() {
+        BoundedExecutor b = registry.getExecutor("b-pool");
+        BoundedExecutor a = registry.getExecutor("a-pool");
+
+        List<ExecutorStats> stats = registry.getStats();
+        assertEquals(2, stats.size());
+        assertEquals("a-pool", stats.get(0).getName());
+        assertEquals("b-pool", stats.get(1).getName());
+
+        registry.shutdown();
+        assertTrue(a.isShutdown());
+        assertTrue(b.isShutdown());
+        assertTrue(registry.getStats().isEmpty());
+
+        // A new pool is created on next use
+        BoundedExecutor next = registry.getExecutor("a-pool");
+        assertFalse(next.isShutdown());
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testBuffersReused() {
+        BufferPool pool = new BufferPool(16, 1);
+        byte[] first = pool.acquire();
+        byte[] second = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(16, first.length);
+
+        pool.release(first);
+        pool.release(second); // pool is full, discarded
+        assertSame(first, pool.acquire());
+        assertNotSame(second, pool.acquire());
+
+        // Buffers of another size are not pooled
+        pool.release(new byte[8]);
+        assertEquals(16, pool.acquire().length);
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        // Buffer smaller than the data, so several reads are needed
+        BufferPool pool = new BufferPool(16, 1);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(100, pool.copy(new ByteArrayInputStream(data), output));
+        assertArrayEquals(data, output.toByteArray());
+    }
+
+}
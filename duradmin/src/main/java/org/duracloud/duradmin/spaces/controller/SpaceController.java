@@ -122,71 +122,77 @@ public class SpaceController {
         space.setPrimaryStorageProvider(primary);
     }
 
-    private void populateSpaceCount(Space space, HttpServletRequest request) throws Exception {
-        //flush space count cache
+    /*
+     * Item counts are maintained by DuraStore. A count with a trailing '+'
+     * is a lower bound, reported until DuraStore has determined the exact
+     * count, in which case the item count is left unknown (-1) so that the
+     * caller polls for it again. A recount lists the space, and its result
+     * is reported once in place of the DuraStore count.
+     */
+    private void populateSpaceCount(Space space, HttpServletRequest request)
+        throws ContentStoreException {
         if (request.getParameterMap().containsKey("recount")) {
-            expireItemCount(request, space);
+            startItemCount(space, request);
         }
 
-        String countStr = space.getProperties().getCount();
-        if (countStr.endsWith("+")) {
-            setItemCount(space, request);
-        } else {
-            space.setItemCount(Long.valueOf(space.getProperties().getCount()));
-        }
-    }
-
-    private void setItemCount(final Space space, HttpServletRequest request) throws ContentStoreException {
         String key = formatItemCountCacheKey(space);
-        final ServletContext appContext = request.getSession().getServletContext();
+        ServletContext appContext = request.getSession().getServletContext();
         ItemCounter listener = (ItemCounter) appContext.getAttribute(key);
-        space.setItemCount(new Long(-1));
         if (listener != null) {
             if (listener.isCountComplete()) {
                 space.setItemCount(listener.getCount());
+                appContext.removeAttribute(key);
             } else {
+                space.setItemCount(new Long(-1));
                 SpaceProperties properties = space.getProperties();
                 Long interCount = listener.getIntermediaryCount();
                 if (interCount == null) {
-                    interCount = 0l;
+                    interCount = 0L;
                 }
                 properties.setCount(String.valueOf(interCount) + "+");
                 space.setProperties(properties);
             }
+            return;
+        }
+
+        String countStr = space.getProperties().getCount();
+        if (null == countStr || countStr.endsWith("+")) {
+            space.setItemCount(new Long(-1));
         } else {
-            final ItemCounter itemCounterListener = new ItemCounter();
-            appContext.setAttribute(key, itemCounterListener);
-            final ContentStore contentStore = contentStoreManager.getContentStore(space.getStoreId());
-            final StoreCaller<Iterator<String>> caller = new StoreCaller<Iterator<String>>() {
-                protected Iterator<String> doCall() throws ContentStoreException {
-                    return contentStore.getSpaceContents(space.getSpaceId());
-                }
+            space.setItemCount(Long.valueOf(countStr));
+        }
+    }
 
-                public String getLogMessage() {
-                    return "Error calling contentStore.getSpaceContents() for: " +
-                           space.getSpaceId();
-                }
-            };
+    private void startItemCount(final Space space, HttpServletRequest request)
+        throws ContentStoreException {
+        final ContentStore contentStore = contentStoreManager.getContentStore(space.getStoreId());
+        final ItemCounter itemCounterListener = new ItemCounter();
+        final ServletContext appContext = request.getSession().getServletContext();
+        appContext.setAttribute(formatItemCountCacheKey(space), itemCounterListener);
+        final StoreCaller<Iterator<String>> caller = new StoreCaller<Iterator<String>>() {
+            protected Iterator<String> doCall() throws ContentStoreException {
+                return contentStore.getSpaceContents(space.getSpaceId());
+            }
 
-            new Thread(new Runnable() {
-                public void run() {
-                    ExtendedIteratorCounterThread runnable =
-                        new ExtendedIteratorCounterThread(caller.call(), itemCounterListener);
-                    runnable.run();
-                }
-            }).start();
-        }
+            public String getLogMessage() {
+                return "Error calling contentStore.getSpaceContents() for: " +
+                       space.getSpaceId();
+            }
+        };
+
+        new Thread(new Runnable() {
+            public void run() {
+                ExtendedIteratorCounterThread runnable =
+                    new ExtendedIteratorCounterThread(caller.call(), itemCounterListener);
+                runnable.run();
+            }
+        }).start();
     }
 
     private String formatItemCountCacheKey(Space space) {
         return space.getStoreId() + "/" + space.getSpaceId() + "/itemCountListener";
     }
 
-    private void expireItemCount(HttpServletRequest request, Space space) {
-        String key = formatItemCountCacheKey(space);
-        request.getSession().getServletContext().removeAttribute(key);
-    }
-
     private Authentication getAuthentication() {
         return (Authentication) SecurityContextHolder.getContext().getAuthentication();
     }
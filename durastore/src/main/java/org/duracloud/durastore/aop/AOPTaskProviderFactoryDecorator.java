@@ -7,13 +7,19 @@
  */
 package org.duracloud.durastore.aop;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.duracloud.storage.error.TaskException;
 import org.duracloud.storage.provider.TaskProvider;
 import org.duracloud.storage.provider.TaskProviderFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.aop.Pointcut;
 import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.ProxyFactoryBean;
 
 /**
@@ -61,4 +67,55 @@ public class AOPTaskProviderFactoryDecorator implements TaskProviderFactory {
         return provider;
     }
 
+    /**
+     * Applies the before advice of a task provider created by this factory
+     * to a call to perform a task, without performing the task, and returns the
+     * provider without its advice. This allows a task to be authorized on a
+     * request thread, where the request scoped beans used by the advice are
+     * available, and then performed on another thread.
+     *
+     * @param provider       task provider, as returned by this factory
+     * @param taskName       name of the task to be performed
+     * @param taskParameters parameters of the task
+     * @return the provider to which the advised provider delegates, or the
+     * given provider if it is not advised
+     * @throws Exception if the advice rejects the call, as when the caller
+     *                   is not authorized to perform the task
+     */
+    public static TaskProvider applyAdvice(TaskProvider provider,
+                                           String taskName,
+                                           String taskParameters)
+        throws Exception {
+        if (!(provider instanceof Advised)) {
+            return provider;
+        }
+
+        Advised advised = (Advised) provider;
+        TaskProvider target =
+            (TaskProvider) advised.getTargetSource().getTarget();
+        Method method = TaskProvider.class.getMethod("performTask",
+                                                     String.class,
+                                                     String.class);
+        Object[] args = {taskName, taskParameters};
+        for (Advisor advisor : advised.getAdvisors()) {
+            if (!(advisor instanceof PointcutAdvisor) ||
+                !(advisor.getAdvice() instanceof MethodBeforeAdvice)) {
+                continue;
+            }
+            Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+            if (pointcut.getClassFilter().matches(target.getClass()) &&
+                pointcut.getMethodMatcher().matches(method, target.getClass())) {
+                try {
+                    ((MethodBeforeAdvice) advisor.getAdvice())
+                        .before(method, args, target);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new UndeclaredThrowableException(t);
+                }
+            }
+        }
+        return target;
+    }
+
 }
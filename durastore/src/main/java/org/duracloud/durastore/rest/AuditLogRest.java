@@ -9,6 +9,7 @@ package org.duracloud.durastore.rest;
 
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.concurrent.RejectedExecutionException;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -78,7 +79,7 @@ public class AuditLogRest extends BaseRest {
         try {
             //check that spaces exists
             StorageProvider store = storageProviderFactory.getStorageProvider(storeId);
-            store.getSpaceProperties(spaceId);
+            store.getSpaceACLs(spaceId);
 
             InputStream auditLog = auditLogReader.getAuditLog(account, storeId, spaceId);
             return responseOkStream(auditLog);
@@ -95,6 +96,11 @@ public class AuditLogRest extends BaseRest {
 
             return Response.status(501).entity("This endpoint is currently disabled").build();
 
+        } catch (RejectedExecutionException e) {
+            log.warn(MessageFormat.format("Unable to read audit log for account:{0}, storeId:{1}, " +
+                                          "spaceId:{2}: {3}", account, storeId, spaceId, e.getMessage()));
+            return responseBad(e, Response.Status.SERVICE_UNAVAILABLE);
+
         } catch (Exception e) {
 
             log.error(MessageFormat.format("Error for  account:{0}, storeId:{1}, spaceId:{2}",
@@ -8,18 +8,24 @@
 package org.duracloud.durastore.rest;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.NewCookie;
 import javax.ws.rs.core.Response;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.duracloud.common.cache.AccountComponentCache;
+import org.duracloud.common.cache.AccountComponentCacheStats;
 import org.duracloud.common.constant.Constants;
+import org.duracloud.common.executor.ExecutorRegistry;
+import org.duracloud.durastore.util.StorageMetadataCache;
 import org.duracloud.s3storage.StringDataStore;
 import org.duracloud.s3storage.StringDataStoreFactory;
 import org.duracloud.s3storageprovider.dto.SignedCookieData;
@@ -40,11 +46,35 @@ public class AuxRest extends BaseRest {
     @Inject
     private StringDataStoreFactory stringDataStoreFactory;
 
+    @Inject
+    private ExecutorRegistry executorRegistry;
+
+    @Inject
+    private List<AccountComponentCache<?>> accountComponentCaches;
+
+    @Inject
+    private StorageMetadataCache storageMetadataCache;
+
     @VisibleForTesting
     protected void setStringDataStoreFactory(StringDataStoreFactory stringDataStoreFactory) {
         this.stringDataStoreFactory = stringDataStoreFactory;
     }
 
+    @VisibleForTesting
+    protected void setExecutorRegistry(ExecutorRegistry executorRegistry) {
+        this.executorRegistry = executorRegistry;
+    }
+
+    @VisibleForTesting
+    protected void setAccountComponentCaches(List<AccountComponentCache<?>> caches) {
+        this.accountComponentCaches = caches;
+    }
+
+    @VisibleForTesting
+    protected void setStorageMetadataCache(StorageMetadataCache storageMetadataCache) {
+        this.storageMetadataCache = storageMetadataCache;
+    }
+
     /**
      * Adds new cookies to the response headers based on the provided token.  The response body
      * contains an HTML based redirect pointing to the redirect URL passed to the /durastore/task/get-signed-cookies
@@ -90,4 +120,59 @@ public class AuxRest extends BaseRest {
             return responseBad(e);
         }
     }
+
+    /**
+     * Provides the current state of the background task executors (thread
+     * and queue usage, completed and rejected task counts).
+     *
+     * @return 200 response with JSON listing executor statistics
+     */
+    @Path("/executors")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getExecutorStats() {
+        try {
+            return responseOk(executorRegistry.getStats());
+        } catch (Exception e) {
+            return responseBad(e);
+        }
+    }
+
+    /**
+     * Provides usage statistics (size, hits, misses, load time) for the
+     * caches of per-account components.
+     *
+     * @return 200 response with JSON listing cache statistics
+     */
+    @Path("/caches")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getCacheStats() {
+        try {
+            List<AccountComponentCacheStats> stats = new ArrayList<>();
+            for (AccountComponentCache<?> cache : accountComponentCaches) {
+                stats.add(cache.getStats());
+            }
+            return responseOk(stats);
+        } catch (Exception e) {
+            return responseBad(e);
+        }
+    }
+
+    /**
+     * Provides usage statistics (size, hit rate, evictions) for the cache
+     * of space and content metadata.
+     *
+     * @return 200 response with JSON cache statistics
+     */
+    @Path("/metadata-cache")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getMetadataCacheStats() {
+        try {
+            return responseOk(storageMetadataCache.getStats());
+        } catch (Exception e) {
+            return responseBad(e);
+        }
+    }
 }
@@ -155,7 +155,7 @@ public class ContentResourceImpl implements ContentResource {
         }
     }
 
-    private void validateProperties(Map<String, String> userProperties, String task, String spaceId, String contentId)
+    static void validateProperties(Map<String, String> userProperties, String task, String spaceId, String contentId)
         throws ResourcePropertiesInvalidException {
         StringBuilder message = new StringBuilder();
         for (Map.Entry<String, String> entry : userProperties.entrySet()) {
@@ -175,7 +175,7 @@ public class ContentResourceImpl implements ContentResource {
         }
     }
 
-    private boolean isAllUSASCII(String value) {
+    private static boolean isAllUSASCII(String value) {
         if (value != null) {
             CharsetEncoder encoder =
                 Charset.forName("US-ASCII").newEncoder();
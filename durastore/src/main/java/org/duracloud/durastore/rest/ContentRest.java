@@ -13,11 +13,22 @@ import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static org.apache.http.HttpHeaders.CONTENT_ENCODING;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
@@ -31,20 +42,23 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 
-import org.apache.commons.io.input.AutoCloseInputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpStatus;
 import org.duracloud.audit.logger.ClientInfoLogger;
 import org.duracloud.common.constant.Constants;
 import org.duracloud.common.rest.HttpHeaders;
 import org.duracloud.common.rest.RestUtil;
+import org.duracloud.common.stream.BufferPool;
+import org.duracloud.common.util.DateUtil;
 import org.duracloud.common.web.EncodeUtil;
 import org.duracloud.durastore.error.ResourceChecksumException;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
 import org.duracloud.durastore.error.ResourcePropertiesInvalidException;
 import org.duracloud.durastore.error.ResourceStateException;
+import org.duracloud.storage.domain.ContentByteRange;
 import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.error.InvalidIdException;
 import org.duracloud.storage.error.InvalidRequestException;
@@ -64,6 +78,16 @@ import org.springframework.stereotype.Component;
 public class ContentRest extends BaseRest {
     private final Logger log = LoggerFactory.getLogger(ContentRest.class);
 
+    // The maximum number of ranges allowed in a single request
+    protected static final int MAX_RANGES = 100;
+
+    // Ranges separated by no more than this many bytes are retrieved together
+    protected static final long RANGE_MERGE_GAP = 8 * 1024;
+
+    // The maximum number of parts (each a separate retrieval from the storage
+    // provider) included in a multipart/byteranges response
+    protected static final int MAX_RANGE_PARTS = 10;
+
     private ContentResource contentResource;
     private RestUtil restUtil;
     private final ClientInfoLogger clientInfoLog = new ClientInfoLogger();
@@ -78,14 +102,18 @@ public class ContentRest extends BaseRest {
      * see ContentResource.getContent()
      * see ContentResource.getContentProperties()
      *
-     * @return 200 response with content stream as body and content properties as headers
+     * @return 200 response with content stream as body and content properties as headers,
+     * or 304 response with only content properties as headers if the content matches the
+     * If-None-Match or If-Modified-Since request header
      */
     @GET
     public Response getContent(@PathParam("spaceID") String spaceID,
                                @PathParam("contentID") String contentID,
                                @QueryParam("storeID") String storeID,
                                @QueryParam("attachment") boolean attachment,
-                               @HeaderParam(RANGE_HEADER) String range) {
+                               @HeaderParam(RANGE_HEADER) String range,
+                               @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                               @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) String ifModifiedSince) {
         StringBuilder msg = new StringBuilder("getting content(");
         msg.append(spaceID);
         msg.append(", ");
@@ -100,6 +128,16 @@ public class ContentRest extends BaseRest {
 
         try {
             log.debug(msg.toString());
+            if (isConditional(ifNoneMatch, ifModifiedSince)) {
+                // Checked against the content properties, so that the content
+                // stream is only opened when it is to be returned
+                Map<String, String> properties =
+                    contentResource.getContentProperties(spaceID, contentID, storeID);
+                if (isNotModified(properties, ifNoneMatch, ifModifiedSince)) {
+                    return addContentPropertiesToResponse(Response.notModified(),
+                                                          properties);
+                }
+            }
             return doGetContent(spaceID, contentID, storeID, attachment, range);
 
         } catch (InvalidRequestException e) {
@@ -124,8 +162,13 @@ public class ContentRest extends BaseRest {
                                   String storeID,
                                   boolean attachment,
                                   String range) throws InvalidRequestException, ResourceException {
+        if (StringUtils.contains(range, ",")) {
+            return doGetContentRanges(spaceID, contentID, storeID, attachment, range);
+        }
+
         RetrievedContent retrievedContent = contentResource.getContent(spaceID, contentID, storeID, range);
-        InputStream content = new AutoCloseInputStream(retrievedContent.getContentStream());
+        StreamingOutput content =
+            new ContentStreamingOutput(retrievedContent.getContentStream());
 
         ResponseBuilder responseBuilder;
         if (StringUtils.isNotEmpty(range)) {
@@ -141,6 +184,163 @@ public class ContentRest extends BaseRest {
                                               retrievedContent.getContentProperties());
     }
 
+    /*
+     * Handles requests which include multiple ranges. Satisfiable ranges
+     * which overlap or sit close together are combined, each remaining range
+     * is retrieved from the storage provider as the response is written, and
+     * the ranges are returned as the parts of a multipart/byteranges response
+     * as described in https://tools.ietf.org/html/rfc7233#appendix-A
+     */
+    private Response doGetContentRanges(String spaceID,
+                                        String contentID,
+                                        String storeID,
+                                        boolean attachment,
+                                        String range)
+        throws InvalidRequestException, ResourceException {
+        List<ContentByteRange> ranges;
+        try {
+            ranges = ContentByteRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage());
+        }
+        if (ranges.size() > MAX_RANGES) {
+            throw new InvalidRequestException(
+                "The Range header value may include at most " + MAX_RANGES +
+                " ranges. The value provided includes " + ranges.size() + ".");
+        }
+
+        Map<String, String> properties =
+            contentResource.getContentProperties(spaceID, contentID, storeID);
+        String size = properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE);
+        if (null == size) {
+            size = properties.get(HttpHeaders.CONTENT_LENGTH);
+        }
+        if (null == size) {
+            // Without a known size only the first range can be served
+            return doGetContent(spaceID, contentID, storeID, attachment,
+                                ranges.get(0).toString());
+        }
+
+        long contentSize = Long.parseLong(size);
+        List<ContentByteRange> resolved = new ArrayList<>();
+        for (ContentByteRange byteRange : ranges) {
+            try {
+                resolved.add(byteRange.resolve(contentSize));
+            } catch (IllegalArgumentException e) {
+                // Unsatisfiable ranges are left out
+            }
+        }
+
+        // Combine nearby ranges, and serve a single spanning range rather
+        // than making more than MAX_RANGE_PARTS requests of the provider
+        resolved = ContentByteRange.coalesce(resolved, RANGE_MERGE_GAP);
+        if (resolved.size() > MAX_RANGE_PARTS) {
+            resolved = ContentByteRange.coalesce(resolved, contentSize);
+        }
+
+        if (resolved.isEmpty()) {
+            return Response.status(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header(HttpHeaders.CONTENT_RANGE, "bytes */" + contentSize)
+                           .build();
+        } else if (resolved.size() == 1) {
+            return doGetContent(spaceID, contentID, storeID, attachment,
+                                resolved.get(0).toString());
+        }
+
+        String mimetype = properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE);
+        if (null == mimetype) {
+            mimetype = properties.get(HttpHeaders.CONTENT_TYPE);
+        }
+        if (null == mimetype || !validMimetype(mimetype)) {
+            mimetype = DEFAULT_MIME;
+        }
+        String boundary = UUID.randomUUID().toString();
+
+        StreamingOutput output = new ByteRangesOutput(spaceID,
+                                                      contentID,
+                                                      storeID,
+                                                      resolved,
+                                                      contentSize,
+                                                      mimetype,
+                                                      boundary);
+        ResponseBuilder responseBuilder =
+            Response.status(HttpStatus.SC_PARTIAL_CONTENT).entity(output);
+        if (attachment) {
+            addContentDispositionHeader(responseBuilder, contentID);
+        }
+
+        // The length of the response is not known up front
+        properties.remove(StorageProvider.PROPERTIES_CONTENT_SIZE);
+        properties.remove(HttpHeaders.CONTENT_LENGTH);
+        properties.remove(HttpHeaders.CONTENT_TYPE);
+        properties.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE,
+                       "multipart/byteranges; boundary=" + boundary);
+        return addContentPropertiesToResponse(responseBuilder, properties);
+    }
+
+    /**
+     * Writes the body of a multipart/byteranges response, retrieving each
+     * range from the storage provider only as it is written.
+     */
+    private class ByteRangesOutput implements StreamingOutput {
+        private final String spaceID;
+        private final String contentID;
+        private final String storeID;
+        private final List<ContentByteRange> ranges;
+        private final long contentSize;
+        private final String mimetype;
+        private final String boundary;
+
+        ByteRangesOutput(String spaceID,
+                         String contentID,
+                         String storeID,
+                         List<ContentByteRange> ranges,
+                         long contentSize,
+                         String mimetype,
+                         String boundary) {
+            this.spaceID = spaceID;
+            this.contentID = contentID;
+            this.storeID = storeID;
+            this.ranges = ranges;
+            this.contentSize = contentSize;
+            this.mimetype = mimetype;
+            this.boundary = boundary;
+        }
+
+        @Override
+        public void write(OutputStream output) throws IOException {
+            for (ContentByteRange byteRange : ranges) {
+                writeLine(output, "--" + boundary);
+                writeLine(output, HttpHeaders.CONTENT_TYPE + ": " + mimetype);
+                writeLine(output, HttpHeaders.CONTENT_RANGE + ": " +
+                                  byteRange.getContentRange(contentSize));
+                writeLine(output, "");
+
+                RetrievedContent part;
+                try {
+                    part = contentResource.getContent(spaceID,
+                                                      contentID,
+                                                      storeID,
+                                                      byteRange.toString());
+                } catch (InvalidRequestException | ResourceException e) {
+                    throw new IOException("Unable to retrieve " + byteRange +
+                                          " of " + spaceID + "/" + contentID +
+                                          ": " + e.getMessage(), e);
+                }
+                try (InputStream partStream = part.getContentStream()) {
+                    BufferPool.getInstance().copy(partStream, output);
+                }
+                writeLine(output, "");
+            }
+            writeLine(output, "--" + boundary + "--");
+            output.flush();
+        }
+
+        private void writeLine(OutputStream output, String line) throws IOException {
+            output.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
     private void addContentDispositionHeader(ResponseBuilder responseBuilder,
                                              String filename) {
         StringBuffer contentDisposition = new StringBuffer();
@@ -155,12 +355,16 @@ public class ContentRest extends BaseRest {
     /**
      * see ContentResource.getContentProperties()
      *
-     * @return 200 response with content properties as headers
+     * @return 200 response with content properties as headers, or 304 response with
+     * content properties as headers if the content matches the If-None-Match or
+     * If-Modified-Since request header
      */
     @HEAD
     public Response getContentProperties(@PathParam("spaceID") String spaceID,
                                          @PathParam("contentID") String contentID,
-                                         @QueryParam("storeID") String storeID) {
+                                         @QueryParam("storeID") String storeID,
+                                         @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                         @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) String ifModifiedSince) {
         StringBuilder msg = new StringBuilder("getting content properties(");
         msg.append(spaceID);
         msg.append(", ");
@@ -174,6 +378,10 @@ public class ContentRest extends BaseRest {
                 contentResource.getContentProperties(spaceID, contentID, storeID);
 
             log.debug(msg.toString());
+            if (isConditional(ifNoneMatch, ifModifiedSince) &&
+                isNotModified(properties, ifNoneMatch, ifModifiedSince)) {
+                return addContentPropertiesToResponse(Response.notModified(), properties);
+            }
             return addContentPropertiesToResponse(Response.ok(), properties);
 
         } catch (ResourceNotFoundException e) {
@@ -187,6 +395,113 @@ public class ContentRest extends BaseRest {
         }
     }
 
+    private boolean isConditional(String ifNoneMatch, String ifModifiedSince) {
+        return StringUtils.isNotBlank(ifNoneMatch) ||
+               StringUtils.isNotBlank(ifModifiedSince);
+    }
+
+    /**
+     * Determines if a content item is unchanged according to the conditional
+     * request headers provided by the client. As described in
+     * https://tools.ietf.org/html/rfc7232#section-6, If-Modified-Since is
+     * only considered when If-None-Match is not provided.
+     *
+     * @param properties      current properties of the content item
+     * @param ifNoneMatch     If-None-Match header value, may be null
+     * @param ifModifiedSince If-Modified-Since header value, may be null
+     * @return true if the content item is unchanged
+     */
+    protected boolean isNotModified(Map<String, String> properties,
+                                    String ifNoneMatch,
+                                    String ifModifiedSince) {
+        if (null == properties) {
+            return false;
+        }
+
+        if (StringUtils.isNotBlank(ifNoneMatch)) {
+            String etag = getFirst(properties,
+                                   StorageProvider.PROPERTIES_CONTENT_CHECKSUM,
+                                   StorageProvider.PROPERTIES_CONTENT_MD5,
+                                   HttpHeaders.CONTENT_MD5,
+                                   HttpHeaders.ETAG);
+            return matchesETag(ifNoneMatch, etag);
+        }
+
+        String lastModified = getFirst(properties,
+                                       StorageProvider.PROPERTIES_CONTENT_MODIFIED,
+                                       HttpHeaders.LAST_MODIFIED);
+        return notModifiedSince(ifModifiedSince, lastModified);
+    }
+
+    private String getFirst(Map<String, String> properties, String... names) {
+        for (String name : names) {
+            String value = properties.get(name);
+            if (null != value) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return null != etag;
+            }
+            if (null != etag && unquoteETag(tag).equals(unquoteETag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * ETags are compared using the weak comparison function, as is required
+     * for If-None-Match
+     */
+    private String unquoteETag(String tag) {
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+
+    private boolean notModifiedSince(String ifModifiedSince, String lastModified) {
+        if (StringUtils.isBlank(ifModifiedSince) || null == lastModified) {
+            return false;
+        }
+        if (ifModifiedSince.equals(lastModified)) {
+            return true;
+        }
+
+        Date since = parseHttpDate(ifModifiedSince);
+        Date modified = parseHttpDate(lastModified);
+        return null != since && null != modified && !modified.after(since);
+    }
+
+    /*
+     * Last-Modified values are provided in the DuraCloud date format, but
+     * clients may also provide dates in the HTTP date format
+     */
+    private Date parseHttpDate(String date) {
+        try {
+            return DateUtil.convertToDate(date);
+        } catch (ParseException e) {
+            SimpleDateFormat httpFormat =
+                new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            httpFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+            try {
+                return httpFormat.parse(date);
+            } catch (ParseException pe) {
+                return null;
+            }
+        }
+    }
+
     /**
      * Adds the properties of a content item as header values to the response.
      * See http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.1
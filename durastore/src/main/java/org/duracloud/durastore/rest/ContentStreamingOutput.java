@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.duracloud.common.stream.BufferPool;
+
+/**
+ * Writes a content stream retrieved from a storage provider to the response
+ * using pooled buffers, which are considerably larger than those used by
+ * the container when an InputStream is provided as the response entity.
+ * The content stream is closed once it has been written, or when writing
+ * fails (such as when the client disconnects).
+ */
+public class ContentStreamingOutput implements StreamingOutput {
+
+    private final InputStream content;
+
+    public ContentStreamingOutput(InputStream content) {
+        this.content = content;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try {
+            BufferPool.getInstance().copy(content, output);
+        } finally {
+            content.close();
+        }
+    }
+
+}
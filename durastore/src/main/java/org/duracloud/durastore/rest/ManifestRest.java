@@ -15,8 +15,7 @@ import java.net.URISyntaxException;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -24,10 +23,13 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.http.client.utils.URIBuilder;
 import org.duracloud.common.constant.Constants;
 import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
 import org.duracloud.common.rest.HttpHeaders;
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
@@ -64,10 +66,11 @@ public class ManifestRest extends BaseRest {
 
     private StorageProviderFactory storageProviderFactory;
 
-    private static Executor executor = Executors.newFixedThreadPool(10);
-
     private static final String DEFAULT_FORMAT = ManifestFormat.TSV.name();
 
+    private static final ExecutorPoolConfig MANIFEST_UPLOAD_POOL =
+        new ExecutorPoolConfig("manifest-upload", 10, 100);
+
     @Autowired
     public ManifestRest(ManifestResource manifestResource,
                         StorageProviderFactory storageProviderFactory) {
@@ -117,6 +120,11 @@ public class ManifestRest extends BaseRest {
                       new Object[] {storeId, spaceId, format, e});
             return responseNotFound(e.getMessage());
 
+        } catch (RejectedExecutionException e) {
+            log.warn("Unable to retrieve manifest for, {}:{} [{}]: {}",
+                     storeId, spaceId, format, e.getMessage());
+            return responseBad(e, Response.Status.SERVICE_UNAVAILABLE);
+
         } catch (Exception e) {
             log.error("Error for, {}:{} [{}]",
                       new Object[] {storeId, spaceId, format, e});
@@ -158,6 +166,11 @@ public class ManifestRest extends BaseRest {
                       new Object[] {storeId, spaceId, format, e});
             return responseNotFound(e.getMessage());
 
+        } catch (RejectedExecutionException e) {
+            log.warn("Unable to generate manifest for, {}:{} [{}]: {}",
+                     storeId, spaceId, format, e.getMessage());
+            return responseBad(e, Response.Status.SERVICE_UNAVAILABLE);
+
         } catch (Exception e) {
             log.error("Error for, {}:{} [{}]",
                       new Object[] {storeId, spaceId, format, e});
@@ -197,8 +210,7 @@ public class ManifestRest extends BaseRest {
 
         StorageProvider provider = storageProviderFactory.getStorageProvider();
 
-        executor.execute(() -> {
-
+        Runnable upload = () -> {
             try {
                 boolean gzip = true;
                 // write file to disk
@@ -220,7 +232,17 @@ public class ManifestRest extends BaseRest {
                           + ex.getMessage(),
                           ex);
             }
-        });
+        };
+
+        try {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(MANIFEST_UPLOAD_POOL)
+                            .execute(upload);
+        } catch (RejectedExecutionException e) {
+            // Closing the stream releases the thread writing the manifest
+            IOUtils.closeQuietly(manifest);
+            throw e;
+        }
 
         return uri;
     }
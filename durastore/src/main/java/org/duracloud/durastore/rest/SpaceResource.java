@@ -14,6 +14,7 @@ import java.util.Map;
 import org.duracloud.common.model.AclType;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
+import org.duracloud.durastore.error.ResourcePropertiesInvalidException;
 import org.duracloud.storage.error.InvalidIdException;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.SpaceAlreadyExistsException;
@@ -239,6 +240,73 @@ public class SpaceResource {
         }
     }
 
+    /**
+     * Gets the properties of multiple content items in a space. Items which
+     * do not exist are not included in the result.
+     *
+     * @param spaceID
+     * @param contentIDs
+     * @param storeID
+     * @return content properties by content ID
+     */
+    public Map<String, Map<String, String>> getContentsProperties(String spaceID,
+                                                                  List<String> contentIDs,
+                                                                  String storeID)
+        throws ResourceException {
+        try {
+            StorageProvider storage = storageProviderFactory.getStorageProvider(storeID);
+            return storage.getContentsProperties(spaceID, contentIDs);
+        } catch (NotFoundException e) {
+            throw new ResourceNotFoundException("get properties for contents of", spaceID, e);
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID);
+            throw new ResourceException("get properties for contents of", spaceID, e);
+        }
+    }
+
+    /**
+     * Updates the properties of multiple content items in a space. Items
+     * which do not exist are not included in the result.
+     *
+     * @param spaceID
+     * @param contentProperties new properties by content ID
+     * @param storeID
+     * @return IDs of the content items which were updated
+     */
+    public List<String> updateContentsProperties(String spaceID,
+                                                 Map<String, Map<String, String>> contentProperties,
+                                                 String storeID)
+        throws ResourceException {
+        validateContentsProperties(spaceID, contentProperties);
+
+        try {
+            StorageProvider storage = storageProviderFactory.getStorageProvider(storeID);
+            return storage.setContentsProperties(spaceID, contentProperties);
+        } catch (NotFoundException e) {
+            throw new ResourceNotFoundException("update properties for contents of", spaceID, e);
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID);
+            throw new ResourceException("update properties for contents of", spaceID, e);
+        }
+    }
+
+    /**
+     * Ensures that content properties can be stored.
+     *
+     * @throws ResourcePropertiesInvalidException if the properties of any
+     *                                            item are invalid
+     */
+    public void validateContentsProperties(String spaceID,
+                                           Map<String, Map<String, String>> contentProperties)
+        throws ResourcePropertiesInvalidException {
+        for (Map.Entry<String, Map<String, String>> entry : contentProperties.entrySet()) {
+            ContentResourceImpl.validateProperties(entry.getValue(),
+                                                   "update properties for content",
+                                                   spaceID,
+                                                   entry.getKey());
+        }
+    }
+
     /**
      * Deletes a space, removing all included content.
      *
@@ -12,8 +12,13 @@ import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static org.duracloud.storage.provider.StorageProvider.PROPERTIES_SPACE_ACL;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -26,15 +31,19 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.stream.XMLStreamException;
 
 import org.duracloud.common.error.NoUserLoggedInException;
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.model.Credential;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
+import org.duracloud.durastore.error.ResourcePropertiesInvalidException;
 import org.duracloud.security.context.SecurityContextUtil;
 import org.duracloud.storage.error.InvalidIdException;
 import org.duracloud.storage.error.SpaceAlreadyExistsException;
+import org.duracloud.storage.xml.ContentPropertiesDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +59,15 @@ import org.springframework.stereotype.Component;
 public class SpaceRest extends BaseRest {
     private final Logger log = LoggerFactory.getLogger(SpaceRest.class);
 
+    public static final String PROPERTIES_PARAM = "properties";
+    public static final String PROPERTIES_GET = "get";
+    public static final String PROPERTIES_SET = "set";
+
+    // Content items included in a single request for content properties,
+    // and the number processed before results are sent to the caller
+    public static final int MAX_CONTENTS_PER_REQUEST = 1000;
+    protected static final int CONTENTS_CHUNK_SIZE = 100;
+
     private SpaceResource spaceResource;
     private SecurityContextUtil securityContextUtil;
 
@@ -354,6 +372,174 @@ public class SpaceRest extends BaseRest {
         return Response.ok(responseText, TEXT_PLAIN).build();
     }
 
+    /**
+     * Retrieves (properties=get) or updates (properties=set) the properties
+     * of multiple content items in a space. The request body lists the IDs
+     * of the items to retrieve, or the new properties of the items to update.
+     * Items are processed in chunks, and the results of each chunk are sent
+     * as soon as it is complete.
+     *
+     * see SpaceResource.getContentsProperties(String, List, String);
+     * see SpaceResource.updateContentsProperties(String, Map, String);
+     *
+     * @return 200 response with XML listing of the properties of each item
+     * found, or of the IDs of the items updated
+     */
+    @Path("/{spaceID}")
+    @POST
+    @Produces(XML)
+    public Response contentsProperties(@PathParam("spaceID") String spaceID,
+                                       @QueryParam("storeID") String storeID,
+                                       @QueryParam(PROPERTIES_PARAM) List<String> operations,
+                                       InputStream body) {
+        // The operation must be given exactly once, so that the access check
+        // (which votes on every value) and this method act on the same one
+        String operation = (null != operations && operations.size() == 1) ?
+                           operations.get(0) : null;
+        String msg = operation + " properties of space contents(" + spaceID +
+                     ", " + storeID + ")";
+
+        try {
+            log.debug(msg);
+            if (PROPERTIES_GET.equals(operation)) {
+                return doGetContentsProperties(spaceID, storeID, body);
+            } else if (PROPERTIES_SET.equals(operation)) {
+                return doSetContentsProperties(spaceID, storeID, body);
+            }
+            return responseBad("The " + PROPERTIES_PARAM + " parameter must " +
+                               "be given once, as either " + PROPERTIES_GET +
+                               " or " + PROPERTIES_SET, BAD_REQUEST);
+
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            return responseBad("Invalid request: " + e.getMessage(),
+                               BAD_REQUEST);
+
+        } catch (ResourceNotFoundException e) {
+            return responseNotFound(msg, e, NOT_FOUND);
+
+        } catch (ResourcePropertiesInvalidException e) {
+            return responseBad(e.getMessage(), BAD_REQUEST);
+
+        } catch (ResourceException e) {
+            return responseBad(msg, e, INTERNAL_SERVER_ERROR);
+
+        } catch (Exception e) {
+            return responseBad(msg, e, INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Response doGetContentsProperties(String spaceID,
+                                             String storeID,
+                                             InputStream body)
+        throws ResourceException, XMLStreamException {
+        List<List<String>> chunks =
+            toChunks(ContentPropertiesDocument.readContentIds(body));
+
+        // The first chunk is processed before the response is started, so
+        // that errors such as a missing space result in an error status
+        Map<String, Map<String, String>> first =
+            spaceResource.getContentsProperties(spaceID, chunks.get(0), storeID);
+
+        StreamingOutput output = outputStream -> {
+            try {
+                ContentPropertiesDocument.ContentWriter writer =
+                    ContentPropertiesDocument.startContentProperties(outputStream);
+                for (int i = 0; i < chunks.size(); i++) {
+                    Map<String, Map<String, String>> contentsProps = (i == 0) ?
+                        first : spaceResource.getContentsProperties(spaceID,
+                                                                    chunks.get(i),
+                                                                    storeID);
+                    for (Map.Entry<String, Map<String, String>> entry :
+                        contentsProps.entrySet()) {
+                        writer.writeContent(entry.getKey(), entry.getValue());
+                    }
+                    writer.flush();
+                }
+                writer.close();
+            } catch (XMLStreamException | ResourceException e) {
+                // The document is left incomplete, so that the caller does
+                // not mistake the items which were not sent for missing items
+                throw new IOException("Unable to complete retrieval of " +
+                                      "content properties in space " + spaceID +
+                                      ": " + e.getMessage(), e);
+            }
+        };
+        return Response.ok(output, APPLICATION_XML).build();
+    }
+
+    private Response doSetContentsProperties(String spaceID,
+                                             String storeID,
+                                             InputStream body)
+        throws ResourceException, XMLStreamException {
+        Map<String, Map<String, String>> contentProperties =
+            ContentPropertiesDocument.readContentProperties(body);
+        List<List<String>> chunks =
+            toChunks(new ArrayList<>(contentProperties.keySet()));
+
+        // Validated up front, as later chunks are processed after the
+        // response has started
+        spaceResource.validateContentsProperties(spaceID, contentProperties);
+        List<String> first = spaceResource.updateContentsProperties(
+            spaceID, getChunkProperties(contentProperties, chunks.get(0)), storeID);
+
+        StreamingOutput output = outputStream -> {
+            try {
+                ContentPropertiesDocument.ContentWriter writer =
+                    ContentPropertiesDocument.startContentIds(outputStream);
+                for (int i = 0; i < chunks.size(); i++) {
+                    List<String> updated = (i == 0) ?
+                        first : spaceResource.updateContentsProperties(
+                            spaceID,
+                            getChunkProperties(contentProperties, chunks.get(i)),
+                            storeID);
+                    for (String contentID : updated) {
+                        writer.writeContentId(contentID);
+                    }
+                    writer.flush();
+                }
+                writer.close();
+            } catch (XMLStreamException | ResourceException e) {
+                throw new IOException("Unable to complete update of content " +
+                                      "properties in space " + spaceID + ": " +
+                                      e.getMessage(), e);
+            }
+        };
+        return Response.ok(output, APPLICATION_XML).build();
+    }
+
+    /*
+     * Splits the content IDs of a request into the chunks which are handed
+     * to the storage provider, and sent to the caller, together
+     */
+    private List<List<String>> toChunks(List<String> contentIDs) {
+        if (contentIDs.isEmpty()) {
+            throw new IllegalArgumentException("No content IDs were provided");
+        }
+        if (contentIDs.size() > MAX_CONTENTS_PER_REQUEST) {
+            throw new IllegalArgumentException(
+                "A maximum of " + MAX_CONTENTS_PER_REQUEST + " content items " +
+                "may be included in a request, " + contentIDs.size() +
+                " were provided");
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < contentIDs.size(); i += CONTENTS_CHUNK_SIZE) {
+            chunks.add(contentIDs.subList(
+                i, Math.min(i + CONTENTS_CHUNK_SIZE, contentIDs.size())));
+        }
+        return chunks;
+    }
+
+    private Map<String, Map<String, String>> getChunkProperties(
+        Map<String, Map<String, String>> contentProperties,
+        List<String> chunk) {
+        Map<String, Map<String, String>> chunkProperties = new LinkedHashMap<>();
+        for (String contentID : chunk) {
+            chunkProperties.put(contentID, contentProperties.get(contentID));
+        }
+        return chunkProperties;
+    }
+
     private Response responseOkXml(String msg, String text) {
         log.debug(msg);
         return Response.ok(text, APPLICATION_XML).build();
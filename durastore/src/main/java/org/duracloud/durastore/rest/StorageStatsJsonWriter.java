@@ -0,0 +1,61 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.duracloud.durastore.util.StorageStatsRow;
+import org.duracloud.durastore.util.StorageStatsRowHandler;
+
+/**
+ * Writes storage stats rows to a stream as a JSON array, one row at a time,
+ * so that neither the rows nor the response are held in memory. Each row is
+ * written as a StoreStatsDTO (or a SpaceStatsDTO when it includes a space),
+ * in the same form as when a list of these objects is the response entity.
+ *
+ * Closing the writer ends the array and flushes the stream, but does not
+ * close it.
+ */
+public class StorageStatsJsonWriter implements StorageStatsRowHandler, Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+
+    public StorageStatsJsonWriter(OutputStream output) throws IOException {
+        generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void handleRow(StorageStatsRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("timestamp", row.getTimestamp());
+        generator.writeStringField("accountId", row.getAccountId());
+        generator.writeStringField("storeId", row.getStoreId());
+        if (null != row.getSpaceId()) {
+            generator.writeStringField("spaceId", row.getSpaceId());
+        }
+        generator.writeNumberField("byteCount", row.getByteCount());
+        generator.writeNumberField("objectCount", row.getObjectCount());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+
+}
@@ -7,22 +7,35 @@
  */
 package org.duracloud.durastore.rest;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
 
 import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.durastore.util.StatsPeriod;
+import org.duracloud.durastore.util.StorageStatsCache;
+import org.duracloud.durastore.util.StorageStatsRollup;
+import org.duracloud.durastore.util.StorageStatsRow;
+import org.duracloud.durastore.util.StorageStatsRowHandler;
 import org.duracloud.mill.db.repo.JpaSpaceStatsRepo;
-import org.duracloud.reportdata.storage.SpaceStatsDTO;
-import org.duracloud.reportdata.storage.StoreStatsDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
+ * Reads aggregated space and store stats. Rows are passed to a handler as
+ * they are read, rather than collected, so that they can be written to the
+ * response without holding the full result as objects.
+ *
+ * Space and store stats over a range of time are read from the rollup
+ * matching the requested grouping when rollups are available and current.
+ * Until the rollups catch up, they are aggregated from the stats table
+ * through the rollups' forward-only cursor, and they are only aggregated
+ * by the repository when no rollups are set.
+ *
  * @author Daniel Bernstein
  */
 @Component("storageStatsResource")
@@ -31,6 +44,8 @@ public class StorageStatsResource {
     protected static final Logger log = LoggerFactory.getLogger(SpaceResource.class);
 
     private JpaSpaceStatsRepo spaceStatsRepo;
+    private StorageStatsCache statsCache;
+    private StorageStatsRollup statsRollup;
 
     final long ONE_DAY_IN_MS = 24 * 60 * 60 * 1000;
 
@@ -45,27 +60,66 @@ public class StorageStatsResource {
         this.spaceStatsRepo = spaceStatsRepo;
     }
 
-    public List<SpaceStatsDTO> getSpaceStats(String accountId,
-                                             String storeId,
-                                             String spaceId,
-                                             Date start,
-                                             Date end,
-                                             GroupBy groupBy) {
+    /**
+     * Sets the cache of results for past days. Results are not cached if
+     * no cache is set.
+     *
+     * @param statsCache cache of past day results
+     */
+    @Autowired(required = false)
+    public void setStatsCache(StorageStatsCache statsCache) {
+        this.statsCache = statsCache;
+    }
 
+    /**
+     * Sets the rollups of the stats table. Stats are aggregated from the
+     * stats table if no rollups are set.
+     *
+     * @param statsRollup day, week and month rollups
+     */
+    @Autowired(required = false)
+    public void setStatsRollup(StorageStatsRollup statsRollup) {
+        this.statsRollup = statsRollup;
+    }
+
+    /**
+     * Reads the stats of a space over a range of time, passing each row to
+     * the handler as it is read.
+     */
+    public void getSpaceStats(String accountId,
+                              String storeId,
+                              String spaceId,
+                              Date start,
+                              Date end,
+                              GroupBy groupBy,
+                              StorageStatsRowHandler handler) throws IOException {
         String interval = getInterval(groupBy);
-        List<Object[]> list =
-            this.spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId(accountId, storeId, spaceId, start, end, interval);
-        List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
-        for (Object[] s : list) {
-            dtos.add(new SpaceStatsDTO(new Date(((BigInteger) s[0]).longValue() * 1000),
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       s[3].toString(),
-                                       ((BigDecimal) s[4]).longValue(),
-                                       ((BigDecimal) s[5]).longValue()));
+        String cacheKey = getCacheKey("space", accountId, storeId, spaceId,
+                                      start, end, interval);
+        if (null != statsRollup) {
+            StatsPeriod period = getPeriod(groupBy);
+            if (isRollupCurrent()) {
+                readRows(cacheKey, end, handler,
+                         h -> statsRollup.getSpaceStats(accountId, storeId, spaceId, period,
+                                                        start.getTime(), end.getTime(), h));
+            } else {
+                readRows(cacheKey, end, handler,
+                         h -> statsRollup.aggregateSpaceStats(accountId, storeId, spaceId, period,
+                                                              start.getTime(), end.getTime(), h));
+            }
+            return;
         }
 
-        return dtos;
+        readRows(cacheKey, end, handler,
+                 h -> readResults(this.spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId(
+                                      accountId, storeId, spaceId, start, end, interval),
+                                  s -> new StorageStatsRow(toTimestamp(s[0]),
+                                                           (String) s[1],
+                                                           (String) s[2],
+                                                           (String) s[3],
+                                                           toLong(s[4]),
+                                                           toLong(s[5])),
+                                  h));
     }
 
     protected String getInterval(GroupBy groupBy) {
@@ -84,28 +138,70 @@ public class StorageStatsResource {
         }
     }
 
-    public List<StoreStatsDTO> getStorageProviderStats(String account,
-                                                       String storeId,
-                                                       Date start,
-                                                       Date end,
-                                                       GroupBy groupBy) {
+    protected StatsPeriod getPeriod(GroupBy groupBy) {
+        if (groupBy == null) {
+            return StatsPeriod.day;
+        }
+        return StatsPeriod.valueOf(groupBy.name());
+    }
+
+    /*
+     * Starts refreshing the rollups if they are due to be refreshed.
+     *
+     * @return true if the rollups are current
+     */
+    private boolean isRollupCurrent() {
+        statsRollup.refresh();
+        return statsRollup.isCurrent();
+    }
+
+    /**
+     * Reads the stats of a storage provider over a range of time, passing
+     * each row to the handler as it is read.
+     */
+    public void getStorageProviderStats(String account,
+                                        String storeId,
+                                        Date start,
+                                        Date end,
+                                        GroupBy groupBy,
+                                        StorageStatsRowHandler handler) throws IOException {
         String interval = getInterval(groupBy);
-        List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreId(account, storeId, start, end, interval);
-        List<StoreStatsDTO> dtos = new ArrayList<>(list.size());
-        for (Object[] s : list) {
-            dtos.add(new StoreStatsDTO(new Date(((BigInteger) s[0]).longValue() * 1000),
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       ((BigDecimal) s[3]).longValue(),
-                                       ((BigDecimal) s[4]).longValue()));
+        String cacheKey = getCacheKey("store", account, storeId, null,
+                                      start, end, interval);
+        if (null != statsRollup) {
+            StatsPeriod period = getPeriod(groupBy);
+            if (isRollupCurrent()) {
+                readRows(cacheKey, end, handler,
+                         h -> statsRollup.getStoreStats(account, storeId, period,
+                                                        start.getTime(), end.getTime(), h));
+            } else {
+                readRows(cacheKey, end, handler,
+                         h -> statsRollup.aggregateStoreStats(account, storeId, period,
+                                                              start.getTime(), end.getTime(), h));
+            }
+            return;
         }
 
-        return dtos;
+        readRows(cacheKey, end, handler,
+                 h -> readResults(this.spaceStatsRepo.getByAccountIdAndStoreId(
+                                      account, storeId, start, end, interval),
+                                  s -> new StorageStatsRow(toTimestamp(s[0]),
+                                                           (String) s[1],
+                                                           (String) s[2],
+                                                           null,
+                                                           toLong(s[3]),
+                                                           toLong(s[4])),
+                                  h));
     }
 
-    public List<SpaceStatsDTO> getStorageProviderByDay(final String account,
-                                                       final String storeId,
-                                                       final Date date) {
+    /**
+     * Reads the stats of each space in a storage provider on a given day,
+     * passing each row to the handler as it is read.
+     */
+    public void getStorageProviderByDay(final String account,
+                                        final String storeId,
+                                        final Date date,
+                                        final StorageStatsRowHandler handler) throws IOException {
 
         //Set Range for the entire day
         final long time = date.getTime();
@@ -115,18 +211,81 @@ public class StorageStatsResource {
         //end date should be midnight of the next day
         final Date end = new Date(time + msLeftToday);
 
-        final List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreIdAndDay(account, storeId, start, end);
-        final List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
-        for (final Object[] s : list) {
-            dtos.add(new SpaceStatsDTO(start,
-                s[1].toString(),
-                s[2].toString(),
-                s[3].toString(),
-                ((BigDecimal) s[4]).longValue(),
-                ((BigDecimal) s[5]).longValue()));
+        final String cacheKey = getCacheKey("day", account, storeId, null,
+                                            start, end, null);
+        readRows(cacheKey, end, handler,
+                 h -> readResults(this.spaceStatsRepo.getByAccountIdAndStoreIdAndDay(
+                                      account, storeId, start, end),
+                                  s -> new StorageStatsRow(start.getTime(),
+                                                           (String) s[1],
+                                                           (String) s[2],
+                                                           (String) s[3],
+                                                           toLong(s[4]),
+                                                           toLong(s[5])),
+                                  h));
+    }
+
+    /*
+     * Passes the rows read from a source to the handler, serving them from
+     * the cache when the range is in the past.
+     */
+    private void readRows(String cacheKey,
+                          Date end,
+                          StorageStatsRowHandler handler,
+                          RowSource source) throws IOException {
+        if (null == statsCache || !statsCache.isCacheable(end)) {
+            source.read(handler);
+            return;
         }
 
-        return dtos;
+        List<StorageStatsRow> cached = statsCache.get(cacheKey);
+        if (null != cached) {
+            for (StorageStatsRow row : cached) {
+                handler.handleRow(row);
+            }
+            return;
+        }
+
+        List<StorageStatsRow> rows = new ArrayList<>();
+        source.read(row -> {
+            handler.handleRow(row);
+            rows.add(row);
+        });
+        statsCache.put(cacheKey, rows);
+    }
+
+    private void readResults(List<Object[]> results,
+                             Function<Object[], StorageStatsRow> converter,
+                             StorageStatsRowHandler handler) throws IOException {
+        for (Object[] result : results) {
+            handler.handleRow(converter.apply(result));
+        }
+    }
+
+    private interface RowSource {
+        void read(StorageStatsRowHandler handler) throws IOException;
+    }
+
+    private String getCacheKey(String type,
+                               String accountId,
+                               String storeId,
+                               String spaceId,
+                               Date start,
+                               Date end,
+                               String interval) {
+        return type + "/" + accountId + "/" + storeId + "/" + spaceId + "/" +
+               start.getTime() + "/" + end.getTime() + "/" + interval;
+    }
+
+    /*
+     * Converts a timestamp column, in epoch seconds, to epoch milliseconds
+     */
+    private long toTimestamp(Object seconds) {
+        return ((Number) seconds).longValue() * 1000;
+    }
+
+    private long toLong(Object value) {
+        return ((Number) value).longValue();
     }
 
 }
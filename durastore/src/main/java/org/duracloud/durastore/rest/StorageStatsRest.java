@@ -7,6 +7,7 @@
  */
 package org.duracloud.durastore.rest;
 
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Date;
 import java.util.List;
@@ -17,13 +18,12 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.durastore.rest.StorageStatsResource.GroupBy;
 import org.duracloud.error.NotFoundException;
-import org.duracloud.reportdata.storage.SpaceStatsDTO;
-import org.duracloud.reportdata.storage.StoreStatsDTO;
 import org.duracloud.storage.domain.StorageAccount;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.util.StorageProviderFactory;
@@ -77,14 +77,16 @@ public class StorageStatsRest extends BaseRest {
             Date endDate = resolveEndDate(endMs);
             storeId = getStoreId(storeId);
             ensureSpaceIsValid(storeId, spaceId);
-            List<SpaceStatsDTO> stats =
-                resource.getSpaceStats(account,
-                                       storeId,
-                                       spaceId,
-                                       startDate,
-                                       endDate,
-                                       getGroupBy(groupBy));
-            return responseOk(stats);
+            String validStoreId = storeId;
+            GroupBy validGroupBy = getGroupBy(groupBy);
+            return responseOkStats(
+                writer -> resource.getSpaceStats(account,
+                                                 validStoreId,
+                                                 spaceId,
+                                                 startDate,
+                                                 endDate,
+                                                 validGroupBy,
+                                                 writer));
 
         } catch (Exception e) {
             return handleException(e, MessageFormat.format("error getting storage stats, {0}:{1}:{2} [{3}:{4}]",
@@ -95,7 +97,7 @@ public class StorageStatsRest extends BaseRest {
     private void ensureSpaceIsValid(String storeId, String spaceId) throws NotFoundException {
         StorageProvider provider = storageProviderFactory.getStorageProvider(storeId);
         try {
-            provider.getSpaceProperties(spaceId);
+            provider.getSpaceACLs(spaceId);
         } catch (org.duracloud.storage.error.NotFoundException ex) {
             throw new NotFoundException("The space was not found: " + spaceId);
         }
@@ -120,13 +122,15 @@ public class StorageStatsRest extends BaseRest {
             Date startDate = resolveStartDate(startMs);
             Date endDate = resolveEndDate(endMs);
             storeId = getStoreId(storeId);
-            List<StoreStatsDTO> stats =
-                resource.getStorageProviderStats(account,
-                                                 storeId,
-                                                 startDate,
-                                                 endDate,
-                                                 getGroupBy(groupBy));
-            return responseOk(stats);
+            String validStoreId = storeId;
+            GroupBy validGroupBy = getGroupBy(groupBy);
+            return responseOkStats(
+                writer -> resource.getStorageProviderStats(account,
+                                                           validStoreId,
+                                                           startDate,
+                                                           endDate,
+                                                           validGroupBy,
+                                                           writer));
 
         } catch (Exception e) {
             return handleException(e, MessageFormat.format("error getting storage stats, {0}:{1} [{3}:{4}]",
@@ -191,15 +195,43 @@ public class StorageStatsRest extends BaseRest {
         try {
             Date theDate = toDateFromMs(dateMs);
             storeId = getStoreId(storeId);
-            List<SpaceStatsDTO> stats =
-                resource.getStorageProviderByDay(account, storeId, theDate);
-            return responseOk(stats);
+            String validStoreId = storeId;
+            return responseOkStats(
+                writer -> resource.getStorageProviderByDay(account,
+                                                           validStoreId,
+                                                           theDate,
+                                                           writer));
         } catch (Exception e) {
             return handleException(e, MessageFormat.format("error getting storage stats, {0}:{1}:{2} [{3}]",
                                                            account, storeId, dateMs));
         }
     }
 
+    /*
+     * Responds with the stats rows as a JSON array, written as the rows are
+     * read rather than once all have been collected. Request parameters
+     * should be validated before this call, as any error reading the rows
+     * occurs once the response has begun.
+     */
+    private Response responseOkStats(StatsQuery query) {
+        StreamingOutput output = stream -> {
+            try {
+                // The array is left incomplete if reading fails
+                StorageStatsJsonWriter writer = new StorageStatsJsonWriter(stream);
+                query.readRows(writer);
+                writer.close();
+            } catch (IOException | RuntimeException e) {
+                log.error("Error writing storage stats: " + e.getMessage(), e);
+                throw e;
+            }
+        };
+        return Response.ok(output).build();
+    }
+
+    private interface StatsQuery {
+        void readRows(StorageStatsJsonWriter writer) throws IOException;
+    }
+
     private Response handleException(Exception e, String defaultErrorMessage) {
         if (e instanceof NumberFormatException || e instanceof IllegalArgumentException) {
             log.error(e.getMessage(), e);
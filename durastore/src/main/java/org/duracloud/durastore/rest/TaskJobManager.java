@@ -0,0 +1,406 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
+import org.duracloud.durastore.aop.AOPTaskProviderFactoryDecorator;
+import org.duracloud.durastore.util.TaskJobStore;
+import org.duracloud.storage.provider.TaskProvider;
+import org.duracloud.storageprovider.dto.TaskJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Performs tasks asynchronously, tracking the status of each as a job which
+ * can be polled by the user who submitted it.
+ *
+ * Tasks are performed on the shared task pool. The number of tasks of any
+ * one name which may run at the same time on a node is capped, so that a
+ * burst of one long-running task (such as waiting on a CloudFront
+ * distribution) does not occupy the whole pool; jobs over the cap wait in a
+ * queue for that task name.
+ *
+ * The status of each job is written to the job store as the job is
+ * submitted, started and completed, so that it can be retrieved through any
+ * node. Jobs are removed from the store once the retention period has passed
+ * since they were submitted. A job which was waiting or running on a node
+ * when that node stopped is not resumed, and keeps its last status until it
+ * is removed.
+ */
+public class TaskJobManager {
+
+    private final Logger log = LoggerFactory.getLogger(TaskJobManager.class);
+
+    public static final int DEFAULT_CONCURRENCY = 2;
+    public static final int DEFAULT_MAX_QUEUED = 100;
+    public static final long DEFAULT_RETENTION_MINUTES = 24 * 60;
+
+    private static final ExecutorPoolConfig TASK_POOL =
+        new ExecutorPoolConfig("task", 10, 100);
+
+    // Time between reads of the status of a job running on another node
+    private static final long POLL_MILLIS = 1000;
+
+    // Time between removals of expired jobs from the store
+    private static final long CLEANUP_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final int defaultConcurrency;
+    private final int maxQueued;
+    private final long retentionMillis;
+    private final TaskJobStore jobStore;
+    private final Executor executor;
+    private Map<String, Integer> concurrencyLimits = new HashMap<>();
+
+    // Jobs submitted to this node which have not completed
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastCleanup = new AtomicLong();
+
+    // Guarded by this
+    private final Map<String, Integer> running = new HashMap<>();
+    private final Map<String, Queue<Job>> waiting = new HashMap<>();
+
+    public TaskJobManager(TaskJobStore jobStore) {
+        this(DEFAULT_CONCURRENCY, DEFAULT_MAX_QUEUED, DEFAULT_RETENTION_MINUTES,
+             jobStore);
+    }
+
+    /**
+     * @param defaultConcurrency maximum number of tasks of a single name
+     *                           which may run at once on this node, unless a
+     *                           limit is set for that name
+     * @param maxQueued          maximum number of jobs of a single name which
+     *                           may wait to run on this node
+     * @param retentionMinutes   minutes after submission that jobs are
+     *                           retained
+     * @param jobStore           store holding the status of jobs
+     */
+    public TaskJobManager(int defaultConcurrency,
+                          int maxQueued,
+                          long retentionMinutes,
+                          TaskJobStore jobStore) {
+        this(defaultConcurrency, maxQueued, retentionMinutes, jobStore, null);
+    }
+
+    protected TaskJobManager(int defaultConcurrency,
+                             int maxQueued,
+                             long retentionMinutes,
+                             TaskJobStore jobStore,
+                             Executor executor) {
+        this.defaultConcurrency = defaultConcurrency;
+        this.maxQueued = maxQueued;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+        this.jobStore = jobStore;
+        this.executor = executor;
+    }
+
+    /**
+     * @param concurrencyLimits maximum number of running tasks by task name
+     */
+    public void setConcurrencyLimits(Map<String, Integer> concurrencyLimits) {
+        this.concurrencyLimits = concurrencyLimits;
+    }
+
+    /**
+     * Submits a task to be performed. The advice of the task provider (such
+     * as checks that the caller may access the space named by the task) is
+     * applied on the calling thread, as it may rely on request scoped beans,
+     * and the task is then performed by the provider without its advice. The
+     * security context of the caller is used when performing the task.
+     *
+     * @return the status of the new job
+     * @throws RejectedExecutionException if too many jobs are waiting to run
+     * @throws Exception                  if the advice rejects the task
+     */
+    public TaskJob submit(TaskProvider taskProvider,
+                          String taskName,
+                          String taskParameters,
+                          String accountId,
+                          String username) throws Exception {
+        TaskProvider target =
+            AOPTaskProviderFactoryDecorator.applyAdvice(taskProvider,
+                                                        taskName,
+                                                        taskParameters);
+        removeExpiredJobs();
+
+        String jobId = UUID.randomUUID().toString();
+        Job job = new Job(new TaskJob(jobId, taskName, target.getStoreId()),
+                          accountId, username);
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(
+            SecurityContextHolder.getContext().getAuthentication());
+        job.work = new DelegatingSecurityContextRunnable(
+            () -> perform(job, target, taskParameters), context);
+
+        // Stored before it is scheduled, so that its later updates follow
+        jobStore.saveJob(job.getStatus(), accountId, username);
+        jobs.put(jobId, job);
+        try {
+            schedule(job);
+        } catch (RejectedExecutionException e) {
+            job.fail(e.getMessage(),
+                     TaskRest.getErrorStatus(e).getStatusCode());
+            complete(job);
+            throw e;
+        }
+
+        log.info("Submitted task {} as job {} for {} in account {}",
+                 taskName, jobId, username, accountId);
+        return job.getStatus();
+    }
+
+    /**
+     * @return the current status of the job, or null if no job with the
+     * given ID was submitted by the given user
+     */
+    public TaskJob getJob(String jobId, String accountId, String username) {
+        Job job = getOwnedJob(jobId, accountId, username);
+        if (null != job) {
+            return job.getStatus();
+        }
+        return null == jobId ? null : jobStore.getJob(jobId, accountId, username);
+    }
+
+    /**
+     * Waits for a job to complete. A job submitted to another node is waited
+     * for by reading its status from the store at intervals.
+     *
+     * @return the status of the job once it completes or the wait expires,
+     * or null if no job with the given ID was submitted by the given user
+     */
+    public TaskJob waitForJob(String jobId,
+                              String accountId,
+                              String username,
+                              long timeoutMillis) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            Job job = getOwnedJob(jobId, accountId, username);
+            if (null != job) {
+                job.awaitCompletion(end - System.currentTimeMillis());
+                TaskJob status = job.getStatus();
+                if (status.getStatus().isComplete() ||
+                    System.currentTimeMillis() >= end) {
+                    return status;
+                }
+            }
+
+            // Not running on this node, or completed since it was found
+            TaskJob status = getJob(jobId, accountId, username);
+            long remaining = end - System.currentTimeMillis();
+            if (null == status || status.getStatus().isComplete() ||
+                remaining <= 0) {
+                return status;
+            }
+            Thread.sleep(Math.min(remaining, POLL_MILLIS));
+        }
+    }
+
+    private Job getOwnedJob(String jobId, String accountId, String username) {
+        Job job = null == jobId ? null : jobs.get(jobId);
+        if (null != job && equal(job.accountId, accountId) &&
+            equal(job.username, username)) {
+            return job;
+        }
+        return null;
+    }
+
+    private boolean equal(String one, String two) {
+        return null == one ? null == two : one.equals(two);
+    }
+
+    private synchronized void schedule(Job job) {
+        String taskName = job.taskName;
+        int active = running.getOrDefault(taskName, 0);
+        if (active < getConcurrencyLimit(taskName)) {
+            getExecutor().execute(job.work);
+            running.put(taskName, active + 1);
+        } else {
+            Queue<Job> queue = waiting.get(taskName);
+            if (null == queue) {
+                queue = new LinkedList<>();
+                waiting.put(taskName, queue);
+            }
+            if (queue.size() >= maxQueued) {
+                throw new RejectedExecutionException(
+                    "Too many " + taskName + " tasks are waiting to run");
+            }
+            queue.add(job);
+        }
+    }
+
+    /*
+     * Starts the next job waiting for the completed task name, if any
+     */
+    private synchronized void onComplete(String taskName) {
+        Queue<Job> queue = waiting.get(taskName);
+        while (null != queue && !queue.isEmpty()) {
+            Job next = queue.poll();
+            try {
+                getExecutor().execute(next.work);
+                return;
+            } catch (RejectedExecutionException e) {
+                next.fail("Task could not be started: " + e.getMessage(),
+                          TaskRest.getErrorStatus(e).getStatusCode());
+                complete(next);
+            }
+        }
+        running.put(taskName, running.get(taskName) - 1);
+    }
+
+    private int getConcurrencyLimit(String taskName) {
+        Integer limit = concurrencyLimits.get(taskName);
+        return null == limit ? defaultConcurrency : limit;
+    }
+
+    private Executor getExecutor() {
+        if (null != executor) {
+            return executor;
+        }
+        return ExecutorRegistry.getInstance().getExecutor(TASK_POOL);
+    }
+
+    private void perform(Job job, TaskProvider taskProvider, String params) {
+        job.start();
+        save(job);
+        try {
+            job.succeed(taskProvider.performTask(job.taskName, params));
+            log.info("Job {} performing task {} succeeded",
+                     job.jobId, job.taskName);
+        } catch (Exception e) {
+            log.error("Job " + job.jobId + " performing task " + job.taskName +
+                      " failed due to: " + e.getMessage(), e);
+            String error = e.getMessage() == null ? "null" : e.getMessage();
+            job.fail(error, TaskRest.getErrorStatus(e).getStatusCode());
+        } finally {
+            complete(job);
+            onComplete(job.taskName);
+        }
+    }
+
+    /*
+     * Stores the final status of a completed job, after which its status is
+     * read from the store
+     */
+    private void complete(Job job) {
+        save(job);
+        jobs.remove(job.jobId);
+    }
+
+    private void save(Job job) {
+        try {
+            jobStore.saveJob(job.getStatus(), job.accountId, job.username);
+        } catch (Exception e) {
+            log.error("Unable to store the status of job " + job.jobId +
+                      " due to: " + e.getMessage(), e);
+        }
+    }
+
+    /*
+     * Removes jobs which are past the retention period from the store, at
+     * most once per cleanup interval
+     */
+    private void removeExpiredJobs() {
+        long now = System.currentTimeMillis();
+        long last = lastCleanup.get();
+        if (now - last < CLEANUP_MILLIS || !lastCleanup.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            int removed = jobStore.removeJobs(new Date(now - retentionMillis));
+            log.debug("Removed {} expired task jobs", removed);
+        } catch (Exception e) {
+            log.warn("Unable to remove expired task jobs: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A job along with its owner. Updates to the job status are made while
+     * holding the job lock, and callers are given copies of the status.
+     */
+    private static class Job {
+        private final TaskJob taskJob;
+        private final String jobId;
+        private final String taskName;
+        private final String accountId;
+        private final String username;
+        private Runnable work;
+
+        Job(TaskJob taskJob, String accountId, String username) {
+            this.taskJob = taskJob;
+            this.jobId = taskJob.getJobId();
+            this.taskName = taskJob.getTaskName();
+            this.accountId = accountId;
+            this.username = username;
+        }
+
+        synchronized void start() {
+            taskJob.setStatus(TaskJob.Status.RUNNING);
+            taskJob.setStarted(new Date());
+        }
+
+        synchronized void succeed(String result) {
+            taskJob.setResult(result);
+            complete(TaskJob.Status.SUCCEEDED);
+        }
+
+        synchronized void fail(String error, int errorCode) {
+            taskJob.setError(error);
+            taskJob.setErrorCode(errorCode);
+            complete(TaskJob.Status.FAILED);
+        }
+
+        private void complete(TaskJob.Status status) {
+            taskJob.setStatus(status);
+            taskJob.setCompleted(new Date());
+            notifyAll();
+        }
+
+        synchronized void awaitCompletion(long timeoutMillis)
+            throws InterruptedException {
+            long end = System.currentTimeMillis() + timeoutMillis;
+            long remaining = timeoutMillis;
+            while (!taskJob.getStatus().isComplete() && remaining > 0) {
+                wait(remaining);
+                remaining = end - System.currentTimeMillis();
+            }
+        }
+
+        synchronized TaskJob getStatus() {
+            TaskJob copy = new TaskJob();
+            copy.setJobId(taskJob.getJobId());
+            copy.setTaskName(taskJob.getTaskName());
+            copy.setStoreId(taskJob.getStoreId());
+            copy.setStatus(taskJob.getStatus());
+            copy.setResult(taskJob.getResult());
+            copy.setError(taskJob.getError());
+            copy.setErrorCode(taskJob.getErrorCode());
+            copy.setSubmitted(taskJob.getSubmitted());
+            copy.setStarted(taskJob.getStarted());
+            copy.setCompleted(taskJob.getCompleted());
+            return copy;
+        }
+    }
+
+}
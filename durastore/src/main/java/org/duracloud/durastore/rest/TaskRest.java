@@ -11,14 +11,20 @@ import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.FORBIDDEN;
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import org.duracloud.StorageTaskConstants;
@@ -31,10 +37,13 @@ import org.duracloud.storage.error.StorageStateException;
 import org.duracloud.storage.error.UnsupportedTaskException;
 import org.duracloud.storage.provider.TaskProvider;
 import org.duracloud.storage.provider.TaskProviderFactory;
+import org.duracloud.storageprovider.dto.TaskJob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 /**
@@ -49,15 +58,23 @@ public class TaskRest extends BaseRest {
 
     private final Logger log = LoggerFactory.getLogger(TaskRest.class);
 
+    /**
+     * The longest time a request for job status will wait for the job
+     */
+    public static final int MAX_WAIT_SECONDS = 60;
+
     private TaskProviderFactory taskProviderFactory;
     private RestUtil restUtil;
+    private TaskJobManager taskJobManager;
 
     @Autowired
 
     public TaskRest(@Qualifier("taskProviderFactory") TaskProviderFactory taskProviderFactory,
-                    RestUtil restUtil) {
+                    RestUtil restUtil,
+                    TaskJobManager taskJobManager) {
         this.taskProviderFactory = taskProviderFactory;
         this.restUtil = restUtil;
+        this.taskJobManager = taskJobManager;
     }
 
     /**
@@ -83,14 +100,18 @@ public class TaskRest extends BaseRest {
     }
 
     /**
-     * Performs a task
+     * Performs a task. When async is true the task is submitted to be
+     * performed in the background, and the status of the resulting job is
+     * returned; the job can then be retrieved to determine the task result.
      *
-     * @return 200 on success
+     * @return 200 on success, 202 when an async task is accepted
      */
     @Path("/{taskName}")
     @POST
     public Response performTask(@PathParam("taskName") String taskName,
-                                @QueryParam("storeID") String storeID) {
+                                @QueryParam("storeID") String storeID,
+                                @QueryParam(StorageTaskConstants.ASYNC_PARAM)
+                                @DefaultValue("false") boolean async) {
         String msg = "performing task(" + taskName + ", " + storeID + ")";
 
         String taskParameters = null;
@@ -103,23 +124,90 @@ public class TaskRest extends BaseRest {
 
         try {
             TaskProvider taskProvider = taskProviderFactory.getTaskProvider(storeID);
+            if (async) {
+                TaskJob job = taskJobManager.submit(taskProvider,
+                                                    taskName,
+                                                    taskParameters,
+                                                    getAccountId(),
+                                                    getUsername());
+                log.debug(msg);
+                return Response.accepted(job.serialize())
+                               .type(MediaType.APPLICATION_JSON_TYPE)
+                               .build();
+            }
+
             String responseText = taskProvider.performTask(taskName, taskParameters);
 
             return responseOk(msg, responseText);
 
-        } catch (UnsupportedTaskException e) {
-            return responseBad(msg, e, BAD_REQUEST);
-        } catch (UnauthorizedException e) {
-            return responseBad(msg, e, FORBIDDEN);
-        } catch (StorageStateException e) {
-            return responseBad(msg, e, CONFLICT);
-        } catch (ServerConflictException e) {
-            return responseBad(msg, e, Response.Status.CONFLICT);
+        } catch (Exception e) {
+            return responseBad(msg, e, getErrorStatus(e));
+        }
+    }
+
+    /**
+     * Gets the status of an asynchronous task job. When wait is set, the
+     * response is delayed until the job completes or the given number of
+     * seconds (at most MAX_WAIT_SECONDS) has passed.
+     *
+     * @return 200 on success, 404 if the job is not known
+     */
+    @Path(StorageTaskConstants.TASK_JOB_PATH + "/{jobId}")
+    @GET
+    public Response getTaskJob(@PathParam("jobId") String jobId,
+                               @QueryParam(StorageTaskConstants.WAIT_PARAM)
+                               @DefaultValue("0") int waitSeconds) {
+        String msg = "getting task job(" + jobId + ", " + waitSeconds + ")";
+        try {
+            TaskJob job;
+            if (waitSeconds > 0) {
+                long wait = Math.min(waitSeconds, MAX_WAIT_SECONDS);
+                job = taskJobManager.waitForJob(jobId,
+                                                getAccountId(),
+                                                getUsername(),
+                                                TimeUnit.SECONDS.toMillis(wait));
+            } else {
+                job = taskJobManager.getJob(jobId, getAccountId(), getUsername());
+            }
+
+            if (null == job) {
+                log.debug("Error: " + msg + ", job not found");
+                return Response.status(NOT_FOUND)
+                               .entity("Task job " + jobId + " not found")
+                               .build();
+            }
+            log.debug(msg);
+            return Response.ok(job.serialize(), MediaType.APPLICATION_JSON_TYPE)
+                           .build();
         } catch (Exception e) {
             return responseBad(msg, e, INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Determines the response status which corresponds to an error
+     * encountered while performing a task.
+     */
+    static Response.Status getErrorStatus(Exception e) {
+        if (e instanceof UnsupportedTaskException) {
+            return BAD_REQUEST;
+        } else if (e instanceof UnauthorizedException) {
+            return FORBIDDEN;
+        } else if (e instanceof StorageStateException ||
+                   e instanceof ServerConflictException) {
+            return CONFLICT;
+        } else if (e instanceof RejectedExecutionException) {
+            return SERVICE_UNAVAILABLE;
+        }
+        return INTERNAL_SERVER_ERROR;
+    }
+
+    private String getUsername() {
+        Authentication auth =
+            SecurityContextHolder.getContext().getAuthentication();
+        return null == auth ? null : auth.getName();
+    }
+
     private String getTaskParameters() throws Exception {
         String taskParams = null;
 
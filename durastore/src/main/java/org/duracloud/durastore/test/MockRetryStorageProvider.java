@@ -123,6 +123,12 @@ public class MockRetryStorageProvider implements StorageProvider {
         // Default method body
     }
 
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        // Default method body
+        return null;
+    }
+
     public void setContentProperties(String spaceId, String contentId,
                                      Map<String, String> contentProperties) {
         // Default method body
@@ -133,4 +139,16 @@ public class MockRetryStorageProvider implements StorageProvider {
         // Default method body
         return null;
     }
+
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        // Default method body
+        return null;
+    }
+
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        // Default method body
+        return null;
+    }
 }
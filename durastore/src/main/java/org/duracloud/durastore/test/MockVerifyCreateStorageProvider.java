@@ -135,6 +135,12 @@ public class MockVerifyCreateStorageProvider implements StorageProvider {
         // Default method body
     }
 
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        // Default method body
+        return null;
+    }
+
     public void setContentProperties(String spaceId, String contentId,
                                      Map<String, String> contentProperties) {
         // Default method body
@@ -145,4 +151,16 @@ public class MockVerifyCreateStorageProvider implements StorageProvider {
         // Default method body
         return null;
     }
+
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        // Default method body
+        return null;
+    }
+
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        // Default method body
+        return null;
+    }
 }
@@ -134,6 +134,12 @@ public class MockVerifyDeleteStorageProvider implements StorageProvider {
         // Default method body
     }
 
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        // Default method body
+        return null;
+    }
+
     public void setContentProperties(String spaceId, String contentId,
                                      Map<String, String> contentProperties) {
         // Default method body
@@ -144,4 +150,16 @@ public class MockVerifyDeleteStorageProvider implements StorageProvider {
         // Default method body
         return null;
     }
+
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        // Default method body
+        return null;
+    }
+
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        // Default method body
+        return null;
+    }
 }
@@ -8,22 +8,37 @@
 package org.duracloud.durastore.util;
 
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.duracloud.common.error.NoUserLoggedInException;
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.security.context.SecurityContextUtil;
 import org.duracloud.security.impl.DuracloudUserDetails;
+import org.duracloud.security.vote.SpaceAccessDecisionCache;
 import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.slf4j.Logger;
@@ -46,15 +61,33 @@ public class ACLStorageProvider implements StorageProvider {
     private final StorageProvider targetProvider;
     private SecurityContextUtil securityContextUtil;
 
-    private Map<String, Map<String, AclType>> spaceACLMap;
-    private boolean loaded;
+    // Time to wait for the initial listing of spaces before listing directly
+    private static final long LISTING_WAIT_SECONDS = 10;
+    // Maximum number of space ACL loads queued at once by the cache loader
+    private static final int MAX_LOADS_IN_FLIGHT = 20;
 
-    private Thread cacheLoaderThread = null;
+    private static final ExecutorPoolConfig ACL_CACHE_POOL =
+        new ExecutorPoolConfig("acl-cache", 10, 1000);
+    private static final ExecutorPoolConfig ACL_LOAD_POOL =
+        new ExecutorPoolConfig("acl-load", 20, 1000);
+
+    private final Map<String, Map<String, AclType>> spaceACLMap;
+    private final Set<String> knownSpaces;
+    private final Map<String, Future<Map<String, AclType>>> pendingLoads;
+    private final CountDownLatch spacesListed;
+
+    private Future<?> cacheLoader = null;
+    private boolean loaderRunning = false;
+    private boolean reloadRequested = false;
 
     private AccountChangeNotifier notifier;
 
     private DuraCloudRequestContextUtil requestContextUtil;
 
+    private SpaceAccessDecisionCache decisionCache;
+
+    private String storeId;
+
     public ACLStorageProvider(StorageProvider targetProvider,
                               AccountChangeNotifier notifier,
                               DuraCloudRequestContextUtil requestContextUtil) {
@@ -75,66 +108,283 @@ public class ACLStorageProvider implements StorageProvider {
 
         this.targetProvider = targetProvider;
         this.securityContextUtil = securityContextUtil;
-        this.spaceACLMap = new HashMap<String, Map<String, AclType>>();
-        this.loaded = false;
+        this.spaceACLMap = new ConcurrentHashMap<>();
+        this.knownSpaces = ConcurrentHashMap.newKeySet();
+        this.pendingLoads = new ConcurrentHashMap<>();
+        this.spacesListed = new CountDownLatch(1);
         this.notifier = notifier;
         this.requestContextUtil = requestContextUtil;
-        ensureCacheLoaderThreadIsRunning();
+        ensureCacheLoaderThreadIsRunning(false);
     }
 
-    private void ensureCacheLoaderThreadIsRunning() {
-        if (this.cacheLoaderThread == null || !this.cacheLoaderThread.isAlive()) {
-            log.info("cacheLoaderThread was not running. Starting it up...");
-            this.cacheLoaderThread = new Thread(new CacheLoader());
-            this.cacheLoaderThread.start();
-            log.info("cacheLoaderThread has been started");
+    /**
+     * Sets the cache of space access decisions, which is invalidated for the
+     * account when space ACLs are changed or a space is deleted.
+     *
+     * @param decisionCache cache shared by the space access voters, may be null
+     */
+    public void setDecisionCache(SpaceAccessDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Sets the ID of the storage provider account, which is included in the
+     * notifications sent to other nodes when space ACLs are changed.
+     *
+     * @param storeId ID of the storage provider account
+     */
+    public void setStoreId(String storeId) {
+        this.storeId = storeId;
+    }
+
+    /**
+     * Reloads the ACLs of all spaces in the background. Cached ACLs continue
+     * to be served until they are replaced.
+     */
+    public void refreshCache() {
+        log.debug("refreshing space ACL cache");
+        ensureCacheLoaderThreadIsRunning(true);
+    }
+
+    /**
+     * Reloads the ACLs of a single space in the background. The cached ACLs
+     * of the space continue to be served until they are replaced.
+     *
+     * @param spaceId ID of the space
+     */
+    public void refreshSpaceACLs(String spaceId) {
+        log.debug("refreshing ACLs of space {}", spaceId);
+        knownSpaces.add(spaceId);
+        loadSpaceACLs(spaceId, true);
+    }
+
+    private synchronized void ensureCacheLoaderThreadIsRunning(boolean reload) {
+        if (!this.loaderRunning) {
+            log.info("cacheLoader was not running. Starting it up...");
+            try {
+                this.cacheLoader =
+                    ExecutorRegistry.getInstance()
+                                    .getExecutor(ACL_CACHE_POOL)
+                                    .submit(new CacheLoader(reload));
+                this.loaderRunning = true;
+                log.info("cacheLoader has been started");
+            } catch (RejectedExecutionException e) {
+                log.warn("Unable to start cacheLoader, will retry: {}",
+                         e.getMessage());
+            }
         } else {
-            log.debug("cacheLoaderThread is already running.");
+            log.debug("cacheLoader is already running.");
+            if (reload) {
+                this.reloadRequested = true;
+            }
+        }
+    }
+
+    /*
+     * Called by the cache loader when a load completes. Returns true if
+     * another load has been requested, otherwise the loader is stopped.
+     */
+    private synchronized boolean takeReloadRequest() {
+        if (this.reloadRequested) {
+            this.reloadRequested = false;
+            return true;
+        }
+        this.loaderRunning = false;
+        return false;
+    }
+
+    /*
+     * Intended to be used for testing
+     */
+    protected void waitForCacheLoader() throws Exception {
+        Future<?> loader;
+        synchronized (this) {
+            loader = this.cacheLoader;
+        }
+        if (null != loader) {
+            loader.get();
         }
     }
 
     /**
-     * This nested class loads the cache of space ACLs and AccessTypes.
+     * This nested class loads the cache of space ACLs and AccessTypes. ACLs
+     * are loaded in parallel; spaces which already have cached ACLs are
+     * skipped unless this is a reload.
      */
     private class CacheLoader implements Runnable {
+        private boolean reload;
+
+        public CacheLoader(boolean reload) {
+            this.reload = reload;
+        }
+
         public void run() {
-            try {
+            do {
+                try {
+                    load();
+                } catch (Exception ex) {
+                    log.error("Failed to complete the run of the CacheLoader", ex);
+                }
+                reload = true;
+            } while (takeReloadRequest());
+        }
 
-                Iterator<String> spaces = targetProvider.getSpaces();
-                while (spaces.hasNext()) {
-                    String space = spaces.next();
-                    spaceACLMap.put(space, getSpaceACLs(space));
+        private void load() {
+            Set<String> stale = new HashSet<>(knownSpaces);
+            List<String> spaces = listSpaces();
+            stale.removeAll(spaces);
+
+            Deque<Future<Map<String, AclType>>> inFlight = new ArrayDeque<>();
+            for (String space : spaces) {
+                inFlight.add(loadSpaceACLs(space, reload));
+                while (inFlight.size() >= MAX_LOADS_IN_FLIGHT) {
+                    awaitLoad(inFlight.poll());
                 }
-                loaded = true;
-            } catch (Exception ex) {
-                log.error("Failed to complete the run of the CacheLoader", ex);
+            }
+            while (!inFlight.isEmpty()) {
+                awaitLoad(inFlight.poll());
+            }
+
+            // Remove spaces which no longer exist
+            for (String space : stale) {
+                knownSpaces.remove(space);
+                spaceACLMap.remove(space);
             }
         }
 
-        private Map<String, AclType> getSpaceACLs(String space) {
+        private void awaitLoad(Future<Map<String, AclType>> load) {
             try {
-                return targetProvider.getSpaceACLs(space);
-
-            } catch (StorageException e) {
-                log.warn("Error getting space acls: {}, err: {}", space, e);
-                return new HashMap<String, AclType>();
+                load.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.warn("Error getting space acls: {}",
+                         e.getCause().getMessage());
             }
         }
     }
 
-    private void waitForCache() {
+    /*
+     * Retrieves the IDs of all spaces from the target provider, and records
+     * them as known spaces.
+     */
+    private List<String> listSpaces() {
+        List<String> spaces = new ArrayList<>();
+        Iterator<String> spaceIds = targetProvider.getSpaces();
+        while (spaceIds.hasNext()) {
+            spaces.add(spaceIds.next());
+        }
+        knownSpaces.addAll(spaces);
+        spacesListed.countDown();
+        return spaces;
+    }
 
-        while (!loaded) {
+    /*
+     * Loads the ACLs for a space on the ACL load pool (or on the calling
+     * thread if the pool is full). Only one load per space is run at a time,
+     * callers requesting a space which is already being loaded share the
+     * result of that load.
+     */
+    private Future<Map<String, AclType>> loadSpaceACLs(String spaceId,
+                                                       boolean reload) {
+        FutureTask<Map<String, AclType>> load =
+            new FutureTask<>(() -> fetchSpaceACLs(spaceId, reload));
+        Future<Map<String, AclType>> pending =
+            pendingLoads.putIfAbsent(spaceId, load);
+        if (null != pending) {
+            return pending;
+        }
 
-            ensureCacheLoaderThreadIsRunning();
+        try {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(ACL_LOAD_POOL)
+                            .execute(load);
+        } catch (RejectedExecutionException e) {
+            load.run();
+        }
+        return load;
+    }
+
+    private Map<String, AclType> fetchSpaceACLs(String spaceId, boolean reload) {
+        try {
+            Map<String, AclType> cached = spaceACLMap.get(spaceId);
+            if (null != cached && !reload) {
+                return cached;
+            }
 
-            log.debug("waiting: {}", targetProvider.getClass().getName());
+            Map<String, AclType> acls;
             try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                // do nothing
+                acls = targetProvider.getSpaceACLs(spaceId);
+            } catch (NotFoundException e) {
+                // The space has been deleted
+                knownSpaces.remove(spaceId);
+                spaceACLMap.remove(spaceId);
+                throw e;
+            }
+            if (null == acls) {
+                acls = new HashMap<>();
+            }
+            // Do not replace ACLs set, or remove a space deleted, while
+            // this load was in progress
+            if (null == cached) {
+                cached = spaceACLMap.putIfAbsent(spaceId, acls);
+                return null == cached ? acls : cached;
+            } else if (spaceACLMap.replace(spaceId, cached, acls)) {
+                return acls;
+            }
+            return spaceACLMap.getOrDefault(spaceId, acls);
+        } finally {
+            pendingLoads.remove(spaceId);
+        }
+    }
+
+    /*
+     * Retrieves the ACLs for a space from the cache, loading them if they
+     * are not yet cached.
+     */
+    private Map<String, AclType> getCachedSpaceACLs(String spaceId) {
+        Map<String, AclType> acls = spaceACLMap.get(spaceId);
+        if (null == acls) {
+            acls = awaitSpaceACLs(spaceId, loadSpaceACLs(spaceId, false));
+        }
+        return acls;
+    }
+
+    private Map<String, AclType> awaitSpaceACLs(String spaceId,
+                                                Future<Map<String, AclType>> load) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while getting ACLs " +
+                                       "for space " + spaceId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new StorageException("Error getting ACLs for space " +
+                                       spaceId, cause);
+        }
+    }
+
+    /*
+     * Waits for the first listing of spaces, which is much quicker than
+     * loading their ACLs. If the listing is not available, the spaces are
+     * listed directly.
+     */
+    private void awaitSpaceListing() {
+        try {
+            if (spacesListed.await(LISTING_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                return;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+
+        log.info("Space listing not yet available, listing spaces directly");
+        listSpaces();
+        ensureCacheLoaderThreadIsRunning(false);
     }
 
     @Override
@@ -156,13 +406,36 @@ public class ACLStorageProvider implements StorageProvider {
             return targetProvider.getSpaces();
         }
 
-        waitForCache();
+        awaitSpaceListing();
 
-        List<String> spaces = new ArrayList<String>();
-        for (String space : spaceACLMap.keySet()) {
+        Set<String> spaceIds = new HashSet<>(knownSpaces);
+        spaceIds.addAll(spaceACLMap.keySet());
+
+        // Serve cached ACLs, loading any which are missing in parallel
+        Map<String, Map<String, AclType>> spaceACLs = new HashMap<>();
+        Map<String, Future<Map<String, AclType>>> loads = new HashMap<>();
+        for (String space : spaceIds) {
             Map<String, AclType> acls = spaceACLMap.get(space);
-            if (userHasAccess(user, acls) && !spaces.contains(space)) {
-                spaces.add(space);
+            if (null != acls) {
+                spaceACLs.put(space, acls);
+            } else {
+                loads.put(space, loadSpaceACLs(space, false));
+            }
+        }
+        for (Map.Entry<String, Future<Map<String, AclType>>> load : loads.entrySet()) {
+            try {
+                spaceACLs.put(load.getKey(),
+                              awaitSpaceACLs(load.getKey(), load.getValue()));
+            } catch (StorageException e) {
+                log.warn("Error getting space acls: {}, err: {}",
+                         load.getKey(), e.getMessage());
+            }
+        }
+
+        List<String> spaces = new ArrayList<String>();
+        for (Map.Entry<String, Map<String, AclType>> entry : spaceACLs.entrySet()) {
+            if (userHasAccess(user, entry.getValue())) {
+                spaces.add(entry.getKey());
             }
         }
 
@@ -239,9 +512,8 @@ public class ACLStorageProvider implements StorageProvider {
 
     @Override
     public void createSpace(String spaceId) {
-        waitForCache();
-
         targetProvider.createSpace(spaceId);
+        knownSpaces.add(spaceId);
 
         // Update the cache to contain current user privileges for new space, if
         // exception not thrown above.
@@ -256,12 +528,12 @@ public class ACLStorageProvider implements StorageProvider {
 
     @Override
     public void deleteSpace(String spaceId) {
-        waitForCache();
-
         StorageException storageException = null;
         try {
             targetProvider.deleteSpace(spaceId);
+            knownSpaces.remove(spaceId);
             spaceACLMap.remove(spaceId);
+            invalidateDecisions();
 
         } catch (StorageException e) {
             storageException = e;
@@ -271,10 +543,7 @@ public class ACLStorageProvider implements StorageProvider {
         if ((getClass().getSimpleName() + "-cache").equalsIgnoreCase(spaceId)) {
             log.info("cycling cache.");
 
-            this.spaceACLMap.clear();
-            this.loaded = false;
-
-            new Thread(new CacheLoader()).start();
+            refreshCache();
         }
 
         if (null != storageException) {
@@ -289,27 +558,11 @@ public class ACLStorageProvider implements StorageProvider {
 
     @Override
     public Map<String, AclType> getSpaceACLs(String spaceId) {
-        DuracloudUserDetails user = getCurrentUserDetails();
-        if (isAdmin(user) && !loaded) {
-            return targetProvider.getSpaceACLs(spaceId);
-        }
-
-        waitForCache();
-
-        if (spaceACLMap.containsKey(spaceId)) {
-            return spaceACLMap.get(spaceId);
-
-        } else {
-            Map<String, AclType> acls = targetProvider.getSpaceACLs(spaceId);
-            spaceACLMap.put(spaceId, acls);
-            return acls;
-        }
+        return getCachedSpaceACLs(spaceId);
     }
 
     @Override
     public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
-        waitForCache();
-
         targetProvider.setSpaceACLs(spaceId, spaceACLs);
 
         if (null != spaceACLs) {
@@ -317,12 +570,21 @@ public class ACLStorageProvider implements StorageProvider {
             this.spaceACLMap.put(spaceId, spaceACLs);
         }
 
-        sendCacheChangedNotification();
+        invalidateDecisions();
+        sendCacheChangedNotification(spaceId);
 
     }
 
-    private void sendCacheChangedNotification() {
-        notifier.storageProviderCacheOnNodeChanged(requestContextUtil.getAccountId());
+    private void invalidateDecisions() {
+        if (null != decisionCache) {
+            decisionCache.invalidateAccount(requestContextUtil.getAccountId());
+        }
+    }
+
+    private void sendCacheChangedNotification(String spaceId) {
+        notifier.storageProviderCacheOnNodeChanged(requestContextUtil.getAccountId(),
+                                                   storeId,
+                                                   spaceId);
     }
 
     @Override
@@ -368,6 +630,12 @@ public class ACLStorageProvider implements StorageProvider {
         targetProvider.deleteContent(spaceId, contentId);
     }
 
+    @Override
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        return targetProvider.deleteContents(spaceId, contentIds);
+    }
+
     @Override
     public void setContentProperties(String spaceId,
                                      String contentId,
@@ -382,4 +650,16 @@ public class ACLStorageProvider implements StorageProvider {
                                                     String contentId) {
         return targetProvider.getContentProperties(spaceId, contentId);
     }
+
+    @Override
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        return targetProvider.setContentsProperties(spaceId, contentProperties);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        return targetProvider.getContentsProperties(spaceId, contentIds);
+    }
 }
@@ -0,0 +1,539 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
+import org.duracloud.common.model.AclType;
+import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.storage.domain.RetrievedContent;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves space properties, space ACLs and content properties from a shared
+ * StorageMetadataCache, loading them from the target provider on a miss.
+ *
+ * A change made to a content item through this provider invalidates the
+ * cached properties of that item and of its space, while creating or
+ * deleting a space or changing its ACLs invalidates all cached metadata of
+ * the space. Other nodes are notified so that they can do the same.
+ * Notifications are sent in the background, or on the calling thread when
+ * the notification pool is full; changes made to a space while a
+ * notification for it is waiting to be sent are added to that
+ * notification. Notifications also carry the change in the totals of a
+ * space reported by a SpaceTotalsStorageProvider, so that other nodes can
+ * adjust their totals rather than recalculate them.
+ *
+ * Content items which were found not to exist are cached as well, so that
+ * the existence checks made by the layers above before a write only reach
+ * the target provider once. These are only kept briefly, as an item added
+ * on another node would otherwise not be found here until the notification
+ * of the change arrived.
+ */
+public class CachingStorageProvider implements StorageProvider {
+
+    private final Logger log =
+        LoggerFactory.getLogger(CachingStorageProvider.class);
+
+    private final StorageProvider targetProvider;
+    private final StorageMetadataCache metadataCache;
+    private final AccountChangeNotifier notifier;
+    private final String accountId;
+    private final String storeId;
+    private final ConcurrentMap<String, PendingChange> pendingNotifications;
+
+    // Cached in place of the properties of content which does not exist
+    private static final Map<String, String> NOT_FOUND =
+        Collections.unmodifiableMap(new HashMap<>());
+
+    // Long enough to cover the lookups made by a single write
+    static final long NOT_FOUND_MAX_AGE_MILLIS = 500;
+
+    // Above this many changed items, other nodes invalidate the whole space
+    static final int MAX_NOTIFIED_CONTENT_IDS = 100;
+
+    private static final ExecutorPoolConfig METADATA_NOTIFY_POOL =
+        new ExecutorPoolConfig("metadata-notify", 2, 1000);
+
+    public CachingStorageProvider(StorageProvider targetProvider,
+                                  StorageMetadataCache metadataCache,
+                                  AccountChangeNotifier notifier,
+                                  String accountId,
+                                  String storeId) {
+        this.targetProvider = targetProvider;
+        this.metadataCache = metadataCache;
+        this.notifier = notifier;
+        this.accountId = accountId;
+        this.storeId = storeId;
+        this.pendingNotifications = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return key identifying a space across all accounts and stores
+     */
+    public static String getSpaceKey(String accountId,
+                                     String storeId,
+                                     String spaceId) {
+        return accountId + "/" + storeId + "/" + spaceId;
+    }
+
+    /**
+     * @return key of the cached properties of a space
+     */
+    public static String getSpacePropertiesKey(String accountId,
+                                               String storeId,
+                                               String spaceId) {
+        return getSpaceKey(accountId, storeId, spaceId) + "/properties";
+    }
+
+    /**
+     * @return key of the cached properties of a content item
+     */
+    public static String getContentKey(String accountId,
+                                       String storeId,
+                                       String spaceId,
+                                       String contentId) {
+        return getSpaceKey(accountId, storeId, spaceId) + "/content/" +
+               contentId;
+    }
+
+    /**
+     * Invalidates the cached properties of content items and of the space
+     * which holds them.
+     */
+    public static void invalidateContents(StorageMetadataCache metadataCache,
+                                          String accountId,
+                                          String storeId,
+                                          String spaceId,
+                                          Collection<String> contentIds) {
+        for (String contentId : contentIds) {
+            metadataCache.invalidate(
+                getContentKey(accountId, storeId, spaceId, contentId));
+        }
+        metadataCache.invalidate(
+            getSpacePropertiesKey(accountId, storeId, spaceId));
+    }
+
+    private String getSpaceKey(String spaceId) {
+        return getSpaceKey(accountId, storeId, spaceId);
+    }
+
+    /*
+     * Invalidates all cached metadata of a space created, deleted or
+     * secured through this provider, and notifies other nodes of the change.
+     */
+    private void spaceChanged(String spaceId) {
+        metadataCache.invalidateSpace(getSpaceKey(spaceId));
+        notifyChanged(spaceId, change -> change.addContentIds(null), true);
+    }
+
+    /*
+     * Invalidates the cached properties of content items changed through
+     * this provider, along with those of their space, and notifies other
+     * nodes of the change.
+     */
+    private void contentChanged(String spaceId, Collection<String> contentIds) {
+        invalidateContents(metadataCache, accountId, storeId, spaceId,
+                           contentIds);
+        notifyChanged(spaceId, change -> change.addContentIds(contentIds), true);
+    }
+
+    /**
+     * Adds a change in the totals of a space to the notification sent to
+     * other nodes for the space.
+     *
+     * @param spaceId   ID of the space
+     * @param itemDelta change in the number of items, or null if not known
+     * @param byteDelta change in the total size of the items, or null if
+     *                  not known
+     * @param send      false to wait for the change which is about to be made
+     *                  to the space to send the notification
+     */
+    public void totalsChanged(String spaceId,
+                              Long itemDelta,
+                              Long byteDelta,
+                              boolean send) {
+        notifyChanged(spaceId,
+                      change -> change.addTotals(itemDelta, byteDelta),
+                      send);
+    }
+
+    /*
+     * Adds a change to the notification waiting to be sent for a space,
+     * queueing the notification if it has not been queued.
+     */
+    private void notifyChanged(String spaceId,
+                               Consumer<PendingChange> update,
+                               boolean send) {
+        PendingChange created = new PendingChange();
+        boolean[] queue = {false};
+        pendingNotifications.compute(spaceId, (id, change) -> {
+            PendingChange merged = null == change ? created : change;
+            update.accept(merged);
+            if (send && !merged.queued) {
+                merged.queued = true;
+                queue[0] = true;
+            }
+            return merged;
+        });
+        if (!queue[0]) {
+            return;
+        }
+
+        try {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(METADATA_NOTIFY_POOL)
+                            .execute(() -> sendNotification(spaceId));
+        } catch (RejectedExecutionException e) {
+            // Sent on this thread rather than lost, as other nodes would
+            // otherwise serve the old metadata until it expires
+            log.debug("Notification pool is full, notifying other nodes " +
+                      "of changes to space {} directly", spaceId);
+            sendNotification(spaceId);
+        }
+    }
+
+    private void sendNotification(String spaceId) {
+        // Removed first so that changes made while sending lead to a new
+        // notification
+        PendingChange change = pendingNotifications.remove(spaceId);
+        if (null != change) {
+            notifier.storageMetadataChanged(accountId, storeId, spaceId,
+                                            change.getContentIds(),
+                                            change.itemDelta, change.byteDelta);
+        }
+    }
+
+    /*
+     * The content items changed in a space since its last notification, or
+     * null content IDs if the space as a whole changed, and the change in
+     * its totals, or null deltas if the change is not known.
+     */
+    private static class PendingChange {
+        private Set<String> contentIds = new HashSet<>();
+        private Long itemDelta = 0L;
+        private Long byteDelta = 0L;
+        private boolean queued = false;
+
+        private void addTotals(Long items, Long bytes) {
+            if (null == items || null == bytes ||
+                null == itemDelta || null == byteDelta) {
+                itemDelta = null;
+                byteDelta = null;
+            } else {
+                itemDelta += items;
+                byteDelta += bytes;
+            }
+        }
+
+        private void addContentIds(Collection<String> changedIds) {
+            if (null == changedIds ||
+                null == contentIds ||
+                contentIds.size() + changedIds.size() > MAX_NOTIFIED_CONTENT_IDS) {
+                contentIds = null;
+            } else {
+                contentIds.addAll(changedIds);
+            }
+        }
+
+        private List<String> getContentIds() {
+            return null == contentIds ? null : new ArrayList<>(contentIds);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<String, T> getCached(String key,
+                                         String spaceId,
+                                         MetadataLoader<T> loader) {
+        Map<String, T> cached = (Map<String, T>) metadataCache.get(key);
+        if (null == cached) {
+            // Captured before loading, so a change made during the load
+            // leaves the loaded value invalid
+            StorageMetadataCache.Stamp stamp =
+                metadataCache.stamp(accountId, getSpaceKey(spaceId), key);
+            Map<String, T> loaded = loader.load();
+            if (null == loaded) {
+                return null;
+            }
+            cached = new HashMap<>(loaded);
+            metadataCache.put(key, cached, stamp);
+        }
+        // Callers are free to modify the returned map
+        return new HashMap<>(cached);
+    }
+
+    private interface MetadataLoader<T> {
+        Map<String, T> load();
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return targetProvider.getStorageProviderType();
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return targetProvider.getSpaces();
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return targetProvider.getSpaceContents(spaceId, prefix);
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        return targetProvider.getSpaceContentsChunked(spaceId,
+                                                      prefix,
+                                                      maxResults,
+                                                      marker);
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        try {
+            targetProvider.createSpace(spaceId);
+        } finally {
+            spaceChanged(spaceId);
+        }
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        try {
+            targetProvider.deleteSpace(spaceId);
+        } finally {
+            spaceChanged(spaceId);
+        }
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        return getCached(getSpacePropertiesKey(accountId, storeId, spaceId),
+                         spaceId,
+                         () -> targetProvider.getSpaceProperties(spaceId));
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        return getCached(getSpaceKey(spaceId) + "/acls",
+                         spaceId,
+                         () -> targetProvider.getSpaceACLs(spaceId));
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        try {
+            targetProvider.setSpaceACLs(spaceId, spaceACLs);
+        } finally {
+            spaceChanged(spaceId);
+        }
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        try {
+            return targetProvider.addContent(spaceId,
+                                             contentId,
+                                             contentMimeType,
+                                             userProperties,
+                                             contentSize,
+                                             contentChecksum,
+                                             content);
+        } finally {
+            contentChanged(spaceId, Collections.singletonList(contentId));
+        }
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        try {
+            return targetProvider.copyContent(sourceSpaceId,
+                                              sourceContentId,
+                                              destSpaceId,
+                                              destContentId);
+        } finally {
+            contentChanged(destSpaceId,
+                           Collections.singletonList(destContentId));
+        }
+    }
+
+    @Override
+    public RetrievedContent getContent(String spaceId, String contentId) {
+        return targetProvider.getContent(spaceId, contentId);
+    }
+
+    @Override
+    public RetrievedContent getContent(String spaceId,
+                                       String contentId,
+                                       String range) {
+        return targetProvider.getContent(spaceId, contentId, range);
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        try {
+            targetProvider.deleteContent(spaceId, contentId);
+        } finally {
+            contentChanged(spaceId, Collections.singletonList(contentId));
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        try {
+            return targetProvider.deleteContents(spaceId, contentIds);
+        } finally {
+            contentChanged(spaceId, contentIds);
+        }
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        try {
+            targetProvider.setContentProperties(spaceId,
+                                                contentId,
+                                                contentProperties);
+        } finally {
+            contentChanged(spaceId, Collections.singletonList(contentId));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        String key = getContentKey(spaceId, contentId);
+        Map<String, String> cached = (Map<String, String>) metadataCache.get(key);
+        if (null == cached) {
+            StorageMetadataCache.Stamp stamp =
+                metadataCache.stamp(accountId, getSpaceKey(spaceId), key);
+            Map<String, String> loaded;
+            try {
+                loaded = targetProvider.getContentProperties(spaceId, contentId);
+            } catch (NotFoundException e) {
+                metadataCache.put(key, NOT_FOUND, stamp,
+                                  NOT_FOUND_MAX_AGE_MILLIS);
+                throw e;
+            }
+            if (null == loaded) {
+                return null;
+            }
+            cached = new HashMap<>(loaded);
+            metadataCache.put(key, cached, stamp);
+        }
+
+        if (NOT_FOUND == cached) {
+            throw new NotFoundException("Content item " + contentId +
+                                        " does not exist in space " + spaceId);
+        }
+        // Callers are free to modify the returned map
+        return new HashMap<>(cached);
+    }
+
+    @Override
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        try {
+            return targetProvider.setContentsProperties(spaceId,
+                                                        contentProperties);
+        } finally {
+            contentChanged(spaceId, contentProperties.keySet());
+        }
+    }
+
+    /*
+     * Cached properties are served directly, items cached as not existing
+     * are left out, and the properties of the remaining items are retrieved
+     * from the target provider in one call.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        Map<String, Map<String, String>> cached = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String contentId : contentIds) {
+            Map<String, String> contentProps = (Map<String, String>)
+                metadataCache.get(getContentKey(spaceId, contentId));
+            if (null == contentProps) {
+                uncached.add(contentId);
+            } else if (NOT_FOUND != contentProps) {
+                cached.put(contentId, contentProps);
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            Map<String, StorageMetadataCache.Stamp> stamps = new HashMap<>();
+            for (String contentId : uncached) {
+                stamps.put(contentId,
+                           metadataCache.stamp(accountId, getSpaceKey(spaceId),
+                                               getContentKey(spaceId, contentId)));
+            }
+            Map<String, Map<String, String>> loaded =
+                targetProvider.getContentsProperties(spaceId, uncached);
+            for (Map.Entry<String, Map<String, String>> entry :
+                loaded.entrySet()) {
+                Map<String, String> contentProps = new HashMap<>(entry.getValue());
+                metadataCache.put(getContentKey(spaceId, entry.getKey()),
+                                  contentProps, stamps.get(entry.getKey()));
+                cached.put(entry.getKey(), contentProps);
+            }
+        }
+
+        // Callers are free to modify the returned maps
+        Map<String, Map<String, String>> contentsProps = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            Map<String, String> contentProps = cached.get(contentId);
+            if (null != contentProps) {
+                contentsProps.put(contentId, new HashMap<>(contentProps));
+            }
+        }
+        return contentsProps;
+    }
+
+    private String getContentKey(String spaceId, String contentId) {
+        return getContentKey(accountId, storeId, spaceId, contentId);
+    }
+
+}
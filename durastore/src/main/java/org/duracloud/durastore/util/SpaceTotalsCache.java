@@ -0,0 +1,219 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
+import org.duracloud.storage.domain.SpaceTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the number of items in each space and their total size, shared by
+ * the storage providers of all accounts.
+ *
+ * Totals are calculated in the background the first time they are
+ * requested for a space, and are adjusted as content is added, copied and
+ * deleted, on this node or (through the changes carried in notifications)
+ * on another node. They are recalculated (reconciled) in the background
+ * once they reach the reconcile age, which corrects any drift caused by
+ * concurrent writes or by changes made while a space was being listed.
+ * Totals of a space changed on another node in a way which is not known
+ * are recalculated on the next request, but no more often than the minimum
+ * reconcile age. Current totals continue to be served while they are
+ * recalculated. Totals are held for a limited number of spaces, those
+ * least recently used being discarded first.
+ */
+public class SpaceTotalsCache {
+
+    private final Logger log = LoggerFactory.getLogger(SpaceTotalsCache.class);
+
+    public static final long DEFAULT_RECONCILE_SECONDS = 60 * 60;
+    public static final long DEFAULT_MIN_RECONCILE_SECONDS = 60;
+    public static final int DEFAULT_MAX_SPACES = 10000;
+
+    private static final ExecutorPoolConfig SPACE_TOTALS_POOL =
+        new ExecutorPoolConfig("space-totals", 2, 100);
+
+    private final Map<String, Totals> totals;
+    private final Set<String> calculating = ConcurrentHashMap.newKeySet();
+    private final long reconcileNanos;
+    private final long minReconcileNanos;
+
+    public SpaceTotalsCache() {
+        this(DEFAULT_RECONCILE_SECONDS, DEFAULT_MIN_RECONCILE_SECONDS);
+    }
+
+    public SpaceTotalsCache(long reconcileSeconds, long minReconcileSeconds) {
+        this(reconcileSeconds, minReconcileSeconds, DEFAULT_MAX_SPACES);
+    }
+
+    /**
+     * @param reconcileSeconds    age after which totals are recalculated
+     * @param minReconcileSeconds age after which totals of a space changed
+     *                            on another node may be recalculated
+     * @param maxSpaces           maximum number of spaces for which totals
+     *                            are held
+     */
+    public SpaceTotalsCache(long reconcileSeconds,
+                            long minReconcileSeconds,
+                            int maxSpaces) {
+        this.reconcileNanos = TimeUnit.SECONDS.toNanos(reconcileSeconds);
+        this.minReconcileNanos = TimeUnit.SECONDS.toNanos(minReconcileSeconds);
+        this.totals = new LinkedHashMap<String, Totals>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Totals> eldest) {
+                return size() > maxSpaces;
+            }
+        };
+    }
+
+    private Totals getTotals(String spaceKey) {
+        synchronized (totals) {
+            return totals.get(spaceKey);
+        }
+    }
+
+    /**
+     * Retrieves the totals of a space. Totals which are not yet known, or
+     * which are due to be reconciled, are calculated in the background.
+     *
+     * @param spaceKey   key identifying the space across all accounts
+     * @param calculator determines the totals by listing the space
+     * @return the totals, or null if they have not yet been calculated
+     */
+    public SpaceTotals get(String spaceKey, Supplier<SpaceTotals> calculator) {
+        Totals current = getTotals(spaceKey);
+        if (null == current || current.isStale(reconcileNanos, minReconcileNanos)) {
+            calculate(spaceKey, current, calculator);
+        }
+        return null == current ? null : current.toSpaceTotals();
+    }
+
+    /**
+     * @param spaceKey key identifying the space across all accounts
+     * @return true if totals are held for the space, and so should be
+     * updated as its content changes
+     */
+    public boolean isTracked(String spaceKey) {
+        return null != getTotals(spaceKey);
+    }
+
+    /**
+     * Adjusts the totals of a space. Updates to spaces for which no totals
+     * are held are ignored.
+     *
+     * @param spaceKey  key identifying the space across all accounts
+     * @param itemDelta change in the number of items
+     * @param byteDelta change in the total size of the items
+     */
+    public void update(String spaceKey, long itemDelta, long byteDelta) {
+        Totals current = getTotals(spaceKey);
+        if (null != current) {
+            current.items.addAndGet(itemDelta);
+            current.bytes.addAndGet(byteDelta);
+        }
+    }
+
+    /**
+     * Marks the totals of a space which was changed through another node
+     * to be recalculated.
+     *
+     * @param spaceKey key identifying the space across all accounts
+     */
+    public void invalidateSpace(String spaceKey) {
+        Totals current = getTotals(spaceKey);
+        if (null != current) {
+            current.invalid = true;
+        }
+    }
+
+    /**
+     * Discards the totals of a space, to be used when a space is created or
+     * removed.
+     *
+     * @param spaceKey key identifying the space across all accounts
+     */
+    public void remove(String spaceKey) {
+        synchronized (totals) {
+            totals.remove(spaceKey);
+        }
+    }
+
+    /*
+     * Calculates totals in the background. Only one calculation is made at
+     * a time for each space, and none is made if the executor is busy.
+     */
+    private void calculate(String spaceKey,
+                           Totals previous,
+                           Supplier<SpaceTotals> calculator) {
+        if (!calculating.add(spaceKey)) {
+            return;
+        }
+
+        try {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(SPACE_TOTALS_POOL)
+                            .execute(() -> {
+                                try {
+                                    Totals calculated =
+                                        new Totals(calculator.get());
+                                    // Totals discarded in the meantime are
+                                    // not restored
+                                    synchronized (totals) {
+                                        if (null == previous) {
+                                            totals.putIfAbsent(spaceKey, calculated);
+                                        } else {
+                                            totals.replace(spaceKey, previous,
+                                                           calculated);
+                                        }
+                                    }
+                                } catch (Exception e) {
+                                    log.warn("Unable to calculate totals of space " +
+                                             spaceKey + ": " + e.getMessage());
+                                } finally {
+                                    calculating.remove(spaceKey);
+                                }
+                            });
+        } catch (RejectedExecutionException e) {
+            calculating.remove(spaceKey);
+        }
+    }
+
+    private static class Totals {
+        private final AtomicLong items;
+        private final AtomicLong bytes;
+        private final long calculated = System.nanoTime();
+        private volatile boolean invalid = false;
+
+        private Totals(SpaceTotals spaceTotals) {
+            this.items = new AtomicLong(spaceTotals.getItemCount());
+            this.bytes = new AtomicLong(spaceTotals.getByteCount());
+        }
+
+        private boolean isStale(long reconcileNanos, long minReconcileNanos) {
+            long age = System.nanoTime() - calculated;
+            return age > reconcileNanos || (invalid && age > minReconcileNanos);
+        }
+
+        private SpaceTotals toSpaceTotals() {
+            return new SpaceTotals(Math.max(0, items.get()),
+                                   Math.max(0, bytes.get()));
+        }
+    }
+
+}
@@ -0,0 +1,368 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.RetrievedContent;
+import org.duracloud.storage.domain.SpaceTotals;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
+
+/**
+ * Maintains the item count and total size of each space in a shared
+ * SpaceTotalsCache, and reports them in the space properties (as the
+ * space-count and space-total-size values) once they are known. Until then
+ * the properties include the count provided by the target provider.
+ *
+ * The size of an item which is added, copied, replaced or deleted is
+ * retrieved before the change is made. When a CachingStorageProvider is
+ * available the sizes are retrieved through it, so that they are usually
+ * served from the properties cached by the existence checks which the REST
+ * layer and the audit layer make for the same write. The change in totals
+ * is then added to the notification which the CachingStorageProvider sends
+ * to other nodes for the write, which lets them adjust their totals rather
+ * than recalculate them. Without a CachingStorageProvider, totals are only
+ * adjusted for spaces which are being tracked, and sizes are retrieved from
+ * the store provider (the unaudited provider at the bottom of the chain).
+ *
+ * Totals are recorded before a change is made and reversed if it fails, so
+ * that the change in totals is sent with the notification for the change.
+ * Totals are calculated using the store provider.
+ */
+public class SpaceTotalsStorageProvider implements StorageProvider {
+
+    // Number of items counted for a space whose totals are not yet known
+    private static final int SPACE_COUNT_LIMIT = 1000;
+
+    private final StorageProvider targetProvider;
+    private final StorageProvider storeProvider;
+    private final CachingStorageProvider cachingProvider;
+    private final StorageProvider lookupProvider;
+    private final SpaceTotalsCache totalsCache;
+    private final String accountId;
+    private final String storeId;
+
+    /**
+     * @param targetProvider  provider to which calls are passed
+     * @param storeProvider   unaudited provider used to calculate totals
+     * @param cachingProvider provider used to look up item sizes and notify
+     *                        other nodes of changes in totals, or null if
+     *                        metadata is not cached
+     * @param totalsCache     totals shared by all accounts
+     * @param accountId       ID of the account
+     * @param storeId         ID of the storage provider
+     */
+    public SpaceTotalsStorageProvider(StorageProvider targetProvider,
+                                      StorageProvider storeProvider,
+                                      CachingStorageProvider cachingProvider,
+                                      SpaceTotalsCache totalsCache,
+                                      String accountId,
+                                      String storeId) {
+        this.targetProvider = targetProvider;
+        this.storeProvider = storeProvider;
+        this.cachingProvider = cachingProvider;
+        this.lookupProvider =
+            null == cachingProvider ? storeProvider : cachingProvider;
+        this.totalsCache = totalsCache;
+        this.accountId = accountId;
+        this.storeId = storeId;
+    }
+
+    private String getSpaceKey(String spaceId) {
+        return CachingStorageProvider.getSpaceKey(accountId, storeId, spaceId);
+    }
+
+    /*
+     * @return true if changes in the totals of a space are to be recorded
+     */
+    private boolean isRecorded(String spaceId) {
+        return null != cachingProvider ||
+               totalsCache.isTracked(getSpaceKey(spaceId));
+    }
+
+    /*
+     * @return the size of an item, or null if the item does not exist
+     */
+    private Long getContentSize(String spaceId, String contentId) {
+        try {
+            return StorageProviderUtil.getContentSize(
+                lookupProvider.getContentProperties(spaceId, contentId));
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Records a change in the totals of a space. Unless sent, the change is
+     * sent to other nodes with the notification of the write about to be
+     * made.
+     */
+    private void totalsChanged(String spaceId,
+                               long itemDelta,
+                               long byteDelta,
+                               boolean send) {
+        totalsCache.update(getSpaceKey(spaceId), itemDelta, byteDelta);
+        if (null != cachingProvider) {
+            cachingProvider.totalsChanged(spaceId, itemDelta, byteDelta, send);
+        }
+    }
+
+    /*
+     * Records that an item is written, replacing the item of the previous
+     * size if there was one.
+     */
+    private void contentWritten(String spaceId,
+                                Long previousSize,
+                                long size,
+                                boolean send) {
+        if (null == previousSize) {
+            totalsChanged(spaceId, 1, size, send);
+        } else {
+            totalsChanged(spaceId, 0, size - previousSize, send);
+        }
+    }
+
+    /*
+     * Reverses the recorded write of an item which failed.
+     */
+    private void contentNotWritten(String spaceId, Long previousSize, long size) {
+        if (null == previousSize) {
+            totalsChanged(spaceId, -1, -size, true);
+        } else {
+            totalsChanged(spaceId, 0, previousSize - size, true);
+        }
+    }
+
+    /*
+     * Records that a space is created or deleted, which other nodes handle
+     * by recalculating its totals.
+     */
+    private void spaceChanged(String spaceId) {
+        totalsCache.remove(getSpaceKey(spaceId));
+        if (null != cachingProvider) {
+            cachingProvider.totalsChanged(spaceId, null, null, false);
+        }
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return targetProvider.getStorageProviderType();
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return targetProvider.getSpaces();
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return targetProvider.getSpaceContents(spaceId, prefix);
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        return targetProvider.getSpaceContentsChunked(spaceId,
+                                                      prefix,
+                                                      maxResults,
+                                                      marker);
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        spaceChanged(spaceId);
+        targetProvider.createSpace(spaceId);
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        spaceChanged(spaceId);
+        targetProvider.deleteSpace(spaceId);
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        Map<String, String> spaceProps =
+            new HashMap<>(targetProvider.getSpaceProperties(spaceId));
+
+        SpaceTotals totals = totalsCache.get(
+            getSpaceKey(spaceId),
+            () -> StorageProviderUtil.calculateSpaceTotals(storeProvider, spaceId));
+        if (null != totals) {
+            spaceProps.put(PROPERTIES_SPACE_COUNT,
+                           String.valueOf(totals.getItemCount()));
+            spaceProps.put(PROPERTIES_SPACE_SIZE,
+                           String.valueOf(totals.getByteCount()));
+        } else {
+            // The totals are being calculated, count the first page of items
+            spaceProps.put(PROPERTIES_SPACE_COUNT,
+                           StorageProviderUtil.getSpaceCount(storeProvider,
+                                                             spaceId,
+                                                             SPACE_COUNT_LIMIT));
+        }
+        return spaceProps;
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        return targetProvider.getSpaceACLs(spaceId);
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        targetProvider.setSpaceACLs(spaceId, spaceACLs);
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        if (!isRecorded(spaceId)) {
+            return targetProvider.addContent(spaceId, contentId, contentMimeType,
+                                             userProperties, contentSize,
+                                             contentChecksum, content);
+        }
+
+        Long previousSize = getContentSize(spaceId, contentId);
+        if (contentSize < 0) {
+            // The size is not known up front for streamed uploads
+            String checksum =
+                targetProvider.addContent(spaceId, contentId, contentMimeType,
+                                          userProperties, contentSize,
+                                          contentChecksum, content);
+            Long addedSize = getContentSize(spaceId, contentId);
+            contentWritten(spaceId, previousSize,
+                           null == addedSize ? 0 : addedSize, true);
+            return checksum;
+        }
+
+        contentWritten(spaceId, previousSize, contentSize, false);
+        try {
+            return targetProvider.addContent(spaceId, contentId, contentMimeType,
+                                             userProperties, contentSize,
+                                             contentChecksum, content);
+        } catch (RuntimeException e) {
+            contentNotWritten(spaceId, previousSize, contentSize);
+            throw e;
+        }
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        Long size = isRecorded(destSpaceId) ?
+                    getContentSize(sourceSpaceId, sourceContentId) : null;
+        if (null == size) {
+            // The copy fails if the source does not exist
+            return targetProvider.copyContent(sourceSpaceId, sourceContentId,
+                                              destSpaceId, destContentId);
+        }
+
+        Long previousSize = getContentSize(destSpaceId, destContentId);
+        contentWritten(destSpaceId, previousSize, size, false);
+        try {
+            return targetProvider.copyContent(sourceSpaceId, sourceContentId,
+                                              destSpaceId, destContentId);
+        } catch (RuntimeException e) {
+            contentNotWritten(destSpaceId, previousSize, size);
+            throw e;
+        }
+    }
+
+    @Override
+    public RetrievedContent getContent(String spaceId, String contentId) {
+        return targetProvider.getContent(spaceId, contentId);
+    }
+
+    @Override
+    public RetrievedContent getContent(String spaceId,
+                                       String contentId,
+                                       String range) {
+        return targetProvider.getContent(spaceId, contentId, range);
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        Long size = isRecorded(spaceId) ? getContentSize(spaceId, contentId) : null;
+        if (null == size) {
+            targetProvider.deleteContent(spaceId, contentId);
+            return;
+        }
+
+        totalsChanged(spaceId, -1, -size, false);
+        try {
+            targetProvider.deleteContent(spaceId, contentId);
+        } catch (RuntimeException e) {
+            totalsChanged(spaceId, 1, size, true);
+            throw e;
+        }
+    }
+
+    /*
+     * The totals are updated from the sizes reported for the items which
+     * were deleted, so the items are not looked up beforehand.
+     */
+    @Override
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        Map<String, Map<String, String>> deleted =
+            targetProvider.deleteContents(spaceId, contentIds);
+        if (isRecorded(spaceId) && !deleted.isEmpty()) {
+            long bytes = 0;
+            for (Map<String, String> contentProps : deleted.values()) {
+                bytes += StorageProviderUtil.getContentSize(contentProps);
+            }
+            totalsChanged(spaceId, -deleted.size(), -bytes, true);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        targetProvider.setContentProperties(spaceId,
+                                            contentId,
+                                            contentProperties);
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        return targetProvider.getContentProperties(spaceId, contentId);
+    }
+
+    @Override
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        return targetProvider.setContentsProperties(spaceId, contentProperties);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        return targetProvider.getContentsProperties(spaceId, contentIds);
+    }
+
+}
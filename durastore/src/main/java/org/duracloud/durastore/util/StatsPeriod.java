@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * The periods (granularities) at which storage stats are rolled up. Periods
+ * are aligned to UTC, and weeks begin on Monday.
+ */
+public enum StatsPeriod {
+
+    day,
+    week,
+    month;
+
+    /**
+     * @param timestamp time in epoch milliseconds
+     * @return start of the period which includes the time, in epoch
+     * milliseconds
+     */
+    public long getPeriodStart(long timestamp) {
+        LocalDate date =
+            Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC).toLocalDate();
+        if (this == week) {
+            date = date.with(DayOfWeek.MONDAY);
+        } else if (this == month) {
+            date = date.withDayOfMonth(1);
+        }
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * @param timestamp time in epoch milliseconds
+     * @return start of the period following the one which includes the time,
+     * in epoch milliseconds
+     */
+    public long getNextPeriodStart(long timestamp) {
+        LocalDate date = Instant.ofEpochMilli(getPeriodStart(timestamp))
+                                .atZone(ZoneOffset.UTC).toLocalDate();
+        if (this == day) {
+            date = date.plusDays(1);
+        } else if (this == week) {
+            date = date.plusWeeks(1);
+        } else {
+            date = date.plusMonths(1);
+        }
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+}
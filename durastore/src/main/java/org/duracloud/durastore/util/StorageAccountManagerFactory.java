@@ -16,6 +16,7 @@ import org.duracloud.account.db.model.GlobalProperties;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.repo.DuracloudAccountRepo;
 import org.duracloud.account.db.repo.GlobalPropertiesRepo;
+import org.duracloud.common.cache.ExpiringValue;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.storage.domain.StorageAccount;
 import org.duracloud.storage.domain.StorageAccountManager;
@@ -29,9 +30,15 @@ import org.duracloud.storage.domain.impl.StorageAccountImpl;
  * @author Daniel Bernstein
  */
 public class StorageAccountManagerFactory {
+
+    // Global properties are shared by all accounts and rarely change, so
+    // are read at most once per minute rather than once per storage account
+    public static final long GLOBAL_PROPERTIES_MAX_AGE_MILLIS = 60000;
+
     private DuracloudAccountRepo accountRepo;
     private GlobalPropertiesRepo globalPropertiesRepo;
     private DuraCloudRequestContextUtil contextUtil;
+    private ExpiringValue<GlobalProperties> globalProperties;
 
     public StorageAccountManagerFactory(DuracloudAccountRepo accountRepo,
                                         GlobalPropertiesRepo globalPropertiesRepo,
@@ -40,33 +47,75 @@ public class StorageAccountManagerFactory {
         this.accountRepo = accountRepo;
         this.globalPropertiesRepo = globalPropertiesRepo;
         this.contextUtil = contextUtil;
+        this.globalProperties =
+            new ExpiringValue<>(this::loadGlobalProperties,
+                                GLOBAL_PROPERTIES_MAX_AGE_MILLIS);
     }
 
     public StorageAccountManager createInstance() {
+        return createInstance(this.contextUtil.getAccountId(),
+                              this.contextUtil.getHost(),
+                              this.contextUtil.getPort() + "");
+    }
 
+    /**
+     * Builds the storage account manager for an account outside of a
+     * request, such as when rebuilding account components in the background.
+     *
+     * @param accountId    ID (subdomain) of the account
+     * @param instanceHost host name of this instance
+     * @param instancePort port of this instance
+     * @return storage account manager
+     */
+    public StorageAccountManager createInstance(String accountId,
+                                                String instanceHost,
+                                                String instancePort) {
         //retrieve account info from db
-        String accountId = this.contextUtil.getAccountId();
         AccountInfo info = this.accountRepo.findBySubdomain(accountId);
+        GlobalProperties globalProps = this.globalProperties.get();
 
         //build a storage account manager
         List<StorageAccount> sps = new LinkedList<>();
-        sps.add(createStorageAccount(info.getPrimaryStorageProviderAccount(), true));
+        sps.add(createStorageAccount(info.getPrimaryStorageProviderAccount(),
+                                     true,
+                                     globalProps));
         StorageAccountManager storageAccountManager = new StorageAccountManager();
         for (StorageProviderAccount spa : info.getSecondaryStorageProviderAccounts()) {
-            sps.add(createStorageAccount(spa, false));
+            sps.add(createStorageAccount(spa, false, globalProps));
         }
 
         //initialize it
         storageAccountManager.initialize(sps);
 
-        storageAccountManager.setEnvironment(this.contextUtil.getHost(),
-                                             this.contextUtil.getPort() + "",
+        storageAccountManager.setEnvironment(instanceHost,
+                                             instancePort,
                                              accountId);
 
         return storageAccountManager;
     }
 
-    private StorageAccount createStorageAccount(StorageProviderAccount spa, boolean primary) {
+    /**
+     * Discards the cached global properties, so that they are read again by
+     * the next build.
+     */
+    public void invalidateGlobalProperties() {
+        this.globalProperties.invalidate();
+    }
+
+    /*
+     * @return the global properties, or null if none are defined
+     */
+    private GlobalProperties loadGlobalProperties() {
+        List<GlobalProperties> propslist = globalPropertiesRepo.findAll();
+        if (propslist != null && propslist.size() > 0) {
+            return propslist.get(0);
+        }
+        return null;
+    }
+
+    private StorageAccount createStorageAccount(StorageProviderAccount spa,
+                                                boolean primary,
+                                                GlobalProperties globalProps) {
         StorageAccountImpl storageAccount =
             new StorageAccountImpl(spa.getId() + "",
                                    spa.getUsername(),
@@ -81,9 +130,7 @@ public class StorageAccountManagerFactory {
             }
         }
 
-        List<GlobalProperties> propslist = globalPropertiesRepo.findAll();
-        if (propslist != null && propslist.size() > 0) {
-            GlobalProperties globalProps = propslist.get(0);
+        if (null != globalProps) {
             StorageProviderType spType = spa.getProviderType();
             if (spType.equals(StorageProviderType.AMAZON_S3)) {
                 storageAccount.setOption(StorageAccount.OPTS.CF_ACCOUNT_ID.name(),
@@ -0,0 +1,285 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A least recently used cache of space and content metadata, shared by the
+ * storage providers of all accounts and bounded by the approximate memory
+ * used by the cached values.
+ *
+ * Entries are invalidated one at a time, or a space or an account at a
+ * time. Rather than locating and removing the affected entries, each entry,
+ * space and account has a generation which is incremented on invalidation.
+ * An entry is only valid while the generations it was loaded under are
+ * current, so a value which was being loaded while it changed is never
+ * served. Generations are kept in a fixed number of stripes shared by all
+ * keys, so invalidating a key may also invalidate unrelated entries whose
+ * keys share its stripe, but the memory used does not grow with the number
+ * of spaces and accounts. Entries are also discarded once they reach the
+ * maximum age, which limits how long a missed notification from another
+ * node can leave metadata out of date.
+ */
+public class StorageMetadataCache {
+
+    private final Logger log =
+        LoggerFactory.getLogger(StorageMetadataCache.class);
+
+    public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+    public static final long DEFAULT_MAX_AGE_SECONDS = 5 * 60;
+
+    // Approximate overhead of each entry and each map item, in bytes
+    private static final int ENTRY_OVERHEAD = 128;
+    private static final int ITEM_OVERHEAD = 64;
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final LinkedHashMap<String, Entry> entries =
+        new LinkedHashMap<>(1024, 0.75f, true);
+    private final AtomicLongArray generations =
+        new AtomicLongArray(GENERATION_STRIPES);
+    private final long maxBytes;
+    private final long maxAgeNanos;
+    private long bytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public StorageMetadataCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_MAX_AGE_SECONDS);
+    }
+
+    public StorageMetadataCache(long maxBytes, long maxAgeSeconds) {
+        this.maxBytes = maxBytes;
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    /**
+     * Captures the current generations of a value, its space and its
+     * account, to be used when adding the value loaded after this call.
+     *
+     * @param accountId account which owns the space
+     * @param spaceKey  key identifying the space across all accounts
+     * @param key       key of the value
+     * @return stamp for the value
+     */
+    public Stamp stamp(String accountId, String spaceKey, String key) {
+        return new Stamp(stripe(accountId), stripe(spaceKey), stripe(key),
+                         generations);
+    }
+
+    /**
+     * @param key key of the cached value
+     * @return the cached value, or null if there is no valid cached value
+     */
+    public Map<String, ?> get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (null != entry && !isValid(entry)) {
+                removeEntry(key);
+                entry = null;
+            }
+        }
+
+        if (null == entry) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Adds a value to the cache. The value is not copied, so must not be
+     * modified after it is added.
+     *
+     * @param key   key of the value
+     * @param value value to cache
+     * @param stamp stamp captured before the value was loaded
+     */
+    public void put(String key, Map<String, ?> value, Stamp stamp) {
+        putEntry(key, value, stamp, maxAgeNanos);
+    }
+
+    /**
+     * Adds a value to the cache which is discarded sooner than the maximum
+     * age of the cache, for values which are only briefly useful.
+     *
+     * @param key          key of the value
+     * @param value        value to cache
+     * @param stamp        stamp captured before the value was loaded
+     * @param maxAgeMillis time after which the value is discarded, limited
+     *                     to the maximum age of the cache
+     */
+    public void put(String key, Map<String, ?> value, Stamp stamp,
+                    long maxAgeMillis) {
+        putEntry(key, value, stamp,
+                 Math.min(TimeUnit.MILLISECONDS.toNanos(maxAgeMillis),
+                          maxAgeNanos));
+    }
+
+    private void putEntry(String key, Map<String, ?> value, Stamp stamp,
+                          long entryMaxAgeNanos) {
+        Entry entry =
+            new Entry(value, stamp, size(key, value), entryMaxAgeNanos);
+        if (entry.size > maxBytes) {
+            return;
+        }
+
+        synchronized (entries) {
+            removeEntry(key);
+            entries.put(key, entry);
+            bytes += entry.size;
+
+            Iterator<Map.Entry<String, Entry>> lru =
+                entries.entrySet().iterator();
+            while (bytes > maxBytes && lru.hasNext()) {
+                Entry eldest = lru.next().getValue();
+                lru.remove();
+                bytes -= eldest.size;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Invalidates a single cached value.
+     *
+     * @param key key of the value
+     */
+    public void invalidate(String key) {
+        generations.incrementAndGet(stripe(key));
+        synchronized (entries) {
+            removeEntry(key);
+        }
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Invalidates all cached values for a space.
+     *
+     * @param spaceKey key identifying the space across all accounts
+     */
+    public void invalidateSpace(String spaceKey) {
+        log.debug("Invalidating cached metadata for space {}", spaceKey);
+        generations.incrementAndGet(stripe(spaceKey));
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Invalidates all cached values for an account.
+     *
+     * @param accountId ID of the account
+     */
+    public void invalidateAccount(String accountId) {
+        log.debug("Invalidating cached metadata for account {}", accountId);
+        generations.incrementAndGet(stripe(accountId));
+        invalidations.incrementAndGet();
+    }
+
+    public StorageMetadataCacheStats getStats() {
+        StorageMetadataCacheStats stats = new StorageMetadataCacheStats();
+        synchronized (entries) {
+            stats.setSize(entries.size());
+            stats.setBytes(bytes);
+        }
+        stats.setMaxBytes(maxBytes);
+        stats.setHits(hits.get());
+        stats.setMisses(misses.get());
+        stats.setEvictions(evictions.get());
+        stats.setInvalidations(invalidations.get());
+        return stats;
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private boolean isValid(Entry entry) {
+        Stamp stamp = entry.stamp;
+        return System.nanoTime() - entry.created < entry.maxAgeNanos &&
+               stamp.isCurrent(generations);
+    }
+
+    private void removeEntry(String key) {
+        Entry removed = entries.remove(key);
+        if (null != removed) {
+            bytes -= removed.size;
+        }
+    }
+
+    private long size(String key, Map<String, ?> value) {
+        long size = ENTRY_OVERHEAD + 2L * key.length();
+        for (Map.Entry<String, ?> item : value.entrySet()) {
+            size += ITEM_OVERHEAD + 2L * item.getKey().length();
+            Object itemValue = item.getValue();
+            if (null != itemValue) {
+                size += 2L * itemValue.toString().length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The generations of a value, its space and its account at a point in
+     * time.
+     */
+    public static class Stamp {
+        private final int[] stripes;
+        private final long[] stripeGenerations;
+
+        private Stamp(int accountStripe,
+                      int spaceStripe,
+                      int keyStripe,
+                      AtomicLongArray generations) {
+            this.stripes = new int[] {accountStripe, spaceStripe, keyStripe};
+            this.stripeGenerations = new long[stripes.length];
+            for (int i = 0; i < stripes.length; i++) {
+                stripeGenerations[i] = generations.get(stripes[i]);
+            }
+        }
+
+        private boolean isCurrent(AtomicLongArray generations) {
+            for (int i = 0; i < stripes.length; i++) {
+                if (stripeGenerations[i] != generations.get(stripes[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Entry {
+        private final Map<String, ?> value;
+        private final Stamp stamp;
+        private final long size;
+        private final long maxAgeNanos;
+        private final long created = System.nanoTime();
+
+        private Entry(Map<String, ?> value, Stamp stamp, long size,
+                      long maxAgeNanos) {
+            this.value = value;
+            this.stamp = stamp;
+            this.size = size;
+            this.maxAgeNanos = maxAgeNanos;
+        }
+    }
+
+}
@@ -8,14 +8,19 @@
 package org.duracloud.durastore.util;
 
 import java.net.InetAddress;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.duracloud.account.db.repo.DuracloudMillRepo;
 import org.duracloud.common.cache.AbstractAccountComponentCache;
+import org.duracloud.common.cache.ExpiringValue;
 import org.duracloud.common.event.AccountChangeEvent;
 import org.duracloud.common.event.AccountChangeEvent.EventType;
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.security.vote.SpaceAccessDecisionCache;
 import org.duracloud.storage.domain.AuditConfig;
 import org.duracloud.storage.domain.StorageAccountManager;
 import org.duracloud.storage.provider.StatelessStorageProvider;
@@ -30,12 +35,23 @@ import org.slf4j.LoggerFactory;
  * @author Daniel Bernstein
  */
 public class StorageProviderFactoryCache extends AbstractAccountComponentCache<StorageProviderFactory> {
+
+    // The audit configuration is the same for all accounts
+    public static final long AUDIT_CONFIG_MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private static final ExecutorPoolConfig ACCOUNT_PRELOAD_POOL =
+        new ExecutorPoolConfig("account-preload", 2, 100);
+
     private StorageAccountManagerFactory storageAccountManagerFactory;
     private StatelessStorageProvider statelessStorageProvider;
     private UserUtil userUtil;
-    private DuracloudMillRepo millRepo;
     private DuraCloudRequestContextUtil contextUtil;
     private AccountChangeNotifier notifier;
+    private StorageMetadataCache metadataCache;
+    private SpaceAccessDecisionCache decisionCache;
+    private SpaceTotalsCache totalsCache;
+    private ExpiringValue<AuditConfig> auditConfig;
+    private boolean preloadOnChange = false;
 
     private Logger log = LoggerFactory.getLogger(StorageProviderFactoryCache.class);
 
@@ -49,9 +65,53 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
         this.storageAccountManagerFactory = storageAccountManagerFactory;
         this.statelessStorageProvider = statelessStorageProvider;
         this.userUtil = userUtil;
-        this.millRepo = millRepo;
         this.contextUtil = contextUtil;
         this.notifier = notifier;
+        this.auditConfig =
+            new ExpiringValue<>(new AuditConfigBuilder(millRepo)::build,
+                                AUDIT_CONFIG_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * Enables caching of space and content metadata in the storage providers
+     * of each account.
+     *
+     * @param metadataCache cache shared by all accounts
+     */
+    public void setMetadataCache(StorageMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+    /**
+     * Sets the cache of space access decisions, which is invalidated along
+     * with the storage providers and space ACLs of each account.
+     *
+     * @param decisionCache cache shared by the space access voters
+     */
+    public void setDecisionCache(SpaceAccessDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Enables maintained item counts and sizes of spaces in the storage
+     * providers of each account.
+     *
+     * @param totalsCache cache shared by all accounts
+     */
+    public void setTotalsCache(SpaceTotalsCache totalsCache) {
+        this.totalsCache = totalsCache;
+    }
+
+    /**
+     * Determines whether the storage providers of an account which were
+     * cached when the account or its storage providers changed are rebuilt
+     * in the background as soon as the change is received, rather than by
+     * the next request to the account.
+     *
+     * @param preloadOnChange true to rebuild on change
+     */
+    public void setPreloadOnChange(boolean preloadOnChange) {
+        this.preloadOnChange = preloadOnChange;
     }
 
     @Override
@@ -60,18 +120,109 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
         EventType eventType = event.getEventType();
         if (accountId != null) {
             if (eventType.equals(EventType.STORAGE_PROVIDERS_CHANGED) ||
-                eventType.equals(EventType.ACCOUNT_CHANGED) ||
-                isAnotherNode(event)) {
+                eventType.equals(EventType.ACCOUNT_CHANGED)) {
+                StorageProviderFactory removed = getIfCached(accountId);
                 remove(accountId);
+                invalidateMetadata(accountId);
+                invalidateDecisions(accountId);
+                if (preloadOnChange && removed instanceof ProviderFactoryBase) {
+                    preloadAsync(accountId, (ProviderFactoryBase) removed);
+                }
+            } else if (eventType.equals(EventType.STORAGE_METADATA_CHANGED)) {
+                if (isAnotherNode(event)) {
+                    String spaceKey =
+                        CachingStorageProvider.getSpaceKey(accountId,
+                                                           event.getStoreId(),
+                                                           event.getSpaceId());
+                    if (null != metadataCache) {
+                        if (null == event.getContentIds()) {
+                            metadataCache.invalidateSpace(spaceKey);
+                        } else {
+                            CachingStorageProvider.invalidateContents(
+                                metadataCache, accountId, event.getStoreId(),
+                                event.getSpaceId(), event.getContentIds());
+                        }
+                    }
+                    if (null != totalsCache) {
+                        if (null == event.getItemDelta() ||
+                            null == event.getByteDelta()) {
+                            totalsCache.invalidateSpace(spaceKey);
+                        } else {
+                            totalsCache.update(spaceKey,
+                                               event.getItemDelta(),
+                                               event.getByteDelta());
+                        }
+                    }
+                }
+            } else if (isAnotherNode(event)) {
+                // Space ACLs changed on another node, refresh them in the
+                // background rather than discarding the cached providers.
+                // Only the space named in the event is refreshed, events
+                // without a space refresh all spaces.
+                invalidateMetadata(accountId);
+                invalidateDecisions(accountId);
+                StorageProviderFactory factory = getIfCached(accountId);
+                if (null != factory) {
+                    if (null == event.getSpaceId()) {
+                        factory.refreshStorageProviders();
+                    } else {
+                        factory.refreshStorageProvider(event.getStoreId(),
+                                                       event.getSpaceId());
+                    }
+                }
             }
         } else if (eventType.equals(EventType.ALL_ACCOUNTS_CHANGED)) {
             removeAll();
+            auditConfig.invalidate();
+            storageAccountManagerFactory.invalidateGlobalProperties();
+            if (null != decisionCache) {
+                decisionCache.invalidateAll();
+            }
+        }
+    }
+
+    /*
+     * Rebuilds the storage providers of an account in the background, using
+     * the environment of the instance which was replaced, as there is no
+     * request from which to determine it.
+     */
+    private void preloadAsync(String accountId, ProviderFactoryBase removed) {
+        StorageAccountManager previous = removed.getAccountManager();
+        String host = previous.getInstanceHost();
+        String port = previous.getInstancePort();
+        try {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(ACCOUNT_PRELOAD_POOL)
+                            .execute(() -> {
+                                log.debug("Preloading storage providers for " +
+                                          "account {}", accountId);
+                                preload(accountId, () -> createInstance(
+                                    storageAccountManagerFactory.createInstance(
+                                        accountId, host, port)));
+                            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Unable to preload storage providers for account {}, " +
+                     "they will be loaded on next request: {}",
+                     accountId, e.getMessage());
+        }
+    }
+
+    private void invalidateMetadata(String accountId) {
+        if (null != metadataCache) {
+            metadataCache.invalidateAccount(accountId);
+        }
+    }
+
+    private void invalidateDecisions(String accountId) {
+        if (null != decisionCache) {
+            decisionCache.invalidateAccount(accountId);
         }
     }
 
     private boolean isAnotherNode(AccountChangeEvent event) {
-        if (event.getEventType()
-                 .equals(EventType.STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED)) {
+        EventType eventType = event.getEventType();
+        if (eventType.equals(EventType.STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED) ||
+            eventType.equals(EventType.STORAGE_METADATA_CHANGED)) {
             try {
                 String host = InetAddress.getLocalHost().getHostName();
                 if (!host.equals(event.getSourceHost())) {
@@ -88,22 +239,32 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
         return false;
     }
 
+    /**
+     * Closes the connections held by a factory which is no longer cached,
+     * such as after its account or storage providers changed.
+     */
     @Override
-    protected StorageProviderFactory createInstance(String accountId) {
+    protected void onRemoved(String accountId, StorageProviderFactory factory) {
+        factory.close();
+    }
 
+    @Override
+    protected StorageProviderFactory createInstance(String accountId) {
         // retrieve account info from db
-        StorageAccountManager storageAccountManager =
-            this.storageAccountManagerFactory.createInstance();
-
-        AuditConfig auditConfig = new AuditConfigBuilder(millRepo).build();
+        return createInstance(this.storageAccountManagerFactory.createInstance());
+    }
 
+    private StorageProviderFactory createInstance(StorageAccountManager storageAccountManager) {
         StorageProviderFactoryImpl factory =
             new StorageProviderFactoryImpl(storageAccountManager,
                                            statelessStorageProvider,
                                            userUtil,
                                            this.contextUtil,
                                            this.notifier,
-                                           auditConfig);
+                                           this.auditConfig.get());
+        factory.setMetadataCache(metadataCache);
+        factory.setDecisionCache(decisionCache);
+        factory.setTotalsCache(totalsCache);
 
         return factory;
     }
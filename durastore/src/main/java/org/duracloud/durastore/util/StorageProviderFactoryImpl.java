@@ -7,6 +7,8 @@
  */
 package org.duracloud.durastore.util;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -26,6 +28,7 @@ import org.duracloud.durastore.test.MockVerifyDeleteStorageProvider;
 import org.duracloud.glacierstorage.GlacierStorageProvider;
 import org.duracloud.irodsstorage.IrodsStorageProvider;
 import org.duracloud.s3storage.S3StorageProvider;
+import org.duracloud.security.vote.SpaceAccessDecisionCache;
 import org.duracloud.snapshotstorage.ChronopolisStorageProvider;
 import org.duracloud.storage.domain.AuditConfig;
 import org.duracloud.storage.domain.DuraStoreInitConfig;
@@ -56,11 +59,17 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
 
     private StatelessStorageProvider statelessProvider;
     private Map<String, StorageProvider> storageProviders;
+    private Map<String, ACLStorageProvider> aclProviders;
+    // Unwrapped providers, which are closed when they are no longer cached
+    private Map<String, StorageProvider> rawProviders;
     private UserUtil userUtil;
     private TaskQueue auditQueue;
     private boolean cacheStorageProvidersOnInit = false;
     private DuraCloudRequestContextUtil contextUtil;
     private AccountChangeNotifier notifier;
+    private StorageMetadataCache metadataCache;
+    private SpaceAccessDecisionCache decisionCache;
+    private SpaceTotalsCache totalsCache;
 
     public StorageProviderFactoryImpl(StorageAccountManager storageAccountManager,
                                       StatelessStorageProvider statelessStorageProvider,
@@ -84,6 +93,8 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
         super(storageAccountManager);
         this.statelessProvider = statelessStorageProvider;
         this.storageProviders = new ConcurrentHashMap<>();
+        this.aclProviders = new ConcurrentHashMap<>();
+        this.rawProviders = new ConcurrentHashMap<>();
         this.userUtil = userUtil;
         this.cacheStorageProvidersOnInit = cacheStorageProvidersOnInit;
         this.contextUtil = contextUtil;
@@ -113,7 +124,7 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
     }
 
     private void initializeStorageProviders() {
-        this.storageProviders = new ConcurrentHashMap<>();
+        close();
         if (this.cacheStorageProvidersOnInit) {
             log.info("Caching storage providers on init is enabled: building storage provider cache...");
             Iterator<String> ids = getAccountManager().getStorageAccountIds();
@@ -142,6 +153,36 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
         }
     }
 
+    /**
+     * Enables caching of space and content metadata for the storage
+     * providers created after this call.
+     *
+     * @param metadataCache cache shared by all accounts
+     */
+    public void setMetadataCache(StorageMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+    /**
+     * Sets the cache of space access decisions to be invalidated when space
+     * ACLs change, for the storage providers created after this call.
+     *
+     * @param decisionCache cache shared by the space access voters
+     */
+    public void setDecisionCache(SpaceAccessDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Enables maintained item counts and sizes of spaces for the storage
+     * providers created after this call.
+     *
+     * @param totalsCache cache shared by all accounts
+     */
+    public void setTotalsCache(SpaceTotalsCache totalsCache) {
+        this.totalsCache = totalsCache;
+    }
+
     @Override
     public TaskQueue getAuditQueue() {
         return this.auditQueue;
@@ -237,8 +278,21 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
                                        + storageAccountId + "): unable to create");
         }
 
+        // Metadata is cached below the audit layer, so that the lookups made
+        // by the audit and totals layers before a write share cached values
+        StorageProvider auditTarget = storageProvider;
+        CachingStorageProvider cachingProvider = null;
+        if (null != metadataCache) {
+            cachingProvider = new CachingStorageProvider(storageProvider,
+                                                         metadataCache,
+                                                         notifier,
+                                                         storageAccountManager.getAccountName(),
+                                                         storageAccountId);
+            auditTarget = cachingProvider;
+        }
+
         StorageProvider auditProvider =
-            new AuditStorageProvider(storageProvider,
+            new AuditStorageProvider(auditTarget,
                                      storageAccountManager.getAccountName(),
                                      storageAccountId,
                                      type.getName(),
@@ -249,14 +303,33 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
             ((StorageProviderBase) storageProvider).setWrappedStorageProvider(auditProvider);
         }
 
-        StorageProvider aclProvider = new ACLStorageProvider(auditProvider, notifier, contextUtil);
+        StorageProvider aclTarget = auditProvider;
+        if (null != totalsCache) {
+            aclTarget = new SpaceTotalsStorageProvider(auditProvider,
+                                                       storageProvider,
+                                                       cachingProvider,
+                                                       totalsCache,
+                                                       storageAccountManager.getAccountName(),
+                                                       storageAccountId);
+        }
+
+        ACLStorageProvider aclProvider = new ACLStorageProvider(aclTarget, notifier, contextUtil);
+        aclProvider.setDecisionCache(decisionCache);
+        aclProvider.setStoreId(storageAccountId);
         StorageProvider brokeredProvider =
             new BrokeredStorageProvider(statelessProvider,
                                         aclProvider,
                                         type,
                                         storageAccountId);
 
+        aclProviders.put(storageAccountId, aclProvider);
         storageProviders.put(storageAccountId, brokeredProvider);
+        StorageProvider replaced =
+            rawProviders.put(storageAccountId, storageProvider);
+        if (null != replaced) {
+            // Created concurrently by another request
+            closeProvider(storageAccountId, replaced);
+        }
         return brokeredProvider;
     }
 
@@ -279,6 +352,66 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
 
         log.info("Expiring storage provider connection!  Storage account id: {}", storageAccountId);
         storageProviders.remove(storageAccountId);
+        aclProviders.remove(storageAccountId);
+        StorageProvider expired = rawProviders.remove(storageAccountId);
+        if (null != expired) {
+            closeProvider(storageAccountId, expired);
+        }
+    }
+
+    /**
+     * Closes the connections held by all storage providers which have been
+     * created, once this factory is no longer in use.
+     */
+    @Override
+    public void close() {
+        Map<String, StorageProvider> previous = this.rawProviders;
+        this.storageProviders = new ConcurrentHashMap<>();
+        this.aclProviders = new ConcurrentHashMap<>();
+        this.rawProviders = new ConcurrentHashMap<>();
+        closeProviders(previous);
+    }
+
+    private void closeProviders(Map<String, StorageProvider> providers) {
+        for (Map.Entry<String, StorageProvider> entry : providers.entrySet()) {
+            closeProvider(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void closeProvider(String storageAccountId,
+                               StorageProvider storageProvider) {
+        if (storageProvider instanceof Closeable) {
+            try {
+                ((Closeable) storageProvider).close();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Error closing storage provider {}: {}",
+                         storageAccountId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reloads the space ACLs cached for each storage provider in the
+     * background.
+     */
+    @Override
+    public void refreshStorageProviders() {
+        for (ACLStorageProvider aclProvider : aclProviders.values()) {
+            aclProvider.refreshCache();
+        }
+    }
+
+    /**
+     * Reloads the ACLs cached for a single space by a storage provider in
+     * the background.
+     */
+    @Override
+    public void refreshStorageProvider(String storageAccountId, String spaceId) {
+        storageAccountId = checkStorageAccountId(storageAccountId);
+        ACLStorageProvider aclProvider = aclProviders.get(storageAccountId);
+        if (null != aclProvider) {
+            aclProvider.refreshSpaceACLs(spaceId);
+        }
     }
 
 }
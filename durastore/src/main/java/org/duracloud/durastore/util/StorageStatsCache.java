@@ -0,0 +1,128 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A least recently used cache of storage stats query results, shared by
+ * all accounts and bounded by the number of cached rows.
+ *
+ * Only results for ranges which ended at least a day plus the stats lag ago
+ * are cached. The stats of a day are written after the day has ended, by a
+ * job which may run some time later (the stats lag), and are not expected
+ * to change after that, so these results are immutable. Results for more
+ * recent ranges are always read from the database. Entries are still
+ * discarded once they reach the maximum age, so that stats which are
+ * corrected after the fact are eventually served.
+ */
+public class StorageStatsCache {
+
+    public static final long DEFAULT_MAX_ROWS = 500000;
+    public static final long DEFAULT_MAX_AGE_SECONDS = 24 * 60 * 60;
+    public static final long DEFAULT_STATS_LAG_SECONDS = 6 * 60 * 60;
+
+    private static final long ONE_DAY_IN_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final LinkedHashMap<String, Entry> entries =
+        new LinkedHashMap<>(1024, 0.75f, true);
+    private final long maxRows;
+    private final long maxAgeNanos;
+    private final long statsLagMillis;
+    private long rows = 0;
+
+    public StorageStatsCache() {
+        this(DEFAULT_MAX_ROWS, DEFAULT_MAX_AGE_SECONDS, DEFAULT_STATS_LAG_SECONDS);
+    }
+
+    /**
+     * @param maxRows         maximum number of rows held across all entries
+     * @param maxAgeSeconds   time for which results are cached
+     * @param statsLagSeconds maximum time after the end of a day at which its
+     *                        stats are written
+     */
+    public StorageStatsCache(long maxRows, long maxAgeSeconds, long statsLagSeconds) {
+        this.maxRows = maxRows;
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+        this.statsLagMillis = TimeUnit.SECONDS.toMillis(statsLagSeconds);
+    }
+
+    /**
+     * @param end end of the queried range
+     * @return true if results for a range with the given end may be cached
+     */
+    public boolean isCacheable(Date end) {
+        return end.getTime() + ONE_DAY_IN_MS + statsLagMillis <=
+               System.currentTimeMillis();
+    }
+
+    /**
+     * @param key key of the query
+     * @return the cached rows, or null if there are no valid cached rows
+     */
+    public List<StorageStatsRow> get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (null == entry) {
+                return null;
+            }
+            if (System.nanoTime() - entry.created >= maxAgeNanos) {
+                removeEntry(key);
+                return null;
+            }
+            return entry.rows;
+        }
+    }
+
+    /**
+     * Adds query results to the cache. The rows are not copied, so the list
+     * must not be modified after it is added.
+     *
+     * @param key       key of the query
+     * @param queryRows rows resulting from the query
+     */
+    public void put(String key, List<StorageStatsRow> queryRows) {
+        if (queryRows.size() > maxRows) {
+            return;
+        }
+
+        synchronized (entries) {
+            removeEntry(key);
+            entries.put(key, new Entry(queryRows));
+            rows += queryRows.size();
+
+            Iterator<Entry> lru = entries.values().iterator();
+            while (rows > maxRows && lru.hasNext()) {
+                Entry eldest = lru.next();
+                lru.remove();
+                rows -= eldest.rows.size();
+            }
+        }
+    }
+
+    private void removeEntry(String key) {
+        Entry removed = entries.remove(key);
+        if (null != removed) {
+            rows -= removed.rows.size();
+        }
+    }
+
+    private static class Entry {
+        private final List<StorageStatsRow> rows;
+        private final long created = System.nanoTime();
+
+        private Entry(List<StorageStatsRow> rows) {
+            this.rows = rows;
+        }
+    }
+
+}
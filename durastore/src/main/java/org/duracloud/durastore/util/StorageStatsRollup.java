@@ -0,0 +1,676 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains rollups of the space_stats table at day, week and month
+ * granularity, so that stats grouped by these periods can be read without
+ * aggregating the raw stats rows. The rollup tables are defined in
+ * sql/storage-stats-rollup.sql, which is applied to the database holding
+ * space_stats along with that table.
+ *
+ * The space rollup holds, for each space and period, the totals of the byte
+ * and object counts of the stats rows in the period, along with the number
+ * of rows, from which the averages are read. The store rollup holds, for
+ * each store and period, the sum over its spaces of those averages.
+ *
+ * Rollups are rebuilt a range of days at a time: the day rollups of each day
+ * in the range are recalculated from the stats rows with timestamps in that
+ * day, and the week, month and store rollups of the periods which include
+ * those days are then recalculated from the day rollups. Since stats rows
+ * may be committed after rows with later timestamps (or IDs), each refresh
+ * rebuilds the days which ended within the recheck interval along with the
+ * current day, as well as any days not yet rolled up. The state row, which
+ * records the first day not yet ended at the last refresh, is locked while
+ * each range is rebuilt, so that several nodes may roll up the same table.
+ *
+ * Rolling up is started in the background when the rollups are requested
+ * and have not been refreshed within the refresh interval. The rollups are
+ * only considered current once a refresh has completed, and remain current
+ * for the maximum lag after that.
+ *
+ * Stats read over a range of time only include the stats rows within the
+ * range. Periods which lie wholly within the range are read from the
+ * rollups, while the periods at either end of the range which are only
+ * partly within it are aggregated from the stats rows in the range, in the
+ * same way as when the rollups are not used.
+ */
+public class StorageStatsRollup {
+
+    private final Logger log = LoggerFactory.getLogger(StorageStatsRollup.class);
+
+    public static final int DEFAULT_DAYS_PER_BATCH = 31;
+    public static final int DEFAULT_RECHECK_DAYS = 7;
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    public static final long DEFAULT_REFRESH_SECONDS = 5 * 60;
+    public static final long DEFAULT_MAX_LAG_SECONDS = 60 * 60;
+
+    private static final String SPACE_ROLLUP_TABLE = "space_stats_rollup";
+    private static final String STORE_ROLLUP_TABLE = "store_stats_rollup";
+    private static final String STATE_TABLE = "stats_rollup_state";
+    private static final String STATE_NAME = "space_stats";
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final ExecutorPoolConfig STATS_ROLLUP_POOL =
+        new ExecutorPoolConfig("stats-rollup", 1, 1);
+
+    private static final String SELECT_STATE =
+        "SELECT rolled_up_until FROM " + STATE_TABLE + " WHERE name = ?";
+    private static final String SELECT_STATE_FOR_UPDATE =
+        SELECT_STATE + " FOR UPDATE";
+    private static final String INSERT_STATE =
+        "INSERT INTO " + STATE_TABLE + " (name, rolled_up_until) VALUES (?, 0)";
+    private static final String UPDATE_STATE =
+        "UPDATE " + STATE_TABLE + " SET rolled_up_until = ? WHERE name = ?";
+
+    private static final String SELECT_FIRST_STATS =
+        "SELECT MIN(timestamp) FROM space_stats";
+    private static final String SELECT_STATS =
+        "SELECT timestamp, account_id, store_id, space_id, byte_count, " +
+        "object_count FROM space_stats WHERE timestamp >= ? AND timestamp < ?";
+
+    private static final String DELETE_SPACE_ROLLUPS =
+        "DELETE FROM " + SPACE_ROLLUP_TABLE + " WHERE granularity = ? " +
+        "AND period_start >= ? AND period_start < ?";
+    private static final String INSERT_SPACE_ROLLUP =
+        "INSERT INTO " + SPACE_ROLLUP_TABLE + " (granularity, account_id, " +
+        "store_id, space_id, period_start, byte_count_total, " +
+        "object_count_total, sample_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_DAY_TOTALS =
+        "SELECT account_id, store_id, space_id, SUM(byte_count_total), " +
+        "SUM(object_count_total), SUM(sample_count) FROM " +
+        SPACE_ROLLUP_TABLE + " WHERE granularity = ? AND period_start >= ? " +
+        "AND period_start < ? GROUP BY account_id, store_id, space_id";
+
+    private static final String SELECT_PERIOD_SPACES =
+        "SELECT account_id, store_id, byte_count_total, object_count_total, " +
+        "sample_count FROM " + SPACE_ROLLUP_TABLE + " WHERE granularity = ? " +
+        "AND period_start = ?";
+    private static final String DELETE_STORE_ROLLUPS =
+        "DELETE FROM " + STORE_ROLLUP_TABLE + " WHERE granularity = ? " +
+        "AND period_start = ?";
+    private static final String INSERT_STORE_ROLLUP =
+        "INSERT INTO " + STORE_ROLLUP_TABLE + " (granularity, account_id, " +
+        "store_id, period_start, byte_count, object_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SPACE_ROLLUP =
+        "SELECT period_start, account_id, store_id, space_id, " +
+        "byte_count_total, object_count_total, sample_count FROM " +
+        SPACE_ROLLUP_TABLE + " WHERE granularity = ? AND account_id = ? " +
+        "AND store_id = ? AND space_id = ? AND period_start >= ? " +
+        "AND period_start <= ? ORDER BY period_start";
+    private static final String SELECT_SPACE_STATS =
+        "SELECT timestamp, account_id, store_id, space_id, byte_count, " +
+        "object_count FROM space_stats WHERE account_id = ? " +
+        "AND store_id = ? AND space_id = ? AND timestamp >= ? " +
+        "AND timestamp <= ? ORDER BY timestamp";
+    private static final String SELECT_STORE_STATS =
+        "SELECT timestamp, account_id, store_id, space_id, byte_count, " +
+        "object_count FROM space_stats WHERE account_id = ? " +
+        "AND store_id = ? AND timestamp >= ? AND timestamp <= ? " +
+        "ORDER BY timestamp";
+    private static final String SELECT_STORE_ROLLUP =
+        "SELECT period_start, account_id, store_id, byte_count, " +
+        "object_count FROM " + STORE_ROLLUP_TABLE + " WHERE granularity = ? " +
+        "AND account_id = ? AND store_id = ? AND period_start >= ? " +
+        "AND period_start <= ? ORDER BY period_start";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private int daysPerBatch = DEFAULT_DAYS_PER_BATCH;
+    private int recheckDays = DEFAULT_RECHECK_DAYS;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private long refreshNanos = TimeUnit.SECONDS.toNanos(DEFAULT_REFRESH_SECONDS);
+    private long maxLagNanos = TimeUnit.SECONDS.toNanos(DEFAULT_MAX_LAG_SECONDS);
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile long lastRefresh = 0;
+    private volatile long lastCaughtUp = 0;
+
+    public StorageStatsRollup(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate =
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * @param daysPerBatch maximum number of days rolled up in each
+     *                     transaction
+     */
+    public void setDaysPerBatch(int daysPerBatch) {
+        this.daysPerBatch = daysPerBatch;
+    }
+
+    /**
+     * @param recheckDays number of days before the current day which are
+     *                    rolled up again on each refresh, to include stats
+     *                    rows committed after those days were rolled up
+     */
+    public void setRecheckDays(int recheckDays) {
+        this.recheckDays = recheckDays;
+    }
+
+    /**
+     * @param fetchSize number of rows fetched at a time when reading stats
+     *                  and rollups from databases other than MySQL
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @param refreshSeconds time after which rolling up is started again
+     *                       when the rollups are requested
+     */
+    public void setRefreshSeconds(long refreshSeconds) {
+        this.refreshNanos = TimeUnit.SECONDS.toNanos(refreshSeconds);
+    }
+
+    /**
+     * @param maxLagSeconds time after the last completed refresh for which
+     *                      the rollups are considered current
+     */
+    public void setMaxLagSeconds(long maxLagSeconds) {
+        this.maxLagNanos = TimeUnit.SECONDS.toNanos(maxLagSeconds);
+    }
+
+    /**
+     * Starts rolling up in the background.
+     */
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * @return true if the rollups have recently caught up with the stats
+     * table, and so may be used in place of it
+     */
+    public boolean isCurrent() {
+        long caughtUp = lastCaughtUp;
+        return caughtUp != 0 && System.nanoTime() - caughtUp < maxLagNanos;
+    }
+
+    /**
+     * Starts rolling up in the background if the rollups have not been
+     * refreshed within the refresh interval. Only one refresh is made at a
+     * time, and none is made if the executor is busy.
+     */
+    public void refresh() {
+        long refreshed = lastRefresh;
+        if (refreshed != 0 && System.nanoTime() - refreshed < refreshNanos) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(STATS_ROLLUP_POOL)
+                            .execute(() -> {
+                                try {
+                                    rollUp();
+                                } catch (Exception e) {
+                                    log.warn("Unable to roll up storage stats: " +
+                                             e.getMessage(), e);
+                                } finally {
+                                    lastRefresh = System.nanoTime();
+                                    running.set(false);
+                                }
+                            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Rolls up the days which have not yet been rolled up, the days within
+     * the recheck interval, and the current day.
+     *
+     * @return number of stats rows rolled up
+     */
+    public long rollUp() {
+        long today = StatsPeriod.day.getPeriodStart(System.currentTimeMillis());
+        Long from = getFirstDayToRollUp();
+
+        long total = 0;
+        while (null != from && from <= today) {
+            long batchStart = from;
+            long batchEnd = Math.min(batchStart + daysPerBatch * DAY_MILLIS,
+                                     today + DAY_MILLIS);
+            total += transactionTemplate.execute(
+                status -> rollUpDays(batchStart, batchEnd, today));
+            from = batchEnd;
+        }
+
+        lastCaughtUp = System.nanoTime();
+        log.debug("Rolled up {} storage stats rows", total);
+        return total;
+    }
+
+    /*
+     * @return start of the first day to roll up, or null if there are no
+     * stats rows
+     */
+    private Long getFirstDayToRollUp() {
+        Long rolledUpUntil = jdbcTemplate.query(
+            SELECT_STATE, rs -> rs.next() ? rs.getLong(1) : null, STATE_NAME);
+        if (null != rolledUpUntil && rolledUpUntil > 0) {
+            return rolledUpUntil - recheckDays * DAY_MILLIS;
+        }
+
+        Timestamp first =
+            jdbcTemplate.queryForObject(SELECT_FIRST_STATS, Timestamp.class);
+        return null == first ? null : StatsPeriod.day.getPeriodStart(first.getTime());
+    }
+
+    /*
+     * Rebuilds the rollups of the days in a range, and of the periods which
+     * include them, to be called within a transaction.
+     *
+     * @return number of stats rows rolled up
+     */
+    private int rollUpDays(long start, long end, long today) {
+        Long rolledUpUntil = jdbcTemplate.query(
+            SELECT_STATE_FOR_UPDATE, rs -> rs.next() ? rs.getLong(1) : null,
+            STATE_NAME);
+        if (null == rolledUpUntil) {
+            jdbcTemplate.update(INSERT_STATE, STATE_NAME);
+            rolledUpUntil = 0L;
+        }
+
+        // Totals of each space and day in the range
+        Map<List<Object>, long[]> dayTotals = new HashMap<>();
+        int[] rowCount = {0};
+        stream(SELECT_STATS, rs -> {
+            List<Object> key = Arrays.asList(
+                rs.getString(2), rs.getString(3), rs.getString(4),
+                StatsPeriod.day.getPeriodStart(rs.getTimestamp(1).getTime()));
+            long[] totals = dayTotals.computeIfAbsent(key, k -> new long[3]);
+            totals[0] += rs.getLong(5);
+            totals[1] += rs.getLong(6);
+            totals[2]++;
+            rowCount[0]++;
+        }, new Timestamp(start), new Timestamp(end));
+
+        jdbcTemplate.update(DELETE_SPACE_ROLLUPS, StatsPeriod.day.name(), start, end);
+        List<Object[]> dayRows = new ArrayList<>(dayTotals.size());
+        for (Map.Entry<List<Object>, long[]> entry : dayTotals.entrySet()) {
+            List<Object> key = entry.getKey();
+            long[] totals = entry.getValue();
+            dayRows.add(new Object[] {StatsPeriod.day.name(), key.get(0),
+                                      key.get(1), key.get(2), key.get(3),
+                                      totals[0], totals[1], totals[2]});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SPACE_ROLLUP, dayRows);
+
+        for (StatsPeriod period : StatsPeriod.values()) {
+            Set<Long> periodStarts = new LinkedHashSet<>();
+            for (long day = start; day < end; day += DAY_MILLIS) {
+                periodStarts.add(period.getPeriodStart(day));
+            }
+            for (long periodStart : periodStarts) {
+                if (period != StatsPeriod.day) {
+                    rollUpSpacePeriod(period, periodStart);
+                }
+                rollUpStorePeriod(period, periodStart);
+            }
+        }
+
+        jdbcTemplate.update(UPDATE_STATE,
+                            Math.max(rolledUpUntil, Math.min(end, today)),
+                            STATE_NAME);
+        return rowCount[0];
+    }
+
+    /*
+     * Rebuilds the space rollups of a week or month from the day rollups.
+     */
+    private void rollUpSpacePeriod(StatsPeriod period, long periodStart) {
+        long periodEnd = period.getNextPeriodStart(periodStart);
+        List<Object[]> rows = jdbcTemplate.query(
+            SELECT_DAY_TOTALS, (rs, rowNum) -> new Object[] {
+                period.name(), rs.getString(1), rs.getString(2),
+                rs.getString(3), periodStart, rs.getLong(4), rs.getLong(5),
+                rs.getLong(6)},
+            StatsPeriod.day.name(), periodStart, periodEnd);
+
+        jdbcTemplate.update(DELETE_SPACE_ROLLUPS, period.name(), periodStart, periodEnd);
+        jdbcTemplate.batchUpdate(INSERT_SPACE_ROLLUP, rows);
+    }
+
+    /*
+     * Rebuilds the store rollups of a period from the space rollups.
+     */
+    private void rollUpStorePeriod(StatsPeriod period, long periodStart) {
+        Map<List<Object>, long[]> storeTotals = new HashMap<>();
+        jdbcTemplate.query(SELECT_PERIOD_SPACES, (RowCallbackHandler) rs -> {
+            long[] totals = storeTotals.computeIfAbsent(
+                Arrays.asList(rs.getString(1), rs.getString(2)), k -> new long[2]);
+            long samples = rs.getLong(5);
+            totals[0] += rs.getLong(3) / samples;
+            totals[1] += rs.getLong(4) / samples;
+        }, period.name(), periodStart);
+
+        jdbcTemplate.update(DELETE_STORE_ROLLUPS, period.name(), periodStart);
+        List<Object[]> rows = new ArrayList<>(storeTotals.size());
+        for (Map.Entry<List<Object>, long[]> entry : storeTotals.entrySet()) {
+            List<Object> key = entry.getKey();
+            long[] totals = entry.getValue();
+            rows.add(new Object[] {period.name(), key.get(0), key.get(1),
+                                   periodStart, totals[0], totals[1]});
+        }
+        jdbcTemplate.batchUpdate(INSERT_STORE_ROLLUP, rows);
+    }
+
+    /**
+     * Reads the stats of a space for the periods which overlap a range of
+     * time, passing each row to the handler as it is read. Each row holds
+     * the average counts of the stats rows in both the period and the range,
+     * and is timestamped with the start of the period.
+     *
+     * @param accountId ID of the account
+     * @param storeId   ID of the store
+     * @param spaceId   ID of the space
+     * @param period    rollup period
+     * @param start     start of the range, in epoch milliseconds
+     * @param end       end of the range (inclusive), in epoch milliseconds
+     * @param handler   receives the rows
+     * @throws IOException if the handler is unable to handle a row
+     */
+    public void getSpaceStats(String accountId,
+                              String storeId,
+                              String spaceId,
+                              StatsPeriod period,
+                              long start,
+                              long end,
+                              StorageStatsRowHandler handler)
+        throws IOException {
+        readPeriods(period, start, end, (from, to) -> {
+            query(SELECT_SPACE_ROLLUP, rs -> {
+                long samples = rs.getLong(7);
+                handler.handleRow(new StorageStatsRow(rs.getLong(1),
+                                                      rs.getString(2),
+                                                      rs.getString(3),
+                                                      rs.getString(4),
+                                                      rs.getLong(5) / samples,
+                                                      rs.getLong(6) / samples));
+            }, period.name(), accountId, storeId, spaceId, from, to);
+        }, (from, to) -> aggregateSpaceStats(accountId, storeId, spaceId,
+                                             period, from, to, handler));
+    }
+
+    /**
+     * Reads the stats of a store for the periods which overlap a range of
+     * time, passing each row to the handler as it is read. Each row holds
+     * the sum over the spaces of the store of their average counts in both
+     * the period and the range, and is timestamped with the start of the
+     * period.
+     *
+     * @param accountId ID of the account
+     * @param storeId   ID of the store
+     * @param period    rollup period
+     * @param start     start of the range, in epoch milliseconds
+     * @param end       end of the range (inclusive), in epoch milliseconds
+     * @param handler   receives the rows
+     * @throws IOException if the handler is unable to handle a row
+     */
+    public void getStoreStats(String accountId,
+                              String storeId,
+                              StatsPeriod period,
+                              long start,
+                              long end,
+                              StorageStatsRowHandler handler)
+        throws IOException {
+        readPeriods(period, start, end, (from, to) -> {
+            query(SELECT_STORE_ROLLUP, rs -> {
+                handler.handleRow(new StorageStatsRow(rs.getLong(1),
+                                                      rs.getString(2),
+                                                      rs.getString(3),
+                                                      null,
+                                                      rs.getLong(4),
+                                                      rs.getLong(5)));
+            }, period.name(), accountId, storeId, from, to);
+        }, (from, to) -> aggregateStoreStats(accountId, storeId, period,
+                                             from, to, handler));
+    }
+
+    /**
+     * Aggregates the stats of a space by period from the stats rows in a
+     * range of time, rather than reading the rollups. Rows are the same as
+     * those read by getSpaceStats().
+     *
+     * @param accountId ID of the account
+     * @param storeId   ID of the store
+     * @param spaceId   ID of the space
+     * @param period    period by which to group the stats
+     * @param start     start of the range, in epoch milliseconds
+     * @param end       end of the range (inclusive), in epoch milliseconds
+     * @param handler   receives the rows
+     * @throws IOException if the handler is unable to handle a row
+     */
+    public void aggregateSpaceStats(String accountId,
+                                    String storeId,
+                                    String spaceId,
+                                    StatsPeriod period,
+                                    long start,
+                                    long end,
+                                    StorageStatsRowHandler handler)
+        throws IOException {
+        PeriodAggregator aggregator = new PeriodAggregator(period, true, handler);
+        query(SELECT_SPACE_STATS, aggregator::add, accountId, storeId, spaceId,
+              new Timestamp(start), new Timestamp(end));
+        aggregator.flush();
+    }
+
+    /**
+     * Aggregates the stats of a store by period from the stats rows in a
+     * range of time, rather than reading the rollups. Rows are the same as
+     * those read by getStoreStats().
+     *
+     * @param accountId ID of the account
+     * @param storeId   ID of the store
+     * @param period    period by which to group the stats
+     * @param start     start of the range, in epoch milliseconds
+     * @param end       end of the range (inclusive), in epoch milliseconds
+     * @param handler   receives the rows
+     * @throws IOException if the handler is unable to handle a row
+     */
+    public void aggregateStoreStats(String accountId,
+                                    String storeId,
+                                    StatsPeriod period,
+                                    long start,
+                                    long end,
+                                    StorageStatsRowHandler handler)
+        throws IOException {
+        PeriodAggregator aggregator = new PeriodAggregator(period, false, handler);
+        query(SELECT_STORE_STATS, aggregator::add, accountId, storeId,
+              new Timestamp(start), new Timestamp(end));
+        aggregator.flush();
+    }
+
+    /*
+     * Reads the periods which lie wholly within a range from the rollups,
+     * and aggregates the parts of the periods at either end of the range
+     * which are within it from the stats rows.
+     */
+    private void readPeriods(StatsPeriod period,
+                             long start,
+                             long end,
+                             RangeReader rolledUp,
+                             RangeReader aggregated) throws IOException {
+        long fullStart = period.getPeriodStart(start) == start
+                         ? start : period.getNextPeriodStart(start);
+        long fullEnd = period.getPeriodStart(end + 1);
+        if (fullStart >= fullEnd) {
+            aggregated.read(start, end);
+            return;
+        }
+
+        if (start < fullStart) {
+            aggregated.read(start, fullStart - 1);
+        }
+        rolledUp.read(fullStart, fullEnd - 1);
+        if (fullEnd <= end) {
+            aggregated.read(fullEnd, end);
+        }
+    }
+
+    /*
+     * Reads the results of a query with a forward-only cursor, passing
+     * each row to the reader as it is read.
+     */
+    private void query(String sql, RowReader reader, Object... params)
+        throws IOException {
+        try {
+            stream(sql, rs -> {
+                try {
+                    reader.read(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, params);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, Object... params) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement =
+                con.prepareStatement(sql,
+                                     ResultSet.TYPE_FORWARD_ONLY,
+                                     ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(getFetchSize(con));
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            return statement;
+        }, handler);
+    }
+
+    /*
+     * MySQL Connector/J reads the full result of a query into memory unless
+     * the fetch size of a forward-only, read-only statement is
+     * Integer.MIN_VALUE, in which case it streams the rows one at a time.
+     * Other drivers reject negative fetch sizes.
+     */
+    private int getFetchSize(Connection con) throws SQLException {
+        if ("MySQL".equals(con.getMetaData().getDatabaseProductName())) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+
+    private interface RowReader {
+        void read(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private interface RangeReader {
+        void read(long start, long end) throws IOException;
+    }
+
+    /*
+     * Groups stats rows, read in order of time, by period, and passes the
+     * average counts of each space in a period to the handler once the
+     * period is complete. For store stats, the sum over the spaces of their
+     * averages is passed instead, as held in the store rollup.
+     */
+    private static class PeriodAggregator {
+        private final StatsPeriod period;
+        private final boolean bySpace;
+        private final StorageStatsRowHandler handler;
+        private final Map<List<String>, long[]> spaceTotals = new LinkedHashMap<>();
+        private long periodStart = -1;
+
+        private PeriodAggregator(StatsPeriod period,
+                                 boolean bySpace,
+                                 StorageStatsRowHandler handler) {
+            this.period = period;
+            this.bySpace = bySpace;
+            this.handler = handler;
+        }
+
+        private void add(ResultSet rs) throws SQLException, IOException {
+            long rowPeriodStart =
+                period.getPeriodStart(rs.getTimestamp(1).getTime());
+            if (rowPeriodStart != periodStart) {
+                flush();
+                periodStart = rowPeriodStart;
+            }
+            long[] totals = spaceTotals.computeIfAbsent(
+                Arrays.asList(rs.getString(2), rs.getString(3), rs.getString(4)),
+                k -> new long[3]);
+            totals[0] += rs.getLong(5);
+            totals[1] += rs.getLong(6);
+            totals[2]++;
+        }
+
+        private void flush() throws IOException {
+            if (spaceTotals.isEmpty()) {
+                return;
+            }
+            long bytes = 0;
+            long objects = 0;
+            List<String> key = null;
+            for (Map.Entry<List<String>, long[]> entry : spaceTotals.entrySet()) {
+                key = entry.getKey();
+                long[] totals = entry.getValue();
+                if (bySpace) {
+                    handler.handleRow(new StorageStatsRow(periodStart,
+                                                          key.get(0),
+                                                          key.get(1),
+                                                          key.get(2),
+                                                          totals[0] / totals[2],
+                                                          totals[1] / totals[2]));
+                } else {
+                    bytes += totals[0] / totals[2];
+                    objects += totals[1] / totals[2];
+                }
+            }
+            if (!bySpace) {
+                handler.handleRow(new StorageStatsRow(periodStart, key.get(0),
+                                                      key.get(1), null,
+                                                      bytes, objects));
+            }
+            spaceTotals.clear();
+        }
+    }
+
+}
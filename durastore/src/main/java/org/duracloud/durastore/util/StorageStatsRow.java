@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+/**
+ * An aggregated byte and object count of a space, or of a store when no
+ * space is given, at a moment in time. Rows are immutable, so may be cached
+ * and written to any number of responses.
+ */
+public class StorageStatsRow {
+
+    private final long timestamp;
+    private final String accountId;
+    private final String storeId;
+    private final String spaceId;
+    private final long byteCount;
+    private final long objectCount;
+
+    /**
+     * @param timestamp   time of the row, in epoch milliseconds
+     * @param accountId   ID of the account
+     * @param storeId     ID of the store
+     * @param spaceId     ID of the space, or null for store stats
+     * @param byteCount   number of bytes
+     * @param objectCount number of objects
+     */
+    public StorageStatsRow(long timestamp,
+                           String accountId,
+                           String storeId,
+                           String spaceId,
+                           long byteCount,
+                           long objectCount) {
+        this.timestamp = timestamp;
+        this.accountId = accountId;
+        this.storeId = storeId;
+        this.spaceId = spaceId;
+        this.byteCount = byteCount;
+        this.objectCount = objectCount;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    public long getObjectCount() {
+        return objectCount;
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.IOException;
+
+/**
+ * Receives storage stats rows one at a time, in the order they are read.
+ */
+public interface StorageStatsRowHandler {
+
+    /**
+     * @param row the next row
+     * @throws IOException if the row cannot be handled, such as when it
+     *                     cannot be written to the response
+     */
+    void handleRow(StorageStatsRow row) throws IOException;
+
+}
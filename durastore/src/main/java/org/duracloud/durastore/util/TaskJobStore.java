@@ -0,0 +1,43 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.util.Date;
+
+import org.duracloud.storageprovider.dto.TaskJob;
+
+/**
+ * Holds the status of asynchronous task jobs where it can be read by every
+ * DuraStore node, so that a job can be polled through any node.
+ */
+public interface TaskJobStore {
+
+    /**
+     * Records a new job, or updates the status of a recorded job.
+     *
+     * @param job       status of the job
+     * @param accountId account of the user who submitted the job
+     * @param username  user who submitted the job
+     */
+    void saveJob(TaskJob job, String accountId, String username);
+
+    /**
+     * @return the status of the job, or null if no job with the given ID was
+     * submitted by the given user
+     */
+    TaskJob getJob(String jobId, String accountId, String username);
+
+    /**
+     * Removes jobs which were submitted before the given time, whether or
+     * not they completed.
+     *
+     * @return the number of jobs removed
+     */
+    int removeJobs(Date submittedBefore);
+
+}
@@ -0,0 +1,115 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.duracloud.storageprovider.dto.TaskJob;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stores task jobs in the task_job table, defined in sql/task-job.sql, of the
+ * database shared by the DuraStore nodes.
+ */
+public class TaskJobStoreImpl implements TaskJobStore {
+
+    private static final String TABLE = "task_job";
+
+    private static final String UPDATE_JOB =
+        "UPDATE " + TABLE + " SET status = ?, result = ?, error = ?, " +
+        "error_code = ?, started = ?, completed = ? WHERE job_id = ?";
+    private static final String INSERT_JOB =
+        "INSERT INTO " + TABLE + " (status, result, error, error_code, " +
+        "started, completed, job_id, account_id, username, task_name, " +
+        "store_id, submitted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_JOB =
+        "SELECT job_id, task_name, store_id, status, result, error, " +
+        "error_code, submitted, started, completed FROM " + TABLE +
+        " WHERE job_id = ? AND account_id = ? AND username = ?";
+    private static final String DELETE_JOBS =
+        "DELETE FROM " + TABLE + " WHERE submitted < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskJobStoreImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void saveJob(TaskJob job, String accountId, String username) {
+        Object[] status = {job.getStatus().name(),
+                           job.getResult(),
+                           job.getError(),
+                           job.getErrorCode(),
+                           toMillis(job.getStarted()),
+                           toMillis(job.getCompleted()),
+                           job.getJobId()};
+        if (jdbcTemplate.update(UPDATE_JOB, status) == 0) {
+            Object[] row = new Object[status.length + 5];
+            System.arraycopy(status, 0, row, 0, status.length);
+            row[status.length] = owner(accountId);
+            row[status.length + 1] = owner(username);
+            row[status.length + 2] = job.getTaskName();
+            row[status.length + 3] = job.getStoreId();
+            row[status.length + 4] = toMillis(job.getSubmitted());
+            jdbcTemplate.update(INSERT_JOB, row);
+        }
+    }
+
+    @Override
+    public TaskJob getJob(String jobId, String accountId, String username) {
+        List<TaskJob> jobs = jdbcTemplate.query(SELECT_JOB,
+                                                (rs, rowNum) -> readJob(rs),
+                                                jobId,
+                                                owner(accountId),
+                                                owner(username));
+        return jobs.isEmpty() ? null : jobs.get(0);
+    }
+
+    @Override
+    public int removeJobs(Date submittedBefore) {
+        return jdbcTemplate.update(DELETE_JOBS, submittedBefore.getTime());
+    }
+
+    private TaskJob readJob(ResultSet rs) throws SQLException {
+        TaskJob job = new TaskJob();
+        job.setJobId(rs.getString(1));
+        job.setTaskName(rs.getString(2));
+        job.setStoreId(rs.getString(3));
+        job.setStatus(TaskJob.Status.valueOf(rs.getString(4)));
+        job.setResult(rs.getString(5));
+        job.setError(rs.getString(6));
+        job.setErrorCode(rs.getInt(7));
+        job.setSubmitted(toDate(rs, 8));
+        job.setStarted(toDate(rs, 9));
+        job.setCompleted(toDate(rs, 10));
+        return job;
+    }
+
+    private Long toMillis(Date date) {
+        return null == date ? null : date.getTime();
+    }
+
+    private Date toDate(ResultSet rs, int column) throws SQLException {
+        long millis = rs.getLong(column);
+        return rs.wasNull() ? null : new Date(millis);
+    }
+
+    /*
+     * Jobs submitted without a known account or user are stored with an
+     * empty owner, so that they can still be matched
+     */
+    private String owner(String name) {
+        return null == name ? "" : name;
+    }
+
+}
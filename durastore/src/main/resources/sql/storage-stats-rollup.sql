@@ -0,0 +1,36 @@
+-- Day, week and month rollups of the space_stats table, read and maintained
+-- by org.duracloud.durastore.util.StorageStatsRollup. These tables are
+-- created in the database which holds space_stats, along with that table.
+
+-- Totals of the stats rows of each space and period (granularity is one of
+-- day, week or month, period_start is in epoch milliseconds, UTC)
+CREATE TABLE space_stats_rollup (
+  granularity VARCHAR(8) NOT NULL,
+  account_id VARCHAR(128) NOT NULL,
+  store_id VARCHAR(32) NOT NULL,
+  space_id VARCHAR(128) NOT NULL,
+  period_start BIGINT NOT NULL,
+  byte_count_total BIGINT NOT NULL,
+  object_count_total BIGINT NOT NULL,
+  sample_count BIGINT NOT NULL,
+  PRIMARY KEY (granularity, account_id, store_id, space_id, period_start)
+);
+
+-- Sum over the spaces of each store of their average counts in each period
+CREATE TABLE store_stats_rollup (
+  granularity VARCHAR(8) NOT NULL,
+  account_id VARCHAR(128) NOT NULL,
+  store_id VARCHAR(32) NOT NULL,
+  period_start BIGINT NOT NULL,
+  byte_count BIGINT NOT NULL,
+  object_count BIGINT NOT NULL,
+  PRIMARY KEY (granularity, account_id, store_id, period_start)
+);
+
+-- Start of the first day (epoch milliseconds, UTC) which has not yet ended
+-- as of the last rollup
+CREATE TABLE stats_rollup_state (
+  name VARCHAR(64) NOT NULL,
+  rolled_up_until BIGINT NOT NULL,
+  PRIMARY KEY (name)
+);
@@ -0,0 +1,24 @@
+-- Status of asynchronous task jobs, read and maintained by
+-- org.duracloud.durastore.util.TaskJobStoreImpl. This table is created in
+-- the database shared by all DuraStore nodes (the mill database), so that
+-- the status of a job can be retrieved from any node.
+
+-- One row per job (times are in epoch milliseconds, UTC; started and
+-- completed are null until the job starts and completes)
+CREATE TABLE task_job (
+  job_id VARCHAR(36) NOT NULL,
+  account_id VARCHAR(128) NOT NULL,
+  username VARCHAR(128) NOT NULL,
+  task_name VARCHAR(128) NOT NULL,
+  store_id VARCHAR(32),
+  status VARCHAR(16) NOT NULL,
+  result MEDIUMTEXT,
+  error MEDIUMTEXT,
+  error_code INT NOT NULL,
+  submitted BIGINT NOT NULL,
+  started BIGINT,
+  completed BIGINT,
+  PRIMARY KEY (job_id)
+);
+
+CREATE INDEX task_job_submitted ON task_job (submitted);
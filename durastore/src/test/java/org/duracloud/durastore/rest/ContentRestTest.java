@@ -12,16 +12,20 @@ import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.duracloud.common.rest.HttpHeaders;
 import org.duracloud.common.rest.RestUtil;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.provider.StorageProvider;
 import org.easymock.EasyMock;
 import org.junit.After;
@@ -253,6 +257,184 @@ public class ContentRestTest {
         assertFalse(contentRest.validMimetype("***"));
     }
 
+    @Test
+    public void testIsNotModified() {
+        replayMocks();
+        contentRest = new ContentRest(null, null);
+
+        String checksum = "checksum";
+        String modified = "2026-10-18T10:30:00";
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, checksum);
+        props.put(StorageProvider.PROPERTIES_CONTENT_MODIFIED, modified);
+
+        // If-None-Match
+        assertTrue(contentRest.isNotModified(props, checksum, null));
+        assertTrue(contentRest.isNotModified(props, "\"" + checksum + "\"", null));
+        assertTrue(contentRest.isNotModified(props, "W/\"" + checksum + "\"", null));
+        assertTrue(contentRest.isNotModified(props, "other, " + checksum, null));
+        assertTrue(contentRest.isNotModified(props, "*", null));
+        assertFalse(contentRest.isNotModified(props, "other", null));
+
+        // If-Modified-Since
+        assertTrue(contentRest.isNotModified(props, null, modified));
+        assertTrue(contentRest.isNotModified(props, null, "2026-10-18T10:31:00"));
+        assertFalse(contentRest.isNotModified(props, null, "2026-10-18T10:29:00"));
+        assertFalse(contentRest.isNotModified(props, null, "invalid"));
+
+        // If-Modified-Since is ignored when If-None-Match is provided
+        assertFalse(contentRest.isNotModified(props, "other", modified));
+
+        // Unknown properties never match
+        assertFalse(contentRest.isNotModified(new HashMap<String, String>(),
+                                              checksum, modified));
+    }
+
+    @Test
+    public void testGetContentNotModified() throws Exception {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, "checksum");
+        props.put("custom", "value");
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(props);
+
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        // The content stream is not retrieved
+        Response response = contentRest.getContent(srcSpaceId, srcContentId, storeId,
+                                                   false, null, "checksum", null);
+        assertEquals(304, response.getStatus());
+        assertNull(response.getEntity());
+        assertEquals("checksum", getHeader(response, HttpHeaders.ETAG));
+        assertEquals("value",
+                     getHeader(response, ContentRest.HEADER_PREFIX + "custom"));
+    }
+
+    @Test
+    public void testGetContentMultipleRanges() throws Exception {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "100000");
+        props.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, "text/plain");
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(props);
+        EasyMock.expect(contentResource.getContent(srcSpaceId, srcContentId,
+                                                   storeId, "bytes=0-1"))
+                .andReturn(retrieved("01"));
+        EasyMock.expect(contentResource.getContent(srcSpaceId, srcContentId,
+                                                   storeId, "bytes=99997-99999"))
+                .andReturn(retrieved("789"));
+
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        // The last range is unsatisfiable and is left out
+        Response response = contentRest.getContent(srcSpaceId, srcContentId, storeId,
+                                                   false, "bytes=0-1,-3,200000-",
+                                                   null, null);
+        assertEquals(206, response.getStatus());
+        String contentType = getHeader(response, HttpHeaders.CONTENT_TYPE);
+        assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+        assertNull(response.getMetadata().get(HttpHeaders.CONTENT_LENGTH));
+        String boundary = contentType.substring(contentType.indexOf("=") + 1);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        String expected =
+            "--" + boundary + "\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "Content-Range: bytes 0-1/100000\r\n\r\n" +
+            "01\r\n" +
+            "--" + boundary + "\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "Content-Range: bytes 99997-99999/100000\r\n\r\n" +
+            "789\r\n" +
+            "--" + boundary + "--\r\n";
+        assertEquals(expected, output.toString("US-ASCII"));
+    }
+
+    @Test
+    public void testGetContentRangesCombined() throws Exception {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "10");
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(props);
+        // Nearby ranges are retrieved with a single request
+        EasyMock.expect(contentResource.getContent(srcSpaceId, srcContentId,
+                                                   storeId, "bytes=0-4"))
+                .andReturn(retrieved("01234"));
+
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        Response response = contentRest.getContent(srcSpaceId, srcContentId, storeId,
+                                                   false, "bytes=0-0,2-2,4-4",
+                                                   null, null);
+        assertEquals(206, response.getStatus());
+    }
+
+    @Test
+    public void testGetContentRangesPartsLimited() throws Exception {
+        long gap = ContentRest.RANGE_MERGE_GAP + 1;
+        long contentSize = gap * (ContentRest.MAX_RANGE_PARTS + 1);
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, String.valueOf(contentSize));
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(props);
+
+        StringBuilder range = new StringBuilder("bytes=");
+        for (int i = 0; i <= ContentRest.MAX_RANGE_PARTS; i++) {
+            range.append(i == 0 ? "" : ",").append(i * gap).append("-").append(i * gap);
+        }
+        // Too many separate parts are served as one spanning range
+        long lastByte = ContentRest.MAX_RANGE_PARTS * gap;
+        EasyMock.expect(contentResource.getContent(srcSpaceId, srcContentId,
+                                                   storeId, "bytes=0-" + lastByte))
+                .andReturn(retrieved("span"));
+
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        Response response = contentRest.getContent(srcSpaceId, srcContentId, storeId,
+                                                   false, range.toString(),
+                                                   null, null);
+        assertEquals(206, response.getStatus());
+    }
+
+    @Test
+    public void testGetContentRangesNotSatisfiable() throws Exception {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "10");
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(props);
+
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        Response response = contentRest.getContent(srcSpaceId, srcContentId, storeId,
+                                                   false, "bytes=10-,20-30",
+                                                   null, null);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", getHeader(response, HttpHeaders.CONTENT_RANGE));
+    }
+
+    private RetrievedContent retrieved(String value) {
+        RetrievedContent content = new RetrievedContent();
+        content.setContentStream(new ByteArrayInputStream(value.getBytes()));
+        content.setContentProperties(new HashMap<String, String>());
+        return content;
+    }
+
     @Test
     public void testCopyContent() throws Exception {
         doTestCopyContent(true, 201);
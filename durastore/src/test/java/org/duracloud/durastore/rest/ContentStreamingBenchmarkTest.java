@@ -0,0 +1,156 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.commons.io.input.AutoCloseInputStream;
+import org.duracloud.storage.provider.mock.MockStorageProvider;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.easymock.EasyMock;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares retrieving a content item through ContentRest using the
+ * pooled buffers of the ContentStreamingOutput with copying the content
+ * stream through the 8 KB buffer used by the container for InputStream
+ * entities. Content is served by the MockStorageProvider from a generated
+ * stream and is written to a stream which discards it, so the results
+ * reflect the cost of the copy loop rather than of storage or network.
+ *
+ * The 1 GB content item is only included when the durastore.benchmark.large
+ * system property is set to true, as it takes some time to run.
+ */
+public class ContentStreamingBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(ContentStreamingBenchmarkTest.class);
+
+    private static final String spaceId = "space-id";
+    private static final String contentId = "content-id";
+    private static final String storeId = "0";
+    private static final long MB = 1024 * 1024;
+    private static final int containerBufferSize = 8 * 1024;
+
+    @Test
+    public void testSmallGetBenchmark() throws Exception {
+        benchmark(16 * MB);
+    }
+
+    @Test
+    public void testLargeGetBenchmark() throws Exception {
+        if (Boolean.getBoolean("durastore.benchmark.large")) {
+            benchmark(1024 * MB);
+        }
+    }
+
+    private void benchmark(long contentSize) throws Exception {
+        MockStorageProvider provider = new MockStorageProvider();
+        StorageProviderFactory factory =
+            EasyMock.createMock(StorageProviderFactory.class);
+        EasyMock.expect(factory.getStorageProvider(storeId))
+                .andReturn(provider).anyTimes();
+        EasyMock.replay(factory);
+        ContentRest contentRest =
+            new ContentRest(new ContentResourceImpl(factory), null);
+
+        // Content stream copied as an InputStream entity
+        CountingOutputStream output = new CountingOutputStream();
+        addContent(provider, contentSize);
+        long start = System.nanoTime();
+        InputStream content = new AutoCloseInputStream(
+            provider.getContent(spaceId, contentId).getContentStream());
+        byte[] buffer = new byte[containerBufferSize];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        long inputStreamMillis = elapsedMillis(start);
+        assertEquals(contentSize, output.count);
+
+        // Content written by ContentRest as StreamingOutput
+        output = new CountingOutputStream();
+        addContent(provider, contentSize);
+        start = System.nanoTime();
+        Response response = contentRest.getContent(spaceId, contentId, storeId,
+                                                   false, null, null, null);
+        assertEquals(200, response.getStatus());
+        ((StreamingOutput) response.getEntity()).write(output);
+        long streamingMillis = elapsedMillis(start);
+        assertEquals(contentSize, output.count);
+
+        log.info("Retrieved {} bytes: InputStream entity {} ms, " +
+                 "StreamingOutput {} ms", contentSize, inputStreamMillis,
+                 streamingMillis);
+        EasyMock.verify(factory);
+    }
+
+    private void addContent(MockStorageProvider provider, long contentSize) {
+        provider.addContent(spaceId, contentId, "application/octet-stream",
+                            null, contentSize, null,
+                            new GeneratedInputStream(contentSize));
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Provides the requested number of bytes without storing them.
+     */
+    private static class GeneratedInputStream extends InputStream {
+        private long remaining;
+
+        GeneratedInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = (int) Math.min(length, remaining);
+            remaining -= read;
+            return read;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count = 0;
+
+        @Override
+        public void write(int b) throws IOException {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+        }
+    }
+
+}
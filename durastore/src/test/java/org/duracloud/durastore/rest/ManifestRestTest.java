@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Response;
@@ -144,6 +145,36 @@ public class ManifestRestTest extends EasyMockSupport {
                    latch.await(10000, TimeUnit.MILLISECONDS));
     }
 
+    @Test
+    public void getManifestBusy() throws Exception {
+        String format = ManifestFormat.TSV.name();
+        setupAccountId();
+        expect(resource.getManifest(account, storeId, spaceId, format))
+            .andThrow(new RejectedExecutionException("manifest pool is full"));
+        replayAll();
+
+        Response response = rest.getManifest(spaceId, format, storeId);
+        assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, response.getStatus());
+    }
+
+    @Test
+    public void generateAsyncBusy() throws Exception {
+        String format = ManifestFormat.TSV.name();
+        setupAccountId();
+
+        StorageAccount sa = createMock("StorageAccount", StorageAccount.class);
+        expect(sa.getId()).andReturn(storeId);
+        expect(sa.getType()).andReturn(StorageProviderType.AMAZON_S3);
+        expect(storageProviderFactory.getStorageAccounts()).andReturn(Arrays.asList(sa));
+
+        expect(resource.getManifest(account, storeId, spaceId, format))
+            .andThrow(new RejectedExecutionException("manifest pool is full"));
+        replayAll();
+
+        Response response = rest.generateManifest(spaceId, format, storeId);
+        assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, response.getStatus());
+    }
+
     protected IExpectationSetters<InputStream> expectGetManifest(String format)
         throws ManifestArgumentException,
         ManifestNotFoundException {
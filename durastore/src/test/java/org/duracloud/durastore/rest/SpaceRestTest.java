@@ -7,17 +7,27 @@
  */
 package org.duracloud.durastore.rest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.duracloud.common.model.AclType;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.security.context.SecurityContextUtil;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.xml.ContentPropertiesDocument;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Assert;
@@ -171,6 +181,73 @@ public class SpaceRestTest {
         replayMocks();
     }
 
+    @Test
+    public void testGetContentsProperties() throws Exception {
+        List<String> contentIds = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            contentIds.add("item-" + i);
+        }
+        String request = ContentPropertiesDocument.createContentIdsXml(contentIds);
+
+        // Items are retrieved in chunks, one of which is not found
+        Map<String, Map<String, String>> firstChunk = new LinkedHashMap<>();
+        for (String contentId : contentIds.subList(1, 100)) {
+            firstChunk.put(contentId, spaceProps);
+        }
+        EasyMock.expect(spaceResource.getContentsProperties(
+            spaceId, contentIds.subList(0, 100), storeId)).andReturn(firstChunk);
+        Map<String, Map<String, String>> secondChunk = new LinkedHashMap<>();
+        for (String contentId : contentIds.subList(100, 150)) {
+            secondChunk.put(contentId, spaceProps);
+        }
+        EasyMock.expect(spaceResource.getContentsProperties(
+            spaceId, contentIds.subList(100, 150), storeId)).andReturn(secondChunk);
+        replayMocks();
+
+        Response response = spaceRest.contentsProperties(
+            spaceId, storeId, Collections.singletonList(SpaceRest.PROPERTIES_GET),
+            new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(200, response.getStatus());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        Map<String, Map<String, String>> contentsProps =
+            ContentPropertiesDocument.readContentProperties(
+                new ByteArrayInputStream(output.toByteArray()));
+        Assert.assertEquals(149, contentsProps.size());
+        Assert.assertFalse(contentsProps.containsKey("item-0"));
+        Assert.assertEquals(spaceProps, contentsProps.get("item-149"));
+    }
+
+    @Test
+    public void testContentsPropertiesInvalid() throws Exception {
+        replayMocks();
+
+        List<String> contentIds = new ArrayList<>();
+        for (int i = 0; i <= SpaceRest.MAX_CONTENTS_PER_REQUEST; i++) {
+            contentIds.add("item-" + i);
+        }
+        String request = ContentPropertiesDocument.createContentIdsXml(contentIds);
+
+        // Too many items
+        Response response = spaceRest.contentsProperties(
+            spaceId, storeId, Collections.singletonList(SpaceRest.PROPERTIES_GET),
+            new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(400, response.getStatus());
+
+        // Unknown operation
+        response = spaceRest.contentsProperties(
+            spaceId, storeId, null,
+            new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(400, response.getStatus());
+
+        // Operation given more than once
+        response = spaceRest.contentsProperties(
+            spaceId, storeId, Arrays.asList(SpaceRest.PROPERTIES_SET, SpaceRest.PROPERTIES_GET),
+            new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(400, response.getStatus());
+    }
+
     private void doCreateUpdatePropertiesMocks(Map<String, String> map)
         throws ResourceException {
         Map<String, String> propMap = new HashMap<String, String>();
@@ -0,0 +1,65 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.duracloud.durastore.util.StorageStatsRow;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.reportdata.storage.StoreStatsDTO;
+import org.junit.Test;
+
+public class StorageStatsJsonWriterTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testWriteSpaceStats() throws Exception {
+        List<SpaceStatsDTO> expected =
+            Arrays.asList(new SpaceStatsDTO(new Date(1000), "account", "0", "space-1", 100, 1),
+                          new SpaceStatsDTO(new Date(2000), "account", "0", "space-\"2\"", 200, 2));
+
+        // Rows are read back as the DTOs they represent
+        SpaceStatsDTO[] read = mapper.readValue(
+            write(new StorageStatsRow(1000, "account", "0", "space-1", 100, 1),
+                  new StorageStatsRow(2000, "account", "0", "space-\"2\"", 200, 2)),
+            SpaceStatsDTO[].class);
+        assertEquals(expected, Arrays.asList(read));
+    }
+
+    @Test
+    public void testWriteStoreStats() throws Exception {
+        StoreStatsDTO[] read = mapper.readValue(
+            write(new StorageStatsRow(1000, "account", "0", null, 100, 1)),
+            StoreStatsDTO[].class);
+        assertEquals(Arrays.asList(new StoreStatsDTO(new Date(1000), "account", "0", 100, 1)),
+                     Arrays.asList(read));
+    }
+
+    @Test
+    public void testWriteEmpty() throws Exception {
+        assertEquals("[]", write());
+    }
+
+    private String write(StorageStatsRow... rows) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StorageStatsJsonWriter writer = new StorageStatsJsonWriter(output);
+        for (StorageStatsRow row : rows) {
+            writer.handleRow(row);
+        }
+        writer.close();
+        return output.toString("UTF-8");
+    }
+
+}
@@ -7,17 +7,30 @@
  */
 package org.duracloud.durastore.rest;
 
+import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.getCurrentArguments;
 import static org.easymock.EasyMock.mock;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
+import org.duracloud.durastore.util.StatsPeriod;
+import org.duracloud.durastore.util.StorageStatsCache;
+import org.duracloud.durastore.util.StorageStatsRollup;
+import org.duracloud.durastore.util.StorageStatsRow;
+import org.duracloud.durastore.util.StorageStatsRowHandler;
 import org.duracloud.mill.db.repo.JpaSpaceStatsRepo;
 import org.easymock.Capture;
 import org.easymock.Mock;
@@ -49,7 +62,7 @@ public class StorageStatsResourceTest {
 
         replay(spaceStatsRepo);
         final StorageStatsResource resource = new StorageStatsResource(spaceStatsRepo);
-        resource.getStorageProviderByDay(accountId, storeId, date);
+        resource.getStorageProviderByDay(accountId, storeId, date, row -> { });
         verify(spaceStatsRepo);
 
         final Date start = captureStart.getValue();
@@ -59,4 +72,147 @@ public class StorageStatsResourceTest {
         assertEquals("End date should be 00:00:00 GMT of the next day as input date", "2020-01-01 00:00:00 UTC", format.print(end.getTime()));
 
     }
+
+    @Test
+    public void testGetSpaceStatsCached() throws Exception {
+        spaceStatsRepo = mock(JpaSpaceStatsRepo.class);
+        // Past ranges are read from the database only once
+        Date start = new Date(0);
+        Date end = new Date(System.currentTimeMillis() - 2 * 24 * 60 * 60 * 1000);
+        expect(spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId("account-id", "id", "space-id", start, end,
+                                                                 JpaSpaceStatsRepo.INTERVAL_DAY))
+            .andReturn(createSpaceStatsRows()).once();
+
+        replay(spaceStatsRepo);
+        final StorageStatsResource resource = new StorageStatsResource(spaceStatsRepo);
+        resource.setStatsCache(new StorageStatsCache());
+        for (int i = 0; i < 2; i++) {
+            List<StorageStatsRow> rows = new ArrayList<>();
+            resource.getSpaceStats("account-id", "id", "space-id", start, end, null, rows::add);
+            verifySpaceStatsRows(rows);
+        }
+        verify(spaceStatsRepo);
+    }
+
+    @Test
+    public void testGetSpaceStatsCurrentNotCached() throws Exception {
+        spaceStatsRepo = mock(JpaSpaceStatsRepo.class);
+        // Ranges which include today are always read from the database
+        Date start = new Date(0);
+        Date end = new Date();
+        expect(spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId("account-id", "id", "space-id", start, end,
+                                                                 JpaSpaceStatsRepo.INTERVAL_DAY))
+            .andReturn(createSpaceStatsRows()).times(2);
+
+        replay(spaceStatsRepo);
+        final StorageStatsResource resource = new StorageStatsResource(spaceStatsRepo);
+        resource.setStatsCache(new StorageStatsCache());
+        for (int i = 0; i < 2; i++) {
+            List<StorageStatsRow> rows = new ArrayList<>();
+            resource.getSpaceStats("account-id", "id", "space-id", start, end, null, rows::add);
+            verifySpaceStatsRows(rows);
+        }
+        verify(spaceStatsRepo);
+    }
+
+    private List<Object[]> createSpaceStatsRows() {
+        Object[] row = new Object[] {BigInteger.valueOf(1000), "account-id", "id", "space-id",
+                                     new BigDecimal(2048), new BigDecimal(2)};
+        return Collections.singletonList(row);
+    }
+
+    private void verifySpaceStatsRows(List<StorageStatsRow> rows) {
+        assertEquals(1, rows.size());
+        StorageStatsRow row = rows.get(0);
+        assertEquals(1000000, row.getTimestamp());
+        assertEquals("account-id", row.getAccountId());
+        assertEquals("id", row.getStoreId());
+        assertEquals("space-id", row.getSpaceId());
+        assertEquals(2048, row.getByteCount());
+        assertEquals(2, row.getObjectCount());
+    }
+
+    @Test
+    public void testGetStorageProviderStats() throws Exception {
+        spaceStatsRepo = mock(JpaSpaceStatsRepo.class);
+        Date start = new Date(0);
+        Date end = new Date();
+        Object[] result = new Object[] {BigInteger.valueOf(1000), "account-id", "id",
+                                        new BigDecimal(4096), new BigDecimal(4)};
+        expect(spaceStatsRepo.getByAccountIdAndStoreId("account-id", "id", start, end,
+                                                       JpaSpaceStatsRepo.INTERVAL_MONTH))
+            .andReturn(Collections.singletonList(result));
+
+        replay(spaceStatsRepo);
+        final StorageStatsResource resource = new StorageStatsResource(spaceStatsRepo);
+        List<StorageStatsRow> rows = new ArrayList<>();
+        resource.getStorageProviderStats("account-id", "id", start, end,
+                                         StorageStatsResource.GroupBy.month, rows::add);
+        verify(spaceStatsRepo);
+
+        assertEquals(1, rows.size());
+        assertNull(rows.get(0).getSpaceId());
+        assertEquals(4096, rows.get(0).getByteCount());
+        assertEquals(4, rows.get(0).getObjectCount());
+    }
+
+    @Test
+    public void testGetStorageProviderStatsFromRollup() throws Exception {
+        spaceStatsRepo = mock(JpaSpaceStatsRepo.class);
+        StorageStatsRollup statsRollup = mock(StorageStatsRollup.class);
+        Date start = new Date(0);
+        Date end = new Date();
+        StorageStatsRow rolledUp = new StorageStatsRow(1000, "account-id", "id", null, 4096, 4);
+
+        // Current rollups are read in place of the repository
+        statsRollup.refresh();
+        expect(statsRollup.isCurrent()).andReturn(true);
+        statsRollup.getStoreStats(eq("account-id"), eq("id"), eq(StatsPeriod.week),
+                                  eq(start.getTime()), eq(end.getTime()),
+                                  anyObject(StorageStatsRowHandler.class));
+        expectLastCall().andAnswer(() -> {
+            ((StorageStatsRowHandler) getCurrentArguments()[5]).handleRow(rolledUp);
+            return null;
+        });
+
+        replay(spaceStatsRepo, statsRollup);
+        final StorageStatsResource resource = new StorageStatsResource(spaceStatsRepo);
+        resource.setStatsRollup(statsRollup);
+        List<StorageStatsRow> rows = new ArrayList<>();
+        resource.getStorageProviderStats("account-id", "id", start, end,
+                                         StorageStatsResource.GroupBy.week, rows::add);
+        verify(spaceStatsRepo, statsRollup);
+
+        assertEquals(Collections.singletonList(rolledUp), rows);
+    }
+
+    @Test
+    public void testGetStorageProviderStatsRollupNotCurrent() throws Exception {
+        spaceStatsRepo = mock(JpaSpaceStatsRepo.class);
+        StorageStatsRollup statsRollup = mock(StorageStatsRollup.class);
+        Date start = new Date(0);
+        Date end = new Date();
+        StorageStatsRow aggregated = new StorageStatsRow(1000, "account-id", "id", null, 4096, 4);
+
+        // Stats are aggregated from the stats table until the rollups catch up
+        statsRollup.refresh();
+        expect(statsRollup.isCurrent()).andReturn(false);
+        statsRollup.aggregateStoreStats(eq("account-id"), eq("id"), eq(StatsPeriod.week),
+                                        eq(start.getTime()), eq(end.getTime()),
+                                        anyObject(StorageStatsRowHandler.class));
+        expectLastCall().andAnswer(() -> {
+            ((StorageStatsRowHandler) getCurrentArguments()[5]).handleRow(aggregated);
+            return null;
+        });
+
+        replay(spaceStatsRepo, statsRollup);
+        final StorageStatsResource resource = new StorageStatsResource(spaceStatsRepo);
+        resource.setStatsRollup(statsRollup);
+        List<StorageStatsRow> rows = new ArrayList<>();
+        resource.getStorageProviderStats("account-id", "id", start, end,
+                                         StorageStatsResource.GroupBy.week, rows::add);
+        verify(spaceStatsRepo, statsRollup);
+
+        assertEquals(Collections.singletonList(aggregated), rows);
+    }
 }
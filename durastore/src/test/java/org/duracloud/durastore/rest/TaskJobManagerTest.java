@@ -0,0 +1,347 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.StorageTaskConstants;
+import org.duracloud.common.model.AclType;
+import org.duracloud.durastore.aop.AOPTaskProviderFactoryDecorator;
+import org.duracloud.durastore.aop.StreamingAccessAdvice;
+import org.duracloud.durastore.util.TaskJobStore;
+import org.duracloud.error.UnauthorizedException;
+import org.duracloud.s3storageprovider.dto.GetUrlTaskParameters;
+import org.duracloud.security.impl.DuracloudUserDetails;
+import org.duracloud.security.util.AuthorizationHelper;
+import org.duracloud.storage.error.UnsupportedTaskException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.provider.TaskProvider;
+import org.duracloud.storage.provider.TaskProviderFactory;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.duracloud.storageprovider.dto.TaskJob;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.support.RegexpMethodPointcutAdvisor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class TaskJobManagerTest {
+
+    private static final String account = "account";
+    private static final String user = "user";
+    private static final String taskName = "task-name";
+    private static final String storeId = "0";
+    private static final String spaceId = "space-id";
+
+    private TaskProvider taskProvider;
+    private QueuingExecutor executor;
+    private MemoryJobStore jobStore;
+
+    @Before
+    public void setup() {
+        taskProvider = EasyMock.createMock(TaskProvider.class);
+        EasyMock.expect(taskProvider.getStoreId()).andReturn(storeId).anyTimes();
+        executor = new QueuingExecutor();
+        jobStore = new MemoryJobStore();
+    }
+
+    @After
+    public void teardown() {
+        EasyMock.verify(taskProvider);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testPerformTask() throws Exception {
+        EasyMock.expect(taskProvider.performTask(taskName, "params"))
+                .andReturn("result");
+        EasyMock.replay(taskProvider);
+
+        TaskJobManager manager = new TaskJobManager(1, 10, 60, jobStore, executor);
+        TaskJob job = manager.submit(taskProvider, taskName, "params",
+                                     account, user);
+        assertEquals(TaskJob.Status.QUEUED, job.getStatus());
+        assertEquals(storeId, job.getStoreId());
+        String jobId = job.getJobId();
+
+        // Jobs are only available to the user who submitted them
+        assertNull(manager.getJob(jobId, account, "other-user"));
+        assertNull(manager.getJob(jobId, "other-account", user));
+        assertNull(manager.getJob("unknown", account, user));
+
+        executor.runNext();
+        job = manager.waitForJob(jobId, account, user, 1000);
+        assertEquals(TaskJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals("result", job.getResult());
+        assertEquals(0, job.getErrorCode());
+    }
+
+    @Test
+    public void testPerformTaskFailure() throws Exception {
+        EasyMock.expect(taskProvider.performTask(taskName, null))
+                .andThrow(new UnsupportedTaskException(taskName));
+        EasyMock.replay(taskProvider);
+
+        TaskJobManager manager = new TaskJobManager(1, 10, 60, jobStore, executor);
+        String jobId =
+            manager.submit(taskProvider, taskName, null, account, user).getJobId();
+        executor.runNext();
+
+        TaskJob job = manager.getJob(jobId, account, user);
+        assertEquals(TaskJob.Status.FAILED, job.getStatus());
+        assertNull(job.getResult());
+        assertEquals(400, job.getErrorCode());
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        EasyMock.expect(taskProvider.performTask(taskName, null))
+                .andReturn("result").times(2);
+        EasyMock.replay(taskProvider);
+
+        // One running and one waiting job allowed per task name
+        TaskJobManager manager = new TaskJobManager(1, 1, 60, jobStore, executor);
+        String first =
+            manager.submit(taskProvider, taskName, null, account, user).getJobId();
+        String second =
+            manager.submit(taskProvider, taskName, null, account, user).getJobId();
+        try {
+            manager.submit(taskProvider, taskName, null, account, user);
+            fail("Exception expected when too many jobs are waiting");
+        } catch (RejectedExecutionException expected) {
+            // Expected
+        }
+        assertEquals(1, executor.queue.size());
+
+        // The waiting job is started when the first completes
+        executor.runNext();
+        assertEquals(TaskJob.Status.SUCCEEDED,
+                     manager.getJob(first, account, user).getStatus());
+        assertEquals(TaskJob.Status.QUEUED,
+                     manager.getJob(second, account, user).getStatus());
+        assertEquals(1, executor.queue.size());
+
+        executor.runNext();
+        assertEquals(TaskJob.Status.SUCCEEDED,
+                     manager.getJob(second, account, user).getStatus());
+        assertEquals(0, executor.queue.size());
+    }
+
+    @Test
+    public void testJobPolledThroughOtherNode() throws Exception {
+        EasyMock.expect(taskProvider.performTask(taskName, null))
+                .andReturn("result");
+        EasyMock.replay(taskProvider);
+
+        // Nodes share the job store
+        TaskJobManager node1 = new TaskJobManager(1, 10, 60, jobStore, executor);
+        TaskJobManager node2 =
+            new TaskJobManager(1, 10, 60, jobStore, new QueuingExecutor());
+
+        String jobId =
+            node1.submit(taskProvider, taskName, null, account, user).getJobId();
+        assertEquals(TaskJob.Status.QUEUED,
+                     node2.getJob(jobId, account, user).getStatus());
+        assertNull(node2.getJob(jobId, account, "other-user"));
+
+        executor.runNext();
+        TaskJob job = node2.waitForJob(jobId, account, user, 1000);
+        assertEquals(TaskJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals("result", job.getResult());
+    }
+
+    @Test
+    public void testExpiredJobsRemoved() throws Exception {
+        EasyMock.replay(taskProvider);
+
+        TaskJob expired = new TaskJob("expired", taskName, storeId);
+        expired.setSubmitted(
+            new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(61)));
+        jobStore.saveJob(expired, account, user);
+
+        TaskJobManager manager = new TaskJobManager(1, 10, 60, jobStore, executor);
+        String jobId =
+            manager.submit(taskProvider, taskName, null, account, user).getJobId();
+
+        assertNull(manager.getJob("expired", account, user));
+        assertEquals(TaskJob.Status.QUEUED,
+                     manager.getJob(jobId, account, user).getStatus());
+    }
+
+    /*
+     * A task of a user who is not an administrator is authorized by the
+     * provider advice while the job is submitted, as the storage provider
+     * factory used to read the space ACLs is only available to the request
+     * thread, and is then performed on another thread without the advice.
+     */
+    @Test
+    public void testAdviceAppliedOnSubmit() throws Exception {
+        String params = getUrlParams();
+        EasyMock.expect(taskProvider.performTask(
+            StorageTaskConstants.GET_URL_TASK_NAME, params)).andReturn("url");
+
+        Map<String, AclType> acls = new HashMap<>();
+        acls.put(StorageProvider.PROPERTIES_SPACE_ACL + user, AclType.READ);
+        TaskProvider advised = createAdvisedProvider(acls);
+        setUser();
+
+        TaskJobManager manager = new TaskJobManager(1, 10, 60, jobStore, executor);
+        String jobId = manager.submit(advised,
+                                      StorageTaskConstants.GET_URL_TASK_NAME,
+                                      params, account, user).getJobId();
+
+        Thread worker = new Thread(executor::runNext);
+        worker.start();
+        worker.join();
+
+        TaskJob job = manager.getJob(jobId, account, user);
+        assertEquals(TaskJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals("url", job.getResult());
+    }
+
+    @Test
+    public void testAdviceRejectsSubmit() throws Exception {
+        TaskProvider advised =
+            createAdvisedProvider(new HashMap<String, AclType>());
+        setUser();
+
+        TaskJobManager manager = new TaskJobManager(1, 10, 60, jobStore, executor);
+        try {
+            manager.submit(advised, StorageTaskConstants.GET_URL_TASK_NAME,
+                           getUrlParams(), account, user);
+            fail("Exception expected when the user may not read the space");
+        } catch (UnauthorizedException expected) {
+            // Expected
+        }
+        assertEquals(0, executor.queue.size());
+        assertEquals(0, jobStore.jobs.size());
+    }
+
+    private String getUrlParams() {
+        GetUrlTaskParameters params = new GetUrlTaskParameters();
+        params.setSpaceId(spaceId);
+        params.setContentId("content-id");
+        return params.serialize();
+    }
+
+    /*
+     * Wraps the task provider in the streaming access advice, reading ACLs
+     * through a storage provider factory which, like the request scoped
+     * factory, fails when used outside of the thread which created it.
+     */
+    private TaskProvider createAdvisedProvider(Map<String, AclType> acls) {
+        Thread requestThread = Thread.currentThread();
+        StorageProvider storageProvider =
+            EasyMock.createMock(StorageProvider.class);
+        EasyMock.expect(storageProvider.getSpaceACLs(spaceId)).andReturn(acls);
+        StorageProviderFactory storageProviderFactory =
+            EasyMock.createMock(StorageProviderFactory.class);
+        EasyMock.expect(storageProviderFactory.getStorageProvider(storeId))
+                .andAnswer(() -> {
+                    if (Thread.currentThread() != requestThread) {
+                        throw new IllegalStateException(
+                            "No thread-bound request found");
+                    }
+                    return storageProvider;
+                });
+        TaskProviderFactory taskProviderFactory =
+            EasyMock.createMock(TaskProviderFactory.class);
+        EasyMock.expect(taskProviderFactory.getTaskProvider(storeId))
+                .andReturn(taskProvider);
+        EasyMock.replay(taskProvider, storageProvider, storageProviderFactory,
+                        taskProviderFactory);
+
+        StreamingAccessAdvice advice = new StreamingAccessAdvice(
+            new AuthorizationHelper(storageProviderFactory));
+        RegexpMethodPointcutAdvisor advisor =
+            new RegexpMethodPointcutAdvisor(".*TaskProvider.*[.]performTask",
+                                            advice);
+        return new AOPTaskProviderFactoryDecorator(taskProviderFactory, advisor)
+            .getTaskProvider(storeId);
+    }
+
+    private void setUser() {
+        Collection<GrantedAuthority> authorities =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        DuracloudUserDetails details =
+            new DuracloudUserDetails(user, "password", "email", null, true,
+                                     true, true, true, authorities,
+                                     Collections.<String>emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(details, "password",
+                                                    authorities));
+    }
+
+    /**
+     * Holds submitted work until the test runs it
+     */
+    private static class QueuingExecutor implements Executor {
+        private Queue<Runnable> queue = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void runNext() {
+            queue.poll().run();
+        }
+    }
+
+    /**
+     * Holds jobs in memory, in place of the shared database
+     */
+    private static class MemoryJobStore implements TaskJobStore {
+        private Map<String, TaskJob> jobs = new ConcurrentHashMap<>();
+        private Map<String, String> owners = new ConcurrentHashMap<>();
+
+        @Override
+        public void saveJob(TaskJob job, String accountId, String username) {
+            jobs.put(job.getJobId(), job);
+            owners.putIfAbsent(job.getJobId(), accountId + "/" + username);
+        }
+
+        @Override
+        public TaskJob getJob(String jobId, String accountId, String username) {
+            String owner = accountId + "/" + username;
+            return owner.equals(owners.get(jobId)) ? jobs.get(jobId) : null;
+        }
+
+        @Override
+        public int removeJobs(Date submittedBefore) {
+            int removed = 0;
+            for (TaskJob job : jobs.values()) {
+                if (job.getSubmitted().before(submittedBefore)) {
+                    jobs.remove(job.getJobId());
+                    owners.remove(job.getJobId());
+                    removed++;
+                }
+            }
+            return removed;
+        }
+    }
+
+}
@@ -10,7 +10,9 @@ package org.duracloud.durastore.rest;
 import javax.ws.rs.core.Response;
 
 import org.duracloud.common.rest.RestUtil;
+import org.duracloud.durastore.util.TaskJobStore;
 import org.duracloud.storage.provider.TaskProviderFactory;
+import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -32,7 +34,8 @@ public class TaskRestExceptionsTest {
     public void setUp() throws Exception {
         taskProviderFactory = support.createTaskProviderFactory();
         restUtil = support.createRestUtil();
-        taskRest = new TaskRest(taskProviderFactory, restUtil);
+        taskRest = new TaskRest(taskProviderFactory, restUtil, new TaskJobManager(
+            EasyMock.createMock(TaskJobStore.class)));
     }
 
     @Test
@@ -43,7 +46,7 @@ public class TaskRestExceptionsTest {
 
     @Test
     public void testPerformTask() throws Exception {
-        Response response = taskRest.performTask(null, null);
+        Response response = taskRest.performTask(null, null, false);
         support.verifyErrorResponse(response);
     }
 
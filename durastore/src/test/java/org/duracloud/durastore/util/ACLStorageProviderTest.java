@@ -85,8 +85,8 @@ public class ACLStorageProviderTest {
         replay(mockProvider, context, notifier, requestContextUtil);
     }
 
-    private void setupNotification() {
-        notifier.storageProviderCacheOnNodeChanged("account");
+    private void setupNotification(String spaceId) {
+        notifier.storageProviderCacheOnNodeChanged("account", "store-id", spaceId);
         expectLastCall().once();
         expect(requestContextUtil.getAccountId()).andReturn("account");
     }
@@ -155,10 +155,13 @@ public class ACLStorageProviderTest {
     }
 
     private ACLStorageProvider createProvider() {
-        return new ACLStorageProvider(mockProvider,
-                                      securityContextUtil,
-                                      notifier,
-                                      requestContextUtil);
+        ACLStorageProvider aclProvider =
+            new ACLStorageProvider(mockProvider,
+                                   securityContextUtil,
+                                   notifier,
+                                   requestContextUtil);
+        aclProvider.setStoreId("store-id");
+        return aclProvider;
     }
 
     private void createMockStorageProvider(int times) {
@@ -227,8 +230,8 @@ public class ACLStorageProviderTest {
 
     @Test
     public void testGetSpaceACLs() throws Exception {
-        setupNotification();
         String spaceId = spacePrefix + 4;
+        setupNotification(spaceId);
         createMockStorageProvider(1);
         Map<String, AclType> origAcls = createSpaceACLs();
 
@@ -238,6 +241,7 @@ public class ACLStorageProviderTest {
 
         // method under test
         provider = createProvider();
+        provider.waitForCacheLoader();
         Map<String, AclType> acls = provider.getSpaceACLs(spaceId);
         Assert.assertNotNull(acls);
         Assert.assertEquals(new HashMap<String, String>(), acls);
@@ -260,8 +264,8 @@ public class ACLStorageProviderTest {
 
     @Test
     public void testSetSpaceACLs() throws Exception {
-        setupNotification();
         String spaceId = spacePrefix + 2;
+        setupNotification(spaceId);
         createMockStorageProvider(1);
         Map<String, AclType> origAcls = createSpaceACLs();
 
@@ -272,6 +276,7 @@ public class ACLStorageProviderTest {
 
         // method under test
         provider = createProvider();
+        provider.waitForCacheLoader();
         provider.setSpaceACLs(spaceId, origAcls);
 
         // getting ACLs should only hit the cache.
@@ -281,7 +286,7 @@ public class ACLStorageProviderTest {
     }
 
     @Test
-    public void testClearCache() throws InterruptedException {
+    public void testClearCache() throws Exception {
         String spaceId = "ACLStorageProvider-cache";
         createMockStorageProvider(2);
 
@@ -296,8 +301,52 @@ public class ACLStorageProviderTest {
         provider = createProvider();
         provider.deleteSpace(spaceId);
 
-        // wait for cache to be cleared and reloaded.
+        // wait for cache to be reloaded.
+        provider.waitForCacheLoader();
         provider.getSpaceACLs(spaceId);
     }
 
+    @Test
+    public void testRefreshCache() throws Exception {
+        String spaceId = spacePrefix + 2;
+        createMockStorageProvider(2);
+        replayMocks();
+
+        provider = createProvider();
+        provider.waitForCacheLoader();
+
+        // method under test
+        provider.refreshCache();
+
+        // cached ACLs remain available while the refresh runs
+        Map<String, AclType> acls = provider.getSpaceACLs(spaceId);
+        Assert.assertTrue(acls.containsKey(PROPERTIES_SPACE_ACL + username));
+
+        provider.waitForCacheLoader();
+    }
+
+    @Test
+    public void testRefreshSpaceACLs() throws Exception {
+        String spaceId = spacePrefix + 2;
+        createMockStorageProvider(1);
+
+        // Only the ACLs of the refreshed space are reloaded
+        Map<String, AclType> newAcls = createSpaceACLs();
+        expect(mockProvider.getSpaceACLs(spaceId)).andReturn(newAcls);
+        replayMocks();
+
+        provider = createProvider();
+        provider.waitForCacheLoader();
+
+        // method under test
+        provider.refreshSpaceACLs(spaceId);
+
+        long start = System.currentTimeMillis();
+        while (!newAcls.equals(provider.getSpaceACLs(spaceId)) &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(newAcls, provider.getSpaceACLs(spaceId));
+    }
+
 }
@@ -0,0 +1,372 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
+import org.duracloud.common.model.AclType;
+import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.easymock.IAnswer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingStorageProviderTest {
+
+    private static final String accountId = "account-id";
+    private static final String storeId = "1";
+    private static final String spaceId = "space-id";
+    private static final String contentId = "content-id";
+
+    private StorageProvider target;
+    private AccountChangeNotifier notifier;
+    private StorageMetadataCache metadataCache;
+    private CachingStorageProvider provider;
+
+    @Before
+    public void setup() {
+        target = createMock("StorageProvider", StorageProvider.class);
+        notifier = createMock("AccountChangeNotifier",
+                              AccountChangeNotifier.class);
+        metadataCache = new StorageMetadataCache();
+        provider = new CachingStorageProvider(target,
+                                              metadataCache,
+                                              notifier,
+                                              accountId,
+                                              storeId);
+    }
+
+    @After
+    public void teardown() {
+        verify(target, notifier);
+    }
+
+    private Map<String, String> props(String value) {
+        Map<String, String> props = new HashMap<>();
+        props.put("name", value);
+        return props;
+    }
+
+    @Test
+    public void testContentPropertiesCached() {
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(props("one"));
+        replay(target, notifier);
+
+        assertEquals("one",
+                     provider.getContentProperties(spaceId, contentId).get("name"));
+
+        // Changes made by callers do not affect the cached value
+        Map<String, String> props =
+            provider.getContentProperties(spaceId, contentId);
+        props.put("name", "changed");
+        assertEquals("one",
+                     provider.getContentProperties(spaceId, contentId).get("name"));
+
+        StorageMetadataCacheStats stats = metadataCache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void testContentWriteInvalidates() throws Exception {
+        CountDownLatch notified = new CountDownLatch(1);
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(props("one"));
+        expect(target.getSpaceProperties(spaceId)).andReturn(props("one"));
+        expect(target.getSpaceACLs(spaceId))
+            .andReturn(new HashMap<String, AclType>());
+        target.setContentProperties(eq(spaceId), eq(contentId),
+                                    eq(props("two")));
+        expectLastCall();
+        notifier.storageMetadataChanged(accountId, storeId, spaceId,
+                                        Collections.singletonList(contentId),
+                                        0L, 0L);
+        expectLastCall().andAnswer(countDown(notified));
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(props("two"));
+        expect(target.getSpaceProperties(spaceId)).andReturn(props("two"));
+        replay(target, notifier);
+
+        provider.getContentProperties(spaceId, contentId);
+        provider.getSpaceProperties(spaceId);
+        provider.getSpaceACLs(spaceId);
+        provider.setContentProperties(spaceId, contentId, props("two"));
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+
+        assertEquals("two",
+                     provider.getContentProperties(spaceId, contentId).get("name"));
+        assertEquals("two", provider.getSpaceProperties(spaceId).get("name"));
+        // Space ACLs are not affected by content changes
+        provider.getSpaceACLs(spaceId);
+    }
+
+    @Test
+    public void testACLWriteInvalidatesSpace() throws Exception {
+        CountDownLatch notified = new CountDownLatch(1);
+        Map<String, AclType> acls = new HashMap<>();
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(props("one")).times(2);
+        expect(target.getSpaceACLs(spaceId)).andReturn(acls).times(2);
+        target.setSpaceACLs(spaceId, acls);
+        expectLastCall();
+        notifier.storageMetadataChanged(accountId, storeId, spaceId, null,
+                                        0L, 0L);
+        expectLastCall().andAnswer(countDown(notified));
+        replay(target, notifier);
+
+        provider.getContentProperties(spaceId, contentId);
+        provider.getSpaceACLs(spaceId);
+        provider.setSpaceACLs(spaceId, acls);
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+
+        provider.getContentProperties(spaceId, contentId);
+        provider.getSpaceACLs(spaceId);
+    }
+
+    @Test
+    public void testRemoteContentInvalidation() {
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(props("one")).times(2);
+        expect(target.getContentProperties(spaceId, "other-id"))
+            .andReturn(props("other"));
+        replay(target, notifier);
+
+        provider.getContentProperties(spaceId, contentId);
+        provider.getContentProperties(spaceId, "other-id");
+        CachingStorageProvider.invalidateContents(
+            metadataCache, accountId, storeId, spaceId,
+            Collections.singletonList(contentId));
+        provider.getContentProperties(spaceId, contentId);
+        provider.getContentProperties(spaceId, "other-id");
+    }
+
+    @Test
+    public void testNotFoundCached() {
+        expect(target.getContentProperties(spaceId, contentId))
+            .andThrow(new NotFoundException("not found"));
+        replay(target, notifier);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                provider.getContentProperties(spaceId, contentId);
+                fail("Exception expected");
+            } catch (NotFoundException e) {
+                // Expected
+            }
+        }
+        assertTrue(provider.getContentsProperties(
+            spaceId, Collections.singletonList(contentId)).isEmpty());
+    }
+
+    @Test
+    public void testAddedOnOtherNodeFound() throws Exception {
+        // Node A shares the target provider, but not the metadata cache
+        CachingStorageProvider otherNode =
+            new CachingStorageProvider(target,
+                                       new StorageMetadataCache(),
+                                       notifier,
+                                       accountId,
+                                       storeId);
+        CountDownLatch notified = new CountDownLatch(1);
+        expect(target.getContentProperties(spaceId, contentId))
+            .andThrow(new NotFoundException("not found"));
+        expect(target.addContent(spaceId, contentId, "text/plain", null,
+                                 1L, "checksum", null))
+            .andReturn("checksum");
+        // The notification to this node is lost
+        notifier.storageMetadataChanged(accountId, storeId, spaceId,
+                                        Collections.singletonList(contentId),
+                                        0L, 0L);
+        expectLastCall().andAnswer(countDown(notified));
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(props("one"));
+        replay(target, notifier);
+
+        try {
+            provider.getContentProperties(spaceId, contentId);
+            fail("Exception expected");
+        } catch (NotFoundException e) {
+            // Expected
+        }
+        otherNode.addContent(spaceId, contentId, "text/plain", null,
+                             1L, "checksum", null);
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(CachingStorageProvider.NOT_FOUND_MAX_AGE_MILLIS + 100);
+        assertEquals("one",
+                     provider.getContentProperties(spaceId, contentId).get("name"));
+    }
+
+    @Test
+    public void testTotalsChangeSentWithWrite() throws Exception {
+        CountDownLatch notified = new CountDownLatch(1);
+        target.deleteContent(spaceId, contentId);
+        expectLastCall();
+        notifier.storageMetadataChanged(accountId, storeId, spaceId,
+                                        Collections.singletonList(contentId),
+                                        -1L, -10L);
+        expectLastCall().andAnswer(countDown(notified));
+        replay(target, notifier);
+
+        // Recorded before the write, and sent with its notification
+        provider.totalsChanged(spaceId, -1L, -10L, false);
+        provider.deleteContent(spaceId, contentId);
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNotifiedWhenPoolFull() throws Exception {
+        // A pool with one thread and room for one queued notification
+        ExecutorRegistry registry = ExecutorRegistry.getInstance();
+        registry.configure(new ExecutorPoolConfig("metadata-notify", 1, 1));
+        registry.getExecutor("metadata-notify").shutdown();
+
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch queuedSent = new CountDownLatch(1);
+        Thread testThread = Thread.currentThread();
+        boolean[] sentDirectly = {false};
+        for (String space : new String[] {"space-a", "space-b", "space-c"}) {
+            target.deleteContent(space, contentId);
+            expectLastCall();
+        }
+        notifier.storageMetadataChanged(accountId, storeId, "space-a",
+                                        Collections.singletonList(contentId),
+                                        0L, 0L);
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }
+        });
+        notifier.storageMetadataChanged(accountId, storeId, "space-b",
+                                        Collections.singletonList(contentId),
+                                        0L, 0L);
+        expectLastCall().andAnswer(countDown(queuedSent));
+        notifier.storageMetadataChanged(accountId, storeId, "space-c",
+                                        Collections.singletonList(contentId),
+                                        0L, 0L);
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                sentDirectly[0] = Thread.currentThread() == testThread;
+                return null;
+            }
+        });
+        replay(target, notifier);
+
+        try {
+            provider.deleteContent("space-a", contentId);
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+            provider.deleteContent("space-b", contentId);
+
+            // The pool is full, so the notification is sent by the caller
+            provider.deleteContent("space-c", contentId);
+            assertTrue(sentDirectly[0]);
+        } finally {
+            release.countDown();
+        }
+        assertTrue(queuedSent.await(5, TimeUnit.SECONDS));
+
+        registry.configure(new ExecutorPoolConfig("metadata-notify", 2, 1000));
+        registry.getExecutor("metadata-notify").shutdown();
+    }
+
+    private IAnswer<Object> countDown(CountDownLatch latch) {
+        return new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                latch.countDown();
+                return null;
+            }
+        };
+    }
+
+    @Test
+    public void testChangeDuringLoad() {
+        // The space changes on another node while properties are loading
+        expect(target.getSpaceProperties(spaceId)).andAnswer(
+            new IAnswer<Map<String, String>>() {
+                @Override
+                public Map<String, String> answer() throws Throwable {
+                    metadataCache.invalidateSpace(
+                        CachingStorageProvider.getSpaceKey(accountId,
+                                                           storeId,
+                                                           spaceId));
+                    return props("old");
+                }
+            });
+        expect(target.getSpaceProperties(spaceId)).andReturn(props("new"));
+        replay(target, notifier);
+
+        assertEquals("old", provider.getSpaceProperties(spaceId).get("name"));
+        assertEquals("new", provider.getSpaceProperties(spaceId).get("name"));
+    }
+
+    @Test
+    public void testAccountInvalidation() {
+        expect(target.getSpaceProperties(spaceId)).andReturn(props("one"))
+                                                  .times(2);
+        replay(target, notifier);
+
+        provider.getSpaceProperties(spaceId);
+        provider.getSpaceProperties(spaceId);
+        metadataCache.invalidateAccount(accountId);
+        provider.getSpaceProperties(spaceId);
+    }
+
+    @Test
+    public void testSizeEviction() {
+        metadataCache = new StorageMetadataCache(1000, 300);
+        provider = new CachingStorageProvider(target,
+                                              metadataCache,
+                                              notifier,
+                                              accountId,
+                                              storeId);
+        expect(target.getContentProperties(eq(spaceId), eq(contentId)))
+            .andReturn(props("one")).times(2);
+        for (int i = 0; i < 10; i++) {
+            expect(target.getContentProperties(spaceId, contentId + i))
+                .andReturn(props("value-" + i));
+        }
+        replay(target, notifier);
+
+        provider.getContentProperties(spaceId, contentId);
+        for (int i = 0; i < 10; i++) {
+            provider.getContentProperties(spaceId, contentId + i);
+        }
+        StorageMetadataCacheStats stats = metadataCache.getStats();
+        assertTrue(stats.getBytes() <= stats.getMaxBytes());
+        assertTrue(stats.getEvictions() > 0);
+
+        // The least recently used entry was evicted
+        provider.getContentProperties(spaceId, contentId);
+    }
+
+}
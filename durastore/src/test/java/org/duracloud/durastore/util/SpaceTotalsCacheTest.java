@@ -0,0 +1,156 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.duracloud.storage.domain.SpaceTotals;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpaceTotalsCacheTest {
+
+    private static final String spaceKey = "account/1/space-id";
+
+    private AtomicInteger listings;
+    private volatile SpaceTotals listed;
+    private Supplier<SpaceTotals> calculator;
+
+    @Before
+    public void setup() {
+        listings = new AtomicInteger();
+        calculator = () -> {
+            listings.incrementAndGet();
+            return listed;
+        };
+    }
+
+    @Test
+    public void testCalculatedInBackground() throws Exception {
+        SpaceTotalsCache cache = new SpaceTotalsCache();
+        listed = new SpaceTotals(10, 1000);
+
+        // Not known until the space has been listed
+        assertNull(cache.get(spaceKey, calculator));
+
+        SpaceTotals totals = waitForTotals(cache);
+        assertEquals(10, totals.getItemCount());
+        assertEquals(1000, totals.getByteCount());
+        assertEquals(1, listings.get());
+    }
+
+    @Test
+    public void testIncrementalUpdates() throws Exception {
+        SpaceTotalsCache cache = new SpaceTotalsCache();
+        listed = new SpaceTotals(10, 1000);
+        waitForTotals(cache);
+        assertTrue(cache.isTracked(spaceKey));
+
+        cache.update(spaceKey, 1, 100);
+        cache.update(spaceKey, 0, 50);
+        cache.update(spaceKey, -2, -200);
+
+        SpaceTotals totals = cache.get(spaceKey, calculator);
+        assertEquals(9, totals.getItemCount());
+        assertEquals(950, totals.getByteCount());
+        assertEquals(1, listings.get());
+
+        // Updates to spaces which are not tracked are ignored
+        cache.update("other-space", 1, 100);
+        assertFalse(cache.isTracked("other-space"));
+    }
+
+    @Test
+    public void testReconcile() throws Exception {
+        // Totals are recalculated on every request
+        SpaceTotalsCache cache = new SpaceTotalsCache(0, 0);
+        listed = new SpaceTotals(10, 1000);
+        waitForTotals(cache);
+
+        cache.update(spaceKey, 5, 500);
+        listed = new SpaceTotals(12, 1200);
+
+        // Current totals are served while they are recalculated
+        long start = System.currentTimeMillis();
+        SpaceTotals totals = cache.get(spaceKey, calculator);
+        while (totals.getItemCount() != 12 &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+            totals = cache.get(spaceKey, calculator);
+        }
+        assertEquals(12, totals.getItemCount());
+        assertEquals(1200, totals.getByteCount());
+    }
+
+    @Test
+    public void testInvalidateSpace() throws Exception {
+        SpaceTotalsCache cache = new SpaceTotalsCache(3600, 0);
+        listed = new SpaceTotals(10, 1000);
+        waitForTotals(cache);
+        int calculated = listings.get();
+
+        cache.invalidateSpace(spaceKey);
+        cache.get(spaceKey, calculator);
+
+        long start = System.currentTimeMillis();
+        while (listings.get() == calculated &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertEquals(calculated + 1, listings.get());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        SpaceTotalsCache cache = new SpaceTotalsCache();
+        listed = new SpaceTotals(10, 1000);
+        waitForTotals(cache);
+
+        cache.remove(spaceKey);
+        assertFalse(cache.isTracked(spaceKey));
+
+        listed = new SpaceTotals(0, 0);
+        assertEquals(0, waitForTotals(cache).getItemCount());
+        assertEquals(2, listings.get());
+    }
+
+    @Test
+    public void testMaxSpaces() throws Exception {
+        SpaceTotalsCache cache = new SpaceTotalsCache(3600, 60, 1);
+        listed = new SpaceTotals(10, 1000);
+        waitForTotals(cache);
+
+        // Totals of the least recently used space are discarded
+        long start = System.currentTimeMillis();
+        while (null == cache.get("other-space", calculator) &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertTrue(cache.isTracked("other-space"));
+        assertFalse(cache.isTracked(spaceKey));
+    }
+
+    private SpaceTotals waitForTotals(SpaceTotalsCache cache) throws Exception {
+        long start = System.currentTimeMillis();
+        SpaceTotals totals = cache.get(spaceKey, calculator);
+        while (null == totals && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+            totals = cache.get(spaceKey, calculator);
+        }
+        assertNotNull(totals);
+        return totals;
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.duracloud.common.sns.AccountChangeNotifier;
+import org.duracloud.storage.domain.SpaceTotals;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpaceTotalsStorageProviderTest {
+
+    private static final String accountId = "account-id";
+    private static final String storeId = "1";
+    private static final String spaceId = "space-id";
+    private static final String spaceKey =
+        CachingStorageProvider.getSpaceKey(accountId, storeId, spaceId);
+
+    private StorageProvider target;
+    private StorageProvider storeProvider;
+    private SpaceTotalsCache totalsCache;
+    private SpaceTotalsStorageProvider provider;
+
+    @Before
+    public void setup() {
+        target = createMock("TargetProvider", StorageProvider.class);
+        storeProvider = createMock("StoreProvider", StorageProvider.class);
+        totalsCache = new SpaceTotalsCache();
+        provider = new SpaceTotalsStorageProvider(target,
+                                                  storeProvider,
+                                                  null,
+                                                  totalsCache,
+                                                  accountId,
+                                                  storeId);
+    }
+
+    @After
+    public void teardown() {
+        verify(target, storeProvider);
+    }
+
+    private Map<String, String> sizeProps(long size) {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, String.valueOf(size));
+        return props;
+    }
+
+    private void trackSpace(long itemCount, long byteCount) throws Exception {
+        SpaceTotals listed = new SpaceTotals(itemCount, byteCount);
+        long start = System.currentTimeMillis();
+        while (null == totalsCache.get(spaceKey, () -> listed) &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testSpacePropertiesIncludeTotals() throws Exception {
+        Map<String, String> spaceProps = new HashMap<>();
+        expect(target.getSpaceProperties(spaceId))
+            .andReturn(spaceProps)
+            .anyTimes();
+
+        // The space is listed both to count it and to calculate its totals
+        List<String> page = Arrays.asList("a", "b");
+        expect(storeProvider.getSpaceContentsChunked(spaceId, null, 1000, null))
+            .andReturn(page)
+            .atLeastOnce();
+        Map<String, Map<String, String>> pageProps = new HashMap<>();
+        pageProps.put("a", sizeProps(10));
+        pageProps.put("b", sizeProps(20));
+        expect(storeProvider.getContentsProperties(spaceId, page))
+            .andReturn(pageProps);
+        expect(storeProvider.getSpaceContentsChunked(spaceId, null, 1000, "b"))
+            .andReturn(Collections.emptyList())
+            .atLeastOnce();
+        replay(target, storeProvider);
+
+        // The items are counted until the totals are calculated
+        Map<String, String> props = provider.getSpaceProperties(spaceId);
+        if (null == props.get(StorageProvider.PROPERTIES_SPACE_SIZE)) {
+            assertEquals("2", props.get(StorageProvider.PROPERTIES_SPACE_COUNT));
+        }
+        long start = System.currentTimeMillis();
+        while (props.get(StorageProvider.PROPERTIES_SPACE_SIZE) == null &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+            props = provider.getSpaceProperties(spaceId);
+        }
+
+        assertEquals("2", props.get(StorageProvider.PROPERTIES_SPACE_COUNT));
+        assertEquals("30", props.get(StorageProvider.PROPERTIES_SPACE_SIZE));
+    }
+
+    @Test
+    public void testWritesUpdateTotals() throws Exception {
+        trackSpace(2, 30);
+
+        // New item
+        expect(storeProvider.getContentProperties(spaceId, "c"))
+            .andThrow(new NotFoundException("not found"));
+        InputStream content = new ByteArrayInputStream(new byte[5]);
+        expect(target.addContent(spaceId, "c", "text/plain", null, 5,
+                                 "checksum", content))
+            .andReturn("checksum");
+
+        // Replaced item
+        expect(storeProvider.getContentProperties(spaceId, "a"))
+            .andReturn(sizeProps(10));
+        expect(target.addContent(spaceId, "a", "text/plain", null, 25,
+                                 "checksum", content))
+            .andReturn("checksum");
+
+        // Copied item
+        expect(storeProvider.getContentProperties("source-space", "source"))
+            .andReturn(sizeProps(40));
+        expect(storeProvider.getContentProperties(spaceId, "d"))
+            .andThrow(new NotFoundException("not found"));
+        expect(target.copyContent("source-space", "source", spaceId, "d"))
+            .andReturn("checksum");
+
+        // Deleted items
+        expect(storeProvider.getContentProperties(spaceId, "b"))
+            .andReturn(sizeProps(20));
+        target.deleteContent(spaceId, "b");
+
+        // The sizes are taken from the delete result, not looked up
+        List<String> contentIds = Arrays.asList("c", "d");
+        expect(target.deleteContents(spaceId, contentIds))
+            .andReturn(Collections.singletonMap("d", sizeProps(40)));
+        replay(target, storeProvider);
+
+        provider.addContent(spaceId, "c", "text/plain", null, 5, "checksum", content);
+        verifyTotals(3, 35);
+
+        provider.addContent(spaceId, "a", "text/plain", null, 25, "checksum", content);
+        verifyTotals(3, 50);
+
+        provider.copyContent("source-space", "source", spaceId, "d");
+        verifyTotals(4, 90);
+
+        provider.deleteContent(spaceId, "b");
+        verifyTotals(3, 70);
+
+        // Only the item which was deleted is removed from the totals
+        provider.deleteContents(spaceId, contentIds);
+        verifyTotals(2, 30);
+    }
+
+    @Test
+    public void testFailedWriteRestoresTotals() throws Exception {
+        trackSpace(2, 30);
+
+        expect(storeProvider.getContentProperties(spaceId, "a"))
+            .andReturn(sizeProps(10));
+        target.deleteContent(spaceId, "a");
+        expectLastCall().andThrow(new StorageException("failed"));
+        replay(target, storeProvider);
+
+        try {
+            provider.deleteContent(spaceId, "a");
+            fail("Exception expected");
+        } catch (StorageException e) {
+            verifyTotals(2, 30);
+        }
+    }
+
+    @Test
+    public void testSizesFromMetadataCache() throws Exception {
+        AccountChangeNotifier notifier =
+            createMock("AccountChangeNotifier", AccountChangeNotifier.class);
+        CachingStorageProvider cachingProvider =
+            new CachingStorageProvider(storeProvider, new StorageMetadataCache(),
+                                       notifier, accountId, storeId);
+        provider = new SpaceTotalsStorageProvider(target,
+                                                  storeProvider,
+                                                  cachingProvider,
+                                                  totalsCache,
+                                                  accountId,
+                                                  storeId);
+        trackSpace(2, 30);
+
+        // Looked up once, by the check made before the write
+        expect(storeProvider.getContentProperties(spaceId, "c"))
+            .andThrow(new NotFoundException("not found"));
+        InputStream content = new ByteArrayInputStream(new byte[5]);
+        expect(target.addContent(spaceId, "c", "text/plain", null, 5,
+                                 "checksum", content))
+            .andReturn("checksum");
+        replay(target, storeProvider, notifier);
+
+        try {
+            cachingProvider.getContentProperties(spaceId, "c");
+            fail("Exception expected");
+        } catch (NotFoundException e) {
+            // Expected
+        }
+        provider.addContent(spaceId, "c", "text/plain", null, 5, "checksum", content);
+        verifyTotals(3, 35);
+        verify(notifier);
+    }
+
+    @Test
+    public void testUntrackedSpaceNotLookedUp() {
+        InputStream content = new ByteArrayInputStream(new byte[5]);
+        expect(target.addContent(spaceId, "c", "text/plain", null, 5,
+                                 "checksum", content))
+            .andReturn("checksum");
+        target.deleteContent(spaceId, "c");
+        replay(target, storeProvider);
+
+        provider.addContent(spaceId, "c", "text/plain", null, 5, "checksum", content);
+        provider.deleteContent(spaceId, "c");
+    }
+
+    private void verifyTotals(long itemCount, long byteCount) {
+        SpaceTotals totals = totalsCache.get(spaceKey, () -> null);
+        assertNotNull(totals);
+        assertEquals(itemCount, totals.getItemCount());
+        assertEquals(byteCount, totals.getByteCount());
+    }
+
+}
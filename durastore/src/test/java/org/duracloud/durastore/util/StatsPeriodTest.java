@@ -0,0 +1,56 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Instant;
+
+import org.junit.Test;
+
+public class StatsPeriodTest {
+
+    // Thursday
+    private static final long TIME = time("2020-01-02T15:30:00Z");
+
+    @Test
+    public void testDay() {
+        assertEquals(time("2020-01-02T00:00:00Z"), StatsPeriod.day.getPeriodStart(TIME));
+    }
+
+    @Test
+    public void testWeek() {
+        // Weeks begin on Monday, which may be in the previous month or year
+        assertEquals(time("2019-12-30T00:00:00Z"), StatsPeriod.week.getPeriodStart(TIME));
+        long monday = time("2019-12-30T00:00:00Z");
+        assertEquals(monday, StatsPeriod.week.getPeriodStart(monday));
+        assertEquals(time("2019-12-30T00:00:00Z"),
+                     StatsPeriod.week.getPeriodStart(time("2020-01-05T23:59:59Z")));
+    }
+
+    @Test
+    public void testMonth() {
+        assertEquals(time("2020-01-01T00:00:00Z"), StatsPeriod.month.getPeriodStart(TIME));
+        assertEquals(time("2020-02-01T00:00:00Z"),
+                     StatsPeriod.month.getPeriodStart(time("2020-02-29T23:59:59Z")));
+    }
+
+    @Test
+    public void testNextPeriodStart() {
+        assertEquals(time("2020-01-03T00:00:00Z"), StatsPeriod.day.getNextPeriodStart(TIME));
+        assertEquals(time("2020-01-06T00:00:00Z"), StatsPeriod.week.getNextPeriodStart(TIME));
+        assertEquals(time("2020-02-01T00:00:00Z"), StatsPeriod.month.getNextPeriodStart(TIME));
+        assertEquals(time("2020-03-01T00:00:00Z"),
+                     StatsPeriod.month.getNextPeriodStart(time("2020-02-29T23:59:59Z")));
+    }
+
+    private static long time(String time) {
+        return Instant.parse(time).toEpochMilli();
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class StorageStatsCacheTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void testIsCacheable() {
+        StorageStatsCache cache = new StorageStatsCache(10, 60, 6 * 60 * 60);
+        long now = System.currentTimeMillis();
+
+        // Stats of the last day of the range may not have been written yet
+        assertFalse(cache.isCacheable(new Date(now)));
+        assertFalse(cache.isCacheable(new Date(now - 24 * HOUR)));
+        assertFalse(cache.isCacheable(new Date(now - 29 * HOUR)));
+        assertTrue(cache.isCacheable(new Date(now - 31 * HOUR)));
+    }
+
+    @Test
+    public void testMaxRows() {
+        StorageStatsCache cache = new StorageStatsCache(3, 60, 0);
+        List<StorageStatsRow> rows = Arrays.asList(row(), row());
+        cache.put("a", rows);
+        cache.put("b", Arrays.asList(row()));
+        assertEquals(rows, cache.get("a"));
+
+        // The least recently used entry is discarded
+        cache.put("c", Arrays.asList(row()));
+        assertNull(cache.get("b"));
+        assertEquals(rows, cache.get("a"));
+    }
+
+    private StorageStatsRow row() {
+        return new StorageStatsRow(0, "account", "0", "space", 1, 1);
+    }
+
+}
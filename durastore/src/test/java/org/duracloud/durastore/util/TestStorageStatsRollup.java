@@ -0,0 +1,305 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.model.Credential;
+import org.duracloud.common.util.DatabaseUtil;
+import org.duracloud.common.util.TableSpec;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Loads years of synthetic daily stats for many spaces into the unit test
+ * database, verifies that the rollups match aggregating the stats table
+ * (including stats rows committed after their day was rolled up), and logs
+ * the time taken by each to read month stats.
+ */
+public class TestStorageStatsRollup {
+
+    private final Logger log = LoggerFactory.getLogger(TestStorageStatsRollup.class);
+
+    private static final String ACCOUNT_ID = "account";
+    private static final int STORES = 2;
+    private static final int SPACES_PER_STORE = 50;
+    private static final int DAYS = 3 * 365;
+    private static final LocalDate FIRST_DAY =
+        LocalDate.now(ZoneOffset.UTC).minusDays(DAYS);
+    private static final int QUERY_RUNS = 20;
+
+    private static final String INSERT_STATS =
+        "INSERT INTO space_stats (timestamp, account_id, store_id, space_id, " +
+        "byte_count, object_count) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SPACE_MONTHS =
+        "SELECT YEAR(timestamp), MONTH(timestamp), AVG(byte_count), " +
+        "AVG(object_count) FROM space_stats WHERE account_id = ? " +
+        "AND store_id = ? AND space_id = ? " +
+        "GROUP BY YEAR(timestamp), MONTH(timestamp) ORDER BY 1, 2";
+
+    private static final String SELECT_STORE_MONTHS =
+        "SELECT y, m, SUM(b), SUM(o) FROM (SELECT YEAR(timestamp) AS y, " +
+        "MONTH(timestamp) AS m, space_id, AVG(byte_count) AS b, " +
+        "AVG(object_count) AS o FROM space_stats WHERE account_id = ? " +
+        "AND store_id = ? GROUP BY YEAR(timestamp), MONTH(timestamp), " +
+        "space_id) AS t GROUP BY y, m ORDER BY y, m";
+
+    private StatsDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StorageStatsRollup rollup;
+
+    @Before
+    public void setUp() throws Exception {
+        String home = System.getProperty("unit.database.home", "target");
+        String password = System.getProperty("unit.database.password",
+                                             DatabaseUtil.NOT_ENCRYPTED);
+        database = new StatsDatabase(home + "/storage-stats-rollup", password);
+        database.initializeDB();
+        jdbcTemplate = database.getSimpleJdbcTemplate();
+        createRollupTables();
+        rollup = new StorageStatsRollup(database.getDataSource());
+    }
+
+    @After
+    public void tearDown() {
+        database.disconnect();
+    }
+
+    @Test
+    public void testRollUp() throws Exception {
+        long start = System.nanoTime();
+        int rows = insertStats(0, DAYS, 0);
+        log.info("Inserted {} stats rows in {} ms", rows, elapsedMillis(start));
+
+        start = System.nanoTime();
+        assertEquals(rows, rollup.rollUp());
+        log.info("Rolled up {} stats rows in {} ms", rows, elapsedMillis(start));
+
+        compareMonths();
+
+        // Rows committed after their day was rolled up, and rows of the
+        // current day, are included in the next roll up
+        int lateRows = insertStats(DAYS - 2, 1, 1) + insertStats(DAYS, 1, 0);
+        assertTrue(rollup.rollUp() >= lateRows);
+        compareMonths();
+    }
+
+    @Test
+    public void testUnalignedRange() throws Exception {
+        int days = 120;
+        insertStats(DAYS - days, days, 0);
+        rollup.rollUp();
+
+        // Starts after and ends before the stats row of a day, so that the
+        // periods at either end are only partly within the range
+        long start = FIRST_DAY.plusDays(DAYS - days + 3).atTime(18, 0)
+                              .toInstant(ZoneOffset.UTC).toEpochMilli();
+        long end = FIRST_DAY.plusDays(DAYS - 12).atTime(6, 0)
+                            .toInstant(ZoneOffset.UTC).toEpochMilli();
+        String storeId = "1";
+        String spaceId = "space-3";
+        for (StatsPeriod period : StatsPeriod.values()) {
+            List<StorageStatsRow> rolledUp = new ArrayList<>();
+            List<StorageStatsRow> aggregated = new ArrayList<>();
+            rollup.getSpaceStats(ACCOUNT_ID, storeId, spaceId, period,
+                                 start, end, rolledUp::add);
+            rollup.aggregateSpaceStats(ACCOUNT_ID, storeId, spaceId, period,
+                                       start, end, aggregated::add);
+            assertRowsEqual(aggregated, rolledUp);
+
+            rolledUp = new ArrayList<>();
+            aggregated = new ArrayList<>();
+            rollup.getStoreStats(ACCOUNT_ID, storeId, period,
+                                 start, end, rolledUp::add);
+            rollup.aggregateStoreStats(ACCOUNT_ID, storeId, period,
+                                       start, end, aggregated::add);
+            assertRowsEqual(aggregated, rolledUp);
+        }
+    }
+
+    private void assertRowsEqual(List<StorageStatsRow> expected,
+                                 List<StorageStatsRow> actual) {
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            StorageStatsRow expectedRow = expected.get(i);
+            StorageStatsRow row = actual.get(i);
+            assertEquals(expectedRow.getTimestamp(), row.getTimestamp());
+            assertEquals(expectedRow.getSpaceId(), row.getSpaceId());
+            assertEquals(expectedRow.getByteCount(), row.getByteCount());
+            assertEquals(expectedRow.getObjectCount(), row.getObjectCount());
+        }
+    }
+
+    private void compareMonths() throws Exception {
+        long end = System.currentTimeMillis();
+        String storeId = "0";
+        String spaceId = "space-0";
+
+        List<long[]> raw = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERY_RUNS; i++) {
+            raw = queryMonths(SELECT_SPACE_MONTHS, storeId, spaceId);
+        }
+        long rawMillis = elapsedMillis(start);
+
+        List<StorageStatsRow> rolledUp = null;
+        start = System.nanoTime();
+        for (int i = 0; i < QUERY_RUNS; i++) {
+            rolledUp = new ArrayList<>();
+            rollup.getSpaceStats(ACCOUNT_ID, storeId, spaceId, StatsPeriod.month,
+                                 0, end, rolledUp::add);
+        }
+        long rollupMillis = elapsedMillis(start);
+        log.info("Space month stats: {} ms aggregated, {} ms rolled up ({} runs)",
+                 rawMillis, rollupMillis, QUERY_RUNS);
+        assertMonthsEqual(raw, rolledUp);
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERY_RUNS; i++) {
+            raw = queryMonths(SELECT_STORE_MONTHS, storeId);
+        }
+        rawMillis = elapsedMillis(start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERY_RUNS; i++) {
+            rolledUp = new ArrayList<>();
+            rollup.getStoreStats(ACCOUNT_ID, storeId, StatsPeriod.month,
+                                 0, end, rolledUp::add);
+        }
+        rollupMillis = elapsedMillis(start);
+        log.info("Store month stats: {} ms aggregated, {} ms rolled up ({} runs)",
+                 rawMillis, rollupMillis, QUERY_RUNS);
+        assertMonthsEqual(raw, rolledUp);
+    }
+
+    private void assertMonthsEqual(List<long[]> raw, List<StorageStatsRow> rolledUp) {
+        assertFalse(raw.isEmpty());
+        assertEquals(raw.size(), rolledUp.size());
+        for (int i = 0; i < raw.size(); i++) {
+            long[] month = raw.get(i);
+            StorageStatsRow row = rolledUp.get(i);
+            long monthStart = LocalDate.of((int) month[0], (int) month[1], 1)
+                                       .atStartOfDay(ZoneOffset.UTC)
+                                       .toInstant().toEpochMilli();
+            assertEquals(monthStart, row.getTimestamp());
+            assertEquals(month[2], row.getByteCount());
+            assertEquals(month[3], row.getObjectCount());
+        }
+    }
+
+    private List<long[]> queryMonths(String sql, Object... params) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new long[] {
+            rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)}, params);
+    }
+
+    /*
+     * Inserts a stats row at noon (UTC), plus the given number of hours, of
+     * each day for each space, so that the days are the same in UTC and in
+     * the database time zone.
+     */
+    private int insertStats(int firstDay, int days, int hourOffset) {
+        int rows = 0;
+        for (int day = firstDay; day < firstDay + days; day++) {
+            Timestamp timestamp = new Timestamp(
+                FIRST_DAY.plusDays(day).atTime(12 + hourOffset, 0)
+                         .toInstant(ZoneOffset.UTC).toEpochMilli());
+            List<Object[]> batch = new ArrayList<>();
+            for (int store = 0; store < STORES; store++) {
+                for (int space = 0; space < SPACES_PER_STORE; space++) {
+                    long objects = 1000L * (space + 1) + day * (space + 1);
+                    batch.add(new Object[] {timestamp, ACCOUNT_ID,
+                                            String.valueOf(store),
+                                            "space-" + space,
+                                            objects * 1024 + day % 7,
+                                            objects});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_STATS, batch);
+            rows += batch.size();
+        }
+        return rows;
+    }
+
+    /*
+     * Creates the rollup tables from the script which creates them in the
+     * stats database, dropping them first if they exist.
+     */
+    private void createRollupTables() throws Exception {
+        String script;
+        try (InputStream in = getClass().getResourceAsStream(
+            "/sql/storage-stats-rollup.sql")) {
+            script = IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+        for (String statement : script.replaceAll("--[^\\n]*", "").split(";")) {
+            statement = statement.trim();
+            if (statement.isEmpty()) {
+                continue;
+            }
+            String table = statement.split("\\s+")[2];
+            try {
+                jdbcTemplate.execute("DROP TABLE " + table);
+            } catch (DataAccessException e) {
+                // table does not exist yet
+            }
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /*
+     * The stats table written by the mill.
+     */
+    private static class StatsDatabase extends DatabaseUtil {
+
+        StatsDatabase(String baseDir, String bootPassword) {
+            super(new Credential("duracloud", "duracloud"), baseDir, bootPassword);
+        }
+
+        @Override
+        protected List<TableSpec> getTableSpecs() {
+            TableSpec stats = new TableSpec();
+            stats.setTableName("space_stats");
+            stats.setPrimaryKey("id");
+            stats.setDdl(
+                "CREATE TABLE space_stats (" +
+                "id BIGINT GENERATED ALWAYS AS IDENTITY, " +
+                "timestamp TIMESTAMP NOT NULL, " +
+                "account_id VARCHAR(128) NOT NULL, " +
+                "store_id VARCHAR(32) NOT NULL, " +
+                "space_id VARCHAR(128) NOT NULL, " +
+                "byte_count BIGINT NOT NULL, " +
+                "object_count BIGINT NOT NULL, " +
+                "PRIMARY KEY (id))");
+            return Collections.singletonList(stats);
+        }
+    }
+
+}
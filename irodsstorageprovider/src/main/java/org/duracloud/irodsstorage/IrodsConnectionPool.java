@@ -0,0 +1,345 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.irodsstorage;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of authenticated iRODS connections, so that operations do
+ * not each pay for a new connection and login.
+ *
+ * Idle connections are reused most recently released first, and are closed
+ * once they have been idle for longer than the maximum idle time, both when
+ * a connection is borrowed and periodically in the background, so that a
+ * pool which is no longer used does not hold sessions open. A connection
+ * which has been idle for longer than the validation interval is checked
+ * before it is handed out. Connections which fail while in use should be
+ * invalidated rather than released, so that they are closed and replaced.
+ *
+ * A pool must be closed once it is no longer needed, which stops its
+ * background eviction. Connections returned to a closed pool are closed
+ * rather than reused.
+ *
+ * @param <C> type of connection
+ */
+public class IrodsConnectionPool<C> {
+
+    private final Logger log =
+        LoggerFactory.getLogger(IrodsConnectionPool.class);
+
+    /**
+     * Creates, checks and closes the pooled connections.
+     */
+    public interface ConnectionFactory<C> {
+        C create() throws IOException;
+
+        /**
+         * @return true if the connection is still usable
+         */
+        boolean validate(C connection);
+
+        void close(C connection);
+    }
+
+    // Shared by all pools, eviction only closes sockets so one thread is
+    // sufficient
+    private static final ScheduledExecutorService EVICTOR =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "irods-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final ConnectionFactory<C> factory;
+    private final int maxConnections;
+    private final long maxIdleNanos;
+    private final long validateAfterNanos;
+    private final long maxWaitNanos;
+
+    private final Deque<IdleConnection<C>> idle = new ArrayDeque<>();
+    private int active = 0;
+    private int pendingCreates = 0;
+    private boolean closed = false;
+    private final ScheduledFuture<?> evictorTask;
+
+    /**
+     * @param factory            creates the connections
+     * @param maxConnections     maximum number of connections, in use or idle
+     * @param maxIdleMillis      time after which an idle connection is closed
+     * @param validateAfterMillis idle time after which a connection is
+     *                           checked before it is used
+     * @param maxWaitMillis      time to wait for a connection when all are
+     *                           in use
+     */
+    public IrodsConnectionPool(ConnectionFactory<C> factory,
+                               int maxConnections,
+                               long maxIdleMillis,
+                               long validateAfterMillis,
+                               long maxWaitMillis) {
+        this.factory = factory;
+        this.maxConnections = maxConnections;
+        this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+        this.validateAfterNanos =
+            TimeUnit.MILLISECONDS.toNanos(validateAfterMillis);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        long evictIntervalMillis = Math.max(maxIdleMillis / 2, 1);
+        this.evictorTask =
+            EVICTOR.scheduleWithFixedDelay(this::evictIdle,
+                                           evictIntervalMillis,
+                                           evictIntervalMillis,
+                                           TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retrieves an idle connection, or creates one if there are fewer than
+     * the maximum number of connections. The connection must be returned to
+     * the pool using either release() or invalidate().
+     *
+     * @return connection
+     * @throws IOException if a connection cannot be created, or none became
+     *                     available within the maximum wait time
+     */
+    public C borrow() throws IOException {
+        while (true) {
+            IdleConnection<C> candidate = null;
+            List<C> evicted = new ArrayList<>();
+            try {
+                synchronized (this) {
+                    long waitUntil = System.nanoTime() + maxWaitNanos;
+                    evictIdle(evicted);
+                    while (idle.isEmpty() && total() >= maxConnections) {
+                        long remaining = waitUntil - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new IOException(
+                                "Timed out waiting for an iRODS connection, " +
+                                "all " + maxConnections +
+                                " connections are in use");
+                        }
+                        try {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IOException(
+                                "Interrupted waiting for an iRODS connection",
+                                e);
+                        }
+                    }
+
+                    if (idle.isEmpty()) {
+                        pendingCreates++;
+                    } else {
+                        candidate = idle.pollFirst();
+                        active++;
+                    }
+                }
+            } finally {
+                for (C connection : evicted) {
+                    closeQuietly(connection);
+                }
+            }
+
+            if (null == candidate) {
+                return create();
+            }
+
+            // Checks are made outside of the lock, as they call iRODS
+            if (System.nanoTime() - candidate.released < validateAfterNanos ||
+                factory.validate(candidate.connection)) {
+                return candidate.connection;
+            }
+            log.debug("Closing iRODS connection which failed validation");
+            invalidate(candidate.connection);
+        }
+    }
+
+    /**
+     * Returns a healthy connection to the pool for reuse.
+     *
+     * @param connection borrowed connection
+     */
+    public void release(C connection) {
+        synchronized (this) {
+            active--;
+            notifyAll();
+            if (!closed) {
+                idle.addFirst(new IdleConnection<>(connection));
+                return;
+            }
+        }
+        closeQuietly(connection);
+    }
+
+    /**
+     * Closes a borrowed connection which should not be reused, such as after
+     * a communication failure or when it was left part way through a
+     * response.
+     *
+     * @param connection borrowed connection
+     */
+    public void invalidate(C connection) {
+        synchronized (this) {
+            active--;
+            notifyAll();
+        }
+        closeQuietly(connection);
+    }
+
+    /**
+     * Removes a borrowed connection from the pool, so that it no longer
+     * counts towards the maximum number of connections. The caller becomes
+     * responsible for closing the connection, or for handing it back to the
+     * pool using offer(). This allows a connection to be held by a stream
+     * whose lifetime is controlled by the caller of the provider.
+     *
+     * @param connection borrowed connection
+     */
+    public void detach(C connection) {
+        synchronized (this) {
+            active--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Adds a detached connection back into the pool for reuse, or closes it
+     * if the pool is already full.
+     *
+     * @param connection healthy connection which was detached from the pool
+     */
+    public void offer(C connection) {
+        synchronized (this) {
+            if (!closed && total() < maxConnections) {
+                idle.addFirst(new IdleConnection<>(connection));
+                notifyAll();
+                return;
+            }
+        }
+        closeQuietly(connection);
+    }
+
+    /**
+     * Closes connections which have reached the maximum idle time. This is
+     * run periodically in the background, and need not be called directly.
+     */
+    public void evictIdle() {
+        List<C> evicted = new ArrayList<>();
+        synchronized (this) {
+            evictIdle(evicted);
+        }
+        for (C connection : evicted) {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops background eviction. Connections
+     * which are in use when the pool is closed are closed when they are
+     * returned. Connections may still be borrowed from a closed pool, but
+     * are not reused.
+     */
+    public void close() {
+        evictorTask.cancel(false);
+        Deque<IdleConnection<C>> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+        }
+        for (IdleConnection<C> connection : toClose) {
+            closeQuietly(connection.connection);
+        }
+    }
+
+    /**
+     * @return number of connections currently in use
+     */
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    /**
+     * @return number of connections available for reuse
+     */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    private C create() throws IOException {
+        C connection = null;
+        try {
+            connection = factory.create();
+            return connection;
+        } finally {
+            synchronized (this) {
+                pendingCreates--;
+                if (null != connection) {
+                    active++;
+                } else {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private int total() {
+        return active + pendingCreates + idle.size();
+    }
+
+    /*
+     * Removes connections which have reached the maximum idle time, which
+     * are at the end of the queue, to be closed once the lock is released.
+     */
+    private void evictIdle(List<C> evicted) {
+        long now = System.nanoTime();
+        Iterator<IdleConnection<C>> oldest = idle.descendingIterator();
+        while (oldest.hasNext()) {
+            IdleConnection<C> connection = oldest.next();
+            if (now - connection.released < maxIdleNanos) {
+                break;
+            }
+            oldest.remove();
+            evicted.add(connection.connection);
+        }
+        if (!evicted.isEmpty()) {
+            log.debug("Closing {} iRODS connections idle for over {} seconds",
+                      evicted.size(),
+                      TimeUnit.NANOSECONDS.toSeconds(maxIdleNanos));
+        }
+    }
+
+    private void closeQuietly(C connection) {
+        try {
+            factory.close(connection);
+        } catch (RuntimeException e) {
+            log.warn("Error closing iRODS connection: {}", e.getMessage());
+        }
+    }
+
+    private static class IdleConnection<C> {
+        private final C connection;
+        private final long released = System.nanoTime();
+
+        private IdleConnection(C connection) {
+            this.connection = connection;
+        }
+    }
+
+}
@@ -8,12 +8,16 @@
 package org.duracloud.irodsstorage;
 
 import static org.duracloud.storage.domain.StorageAccount.OPTS.BASE_DIRECTORY;
+import static org.duracloud.storage.domain.StorageAccount.OPTS.BLOCK_SIZE;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.HOST;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.PORT;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.RESOURCE;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.ZONE;
 
 import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -21,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -40,11 +45,17 @@ import edu.umiacs.irods.operation.MetaDataMap;
 import edu.umiacs.irods.operation.QueryBuilder;
 import edu.umiacs.irods.operation.QueryResult;
 import edu.umiacs.irods.operation.UnknownSizeOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.duracloud.common.model.AclType;
+import org.duracloud.common.stream.ChecksumInputStream;
+import org.duracloud.storage.domain.ContentByteRange;
 import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,7 +69,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author toaster
  */
-public class IrodsStorageProvider implements StorageProvider {
+public class IrodsStorageProvider implements StorageProvider, Closeable {
 
     private final Logger log =
         LoggerFactory.getLogger(IrodsStorageProvider.class);
@@ -69,7 +80,19 @@ public class IrodsStorageProvider implements StorageProvider {
     private String zone;
     private String host;
     private String storageResource;
-    private static final int BLOCK_SIZE = 32768;
+    // Size of the blocks in which content is written and read, unless set
+    // by the BLOCK_SIZE option
+    private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    private final int blockSize;
+    private static final String CONTENT_RANGE = "Content-Range";
+
+    // Connection pool limits, connections are authenticated sessions
+    private static final int MAX_CONNECTIONS = 10;
+    private static final long MAX_IDLE_MILLIS = 5 * 60 * 1000;
+    private static final long VALIDATE_AFTER_MILLIS = 30 * 1000;
+    private static final long MAX_WAIT_MILLIS = 60 * 1000;
+
+    private final IrodsConnectionPool<ConnectOperation> connectionPool;
 
     public IrodsStorageProvider(String username,
                                 String password,
@@ -84,10 +107,60 @@ public class IrodsStorageProvider implements StorageProvider {
         this.host = getOptionString(HOST.name(), options);
         this.baseDirectory = getOptionString(BASE_DIRECTORY.name(), options);
         this.storageResource = getOptionString(RESOURCE.name(), options);
+        this.blockSize = options.containsKey(BLOCK_SIZE.name())
+                         ? getOptionInt(BLOCK_SIZE.name(), options)
+                         : DEFAULT_BLOCK_SIZE;
+        if (blockSize <= 0) {
+            throw new StorageException("Option must be positive: " +
+                                       BLOCK_SIZE.name() + " value: " + blockSize);
+        }
         log.trace("Creating new irods provider " + username + "#" + zone +
                   "@" + host + ":" + port + baseDirectory + " rsrc " +
                   storageResource);
 
+        this.connectionPool =
+            new IrodsConnectionPool<>(new ConnectOperationFactory(),
+                                      MAX_CONNECTIONS,
+                                      MAX_IDLE_MILLIS,
+                                      VALIDATE_AFTER_MILLIS,
+                                      MAX_WAIT_MILLIS);
+    }
+
+    /**
+     * Closes the pooled iRODS connections. Called once the provider is no
+     * longer cached, operations still in progress complete normally.
+     */
+    @Override
+    public void close() {
+        connectionPool.close();
+    }
+
+    /**
+     * Runs an operation using a pooled connection. The connection is
+     * returned to the pool if the operation completes, or fails with an
+     * error reported by iRODS, and is otherwise closed.
+     */
+    private <T> T execute(IrodsCall<T> call) throws IOException {
+        ConnectOperation co = connectionPool.borrow();
+        boolean reusable = false;
+        try {
+            T result = call.call(co);
+            reusable = true;
+            return result;
+        } catch (IRodsRequestException e) {
+            reusable = true;
+            throw e;
+        } finally {
+            returnConnection(co, reusable);
+        }
+    }
+
+    private void returnConnection(ConnectOperation co, boolean reusable) {
+        if (reusable) {
+            connectionPool.release(co);
+        } else {
+            connectionPool.invalidate(co);
+        }
     }
 
     @Override
@@ -151,8 +224,6 @@ public class IrodsStorageProvider implements StorageProvider {
                                                 String prefix,
                                                 long maxResults,
                                                 String marker) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
         List<String> retList = new ArrayList();
 
         String spacepath = baseDirectory + "/" + spaceId;
@@ -172,8 +243,11 @@ public class IrodsStorageProvider implements StorageProvider {
 
         QueryBuilder qb;
         QueryResult qr;
+        ConnectOperation co = null;
+        boolean reusable = false;
 
         try {
+            co = connectionPool.borrow();
 
             qb = new QueryBuilder(GenQueryEnum.COL_COLL_NAME,
                                   GenQueryEnum.COL_DATA_NAME);
@@ -205,16 +279,25 @@ public class IrodsStorageProvider implements StorageProvider {
                 retList.add(resultPath);
                 log.trace("Retrieving path: " + resultPath);
             }
+
+            // A query stopped at the maximum results may leave rows pending
+            // on the connection, so it is only reused if all rows were read
+            reusable = retList.size() < maxResults;
             return retList;
 
         } catch (IOException ex) {
             log.error("Error listing directories", ex);
-            if (ex instanceof IRodsRequestException &&
+            reusable = ex instanceof IRodsRequestException;
+            if (reusable &&
                 ((IRodsRequestException) ex).getErrorCode() ==
                 ErrorEnum.CAT_NO_ROWS_FOUND) {
                 return retList;
             }
             throw new StorageException(ex);
+        } finally {
+            if (null != co) {
+                returnConnection(co, reusable);
+            }
         }
     }
 
@@ -233,11 +316,11 @@ public class IrodsStorageProvider implements StorageProvider {
      */
     @Override
     public void createSpace(String spaceId) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
         try {
-            IrodsOperations io = new IrodsOperations(co);
-            io.mkdir(baseDirectory + "/" + spaceId);
+            execute(co -> {
+                new IrodsOperations(co).mkdir(baseDirectory + "/" + spaceId);
+                return null;
+            });
             log.trace("Created space/directory: " +
                       baseDirectory + "/" + spaceId);
         } catch (IOException e) {
@@ -248,11 +331,12 @@ public class IrodsStorageProvider implements StorageProvider {
 
     @Override
     public void deleteSpace(String spaceId) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
         try {
-            IrodsOperations io = new IrodsOperations(co);
-            io.rmdir(baseDirectory + "/" + spaceId, true);
+            execute(co -> {
+                new IrodsOperations(co).rmdir(baseDirectory + "/" + spaceId,
+                                              true);
+                return null;
+            });
             log.trace("Removed space/directory: " +
                       baseDirectory + "/" + spaceId);
 
@@ -264,18 +348,18 @@ public class IrodsStorageProvider implements StorageProvider {
 
     @Override
     public Map<String, String> getSpaceProperties(String spaceId) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        String path = baseDirectory + "/" + spaceId;
         try {
-            String path = baseDirectory + "/" + spaceId;
-            Map<String, String> properties = getProperties(path, co);
-            IrodsOperations ops = new IrodsOperations(co);
-            RodsObjStat_PI stat = ops.stat(path);
-            properties.put(PROPERTIES_SPACE_CREATED,
-                           formattedDate(stat.getModifyTime()));
-            //properties.put(PROPERTIES_SPACE_COUNT, getSpaceCount(co,path);
-            properties.put(PROPERTIES_SPACE_COUNT, "1+");
-            return properties;
+            return execute(co -> {
+                Map<String, String> properties = getProperties(path, co);
+                IrodsOperations ops = new IrodsOperations(co);
+                RodsObjStat_PI stat = ops.stat(path);
+                properties.put(PROPERTIES_SPACE_CREATED,
+                               formattedDate(stat.getModifyTime()));
+                //properties.put(PROPERTIES_SPACE_COUNT, getSpaceCount(co,path);
+                properties.put(PROPERTIES_SPACE_COUNT, "1+");
+                return properties;
+            });
         } catch (IOException e) {
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
@@ -299,9 +383,10 @@ public class IrodsStorageProvider implements StorageProvider {
      * @param contentId
      * @param contentMimeType
      * @param contentSize     may be set to 0 in some cases (entry through admin client)
-     * @param contentChecksum
+     * @param contentChecksum if provided, verified against the MD5 computed
+     *                        as the content is written
      * @param content
-     * @return
+     * @return MD5 checksum of the content
      */
     @Override
     public String addContent(String spaceId,
@@ -316,46 +401,69 @@ public class IrodsStorageProvider implements StorageProvider {
         log.trace("Writing to irods path: " + path +
                   " resource: " + storageResource);
 
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
-        byte[] buffer = new byte[BLOCK_SIZE];
+        // The checksum is computed as the content is written, rather than
+        // relying on the resource having computed a checksum
+        ChecksumInputStream wrappedContent =
+            new ChecksumInputStream(content, null);
 
         try {
-            OutputStream ios;
-
-            if (contentSize > 0) {
-                ios = new IrodsOutputStream(co.getConnection(), path,
-                                            storageResource, contentSize);
-            } else {
-                ios = new UnknownSizeOutputStream(co.getConnection(),
-                                                  path,
-                                                  storageResource,
-                                                  true);
-            }
-            int read = 0;
-            long total = 0;
-            while ((read = content.read(buffer)) > -1) {
-                total += read;
-                ios.write(buffer, 0, read);
-            }
-            ios.close();
-            log.trace("Finished writing irods path: " + path + " resource: " +
-                      storageResource + " actual read: " + total +
-                      " contentSize: " + contentSize);
-
-            if (userProperties != null) {
-                MetaDataMap mDataMap = new MetaDataMap(path, co);
-                mDataMap.clear();
-                for (String e : userProperties.keySet()) {
-                    mDataMap.put(e, userProperties.get(e), null);
+            execute(co -> {
+                OutputStream ios;
+
+                if (contentSize > 0) {
+                    ios = new IrodsOutputStream(co.getConnection(), path,
+                                                storageResource, contentSize);
+                } else {
+                    ios = new UnknownSizeOutputStream(co.getConnection(),
+                                                      path,
+                                                      storageResource,
+                                                      true);
+                }
+                long total = copy(wrappedContent, ios, new byte[blockSize]);
+                ios.close();
+                log.trace("Finished writing irods path: " + path +
+                          " resource: " + storageResource + " actual read: " +
+                          total + " contentSize: " + contentSize);
+
+                if (userProperties != null) {
+                    MetaDataMap mDataMap = new MetaDataMap(path, co);
+                    mDataMap.clear();
+                    for (String e : userProperties.keySet()) {
+                        mDataMap.put(e, userProperties.get(e), null);
+                    }
                 }
-            }
 
-            return new IrodsOperations(co).stat(path).getChksum();
+                return null;
+            });
         } catch (IOException e) {
             log.error("Error ingesting file", e);
             throw new StorageException(e);
         }
+
+        String checksum = wrappedContent.getMD5();
+        if (null != contentChecksum && !contentChecksum.isEmpty()) {
+            StorageProviderUtil.compareChecksum(checksum,
+                                                spaceId,
+                                                contentId,
+                                                contentChecksum);
+        }
+        return checksum;
+    }
+
+    /**
+     * Copies all of the input to the output, one buffer at a time.
+     *
+     * @return number of bytes copied
+     */
+    static long copy(InputStream input, OutputStream output, byte[] buffer)
+        throws IOException {
+        long total = 0;
+        int read;
+        while ((read = input.read(buffer)) > -1) {
+            output.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
     }
 
     @Override
@@ -366,47 +474,113 @@ public class IrodsStorageProvider implements StorageProvider {
         throw new UnsupportedOperationException("copyContent not implemented");
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The properties are retrieved and the content stream is opened using a
+     * single connection, which is held by the stream until it is closed.
+     */
     @Override
     public RetrievedContent getContent(String spaceId, String contentId) {
         String path = baseDirectory + "/" + spaceId + "/" + contentId;
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
+        ConnectOperation co = null;
+        boolean reusable = false;
         try {
-            ObjTypeEnum type = new IrodsOperations(co).stat(path).getObjType();
+            co = connectionPool.borrow();
+            RodsObjStat_PI stat = new IrodsOperations(co).stat(path);
+            Map<String, String> properties = getContentProperties(path, co, stat);
             log.trace("Opening inputstream to irods path: " +
-                      path + " type " + type);
+                      path + " type " + stat.getObjType());
 
             RetrievedContent content = new RetrievedContent();
             content.setContentStream(new BufferedInputStream(
-                new IrodsProxyInputStream(path, co.getConnection()), BLOCK_SIZE));
-            content.setContentProperties(getContentProperties(spaceId, contentId));
+                new PooledConnectionInputStream(
+                    new IrodsProxyInputStream(path, co.getConnection()), co),
+                blockSize));
+            content.setContentProperties(properties);
 
+            connectionPool.detach(co);
+            co = null;
             return content;
 
         } catch (IOException e) {
             log.error("Could not connect to iRODS", e);
+            reusable = e instanceof IRodsRequestException;
             throw new StorageException(e);
+        } finally {
+            if (null != co) {
+                returnConnection(co, reusable);
+            }
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The content stream is positioned at the start of the range by skipping
+     * the preceding bytes, and is limited to the length of the range. Skips
+     * are made by the iRODS stream, rather than by reading and discarding
+     * the preceding bytes here.
+     */
     @Override
     public RetrievedContent getContent(String spaceId, String contentId, String range) {
-        throw new UnsupportedOperationException("Content Range requests are not supported");
+        if (StringUtils.isEmpty(range)) {
+            return getContent(spaceId, contentId);
+        }
+
+        ContentByteRange byteRange = new ContentByteRange(range);
+        RetrievedContent content = getContent(spaceId, contentId);
+        Map<String, String> properties = content.getContentProperties();
+        long contentSize = Long.parseLong(properties.get(PROPERTIES_CONTENT_SIZE));
+        InputStream stream = content.getContentStream();
+        try {
+            ContentByteRange resolved = byteRange.resolve(contentSize);
+            skipFully(stream, resolved.getRangeStart());
+            content.setContentStream(
+                new BoundedInputStream(stream, resolved.getLength()));
+
+            properties.put(PROPERTIES_CONTENT_SIZE,
+                           String.valueOf(resolved.getLength()));
+            properties.put(CONTENT_RANGE, resolved.getContentRange(contentSize));
+            return content;
+        } catch (IllegalArgumentException e) {
+            IOUtils.closeQuietly(stream);
+            throw e;
+        } catch (IOException e) {
+            IOUtils.closeQuietly(stream);
+            log.error("Could not read from iRODS", e);
+            throw new StorageException(e);
+        }
+    }
+
+    /**
+     * Skips the given number of bytes using the skip() of the stream, only
+     * reading a byte when the stream is unable to skip.
+     *
+     * @throws EOFException if the stream ends before the bytes are skipped
+     */
+    static void skipFully(InputStream stream, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = stream.skip(remaining);
+            if (skipped <= 0) {
+                if (stream.read() < 0) {
+                    throw new EOFException("Unable to skip " + count +
+                                           " bytes, " + remaining +
+                                           " bytes remained at end of stream");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
     }
 
     @Override
     public void deleteContent(String spaceId, String contentId) {
         String path = baseDirectory + "/" + spaceId + "/" + contentId;
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
-        IrodsOperations ops = new IrodsOperations(co);
         try {
-            ObjTypeEnum type;
-            if ((type = ops.stat(path).getObjType()) == ObjTypeEnum.DATA_OBJ_T) {
-                log.trace("Removing irods file " + path);
-                ops.rm(path);
-
-            } else {
+            ObjTypeEnum type = removeFile(path);
+            if (type != ObjTypeEnum.DATA_OBJ_T) {
                 log.info("Cannot remove file: " + path + ", type: " + type);
                 throw new StorageException("Attempt to remove " +
                                            "non-directory path");
@@ -417,6 +591,58 @@ public class IrodsStorageProvider implements StorageProvider {
         }
     }
 
+    /**
+     * Removes the file at the path if it is a data object.
+     *
+     * @return type of the object at the path
+     */
+    private ObjTypeEnum removeFile(String path) throws IOException {
+        return execute(co -> {
+            IrodsOperations ops = new IrodsOperations(co);
+            ObjTypeEnum type = ops.stat(path).getObjType();
+            if (type == ObjTypeEnum.DATA_OBJ_T) {
+                log.trace("Removing irods file " + path);
+                ops.rm(path);
+            }
+            return type;
+        });
+    }
+
+    /**
+     * Removes each item in turn, using pooled connections. The properties of
+     * each item are read on the same connection before it is removed.
+     */
+    @Override
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        Map<String, Map<String, String>> deleted = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            String path = baseDirectory + "/" + spaceId + "/" + contentId;
+            try {
+                Map<String, String> properties = execute(co -> {
+                    IrodsOperations ops = new IrodsOperations(co);
+                    RodsObjStat_PI stat = ops.stat(path);
+                    if (stat.getObjType() != ObjTypeEnum.DATA_OBJ_T) {
+                        log.info("Cannot remove file: " + path + ", type: " +
+                                 stat.getObjType());
+                        return null;
+                    }
+                    Map<String, String> props =
+                        getContentProperties(path, co, stat);
+                    log.trace("Removing irods file " + path);
+                    ops.rm(path);
+                    return props;
+                });
+                if (null != properties) {
+                    deleted.put(contentId, properties);
+                }
+            } catch (IOException e) {
+                log.error("Could not remove irods file " + path, e);
+            }
+        }
+        return deleted;
+    }
+
     @Override
     public void setContentProperties(String spaceId,
                                      String contentId,
@@ -430,6 +656,27 @@ public class IrodsStorageProvider implements StorageProvider {
         setProperties(path, contentProperties);
     }
 
+    /**
+     * Updates each item in turn.
+     */
+    @Override
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        List<String> updated = new ArrayList<>(contentProperties.size());
+        for (Map.Entry<String, Map<String, String>> entry :
+            contentProperties.entrySet()) {
+            try {
+                setContentProperties(spaceId, entry.getKey(), entry.getValue());
+                updated.add(entry.getKey());
+            } catch (StorageException e) {
+                log.warn("Unable to set properties of content " +
+                         entry.getKey() + " in space " + spaceId + ": " +
+                         e.getMessage());
+            }
+        }
+        return updated;
+    }
+
     @Override
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId) {
@@ -439,29 +686,66 @@ public class IrodsStorageProvider implements StorageProvider {
         } else {
             path = baseDirectory + "/" + spaceId + "/" + contentId;
         }
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
         try {
-            Map<String, String> results = getProperties(path, co);
-            IrodsOperations ops = new IrodsOperations(co);
-            RodsObjStat_PI stat = ops.stat(path);
-            if (stat != null) {
-                results.put(PROPERTIES_CONTENT_MODIFIED,
-                            formattedDate(stat.getModifyTime()));
-                results.put(PROPERTIES_CONTENT_SIZE,
-                            Long.toString(stat.getObjSize()));
-                results.put(PROPERTIES_CONTENT_CHECKSUM,
-                            stat.getChksum());
-                results.put(PROPERTIES_CONTENT_MD5,
-                            stat.getChksum());
-            }
-            return results;
+            return execute(co -> getContentProperties(
+                path, co, new IrodsOperations(co).stat(path)));
         } catch (IOException e) {
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
         }
     }
 
+    /**
+     * Combines the user properties of a file with its system properties.
+     *
+     * @param stat status of the file, may be null
+     */
+    private Map<String, String> getContentProperties(String path,
+                                                     ConnectOperation co,
+                                                     RodsObjStat_PI stat) {
+        Map<String, String> results = getProperties(path, co);
+        if (stat != null) {
+            results.put(PROPERTIES_CONTENT_MODIFIED,
+                        formattedDate(stat.getModifyTime()));
+            results.put(PROPERTIES_CONTENT_SIZE,
+                        Long.toString(stat.getObjSize()));
+            results.put(PROPERTIES_CONTENT_CHECKSUM,
+                        stat.getChksum());
+            results.put(PROPERTIES_CONTENT_MD5,
+                        stat.getChksum());
+        }
+        return results;
+    }
+
+    /**
+     * Retrieves the properties of each item in turn, using pooled
+     * connections.
+     */
+    @Override
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        Map<String, Map<String, String>> contentsProps = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            String path = baseDirectory + "/" + spaceId + "/" + contentId;
+            try {
+                Map<String, String> results = execute(co -> {
+                    RodsObjStat_PI stat = new IrodsOperations(co).stat(path);
+                    return stat == null ? null
+                                        : getContentProperties(path, co, stat);
+                });
+                if (results != null) {
+                    contentsProps.put(contentId, results);
+                }
+            } catch (IOException e) {
+                log.error("Could not get properties of irods file " + path, e);
+            } catch (StorageException e) {
+                log.warn("Unable to get properties of irods file " + path +
+                         ": " + e.getMessage());
+            }
+        }
+        return contentsProps;
+    }
+
     private Iterator<String> listDirectories(String path,
                                              IRodsConnection connection) {
 
@@ -525,9 +809,6 @@ public class IrodsStorageProvider implements StorageProvider {
     }
 
     private void setProperties(String path, Map<String, String> properties) {
-        ConnectOperation co =
-            new ConnectOperation(host, port, username, password, zone);
-
         log.trace("Writing properties for " + path + " elements: " +
                   properties.size());
         properties.remove(PROPERTIES_CONTENT_MODIFIED);
@@ -536,11 +817,14 @@ public class IrodsStorageProvider implements StorageProvider {
         properties.remove(PROPERTIES_CONTENT_CHECKSUM);
 
         try {
-            MetaDataMap mDataMap = new MetaDataMap(path, co);
-            mDataMap.clear();
-            for (String e : properties.keySet()) {
-                mDataMap.put(e, properties.get(e), null);
-            }
+            execute(co -> {
+                MetaDataMap mDataMap = new MetaDataMap(path, co);
+                mDataMap.clear();
+                for (String e : properties.keySet()) {
+                    mDataMap.put(e, properties.get(e), null);
+                }
+                return null;
+            });
         } catch (IOException e) {
             log.error("Could not connect to iRODS", e);
             throw new StorageException(e);
@@ -641,4 +925,104 @@ public class IrodsStorageProvider implements StorageProvider {
             throw new UnsupportedOperationException("Remove not supported");
         }
     }
+
+    /**
+     * An operation run using a pooled connection
+     */
+    private interface IrodsCall<T> {
+        T call(ConnectOperation co) throws IOException;
+    }
+
+    /**
+     * Creates authenticated connections, and checks that idle connections
+     * are still usable by retrieving the status of the base directory.
+     */
+    private class ConnectOperationFactory
+        implements IrodsConnectionPool.ConnectionFactory<ConnectOperation> {
+
+        @Override
+        public ConnectOperation create() throws IOException {
+            ConnectOperation co =
+                new ConnectOperation(host, port, username, password, zone);
+            co.getConnection();
+            return co;
+        }
+
+        @Override
+        public boolean validate(ConnectOperation co) {
+            try {
+                new IrodsOperations(co).stat(baseDirectory);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                log.debug("iRODS connection is no longer usable: " +
+                          e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void close(ConnectOperation co) {
+            co.shutdown();
+        }
+    }
+
+    /**
+     * Returns the connection used by a content stream to the pool when the
+     * stream is closed, if the content was read completely. A stream closed
+     * part way through may leave data pending on the connection, so the
+     * connection is closed instead.
+     */
+    private class PooledConnectionInputStream extends FilterInputStream {
+
+        private final ConnectOperation co;
+        private boolean complete = false;
+        private boolean closed = false;
+
+        PooledConnectionInputStream(InputStream stream, ConnectOperation co) {
+            super(stream);
+            this.co = co;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read < 0) {
+                complete = true;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read < 0) {
+                complete = true;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            boolean reusable = complete;
+            try {
+                super.close();
+            } catch (IOException | RuntimeException e) {
+                reusable = false;
+                throw e;
+            } finally {
+                // The connection was detached from the pool when the
+                // stream was created
+                if (reusable) {
+                    connectionPool.offer(co);
+                } else {
+                    co.shutdown();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.irodsstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the rate of small file operations when each operation connects
+ * and logs in to iRODS (as was done previously) with using pooled
+ * connections. The connection layer is simulated: a login costs 2ms and an
+ * operation on an open connection costs 0.2ms. Timings are logged rather
+ * than asserted; the test checks that the pool logs in once and reuses
+ * that connection for every operation.
+ */
+public class IrodsConnectionPoolBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(IrodsConnectionPoolBenchmarkTest.class);
+
+    private static final int operationCount = 200;
+    private static final long loginMicros = 2000;
+    private static final long operationMicros = 200;
+
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger validations = new AtomicInteger();
+
+    private class SimulatedConnectionFactory
+        implements IrodsConnectionPool.ConnectionFactory<Object> {
+        @Override
+        public Object create() throws IOException {
+            logins.incrementAndGet();
+            pause(loginMicros);
+            return new Object();
+        }
+
+        @Override
+        public boolean validate(Object connection) {
+            validations.incrementAndGet();
+            pause(operationMicros);
+            return true;
+        }
+
+        @Override
+        public void close(Object connection) {
+        }
+    }
+
+    @Test
+    public void testOperationRate() throws Exception {
+        SimulatedConnectionFactory factory = new SimulatedConnectionFactory();
+
+        // Connect for each operation
+        long start = System.nanoTime();
+        for (int i = 0; i < operationCount; i++) {
+            Object connection = factory.create();
+            pause(operationMicros);
+            factory.close(connection);
+        }
+        long unpooledMicros = elapsedMicros(start);
+        assertEquals(operationCount, logins.getAndSet(0));
+
+        // Reuse pooled connections
+        IrodsConnectionPool<Object> pool =
+            new IrodsConnectionPool<>(factory, 10, 60000, 30000, 60000);
+        Object first = null;
+        start = System.nanoTime();
+        for (int i = 0; i < operationCount; i++) {
+            Object connection = pool.borrow();
+            if (null == first) {
+                first = connection;
+            }
+            assertSame(first, connection);
+            pause(operationMicros);
+            pool.release(connection);
+        }
+        long pooledMicros = elapsedMicros(start);
+        assertEquals(1, logins.get());
+        // Released connections are reused within the validation interval
+        // without being checked
+        assertEquals(0, validations.get());
+
+        log.info("{} small file operations: {} ops/sec connecting for each, " +
+                 "{} ops/sec with pooled connections",
+                 operationCount,
+                 opsPerSecond(unpooledMicros),
+                 opsPerSecond(pooledMicros));
+    }
+
+    private long opsPerSecond(long micros) {
+        return operationCount * TimeUnit.SECONDS.toMicros(1) / Math.max(1, micros);
+    }
+
+    private long elapsedMicros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    private static void pause(long micros) {
+        long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        while (System.nanoTime() < end) {
+            Thread.yield();
+        }
+    }
+
+}
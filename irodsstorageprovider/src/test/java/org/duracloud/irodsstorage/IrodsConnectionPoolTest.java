@@ -0,0 +1,216 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.irodsstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class IrodsConnectionPoolTest {
+
+    private static class Connection {
+        private boolean valid = true;
+        private volatile boolean closed = false;
+    }
+
+    private static class Factory
+        implements IrodsConnectionPool.ConnectionFactory<Connection> {
+        private final List<Connection> created = new ArrayList<>();
+        private int validations = 0;
+
+        @Override
+        public Connection create() throws IOException {
+            Connection connection = new Connection();
+            created.add(connection);
+            return connection;
+        }
+
+        @Override
+        public boolean validate(Connection connection) {
+            validations++;
+            return connection.valid;
+        }
+
+        @Override
+        public void close(Connection connection) {
+            connection.closed = true;
+        }
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 2, 60000, 60000, 1000);
+
+        Connection connection = pool.borrow();
+        assertEquals(1, pool.getActiveCount());
+        pool.release(connection);
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+
+        assertSame(connection, pool.borrow());
+        assertEquals(1, factory.created.size());
+        assertEquals(0, factory.validations);
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 2, 60000, 60000, 1000);
+
+        Connection connection = pool.borrow();
+        pool.invalidate(connection);
+        assertTrue(connection.closed);
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(0, pool.getIdleCount());
+
+        assertNotSame(connection, pool.borrow());
+    }
+
+    @Test
+    public void testMaxConnections() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 2, 60000, 60000, 100);
+
+        Connection first = pool.borrow();
+        pool.borrow();
+        try {
+            pool.borrow();
+            fail("Exception expected when all connections are in use");
+        } catch (IOException e) {
+            // Expected
+        }
+
+        // A connection released by another thread is handed to the waiter
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                // Release immediately
+            }
+            pool.release(first);
+        });
+        releaser.start();
+        assertSame(first, pool.borrow());
+        releaser.join();
+        assertEquals(2, factory.created.size());
+    }
+
+    @Test
+    public void testValidation() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 2, 60000, 0, 1000);
+
+        Connection connection = pool.borrow();
+        pool.release(connection);
+        assertSame(connection, pool.borrow());
+        assertEquals(1, factory.validations);
+
+        connection.valid = false;
+        pool.release(connection);
+        Connection replacement = pool.borrow();
+        assertNotSame(connection, replacement);
+        assertTrue(connection.closed);
+        assertEquals(1, pool.getActiveCount());
+    }
+
+    @Test
+    public void testIdleEviction() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 2, 20, 60000, 1000);
+
+        Connection connection = pool.borrow();
+        pool.release(connection);
+        Thread.sleep(50);
+
+        assertNotSame(connection, pool.borrow());
+        assertTrue(connection.closed);
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testBackgroundEviction() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 2, 20, 60000, 1000);
+
+        // Evicted without any further use of the pool
+        Connection connection = pool.borrow();
+        pool.release(connection);
+        long waitUntil = System.currentTimeMillis() + 5000;
+        while (!connection.closed && System.currentTimeMillis() < waitUntil) {
+            Thread.sleep(10);
+        }
+        assertTrue(connection.closed);
+        assertEquals(0, pool.getIdleCount());
+        pool.close();
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 2, 60000, 60000, 1000);
+
+        Connection idle = pool.borrow();
+        Connection inUse = pool.borrow();
+        pool.release(idle);
+        pool.close();
+        assertTrue(idle.closed);
+        assertFalse(inUse.closed);
+
+        // Connections returned after the pool is closed are not reused
+        pool.release(inUse);
+        assertTrue(inUse.closed);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    public void testDetach() throws Exception {
+        Factory factory = new Factory();
+        IrodsConnectionPool<Connection> pool =
+            new IrodsConnectionPool<>(factory, 1, 60000, 60000, 100);
+
+        // A detached connection does not count towards the limit
+        Connection detached = pool.borrow();
+        pool.detach(detached);
+        Connection connection = pool.borrow();
+        assertEquals(1, pool.getActiveCount());
+
+        // Offered back while the pool is full, so it is closed
+        pool.offer(detached);
+        assertTrue(detached.closed);
+
+        pool.release(connection);
+        Connection another = pool.borrow();
+        pool.detach(another);
+        pool.offer(another);
+        assertFalse(another.closed);
+        assertEquals(1, pool.getIdleCount());
+
+        pool.close();
+        assertTrue(another.closed);
+        assertEquals(0, pool.getIdleCount());
+    }
+
+}
@@ -8,16 +8,25 @@
 package org.duracloud.irodsstorage;
 
 import static org.duracloud.storage.domain.StorageAccount.OPTS.BASE_DIRECTORY;
+import static org.duracloud.storage.domain.StorageAccount.OPTS.BLOCK_SIZE;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.HOST;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.PORT;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.RESOURCE;
 import static org.duracloud.storage.domain.StorageAccount.OPTS.ZONE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.StorageException;
 import org.junit.Test;
 
 /**
@@ -26,18 +35,112 @@ import org.junit.Test;
  */
 public class IrodsStorageProviderTest {
 
-    @Test
-    public void testGetStorageProviderType() {
+    private Map<String, String> createOptions() {
         Map<String, String> options = new HashMap<>();
         options.put(BASE_DIRECTORY.name(), "base-directory");
         options.put(HOST.name(), "host");
         options.put(PORT.name(), "1234");
         options.put(RESOURCE.name(), "resource");
         options.put(ZONE.name(), "zone");
+        return options;
+    }
 
+    @Test
+    public void testGetStorageProviderType() {
         IrodsStorageProvider provider =
-            new IrodsStorageProvider("accessKey", "secretKey", options);
+            new IrodsStorageProvider("accessKey", "secretKey", createOptions());
         assertEquals(StorageProviderType.IRODS, provider.getStorageProviderType());
     }
 
+    @Test
+    public void testBlockSizeOption() {
+        Map<String, String> options = createOptions();
+        options.put(BLOCK_SIZE.name(), "4194304");
+        new IrodsStorageProvider("accessKey", "secretKey", options);
+
+        options.put(BLOCK_SIZE.name(), "0");
+        try {
+            new IrodsStorageProvider("accessKey", "secretKey", options);
+            fail("Exception expected with invalid block size");
+        } catch (StorageException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testSkipFully() throws Exception {
+        // A stream which is never able to skip
+        InputStream stream = new ByteArrayInputStream(new byte[] {1, 2, 3, 4}) {
+            @Override
+            public synchronized long skip(long n) {
+                return 0;
+            }
+        };
+        IrodsStorageProvider.skipFully(stream, 2);
+        assertEquals(3, stream.read());
+
+        stream = new ByteArrayInputStream(new byte[] {1, 2, 3, 4});
+        IrodsStorageProvider.skipFully(stream, 3);
+        assertEquals(4, stream.read());
+
+        try {
+            IrodsStorageProvider.skipFully(
+                new ByteArrayInputStream(new byte[] {1, 2}), 3);
+            fail("Exception expected when skipping past the end of stream");
+        } catch (EOFException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testSkipFullyReadsNoSkippedBytes() throws Exception {
+        final int size = 8 * 1024 * 1024;
+        final int rangeStart = size - 10;
+        final long[] bytesRead = {0};
+
+        // A source which counts the bytes transferred through read() and
+        // skips without transferring, as the iRODS stream does
+        InputStream source = new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() {
+                if (position >= size) {
+                    return -1;
+                }
+                bytesRead[0]++;
+                return (int) (position++ % 256);
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (position >= size) {
+                    return -1;
+                }
+                int count = (int) Math.min(len, size - position);
+                for (int i = 0; i < count; i++) {
+                    b[off + i] = (byte) (position++ % 256);
+                }
+                bytesRead[0] += count;
+                return count;
+            }
+
+            @Override
+            public long skip(long n) {
+                long skipped = Math.min(n, size - position);
+                position += skipped;
+                return skipped;
+            }
+        };
+
+        // Wrapped as in getContent()
+        InputStream stream = new BufferedInputStream(
+            new FilterInputStream(source) { }, 32 * 1024);
+        IrodsStorageProvider.skipFully(stream, rangeStart);
+        assertEquals(0, bytesRead[0]);
+
+        assertEquals(rangeStart % 256, stream.read());
+        assertTrue(bytesRead[0] <= size - rangeStart);
+    }
+
 }
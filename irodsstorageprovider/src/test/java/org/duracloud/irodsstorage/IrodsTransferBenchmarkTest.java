@@ -0,0 +1,127 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.irodsstorage;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.stream.ChecksumInputStream;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the throughput of writing content to iRODS, including computing
+ * its MD5 as it is written, with the previous 32 KB blocks and the current
+ * default 1 MB blocks. Each block written to iRODS is a protocol message, so
+ * the simulated connection adds a fixed cost to every write.
+ *
+ * The 1 GB object is only included when the irods.benchmark.large system
+ * property is set to true, as it takes some time to run.
+ */
+public class IrodsTransferBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(IrodsTransferBenchmarkTest.class);
+
+    private static final long MB = 1024 * 1024;
+    private static final long writeCostMicros = 20;
+
+    @Test
+    public void testSmallObjectThroughput() throws Exception {
+        benchmark(MB);
+    }
+
+    @Test
+    public void testLargeObjectThroughput() throws Exception {
+        if (Boolean.getBoolean("irods.benchmark.large")) {
+            benchmark(1024 * MB);
+        }
+    }
+
+    private void benchmark(long size) throws IOException {
+        String previousChecksum = transfer(size, 32 * 1024);
+        String checksum = transfer(size, (int) MB);
+        assertEquals(previousChecksum, checksum);
+    }
+
+    private String transfer(long size, int blockSize) throws IOException {
+        ChecksumInputStream content =
+            new ChecksumInputStream(new GeneratedInputStream(size), null);
+        SimulatedIrodsOutputStream output = new SimulatedIrodsOutputStream();
+
+        long start = System.nanoTime();
+        long copied =
+            IrodsStorageProvider.copy(content, output, new byte[blockSize]);
+        String checksum = content.getMD5();
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        assertEquals(size, copied);
+        log.info("Wrote {} MB in {} KB blocks ({} writes) at {} MB/sec",
+                 size / MB, blockSize / 1024, output.writes,
+                 size * TimeUnit.SECONDS.toMicros(1) / MB / Math.max(1, micros));
+        return checksum;
+    }
+
+    /**
+     * Produces the given number of bytes without holding them in memory
+     */
+    private static class GeneratedInputStream extends InputStream {
+        private long remaining;
+
+        GeneratedInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return (int) (remaining & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(len, remaining);
+            for (int i = 0; i < count; i++) {
+                remaining--;
+                b[off + i] = (byte) remaining;
+            }
+            return count;
+        }
+    }
+
+    private static class SimulatedIrodsOutputStream extends OutputStream {
+        private long writes = 0;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            long end = System.nanoTime() +
+                       TimeUnit.MICROSECONDS.toNanos(writeCostMicros);
+            while (System.nanoTime() < end) {
+                Thread.yield();
+            }
+        }
+    }
+
+}
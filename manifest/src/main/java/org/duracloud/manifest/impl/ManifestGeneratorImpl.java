@@ -12,9 +12,12 @@ import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.duracloud.common.constant.ManifestFormat;
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
 import org.duracloud.manifest.ManifestFormatter;
 import org.duracloud.manifest.ManifestGenerator;
 import org.duracloud.manifest.error.ManifestArgumentException;
@@ -38,6 +41,11 @@ public class ManifestGeneratorImpl implements ManifestGenerator {
     private static Logger log =
         LoggerFactory.getLogger(ManifestGeneratorImpl.class);
 
+    // Writers to the piped manifest stream are only started when a thread
+    // is available, otherwise the reading caller would wait indefinitely
+    private static final ExecutorPoolConfig MANIFEST_POOL =
+        new ExecutorPoolConfig("manifest", 20, 0);
+
     public ManifestGeneratorImpl(ManifestStore manifestStore,
                                  StorageProviderFactory storageProviderFactory) {
         super();
@@ -72,7 +80,9 @@ public class ManifestGeneratorImpl implements ManifestGenerator {
                 return is;
             } else {
 
-                new Thread(new Runnable() {
+                ExecutorRegistry.getInstance()
+                                .getExecutor(MANIFEST_POOL)
+                                .execute(new Runnable() {
                     @Override
                     public void run() {
                         try {
@@ -89,11 +99,16 @@ public class ManifestGeneratorImpl implements ManifestGenerator {
                             log.error("error writing to piped output stream : " + e.getMessage(), e);
                         }
                     }
-                }).start();
+                });
             }
 
             return is;
 
+        } catch (RejectedExecutionException ex) {
+            // Left unwrapped so that callers can report that the service is
+            // busy rather than that manifest generation failed
+            throw ex;
+
         } catch (IOException | RuntimeException ex) {
             log.error("failed to retrieve manifest: " + ex.getMessage(), ex);
             throw new ManifestGeneratorException(ex.getMessage());
@@ -106,7 +121,8 @@ public class ManifestGeneratorImpl implements ManifestGenerator {
         StorageProvider store =
             this.storageProviderFactory.getStorageProvider(storeId);
         try {
-            store.getSpaceProperties(spaceId);
+            // ACLs are read as they do not require the space to be listed
+            store.getSpaceACLs(spaceId);
         } catch (NotFoundException ex) {
             throw new ManifestNotFoundException("there is no manifest for space: " + spaceId
                                                 + " where storeId = " + storeId
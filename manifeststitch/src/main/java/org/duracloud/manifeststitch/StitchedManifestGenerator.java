@@ -15,16 +15,24 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.input.AutoCloseInputStream;
 import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.manifest.ChunksManifestBean.ManifestHeader;
-import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
+import org.duracloud.chunk.manifest.xml.ManifestStreamReader;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.common.executor.BoundedExecutor;
 import org.duracloud.domain.Content;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.manifest.ManifestFormatter;
@@ -39,67 +47,147 @@ import org.slf4j.LoggerFactory;
  * out all chunks, and 3) reading and parsing from any *.dura-manifest files the
  * checksum of the stitched file.
  *
+ * Chunk manifests are retrieved and parsed concurrently by a bounded pool of
+ * threads, reading only as far as the manifest header. Lines are written in
+ * the order in which they appear in the original manifest.
+ *
  * @author Daniel Bernstein Date: 08/28/2015
  */
 public class StitchedManifestGenerator {
     private Logger log =
         LoggerFactory.getLogger(StitchedManifestGenerator.class);
+
+    public static final int DEFAULT_THREADS = 8;
+
+    // Number of lines which may be pending (per thread) ahead of the writer
+    private static final int PENDING_LINES_PER_THREAD = 16;
+
     private ContentStore store;
+    private int threads;
 
     public StitchedManifestGenerator(ContentStore store) {
+        this(store, DEFAULT_THREADS);
+    }
+
+    /**
+     * @param store   used to retrieve the manifest and chunk manifests
+     * @param threads number of chunk manifests to retrieve concurrently
+     */
+    public StitchedManifestGenerator(ContentStore store, int threads) {
         this.store = store;
+        this.threads = Math.max(1, threads);
     }
 
+    /**
+     * Generates the stitched manifest into a temporary file, which is removed
+     * when the returned stream is closed.
+     */
     public InputStream generate(String spaceId, ManifestFormat format) throws IOException {
 
         final File stitchedManifestFile =
             File.createTempFile("stitched-manifest-" + spaceId,
                                 "." + format.name().toLowerCase());
+        try (OutputStream out = new FileOutputStream(stitchedManifestFile)) {
+            generate(spaceId, format, out);
+        } catch (IOException | RuntimeException e) {
+            stitchedManifestFile.delete();
+            throw e;
+        }
+
+        return new AutoCloseInputStream(new FileInputStream(stitchedManifestFile) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                stitchedManifestFile.delete();
+            }
+        });
+    }
+
+    /**
+     * Generates the stitched manifest, writing each line to the output stream
+     * as it becomes available. The stream is flushed, but not closed.
+     */
+    public void generate(String spaceId, ManifestFormat format, OutputStream out)
+        throws IOException {
+        int maxPending = threads * PENDING_LINES_PER_THREAD;
+        BoundedExecutor executor =
+            new BoundedExecutor("manifest-stitch-" + spaceId, threads, maxPending);
+
         //download manifest and process each line.
         try (InputStream manifest = store.getManifest(spaceId, format);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(manifest));
-             BufferedWriter writer =
-                 new BufferedWriter(new OutputStreamWriter(new FileOutputStream(stitchedManifestFile)));) {
+             BufferedReader reader = new BufferedReader(new InputStreamReader(manifest))) {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
             ManifestFormatter formatter = new ManifestFormatterFactory().create(format);
             String header = formatter.getHeader();
+            Deque<Future<String>> pending = new ArrayDeque<>();
             String line = null;
-            try {
-                while ((line = reader.readLine()) != null) {
-                    //ignore any whitespace
-                    if (line.trim().length() == 0) {
-                        continue;
-                    }
-
-                    //write header if there is one.
-                    if (header != null && line.equals(header)) {
-                        writeLine(line, writer);
-                        continue;
-                    }
+            while ((line = reader.readLine()) != null) {
+                //ignore any whitespace
+                if (line.trim().length() == 0) {
+                    continue;
+                }
 
+                //write header if there is one.
+                if (header != null && line.equals(header)) {
+                    pending.add(CompletableFuture.completedFuture(line));
+                } else {
                     //process the line
-                    processLine(line, formatter, writer);
+                    Future<String> result = processLine(line, formatter, executor);
+                    if (null != result) {
+                        pending.add(result);
+                    }
                 }
-            } catch (IOException e) {
-                log.error("failed to complete manifest stiching.", e);
+
+                writeCompleted(pending, maxPending, writer);
+            }
+
+            while (!pending.isEmpty()) {
+                writeLine(getLine(pending.poll()), writer);
             }
+            writer.flush();
         } catch (ContentStoreException e) {
             log.error("failed to generate stitched manifest: " + e.getMessage(), e);
             throw new IOException(e);
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        return new AutoCloseInputStream(new FileInputStream(stitchedManifestFile) {
-            @Override
-            public void close() throws IOException {
-                super.close();
-                stitchedManifestFile.delete();
+    /*
+     * Writes lines from the head of the queue for as long as they are
+     * available, waiting for the head line only when the queue is full.
+     */
+    private void writeCompleted(Deque<Future<String>> pending,
+                                int maxPending,
+                                BufferedWriter writer) throws IOException {
+        while (!pending.isEmpty() &&
+               (pending.size() >= maxPending || pending.peek().isDone())) {
+            writeLine(getLine(pending.poll()), writer);
+        }
+    }
+
+    private String getLine(Future<String> line) throws IOException {
+        try {
+            return line.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while stitching manifest", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             }
-        });
+            log.error("failed to generate stitched manifest: " + cause.getMessage(), cause);
+            throw new IOException(cause);
+        }
     }
 
-    private void processLine(String line,
-                             ManifestFormatter formatter,
-                             BufferedWriter writer)
-        throws IOException, ContentStoreException {
+    private Future<String> processLine(String line,
+                                       ManifestFormatter formatter,
+                                       ExecutorService executor)
+        throws IOException {
         // parse manifest entry
         ManifestItem item = null;
         try {
@@ -111,13 +199,15 @@ public class StitchedManifestGenerator {
         String contentId = item.getContentId();
 
         if (contentId.endsWith(ChunksManifest.manifestSuffix)) {
-            writeLine(processChunkManifest(item, formatter), writer);
+            final ManifestItem chunkManifestItem = item;
+            return executor.submit(
+                () -> processChunkManifest(chunkManifestItem, formatter));
         } else if (contentId.contains(ChunksManifest.chunkSuffix)) {
             // ignore chunks
-            return;
+            return null;
         } else {
             // else write it.
-            writeLine(line, writer);
+            return CompletableFuture.completedFuture(line);
         }
     }
 
@@ -126,13 +216,10 @@ public class StitchedManifestGenerator {
         String contentId = item.getContentId();
         String spaceId = item.getSpaceId();
 
-        //extract checksum from chunk manifest.
+        //extract checksum from chunk manifest, the chunk entries are not needed.
         Content content = store.getContent(spaceId, contentId);
         try (InputStream is = content.getStream()) {
-            ChunksManifest chunkManifest =
-                ManifestDocumentBinding.createManifestFrom(is);
-
-            ManifestHeader header = chunkManifest.getHeader();
+            ManifestHeader header = ManifestStreamReader.readHeader(is);
             String checksum = header.getSourceMD5();
             String newContentId = header.getSourceContentId();
             ManifestItem newItem = new ManifestItem();
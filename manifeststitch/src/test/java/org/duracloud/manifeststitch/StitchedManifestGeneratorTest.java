@@ -2,11 +2,13 @@ package org.duracloud.manifeststitch;
 
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -14,6 +16,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 
 import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
@@ -85,6 +88,52 @@ public class StitchedManifestGeneratorTest extends EasyMockSupport {
         reader.close();
     }
 
+    @Test
+    public void testGenerateParallelInOrder() throws Exception {
+        int manifestCount = 50;
+        ContentStore store = createMock(ContentStore.class);
+        TsvManifestFormatter formatter = new TsvManifestFormatter();
+
+        StringWriter unstitched = new StringWriter();
+        BufferedWriter writer = new BufferedWriter(unstitched);
+        writer.write(formatter.getHeader() + "\n");
+        for (int i = 0; i < manifestCount; i++) {
+            String sourceContentId = "content-" + i + ".dat";
+            write(writer, formatter, sourceContentId + ChunksManifest.manifestSuffix);
+            write(writer, formatter, sourceContentId + ChunksManifest.chunkSuffix + "0000");
+            write(writer, formatter, "unchunked-" + i + ".dat");
+
+            ChunksManifest manifest =
+                new ChunksManifest(sourceContentId, "text/plain", 1000);
+            manifest.setMD5OfSourceContent("checksum-" + i);
+            String xml = ManifestDocumentBinding.createDocumentFrom(manifest);
+            Content content = createMock(Content.class);
+            expect(content.getStream()).andReturn(new ByteArrayInputStream(xml.getBytes()));
+            expect(store.getContent(spaceId, sourceContentId + ChunksManifest.manifestSuffix))
+                .andReturn(content);
+        }
+        writer.close();
+
+        expect(store.getManifest(spaceId, ManifestFormat.TSV))
+            .andReturn(new ByteArrayInputStream(unstitched.toString().getBytes()));
+        replayAll();
+
+        // Output is written directly to the stream provided
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StitchedManifestGenerator(store, 4).generate(spaceId, ManifestFormat.TSV, out);
+
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals(formatter.getHeader(), reader.readLine());
+        for (int i = 0; i < manifestCount; i++) {
+            ManifestItem stitched = formatter.parseLine(reader.readLine());
+            assertEquals("content-" + i + ".dat", stitched.getContentId());
+            assertEquals("checksum-" + i, stitched.getContentChecksum());
+            assertTrue(reader.readLine().contains("unchunked-" + i + ".dat"));
+        }
+        assertNull(reader.readLine());
+    }
+
     private void write(BufferedWriter writer,
                        ManifestFormatter formatter,
                        String contentId) throws IOException {
@@ -0,0 +1,115 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.reportdata.storage.serialize;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.duracloud.reportdata.storage.ReportTestHelper;
+import org.duracloud.reportdata.storage.StorageReport;
+import org.duracloud.reportdata.storage.StorageReportBase;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares serializing and de-serializing a storage report with a new
+ * serializer for each call when the JAXB context and schema are built by
+ * every serializer (as was done previously) and when they are shared
+ * through the JaxbContextRegistry.
+ *
+ * 200 calls are timed only when the reportdata.benchmark.large system
+ * property is set to true, as it takes some time to run; 20 calls are timed
+ * otherwise.
+ */
+public class StorageReportSerializerBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(StorageReportSerializerBenchmarkTest.class);
+
+    private static final boolean large =
+        Boolean.getBoolean("reportdata.benchmark.large");
+    private static final int warmupCount = large ? 20 : 5;
+    private static final int callCount = large ? 200 : 20;
+
+    @Test
+    public void testSerializerBenchmark() throws Exception {
+        StorageReport report =
+            new StorageReport("reportId",
+                              new ReportTestHelper<StorageReport>().createMetrics(),
+                              1000,
+                              100);
+
+        for (int i = 0; i < warmupCount; i++) {
+            roundTripUncached(report);
+            roundTripCached(report);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < callCount; i++) {
+            assertEquals(report, roundTripUncached(report));
+        }
+        long uncachedMicros = elapsedMicros(start) / callCount;
+
+        start = System.nanoTime();
+        for (int i = 0; i < callCount; i++) {
+            assertEquals(report, roundTripCached(report));
+        }
+        long cachedMicros = elapsedMicros(start) / callCount;
+
+        log.info("Storage report serialize/de-serialize with a new " +
+                 "serializer per call, average in microseconds: " +
+                 "per-serializer context {}, shared context {}",
+                 uncachedMicros, cachedMicros);
+    }
+
+    /*
+     * Performs a round trip as the serializer did before contexts and
+     * schemas were shared
+     */
+    private StorageReport roundTripUncached(StorageReport report)
+        throws Exception {
+        JAXBContext context = JAXBContext.newInstance(StorageReport.class);
+        SchemaFactory factory =
+            SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        Schema schema = factory.newSchema(new StreamSource(
+            getClass().getClassLoader()
+                      .getResourceAsStream(StorageReportBase.SCHEMA_NAME)));
+
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(report, writer);
+
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        unmarshaller.setSchema(schema);
+        return unmarshaller.unmarshal(
+            new StreamSource(new StringReader(writer.toString())),
+            StorageReport.class).getValue();
+    }
+
+    private StorageReport roundTripCached(StorageReport report) {
+        StorageReportSerializer serializer = new StorageReportSerializer();
+        return serializer.deserialize(serializer.serialize(report));
+    }
+
+    private long elapsedMicros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+}
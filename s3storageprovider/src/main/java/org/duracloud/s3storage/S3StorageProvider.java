@@ -21,9 +21,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
@@ -36,8 +40,12 @@ import com.amazonaws.services.s3.model.BucketTaggingConfiguration;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
@@ -55,11 +63,13 @@ import org.duracloud.common.util.DateUtil;
 import org.duracloud.storage.domain.ContentByteRange;
 import org.duracloud.storage.domain.ContentIterator;
 import org.duracloud.storage.domain.RetrievedContent;
+import org.duracloud.storage.domain.SpaceTotals;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.SpaceAlreadyExistsException;
 import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.SpaceTotalsCalculator;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.StorageProviderBase;
 import org.duracloud.storage.util.StorageProviderUtil;
@@ -71,7 +81,8 @@ import org.slf4j.LoggerFactory;
  *
  * @author Bill Branan
  */
-public class S3StorageProvider extends StorageProviderBase {
+public class S3StorageProvider extends StorageProviderBase
+    implements SpaceTotalsCalculator {
 
     private final Logger log = LoggerFactory.getLogger(S3StorageProvider.class);
 
@@ -88,6 +99,10 @@ public class S3StorageProvider extends StorageProviderBase {
     protected String accessKeyId = null;
     protected AmazonS3 s3Client = null;
 
+    // Names of the buckets of spaces, which can only be found by listing
+    // all buckets, recorded when space properties are read
+    private final Map<String, String> knownBucketNames = new ConcurrentHashMap<>();
+
     public S3StorageProvider(String accessKey, String secretKey) {
         this(S3ProviderUtil.getAmazonS3Client(accessKey, secretKey, null),
              accessKey,
@@ -368,16 +383,30 @@ public class S3StorageProvider extends StorageProviderBase {
                          + " due to error: " + e.getMessage();
             throw new StorageException(err, e, RETRY);
         }
+        forgetBucketName(spaceId);
     }
 
     /**
      * {@inheritDoc}
+     *
+     * The space item count is not included, as it would require listing the
+     * bucket on every read. Callers which need the count take it from the
+     * space totals, see StorageProviderUtil.calculateSpaceTotals().
      */
     protected Map<String, String> getAllSpaceProperties(String spaceId) {
         log.debug("getAllSpaceProperties(" + spaceId + ")");
+        return getStoredSpaceProperties(spaceId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Map<String, String> getStoredSpaceProperties(String spaceId) {
+        log.debug("getStoredSpaceProperties(" + spaceId + ")");
 
         // Will throw if bucket does not exist
-        String bucketName = getBucketName(spaceId);
+        String bucketName = getKnownBucketName(spaceId);
 
         // Retrieve space properties from bucket tags
         Map<String, String> spaceProperties = new HashMap<>();
@@ -385,6 +414,16 @@ public class S3StorageProvider extends StorageProviderBase {
         BucketTaggingConfiguration tagConfig;
         try {
             tagConfig = s3Client.getBucketTaggingConfiguration(bucketName);
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+                // The space was removed since its bucket name was recorded
+                knownBucketNames.remove(spaceId);
+                throw new NotFoundException("No S3 bucket found matching spaceID: " +
+                                            spaceId);
+            }
+            String err = "Could not get bucket tagging configuration in S3 bucket " +
+                         bucketName + " due to error: " + e.getMessage();
+            throw new StorageException(err, e, RETRY);
         } catch (AmazonClientException e) {
             String err = "Could not get bucket tagging configuration in S3 bucket " +
                          bucketName + " due to error: " + e.getMessage();
@@ -400,43 +439,44 @@ public class S3StorageProvider extends StorageProviderBase {
         // Handle @ symbol (change from +), to allow for email usernames in ACLs
         spaceProperties = replaceInMapValues(spaceProperties, "+", "@");
 
-        // Add space count
-        spaceProperties.put(PROPERTIES_SPACE_COUNT,
-                            getSpaceCount(spaceId, MAX_ITEM_COUNT));
+        // Counts stored by earlier versions are out of date
+        spaceProperties.remove(PROPERTIES_SPACE_COUNT);
 
         return spaceProperties;
     }
 
-    /*
-     * Counts the number of items in a space up to the maxCount. If maxCount
-     * is reached or exceeded, the returned string will indicate this with a
-     * trailing '+' character (e.g. 1000+).
+    /**
+     * {@inheritDoc}
      *
-     * Note that anecdotal evidence shows that this method of counting
-     * (using size of chunked calls) is faster in most cases than enumerating
-     * the Iteration: StorageProviderUtil.count(getSpaceContents(spaceId, null))
+     * The size of each item is included in the bucket listing, so the
+     * totals are determined with one request per thousand items.
      */
-    protected String getSpaceCount(String spaceId, int maxCount) {
-        List<String> spaceContentChunk = null;
-        long count = 0;
-
-        do {
-            String marker = null;
-            if (spaceContentChunk != null && spaceContentChunk.size() > 0) {
-                marker = spaceContentChunk.get(spaceContentChunk.size() - 1);
+    @Override
+    public SpaceTotals calculateSpaceTotals(String spaceId) {
+        log.debug("calculateSpaceTotals(" + spaceId + ")");
+
+        String bucketName = getBucketName(spaceId);
+        long itemCount = 0;
+        long byteCount = 0;
+        try {
+            ObjectListing listing = s3Client.listObjects(
+                new ListObjectsRequest(bucketName, null, null, null, MAX_ITEM_COUNT));
+            while (true) {
+                for (S3ObjectSummary object : listing.getObjectSummaries()) {
+                    itemCount++;
+                    byteCount += object.getSize();
+                }
+                if (!listing.isTruncated()) {
+                    break;
+                }
+                listing = s3Client.listNextBatchOfObjects(listing);
             }
-            spaceContentChunk = getSpaceContentsChunked(spaceId,
-                                                        null,
-                                                        MAX_ITEM_COUNT,
-                                                        marker);
-            count += spaceContentChunk.size();
-        } while (spaceContentChunk.size() > 0 && count < maxCount);
-
-        String suffix = "";
-        if (count >= maxCount) {
-            suffix = "+";
-        }
-        return String.valueOf(count) + suffix;
+        } catch (AmazonClientException e) {
+            String err = "Could not determine totals of S3 bucket " + bucketName
+                         + " due to error: " + e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+        return new SpaceTotals(itemCount, byteCount);
     }
 
     protected String getBucketCreationDate(String bucketName) {
@@ -475,7 +515,7 @@ public class S3StorageProvider extends StorageProviderBase {
 
         Map<String, String> originalProperties;
         try {
-            originalProperties = getAllSpaceProperties(spaceId);
+            originalProperties = getStoredSpaceProperties(spaceId);
         } catch (NotFoundException e) {
             // Likely adding a new space, so no existing properties yet.
             originalProperties = new HashMap<>();
@@ -491,6 +531,9 @@ public class S3StorageProvider extends StorageProviderBase {
         }
         spaceProperties.put(PROPERTIES_SPACE_CREATED, creationDate);
 
+        // The space count is calculated, so is not stored
+        spaceProperties.remove(PROPERTIES_SPACE_COUNT);
+
         // Handle @ symbol (change to +), to allow for email usernames in ACLs
         spaceProperties = replaceInMapValues(spaceProperties, "@", "+");
 
@@ -849,11 +892,16 @@ public class S3StorageProvider extends StorageProviderBase {
             GetObjectRequest getRequest = new GetObjectRequest(bucketName, contentId);
             if (StringUtils.isNotEmpty(range)) {
                 ContentByteRange byteRange = new ContentByteRange(range);
-                if (null == byteRange.getRangeStart()) {
-                    // While this should be a valid setting, it is not currently
-                    // supported due to a limitation of the AWS S3 client
-                    // see: https://github.com/aws/aws-sdk-java/issues/1551
-                    throw new IllegalArgumentException(byteRange.getUsage(range));
+                if (byteRange.isSuffixRange()) {
+                    // Suffix ranges cannot be passed through due to a limitation
+                    // of the AWS S3 client (see:
+                    // https://github.com/aws/aws-sdk-java/issues/1551), so the
+                    // offset is determined from the size of the content
+                    long contentSize =
+                        getObjectDetails(bucketName, contentId, RETRY).getContentLength();
+                    ContentByteRange resolved = byteRange.resolve(contentSize);
+                    getRequest.setRange(resolved.getRangeStart(),
+                                        resolved.getRangeEnd());
                 } else if (null == byteRange.getRangeEnd()) {
                     getRequest.setRange(byteRange.getRangeStart());
                 } else {
@@ -899,6 +947,163 @@ public class S3StorageProvider extends StorageProviderBase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Content is removed using multi-object delete requests of up to
+     * MAX_ITEM_COUNT items each. The items which exist, and their size,
+     * checksum and modified date, are found by listing the bucket, so the
+     * properties of the removed items do not include the mimetype or user
+     * properties unless an item had to be checked individually.
+     */
+    @Override
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        log.debug("deleteContents(" + spaceId + ", " + contentIds.size() +
+                  " items)");
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        // S3 reports keys which do not exist as deleted, so only keys which
+        // are found to exist are included in the delete requests
+        Map<String, Map<String, String>> found =
+            findExistingKeys(spaceId, bucketName, contentIds);
+        List<String> existing = new ArrayList<>(found.size());
+        for (String contentId : contentIds) {
+            if (found.containsKey(contentId)) {
+                existing.add(contentId);
+            }
+        }
+
+        Map<String, Map<String, String>> deleted = new LinkedHashMap<>();
+        for (int i = 0; i < existing.size(); i += MAX_ITEM_COUNT) {
+            List<String> group =
+                existing.subList(i, Math.min(i + MAX_ITEM_COUNT,
+                                             existing.size()));
+            List<KeyVersion> keys = new ArrayList<>(group.size());
+            for (String contentId : group) {
+                keys.add(new KeyVersion(contentId));
+            }
+            DeleteObjectsRequest request =
+                new DeleteObjectsRequest(bucketName).withKeys(keys)
+                                                    .withQuiet(true);
+
+            Set<String> failed = new HashSet<>();
+            try {
+                s3Client.deleteObjects(request);
+            } catch (MultiObjectDeleteException e) {
+                for (DeleteError error : e.getErrors()) {
+                    log.warn("Could not delete content " + error.getKey() +
+                             " from S3 bucket " + bucketName + " due to " +
+                             "error: " + error.getCode() + " " +
+                             error.getMessage());
+                    failed.add(error.getKey());
+                }
+            } catch (AmazonClientException e) {
+                // Items in later groups may still be removed, callers
+                // determine what is left by listing the space
+                log.error("Could not delete " + group.size() + " content " +
+                          "items from S3 bucket " + bucketName + " due to " +
+                          "error: " + e.getMessage(), e);
+                failed.addAll(group);
+            }
+
+            for (String contentId : group) {
+                if (!failed.contains(contentId)) {
+                    deleted.put(contentId, found.get(contentId));
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /*
+     * Determines which of the given keys exist in a bucket, along with the
+     * properties reported for them by the listing. The bucket is listed from
+     * just before the lowest of the keys, which takes one request per
+     * thousand keys when the keys are listed together (as they are when the
+     * contents of a space are deleted). A key which is not listed is only
+     * taken to be missing if the listing got past it; keys beyond the end
+     * of the listing are checked individually.
+     */
+    private Map<String, Map<String, String>> findExistingKeys(String spaceId,
+                                                              String bucketName,
+                                                              List<String> keys) {
+        Map<String, Map<String, String>> existing = new HashMap<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+
+        Set<String> wanted = new HashSet<>(keys);
+        // S3 lists keys in UTF-8 byte order, which is code point order
+        String first = Collections.min(wanted, S3StorageProvider::compareCodePoints);
+        // Listing starts after the marker, the first key less its last code
+        // point, which sorts before the first key in any order
+        String marker =
+            first.substring(0, first.offsetByCodePoints(first.length(), -1));
+        String listedTo = marker;
+        int maxPages = wanted.size() / MAX_ITEM_COUNT + 2;
+        boolean complete = false;
+        try {
+            ObjectListing listing = s3Client.listObjects(
+                new ListObjectsRequest(bucketName, null, marker, null, MAX_ITEM_COUNT));
+            for (int page = 1; ; page++) {
+                for (S3ObjectSummary object : listing.getObjectSummaries()) {
+                    if (wanted.contains(object.getKey())) {
+                        existing.put(object.getKey(),
+                                     prepContentProperties(object));
+                    }
+                    listedTo = object.getKey();
+                }
+                if (!listing.isTruncated()) {
+                    complete = true;
+                    break;
+                }
+                if (existing.size() == wanted.size() || page >= maxPages) {
+                    break;
+                }
+                listing = s3Client.listNextBatchOfObjects(listing);
+            }
+        } catch (AmazonClientException e) {
+            log.warn("Could not list S3 bucket " + bucketName + " to find " +
+                     "content to delete, items will be checked individually: " +
+                     e.getMessage());
+        }
+
+        if (!complete && existing.size() < wanted.size()) {
+            List<String> unlisted = new ArrayList<>();
+            for (String key : wanted) {
+                if (!existing.containsKey(key) &&
+                    compareCodePoints(key, listedTo) > 0) {
+                    unlisted.add(key);
+                }
+            }
+            existing.putAll(getEachContentProperties(
+                spaceId, unlisted,
+                key -> getObjectProperties(bucketName, key)));
+        }
+        return existing;
+    }
+
+    /*
+     * Compares strings by code point, which matches the order of their
+     * UTF-8 encodings (unlike String.compareTo for supplementary
+     * characters).
+     */
+    static int compareCodePoints(String a, String b) {
+        int i = 0;
+        while (i < a.length() && i < b.length()) {
+            int aChar = a.codePointAt(i);
+            int bChar = b.codePointAt(i);
+            if (aChar != bChar) {
+                return Integer.compare(aChar, bChar);
+            }
+            i += Character.charCount(aChar);
+        }
+        return Integer.compare(a.length() - i, b.length() - i);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1021,7 +1226,29 @@ public class S3StorageProvider extends StorageProviderBase {
 
         // Will throw if bucket does not exist
         String bucketName = getBucketName(spaceId);
+        return getObjectProperties(bucketName, contentId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The bucket of the space is found once, rather than for each item.
+     */
+    @Override
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        log.debug("getContentsProperties(" + spaceId + ", " + contentIds.size() +
+                  " items)");
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+        return getEachContentProperties(spaceId, contentIds,
+                                        contentId -> getObjectProperties(bucketName,
+                                                                         contentId));
+    }
 
+    private Map<String, String> getObjectProperties(String bucketName,
+                                                    String contentId) {
         // Get the content item from S3
         ObjectMetadata objMetadata =
             getObjectDetails(bucketName, contentId, RETRY);
@@ -1100,6 +1327,31 @@ public class S3StorageProvider extends StorageProviderBase {
         return contentProperties;
     }
 
+    /*
+     * The properties of a content item which are included in a listing of
+     * its bucket.
+     */
+    protected Map<String, String> prepContentProperties(S3ObjectSummary object) {
+        Map<String, String> contentProperties = new HashMap<>();
+
+        String size = String.valueOf(object.getSize());
+        contentProperties.put(PROPERTIES_CONTENT_SIZE, size);
+
+        String checksum = object.getETag();
+        if (checksum != null) {
+            String eTagValue = getETagValue(checksum);
+            contentProperties.put(PROPERTIES_CONTENT_CHECKSUM, eTagValue);
+            contentProperties.put(PROPERTIES_CONTENT_MD5, eTagValue);
+        }
+
+        Date modified = object.getLastModified();
+        if (modified != null) {
+            contentProperties.put(PROPERTIES_CONTENT_MODIFIED,
+                                  formattedDate(modified));
+        }
+        return contentProperties;
+    }
+
     protected String getETagValue(String etag) {
         String checksum = etag;
         if (checksum != null) {
@@ -1135,6 +1387,34 @@ public class S3StorageProvider extends StorageProviderBase {
         throw new NotFoundException("No S3 bucket found matching spaceID: " + spaceId);
     }
 
+    /**
+     * Gets the name of the bucket of a space, listing the buckets only if
+     * the name has not already been found. As the bucket name of a space
+     * does not change, callers need only handle the removal of the bucket.
+     *
+     * @param spaceId the space Id to convert into an S3 bucket name
+     * @return S3 bucket name of a given DuraCloud space
+     * @throws NotFoundException if the bucket name is not known and no
+     *                           bucket matches this spaceID
+     */
+    public String getKnownBucketName(String spaceId) {
+        String bucketName = knownBucketNames.get(spaceId);
+        if (null == bucketName) {
+            bucketName = getBucketName(spaceId);
+            knownBucketNames.put(spaceId, bucketName);
+        }
+        return bucketName;
+    }
+
+    /**
+     * Forgets the bucket name of a space, to be used when a space is removed.
+     *
+     * @param spaceId ID of the space
+     */
+    protected void forgetBucketName(String spaceId) {
+        knownBucketNames.remove(spaceId);
+    }
+
     /**
      * Converts a bucket name into what could be passed in as a space ID.
      *
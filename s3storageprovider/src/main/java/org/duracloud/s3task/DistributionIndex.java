@@ -0,0 +1,186 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of CloudFront distributions by the domain name of their origins.
+ *
+ * Listing distributions requires paging through every distribution in the
+ * AWS account, which is far too slow (and too likely to be throttled) to do
+ * for every streaming URL request. The index is built from a full listing
+ * and reused until it expires, or until it is invalidated by a task which
+ * creates, changes, or deletes a distribution. Since other nodes may change
+ * distributions as well, a lookup which finds no distribution for an origin
+ * rebuilds the index if it is more than a short time old. Only one listing
+ * is made at a time; lookups which need the index rebuilt while a listing
+ * is under way wait for that listing rather than starting another.
+ */
+public class DistributionIndex<T> {
+
+    private final Logger log = LoggerFactory.getLogger(DistributionIndex.class);
+
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+    public static final long DEFAULT_MISS_RELOAD_MILLIS = 30 * 1000;
+
+    private final Function<T, List<String>> originsOf;
+    private final long ttlMillis;
+    private final long missReloadMillis;
+
+    private volatile Snapshot<T> snapshot;
+    private long generation = 0; // guarded by this
+    private final AtomicReference<Load<T>> inFlight = new AtomicReference<>();
+
+    /**
+     * @param originsOf provides the origin domain names of a distribution
+     */
+    public DistributionIndex(Function<T, List<String>> originsOf) {
+        this(originsOf, DEFAULT_TTL_MILLIS, DEFAULT_MISS_RELOAD_MILLIS);
+    }
+
+    public DistributionIndex(Function<T, List<String>> originsOf,
+                             long ttlMillis,
+                             long missReloadMillis) {
+        this.originsOf = originsOf;
+        this.ttlMillis = ttlMillis;
+        this.missReloadMillis = missReloadMillis;
+    }
+
+    /**
+     * Retrieves the distributions with the given origin.
+     *
+     * @param origin domain name of the origin
+     * @param loader lists all distributions, used when the index must be
+     *               (re)built
+     * @return distributions with the given origin, or an empty list if none
+     */
+    public List<T> getDistributions(String origin, Supplier<List<T>> loader) {
+        long now = System.currentTimeMillis();
+        Snapshot<T> current = snapshot;
+        if (null == current || now - current.loaded > ttlMillis) {
+            current = load(loader);
+        }
+
+        List<T> dists = current.byOrigin.get(origin);
+        if (null == dists && now - current.loaded > missReloadMillis) {
+            current = load(loader);
+            dists = current.byOrigin.get(origin);
+        }
+        return null == dists ? Collections.<T>emptyList() : new ArrayList<>(dists);
+    }
+
+    /**
+     * Discards the index, so that the next lookup lists distributions again
+     */
+    public synchronized void invalidate() {
+        generation++;
+        snapshot = null;
+    }
+
+    /*
+     * Joins the listing under way, unless it began before the index was
+     * last invalidated, in which case a new listing is made.
+     */
+    private Snapshot<T> load(Supplier<List<T>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+
+        Load<T> current = inFlight.get();
+        while (null == current || current.generation < loadGeneration) {
+            Load<T> started = new Load<>(loadGeneration);
+            if (inFlight.compareAndSet(current, started)) {
+                return list(started, loader);
+            }
+            current = inFlight.get();
+        }
+
+        try {
+            return current.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Snapshot<T> list(Load<T> load, Supplier<List<T>> loader) {
+        try {
+            Snapshot<T> loaded = index(load.generation, loader);
+            load.result.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.compareAndSet(load, null);
+        }
+    }
+
+    private Snapshot<T> index(long loadGeneration, Supplier<List<T>> loader) {
+        Map<String, List<T>> byOrigin = new HashMap<>();
+        List<T> dists = loader.get();
+        for (T dist : dists) {
+            for (String origin : originsOf.apply(dist)) {
+                List<T> originDists = byOrigin.get(origin);
+                if (null == originDists) {
+                    originDists = new ArrayList<>();
+                    byOrigin.put(origin, originDists);
+                }
+                originDists.add(dist);
+            }
+        }
+        log.debug("Indexed {} CloudFront distributions", dists.size());
+
+        // A listing which began before the index was invalidated may not
+        // include the change, so it is used for this lookup only
+        Snapshot<T> loaded = new Snapshot<>(byOrigin);
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private static class Load<T> {
+        private final long generation;
+        private final CompletableFuture<Snapshot<T>> result =
+            new CompletableFuture<>();
+
+        Load(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private static class Snapshot<T> {
+        private final Map<String, List<T>> byOrigin;
+        private final long loaded;
+
+        Snapshot(Map<String, List<T>> byOrigin) {
+            this.byOrigin = byOrigin;
+            this.loaded = System.currentTimeMillis();
+        }
+    }
+
+}
@@ -7,10 +7,11 @@
  */
 package org.duracloud.s3task.streaming;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
 import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigRequest;
@@ -24,6 +25,7 @@ import com.amazonaws.services.s3.AmazonS3;
 import org.duracloud.StorageTaskConstants;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.s3storage.S3StorageProvider;
+import org.duracloud.s3task.DistributionIndex;
 import org.duracloud.storage.error.UnsupportedTaskException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.TaskRunner;
@@ -51,6 +53,12 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
 
     protected static final int maxRetries = 8;
 
+    // Streaming distributions by origin, shared by the task runners of all
+    // task providers using the same CloudFront client
+    private static final Map<AmazonCloudFrontClient,
+        DistributionIndex<StreamingDistributionSummary>> distIndexes =
+        new ConcurrentHashMap<>();
+
     protected StorageProvider s3Provider;
     protected S3StorageProvider unwrappedS3Provider;
     protected AmazonS3 s3Client;
@@ -77,19 +85,30 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
         }
     }
 
-    private boolean isDistFromBucket(String bucketName,
-                                     StreamingDistributionSummary distSummary) {
-        String bucketOrigin = bucketName + S3_ORIGIN_SUFFIX;
-        return bucketOrigin.equals(distSummary.getS3Origin().getDomainName());
-    }
-
     /*
      * Determines if a streaming distribution already exists for a given bucket
      */
     protected List<StreamingDistributionSummary> getAllExistingDistributions(String bucketName) {
+        return getDistributionIndex().getDistributions(bucketName + S3_ORIGIN_SUFFIX,
+                                                       this::listAllStreamingDistributions);
+    }
+
+    /**
+     * Discards the cached listing of distributions. Should be called when a
+     * distribution is created, updated, or deleted.
+     */
+    protected void invalidateDistributionIndex() {
+        getDistributionIndex().invalidate();
+    }
 
-        List<StreamingDistributionSummary> distListForBucket = new ArrayList<>();
+    private DistributionIndex<StreamingDistributionSummary> getDistributionIndex() {
+        return distIndexes.computeIfAbsent(
+            cfClient, client -> new DistributionIndex<>(
+                distSummary -> Collections.singletonList(
+                    distSummary.getS3Origin().getDomainName())));
+    }
 
+    private List<StreamingDistributionSummary> listAllStreamingDistributions() {
         StreamingDistributionList distList =
             cfClient.listStreamingDistributions(new ListStreamingDistributionsRequest())
                     .getStreamingDistributionList();
@@ -101,14 +120,7 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
                                .getStreamingDistributionList();
             streamingDistList.addAll(distList.getItems());
         }
-
-        for (StreamingDistributionSummary distSummary : streamingDistList) {
-            if (isDistFromBucket(bucketName, distSummary)) {
-                distListForBucket.add(distSummary);
-            }
-        }
-
-        return distListForBucket;
+        return streamingDistList;
     }
 
     /**
@@ -131,6 +143,7 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
                 .withStreamingDistributionConfig(distConfig)
                 .withIfMatch(result.getETag())
                 .withId(distId));
+        invalidateDistributionIndex();
     }
 
     /*
@@ -175,9 +188,10 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
     }
 
     protected void checkThatStreamingServiceIsEnabled(String spaceId, String taskName) {
-        // Verify that streaming is enabled
+        // Verify that streaming is enabled. The properties are read from the
+        // bucket tags, without the item count added by the wrapping providers
         Map<String, String> spaceProperties =
-            s3Provider.getSpaceProperties(spaceId);
+            unwrappedS3Provider.getSpaceProperties(spaceId);
         if (!spaceProperties.containsKey(StorageProvider.PROPERTIES_STREAMING_TYPE)) {
             throw new UnsupportedTaskException(taskName,
                                                "The " + taskName + " task can only be used after a space " +
@@ -65,6 +65,7 @@ public class DeleteStreamingTaskRunner extends BaseStreamingTaskRunner {
         removeStreamingHostFromSpaceProps(spaceId);
         s3Client.deleteBucketPolicy(bucketName);
 
+        invalidateDistributionIndex();
         List<StreamingDistributionSummary> existingDists =
             getAllExistingDistributions(bucketName);
 
@@ -103,6 +104,7 @@ public class DeleteStreamingTaskRunner extends BaseStreamingTaskRunner {
         cfClient.deleteStreamingDistribution(
             new DeleteStreamingDistributionRequest().withId(distId)
                                                     .withIfMatch(result.getETag()));
+        invalidateDistributionIndex();
     }
 
     /*
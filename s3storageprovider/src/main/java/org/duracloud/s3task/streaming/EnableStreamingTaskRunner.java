@@ -81,6 +81,8 @@ public class EnableStreamingTaskRunner extends BaseStreamingTaskRunner {
         String oaIdentityId = getOriginAccessId();
         EnableStreamingTaskResult taskResult = new EnableStreamingTaskResult();
 
+        // Check for an existing distribution using a current listing
+        invalidateDistributionIndex();
         StreamingDistributionSummary existingDist =
             getExistingDistribution(bucketName);
 
@@ -129,6 +131,7 @@ public class EnableStreamingTaskRunner extends BaseStreamingTaskRunner {
                             .withComment("Streaming space: " + spaceId)
                             .withTrustedSigners(signers)))
                         .getStreamingDistribution();
+            invalidateDistributionIndex();
             domainName = dist.getDomainName();
         }
 
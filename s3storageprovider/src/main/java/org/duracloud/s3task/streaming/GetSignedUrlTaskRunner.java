@@ -82,7 +82,7 @@ public class GetSignedUrlTaskRunner extends BaseStreamingTaskRunner {
                  ", minutesToExpire=" + minutesToExpire + ", ipAddress=" + ipAddress);
 
         // Will throw if bucket does not exist
-        String bucketName = unwrappedS3Provider.getBucketName(spaceId);
+        String bucketName = unwrappedS3Provider.getKnownBucketName(spaceId);
         GetSignedUrlTaskResult taskResult = new GetSignedUrlTaskResult();
 
         // Ensure that streaming service is on
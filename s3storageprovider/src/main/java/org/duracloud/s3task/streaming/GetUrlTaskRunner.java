@@ -57,7 +57,7 @@ public class GetUrlTaskRunner extends BaseStreamingTaskRunner {
                  ", contentId=" + contentId + ", resourcePrefix=" + resourcePrefix);
 
         // Will throw if bucket does not exist
-        String bucketName = unwrappedS3Provider.getBucketName(spaceId);
+        String bucketName = unwrappedS3Provider.getKnownBucketName(spaceId);
         GetUrlTaskResult taskResult = new GetUrlTaskResult();
 
         // Ensure that streaming service is on
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
 import com.amazonaws.services.cloudfront.model.DistributionConfig;
@@ -25,6 +26,7 @@ import com.amazonaws.services.s3.AmazonS3;
 import org.duracloud.StorageTaskConstants;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.s3storage.S3StorageProvider;
+import org.duracloud.s3task.DistributionIndex;
 import org.duracloud.storage.error.UnsupportedTaskException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.TaskRunner;
@@ -51,6 +53,11 @@ public abstract class BaseHlsTaskRunner implements TaskRunner {
 
     protected static final int maxRetries = 8;
 
+    // Web distributions by origin, shared by the task runners of all task
+    // providers using the same CloudFront client
+    private static final Map<AmazonCloudFrontClient, DistributionIndex<DistributionSummary>>
+        distIndexes = new ConcurrentHashMap<>();
+
     protected StorageProvider s3Provider;
     protected S3StorageProvider unwrappedS3Provider;
     protected AmazonS3 s3Client;
@@ -77,23 +84,36 @@ public abstract class BaseHlsTaskRunner implements TaskRunner {
         }
     }
 
-    private boolean isDistFromBucket(String bucketName, DistributionSummary distSummary) {
-        String bucketOrigin = bucketName + S3_ORIGIN_SUFFIX;
-        for (Origin distOrigin : distSummary.getOrigins().getItems()) {
-            if (bucketOrigin.equals(distOrigin.getDomainName())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Determines if a streaming distribution already exists for a given bucket
      */
     protected List<DistributionSummary> getAllExistingWebDistributions(String bucketName) {
+        return getDistributionIndex().getDistributions(bucketName + S3_ORIGIN_SUFFIX,
+                                                       this::listAllWebDistributions);
+    }
+
+    /**
+     * Discards the cached listing of distributions. Should be called when a
+     * distribution is created, updated, or deleted.
+     */
+    protected void invalidateDistributionIndex() {
+        getDistributionIndex().invalidate();
+    }
+
+    private DistributionIndex<DistributionSummary> getDistributionIndex() {
+        return distIndexes.computeIfAbsent(
+            cfClient, client -> new DistributionIndex<>(BaseHlsTaskRunner::getOriginDomains));
+    }
 
-        List<DistributionSummary> distListForBucket = new ArrayList<>();
+    private static List<String> getOriginDomains(DistributionSummary distSummary) {
+        List<String> domains = new ArrayList<>();
+        for (Origin distOrigin : distSummary.getOrigins().getItems()) {
+            domains.add(distOrigin.getDomainName());
+        }
+        return domains;
+    }
 
+    private List<DistributionSummary> listAllWebDistributions() {
         DistributionList distList =
             cfClient.listDistributions(new ListDistributionsRequest())
                     .getDistributionList();
@@ -105,14 +125,7 @@ public abstract class BaseHlsTaskRunner implements TaskRunner {
                                .getDistributionList();
             webDistList.addAll(distList.getItems());
         }
-
-        for (DistributionSummary distSummary : webDistList) {
-            if (isDistFromBucket(bucketName, distSummary)) {
-                distListForBucket.add(distSummary);
-            }
-        }
-
-        return distListForBucket;
+        return webDistList;
     }
 
     /**
@@ -132,6 +145,7 @@ public abstract class BaseHlsTaskRunner implements TaskRunner {
                                         .withDistributionConfig(distConfig)
                                         .withIfMatch(result.getETag())
                                         .withId(distId));
+        invalidateDistributionIndex();
     }
 
     /**
@@ -179,8 +193,10 @@ public abstract class BaseHlsTaskRunner implements TaskRunner {
      * @throws UnsupportedTaskException if no distribution exists
      */
     protected void checkThatStreamingServiceIsEnabled(String spaceId, String taskName) {
-        // Verify that streaming is enabled
-        Map<String, String> spaceProperties = s3Provider.getSpaceProperties(spaceId);
+        // Verify that streaming is enabled. The properties are read from the
+        // bucket tags, without the item count added by the wrapping providers
+        Map<String, String> spaceProperties =
+            unwrappedS3Provider.getSpaceProperties(spaceId);
         if (!spaceProperties.containsKey(HLS_STREAMING_HOST_PROP)) {
             throw new UnsupportedTaskException(
                 taskName,
@@ -68,6 +68,7 @@ public class DeleteHlsTaskRunner extends BaseHlsTaskRunner {
         s3Client.deleteBucketPolicy(bucketName);
         s3Client.deleteBucketCrossOriginConfiguration(bucketName);
 
+        invalidateDistributionIndex();
         List<DistributionSummary> existingDists = getAllExistingWebDistributions(bucketName);
 
         if (existingDists != null && existingDists.size() > 0) {
@@ -104,6 +105,7 @@ public class DeleteHlsTaskRunner extends BaseHlsTaskRunner {
         cfClient.deleteDistribution(
             new DeleteDistributionRequest().withId(distId)
                                            .withIfMatch(result.getETag()));
+        invalidateDistributionIndex();
     }
 
     /*
@@ -102,6 +102,8 @@ public class EnableHlsTaskRunner extends BaseHlsTaskRunner {
         String oaIdentityId = getOriginAccessId();
         EnableStreamingTaskResult taskResult = new EnableStreamingTaskResult();
 
+        // Check for an existing distribution using a current listing
+        invalidateDistributionIndex();
         DistributionSummary existingDist = getExistingDistribution(bucketName);
 
         if (existingDist != null) { // There is an existing distribution
@@ -213,6 +215,7 @@ public class EnableHlsTaskRunner extends BaseHlsTaskRunner {
 
             Distribution dist = cfClient.createDistribution(
                 new CreateDistributionRequest(distributionConfig)).getDistribution();
+            invalidateDistributionIndex();
             domainName = dist.getDomainName();
         }
 
@@ -91,7 +91,7 @@ public class GetHlsSignedCookiesUrlTaskRunner extends BaseHlsTaskRunner {
                  ", redirectUrl=" + redirectUrl);
 
         // Will throw if bucket does not exist
-        String bucketName = unwrappedS3Provider.getBucketName(spaceId);
+        String bucketName = unwrappedS3Provider.getKnownBucketName(spaceId);
 
         // Ensure that streaming service is on
         checkThatStreamingServiceIsEnabled(spaceId, TASK_NAME);
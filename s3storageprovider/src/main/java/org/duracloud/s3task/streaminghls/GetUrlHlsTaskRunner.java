@@ -53,7 +53,7 @@ public class GetUrlHlsTaskRunner extends BaseHlsTaskRunner {
                  ", contentId=" + contentId);
 
         // Will throw if bucket does not exist
-        String bucketName = unwrappedS3Provider.getBucketName(spaceId);
+        String bucketName = unwrappedS3Provider.getKnownBucketName(spaceId);
         GetUrlTaskResult taskResult = new GetUrlTaskResult();
 
         // Ensure that streaming service is on
@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -41,8 +42,12 @@ import com.amazonaws.services.s3.model.BucketTaggingConfiguration;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
@@ -58,6 +63,7 @@ import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.IExpectationSetters;
@@ -463,13 +469,13 @@ public class S3StorageProviderTest {
     @Test
     public void testGetSpaceCount1000() {
         MockS3StorageProvider provider = new MockS3StorageProvider();
-        String count = provider.getSpaceCount(spaceId, 1000);
+        String count = StorageProviderUtil.getSpaceCount(provider, spaceId, 1000);
         assertEquals("1000+", count);
 
-        count = provider.getSpaceCount(spaceId, 1500);
+        count = StorageProviderUtil.getSpaceCount(provider, spaceId, 1500);
         assertEquals("2000+", count);
 
-        count = provider.getSpaceCount(spaceId, 10000);
+        count = StorageProviderUtil.getSpaceCount(provider, spaceId, 10000);
         assertEquals("10000+", count);
     }
 
@@ -582,23 +588,59 @@ public class S3StorageProviderTest {
             s3Client.getBucketTaggingConfiguration(EasyMock.isA(String.class)))
                 .andReturn(tagConfig);
 
-        ObjectListing objectListing =
-            createMock("ObjectListing", ObjectListing.class);
-        setUpListObjects(objectListing, 1);
-        setUpListObjects(objectListing, 0);
-
-        replay(s3Client, objectListing);
+        replay(s3Client);
 
+        // The bucket is not listed to count its items
         S3StorageProvider provider = getProvider();
         Map<String, String> spaceProps = provider.getAllSpaceProperties(spaceId);
         Assert.assertNotNull(spaceProps);
         Assert.assertEquals("tag-one-value", spaceProps.get("tag-one"));
         Assert.assertEquals("tagtwo@test.com", spaceProps.get("tag-two"));
-        Assert.assertEquals(String.valueOf(1),
-                            spaceProps.get(
-                                StorageProvider.PROPERTIES_SPACE_COUNT));
+        Assert.assertNull(spaceProps.get(StorageProvider.PROPERTIES_SPACE_COUNT));
 
-        verify(s3Client, objectListing);
+        verify(s3Client);
+    }
+
+    @Test
+    public void testGetSpaceACLsListsBucketsOnce() {
+        setupS3Client();
+        addListBucketsMock(1, Arrays.asList(spaceId));
+
+        Map<String, String> bucketTags = new HashMap<>();
+        bucketTags.put("acl-user-read", "user");
+        BucketTaggingConfiguration tagConfig =
+            new BucketTaggingConfiguration().withTagSets(new TagSet(bucketTags));
+        expect(s3Client.getBucketTaggingConfiguration(accessKey + "." + spaceId))
+            .andReturn(tagConfig).times(2);
+        replay(s3Client);
+
+        // The bucket name found by the first read is reused
+        S3StorageProvider provider = getProvider();
+        assertEquals(1, provider.getSpaceACLs(spaceId).size());
+        assertEquals(1, provider.getSpaceACLs(spaceId).size());
+    }
+
+    @Test
+    public void testGetSpaceACLsRemovedSpace() {
+        setupS3Client();
+        addListBucketsMock(1, Arrays.asList(spaceId));
+
+        AmazonS3Exception noSuchBucket = new AmazonS3Exception("NoSuchBucket");
+        noSuchBucket.setStatusCode(404);
+        expect(s3Client.getBucketTaggingConfiguration(accessKey + "." + spaceId))
+            .andThrow(noSuchBucket);
+        addListBucketsMock(1, new ArrayList<>());
+        replay(s3Client);
+
+        S3StorageProvider provider = getProvider();
+        for (int i = 0; i < 2; i++) {
+            try {
+                provider.getSpaceACLs(spaceId);
+                fail("Exception expected");
+            } catch (NotFoundException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
     }
 
     @Test
@@ -811,4 +853,153 @@ public class S3StorageProviderTest {
         assertEquals("s3 object inputstream was not set on retrieved content", is, retrievedContent.getContentStream());
         verify(result, bucket, result);
     }
+
+    @Test
+    public void testDeleteContents() {
+        setupS3Client();
+        S3StorageProvider provider = getProvider();
+        String bucketName = accessKey + "." + spaceId;
+        Bucket bucket = createMock("ListedBucket", Bucket.class);
+        expect(bucket.getName()).andReturn(bucketName);
+        expect(s3Client.listBuckets()).andReturn(Arrays.asList(bucket));
+
+        List<String> contentIds = new ArrayList<>();
+        ObjectListing listing = new ObjectListing();
+        for (int i = 0; i < 1500; i++) {
+            contentIds.add("content-" + i);
+            if (i != 5) {
+                S3ObjectSummary object = new S3ObjectSummary();
+                object.setKey("content-" + i);
+                object.setSize(i);
+                object.setETag("etag-" + i);
+                listing.getObjectSummaries().add(object);
+            }
+        }
+        String missingId = "content-5";
+        String failedId = "content-1200";
+
+        Capture<ListObjectsRequest> listCapture = newCapture();
+        expect(s3Client.listObjects(capture(listCapture))).andReturn(listing);
+
+        Capture<DeleteObjectsRequest> firstCapture = newCapture();
+        expect(s3Client.deleteObjects(capture(firstCapture)))
+            .andReturn(createMock(DeleteObjectsResult.class));
+
+        DeleteError error = new DeleteError();
+        error.setKey(failedId);
+        error.setCode("InternalError");
+        Capture<DeleteObjectsRequest> secondCapture = newCapture();
+        expect(s3Client.deleteObjects(capture(secondCapture)))
+            .andThrow(new MultiObjectDeleteException(
+                Collections.singletonList(error), Collections.emptyList()));
+        replay(s3Client, bucket);
+
+        // The size and checksum of deleted items come from the listing
+        Map<String, Map<String, String>> deleted =
+            provider.deleteContents(spaceId, contentIds);
+        assertEquals(1498, deleted.size());
+        assertTrue(!deleted.containsKey(failedId));
+        assertTrue(!deleted.containsKey(missingId));
+        Map<String, String> props = deleted.get("content-7");
+        assertEquals("7", props.get(StorageProvider.PROPERTIES_CONTENT_SIZE));
+        assertEquals("etag-7",
+                     props.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+        assertNull(props.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+
+        assertEquals("content-", listCapture.getValue().getMarker());
+        DeleteObjectsRequest first = firstCapture.getValue();
+        assertEquals(bucketName, first.getBucketName());
+        assertEquals(1000, first.getKeys().size());
+        assertEquals("content-0", first.getKeys().get(0).getKey());
+        assertEquals("content-6", first.getKeys().get(5).getKey());
+        DeleteObjectsRequest second = secondCapture.getValue();
+        assertEquals(499, second.getKeys().size());
+        assertEquals("content-1001", second.getKeys().get(0).getKey());
+        verify(bucket);
+    }
+
+    @Test
+    public void testDeleteContentsListingFails() {
+        setupS3Client();
+        S3StorageProvider provider = getProvider();
+        String bucketName = accessKey + "." + spaceId;
+        Bucket bucket = createMock("ListedBucket", Bucket.class);
+        expect(bucket.getName()).andReturn(bucketName);
+        expect(s3Client.listBuckets()).andReturn(Arrays.asList(bucket));
+
+        expect(s3Client.listObjects(EasyMock.isA(ListObjectsRequest.class)))
+            .andThrow(new AmazonClientException("listing failed"));
+        expect(s3Client.getObjectMetadata(bucketName, "content-a"))
+            .andReturn(new ObjectMetadata());
+        AmazonS3Exception notFound = new AmazonS3Exception("not found");
+        notFound.setStatusCode(404);
+        expect(s3Client.getObjectMetadata(bucketName, "content-b"))
+            .andThrow(notFound).times(2);
+
+        Capture<DeleteObjectsRequest> capture = newCapture();
+        expect(s3Client.deleteObjects(capture(capture)))
+            .andReturn(createMock(DeleteObjectsResult.class));
+        replay(s3Client, bucket);
+
+        Map<String, Map<String, String>> deleted =
+            provider.deleteContents(spaceId, Arrays.asList("content-a", "content-b"));
+        assertEquals(Collections.singleton("content-a"), deleted.keySet());
+        assertEquals(1, capture.getValue().getKeys().size());
+        verify(bucket);
+    }
+
+    /*
+     * S3 lists keys in UTF-8 byte order, in which a supplementary character
+     * sorts after all other characters, unlike in UTF-16 order.
+     */
+    @Test
+    public void testDeleteContentsListingOrder() {
+        setupS3Client();
+        S3StorageProvider provider = getProvider();
+        String bucketName = accessKey + "." + spaceId;
+        Bucket bucket = createMock("ListedBucket", Bucket.class);
+        expect(bucket.getName()).andReturn(bucketName);
+        expect(s3Client.listBuckets()).andReturn(Arrays.asList(bucket));
+
+        String listedId = "a\uFF5E";
+        String missingId = "a\uFF00";
+        String unlistedId = "a\uD83D\uDE00";
+
+        // The listing runs out of pages before reaching the last key
+        ObjectListing firstPage = new ObjectListing();
+        firstPage.setTruncated(true);
+        S3ObjectSummary listed = new S3ObjectSummary();
+        listed.setKey(listedId);
+        firstPage.getObjectSummaries().add(listed);
+        ObjectListing secondPage = new ObjectListing();
+        secondPage.setTruncated(true);
+        S3ObjectSummary other = new S3ObjectSummary();
+        other.setKey("a\uFFFD");
+        secondPage.getObjectSummaries().add(other);
+
+        Capture<ListObjectsRequest> listCapture = newCapture();
+        expect(s3Client.listObjects(capture(listCapture))).andReturn(firstPage);
+        expect(s3Client.listNextBatchOfObjects(firstPage)).andReturn(secondPage);
+
+        // Only the key beyond the listed range is checked individually
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType("text/plain");
+        expect(s3Client.getObjectMetadata(bucketName, unlistedId))
+            .andReturn(metadata);
+
+        Capture<DeleteObjectsRequest> capture = newCapture();
+        expect(s3Client.deleteObjects(capture(capture)))
+            .andReturn(createMock(DeleteObjectsResult.class));
+        replay(s3Client, bucket);
+
+        Map<String, Map<String, String>> deleted = provider.deleteContents(
+            spaceId, Arrays.asList(listedId, missingId, unlistedId));
+        assertEquals(Arrays.asList(listedId, unlistedId),
+                     new ArrayList<>(deleted.keySet()));
+        assertEquals("text/plain", deleted.get(unlistedId)
+            .get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+        assertEquals("a", listCapture.getValue().getMarker());
+        assertEquals(2, capture.getValue().getKeys().size());
+        verify(bucket);
+    }
 }
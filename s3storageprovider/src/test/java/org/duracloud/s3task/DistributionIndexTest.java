@@ -0,0 +1,140 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class DistributionIndexTest {
+
+    /**
+     * Distributions are represented as comma separated lists of origins
+     */
+    private DistributionIndex<String> createIndex(long ttl, long missReload) {
+        return new DistributionIndex<>(dist -> Arrays.asList(dist.split(",")),
+                                       ttl, missReload);
+    }
+
+    private static class CountingLoader implements Supplier<List<String>> {
+        private List<String> dists = new ArrayList<>();
+        private int loads = 0;
+
+        @Override
+        public List<String> get() {
+            loads++;
+            return new ArrayList<>(dists);
+        }
+    }
+
+    @Test
+    public void testLookupsUseIndex() {
+        CountingLoader loader = new CountingLoader();
+        loader.dists.add("origin-a");
+        loader.dists.add("origin-b,origin-c");
+        loader.dists.add("origin-b");
+
+        DistributionIndex<String> index = createIndex(60000, 60000);
+        assertEquals(Arrays.asList("origin-a"),
+                     index.getDistributions("origin-a", loader));
+        assertEquals(Arrays.asList("origin-b,origin-c", "origin-b"),
+                     index.getDistributions("origin-b", loader));
+        assertEquals(Arrays.asList("origin-b,origin-c"),
+                     index.getDistributions("origin-c", loader));
+        assertTrue(index.getDistributions("origin-d", loader).isEmpty());
+        assertEquals(1, loader.loads);
+
+        // Changes are seen once the index is invalidated
+        loader.dists.add("origin-d");
+        index.invalidate();
+        assertEquals(Arrays.asList("origin-d"),
+                     index.getDistributions("origin-d", loader));
+        assertEquals(2, loader.loads);
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        loader.dists.add("origin-a");
+
+        // Expired index is reloaded
+        DistributionIndex<String> index = createIndex(0, 60000);
+        index.getDistributions("origin-a", loader);
+        Thread.sleep(5);
+        index.getDistributions("origin-a", loader);
+        assertEquals(2, loader.loads);
+
+        // Misses reload an index which is older than the miss reload time
+        loader = new CountingLoader();
+        index = createIndex(60000, 0);
+        index.getDistributions("origin-a", loader);
+        Thread.sleep(5);
+        loader.dists.add("origin-a");
+        assertEquals(Arrays.asList("origin-a"),
+                     index.getDistributions("origin-a", loader));
+        assertEquals(2, loader.loads);
+
+        // Hits do not cause a reload
+        index.getDistributions("origin-a", loader);
+        assertEquals(2, loader.loads);
+    }
+
+    @Test
+    public void testConcurrentLookupsShareListing() throws Exception {
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            listing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return Arrays.asList("origin-a");
+        };
+
+        DistributionIndex<String> index = createIndex(60000, 60000);
+        List<List<String>> results = new CopyOnWriteArrayList<>();
+        Runnable lookup =
+            () -> results.add(index.getDistributions("origin-a", loader));
+        Thread first = new Thread(lookup);
+        first.start();
+        assertTrue(listing.await(5, TimeUnit.SECONDS));
+
+        // The second lookup waits for the listing made by the first
+        Thread second = new Thread(lookup);
+        second.start();
+        long start = System.currentTimeMillis();
+        while (second.getState() != Thread.State.WAITING &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        assertEquals(1, loads.get());
+        assertEquals(2, results.size());
+        for (List<String> result : results) {
+            assertEquals(Arrays.asList("origin-a"), result);
+        }
+    }
+
+}
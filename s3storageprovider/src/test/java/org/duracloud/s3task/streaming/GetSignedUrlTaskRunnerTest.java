@@ -184,8 +184,8 @@ public class GetSignedUrlTaskRunnerTest extends StreamingTaskRunnerTestBase {
     @Test
     public void testPerformTask4() throws Exception {
         BaseStreamingTaskRunner runner =
-            createRunner(createMockStorageProvider(new HashMap<String, String>(), true),
-                         createMockUnwrappedS3StorageProvider(),
+            createRunner(createMockStorageProvider(),
+                         createMockUnwrappedS3StorageProvider(new HashMap<String, String>()),
                          createMockS3ClientV1(),
                          createMockCFClientV1());
 
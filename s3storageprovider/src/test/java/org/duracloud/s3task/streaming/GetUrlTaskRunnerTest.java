@@ -139,8 +139,8 @@ public class GetUrlTaskRunnerTest extends StreamingTaskRunnerTestBase {
     @Test
     public void testPerformTask4() throws Exception {
         BaseStreamingTaskRunner runner =
-            createRunner(createMockStorageProvider(new HashMap<String, String>(), true),
-                         createMockUnwrappedS3StorageProvider(),
+            createRunner(createMockStorageProvider(),
+                         createMockUnwrappedS3StorageProvider(new HashMap<String, String>()),
                          createMockS3ClientV1(),
                          createMockCFClientV1());
 
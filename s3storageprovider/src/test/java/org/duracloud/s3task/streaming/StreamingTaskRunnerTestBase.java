@@ -58,6 +58,13 @@ public class StreamingTaskRunnerTestBase {
     }
 
     protected S3StorageProvider createMockUnwrappedS3StorageProvider() {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_STREAMING_TYPE, "any-streaming-type");
+        return createMockUnwrappedS3StorageProvider(props);
+    }
+
+    protected S3StorageProvider createMockUnwrappedS3StorageProvider(
+        Map<String, String> spaceProps) {
         S3StorageProvider provider =
             EasyMock.createMock(S3StorageProvider.class);
 
@@ -66,6 +73,15 @@ public class StreamingTaskRunnerTestBase {
             .andReturn(bucketName)
             .anyTimes();
 
+        EasyMock
+            .expect(provider.getKnownBucketName(EasyMock.isA(String.class)))
+            .andReturn(bucketName)
+            .anyTimes();
+
+        EasyMock.expect(provider.getSpaceProperties(EasyMock.isA(String.class)))
+                .andReturn(spaceProps)
+                .anyTimes();
+
         EasyMock.replay(provider);
         return provider;
     }
@@ -59,10 +59,10 @@ public class GetHlsSignedCookiesUrlTaskRunnerTest extends HlsTaskRunnerTestBase
     @Test
     public void testPerformTaskNoDistributionDomain() {
         // Setup mocks
-        EasyMock.expect(unwrappedS3Provider.getBucketName(EasyMock.isA(String.class)))
+        EasyMock.expect(unwrappedS3Provider.getKnownBucketName(EasyMock.isA(String.class)))
                 .andReturn(bucketName);
 
-        EasyMock.expect(s3Provider.getSpaceProperties(spaceId))
+        EasyMock.expect(unwrappedS3Provider.getSpaceProperties(spaceId))
                 .andReturn(new HashMap<>());
 
         GetHlsSignedCookiesUrlTaskRunner runner =
@@ -99,12 +99,12 @@ public class GetHlsSignedCookiesUrlTaskRunnerTest extends HlsTaskRunnerTestBase
     @Test
     public void testPerformTaskNoDistribution() {
         // Setup mocks
-        EasyMock.expect(unwrappedS3Provider.getBucketName(EasyMock.isA(String.class)))
+        EasyMock.expect(unwrappedS3Provider.getKnownBucketName(EasyMock.isA(String.class)))
                 .andReturn(bucketName);
 
         Map<String, String> props = new HashMap<>();
         props.put(HLS_STREAMING_HOST_PROP, domainName);
-        EasyMock.expect(s3Provider.getSpaceProperties(spaceId))
+        EasyMock.expect(unwrappedS3Provider.getSpaceProperties(spaceId))
                 .andReturn(props);
 
         // Empty distribution list
@@ -139,12 +139,12 @@ public class GetHlsSignedCookiesUrlTaskRunnerTest extends HlsTaskRunnerTestBase
     @Test
     public void testPerformTaskSuccess() {
         // Setup mocks
-        EasyMock.expect(unwrappedS3Provider.getBucketName(EasyMock.isA(String.class)))
+        EasyMock.expect(unwrappedS3Provider.getKnownBucketName(EasyMock.isA(String.class)))
                 .andReturn(bucketName);
 
         Map<String, String> props = new HashMap<>();
         props.put(HLS_STREAMING_HOST_PROP, domainName);
-        EasyMock.expect(s3Provider.getSpaceProperties(spaceId))
+        EasyMock.expect(unwrappedS3Provider.getSpaceProperties(spaceId))
                 .andReturn(props);
 
         cfClientExpectValidDistribution(cfClient);
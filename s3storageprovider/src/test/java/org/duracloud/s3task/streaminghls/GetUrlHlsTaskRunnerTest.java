@@ -47,10 +47,10 @@ public class GetUrlHlsTaskRunnerTest extends HlsTaskRunnerTestBase {
     @Test
     public void testPerformTaskNoDistributionDomain() {
         // Setup mocks
-        EasyMock.expect(unwrappedS3Provider.getBucketName(EasyMock.isA(String.class)))
+        EasyMock.expect(unwrappedS3Provider.getKnownBucketName(EasyMock.isA(String.class)))
                 .andReturn(bucketName);
 
-        EasyMock.expect(s3Provider.getSpaceProperties(spaceId))
+        EasyMock.expect(unwrappedS3Provider.getSpaceProperties(spaceId))
                 .andReturn(new HashMap<>());
 
         GetUrlHlsTaskRunner runner =
@@ -87,12 +87,12 @@ public class GetUrlHlsTaskRunnerTest extends HlsTaskRunnerTestBase {
     @Test
     public void testPerformTaskNoDistribution() {
         // Setup mocks
-        EasyMock.expect(unwrappedS3Provider.getBucketName(EasyMock.isA(String.class)))
+        EasyMock.expect(unwrappedS3Provider.getKnownBucketName(EasyMock.isA(String.class)))
                 .andReturn(bucketName);
 
         Map<String, String> props = new HashMap<>();
         props.put(HLS_STREAMING_HOST_PROP, domainName);
-        EasyMock.expect(s3Provider.getSpaceProperties(spaceId))
+        EasyMock.expect(unwrappedS3Provider.getSpaceProperties(spaceId))
                 .andReturn(props);
 
         // Empty distribution list
@@ -127,12 +127,12 @@ public class GetUrlHlsTaskRunnerTest extends HlsTaskRunnerTestBase {
     @Test
     public void testPerformTaskSuccess() {
         // Setup mocks
-        EasyMock.expect(unwrappedS3Provider.getBucketName(EasyMock.isA(String.class)))
+        EasyMock.expect(unwrappedS3Provider.getKnownBucketName(EasyMock.isA(String.class)))
                 .andReturn(bucketName);
 
         Map<String, String> props = new HashMap<>();
         props.put(HLS_STREAMING_HOST_PROP, domainName);
-        EasyMock.expect(s3Provider.getSpaceProperties(spaceId))
+        EasyMock.expect(unwrappedS3Provider.getSpaceProperties(spaceId))
                 .andReturn(props);
 
         cfClientExpectValidDistribution(cfClient);
@@ -0,0 +1,269 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+
+/**
+ * A short-lived cache of successful authentications, so that clients which
+ * send Basic auth credentials with every request do not cause the user
+ * details to be loaded and the password to be hashed for every request.
+ *
+ * Entries are held per account, user and client IP address. Credentials are
+ * never held; each entry holds an HMAC of the account, user, credentials and
+ * client IP address, computed with a key generated when the cache is
+ * created, which is compared in constant time with the HMAC of the
+ * presented credentials. Failed authentications are never cached.
+ *
+ * As with the other account caches, invalidating an account increments its
+ * generation, and a key captures the generation before the user details
+ * are loaded, so an authentication made while the users of an account
+ * changed is never cached.
+ */
+public class AuthenticationCache {
+
+    private final Logger log =
+        LoggerFactory.getLogger(AuthenticationCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final long DEFAULT_MAX_AGE_MILLIS = 30000;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final char SEPARATOR = '\u0000';
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final SecretKeySpec hmacKey;
+    private final int maxEntries;
+    private final long maxAgeNanos;
+
+    public AuthenticationCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * @param maxEntries   maximum number of cached authentications
+     * @param maxAgeMillis time for which an authentication is cached
+     */
+    public AuthenticationCache(int maxEntries, long maxAgeMillis) {
+        this.maxEntries = maxEntries;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.hmacKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Creates the key for an authentication request. The key must be
+     * created before the user details are loaded to authenticate the user.
+     *
+     * @param accountId   ID of the account
+     * @param username    name of the user
+     * @param credentials credentials presented by the user
+     * @param clientIp    IP address of the client, may be null
+     * @return key for the authentication
+     */
+    public Key createKey(String accountId,
+                         String username,
+                         String credentials,
+                         String clientIp) {
+        byte[] hmac = hmac(accountId, username, credentials, clientIp);
+        return new Key(accountId, username, clientIp, hmac,
+                       globalGeneration.get(), getGeneration(accountId));
+    }
+
+    /**
+     * @param key key of the authentication request
+     * @return the authentication made recently using the same credentials,
+     * or null if the request must be authenticated
+     */
+    public Authentication get(Key key) {
+        Entry entry = entries.get(key);
+        if (null == entry) {
+            return null;
+        }
+        if (!isValid(entry, System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        if (!MessageDigest.isEqual(entry.key.hmac, key.hmac)) {
+            return null;
+        }
+        return entry.authentication;
+    }
+
+    /**
+     * Records a successful authentication.
+     *
+     * @param key            key created before the user was authenticated
+     * @param authentication the successful authentication
+     */
+    public void put(Key key, Authentication authentication) {
+        Entry entry = new Entry(key, authentication);
+        if (!isValid(entry, entry.created)) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            removeExpired();
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, entry);
+    }
+
+    /**
+     * Invalidates all authentications for an account, such as when its users
+     * are changed.
+     *
+     * @param accountId ID of the account
+     */
+    public void invalidateAccount(String accountId) {
+        if (null == accountId) {
+            invalidateAll();
+            return;
+        }
+        log.debug("Invalidating cached authentications for account {}",
+                  accountId);
+        generations.merge(accountId, 1L, Long::sum);
+    }
+
+    /**
+     * Invalidates all authentications for all accounts.
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all cached authentications");
+        globalGeneration.incrementAndGet();
+        entries.clear();
+    }
+
+    private byte[] hmac(String accountId,
+                        String username,
+                        String credentials,
+                        String clientIp) {
+        StringBuilder value = new StringBuilder();
+        value.append(accountId).append(SEPARATOR)
+             .append(username).append(SEPARATOR)
+             .append(credentials).append(SEPARATOR)
+             .append(clientIp);
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac.doFinal(value.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to compute " + HMAC_ALGORITHM + ": " + e.getMessage(), e);
+        }
+    }
+
+    private long getGeneration(String accountId) {
+        Long generation = generations.get(accountId);
+        return null == generation ? 0 : generation;
+    }
+
+    private boolean isValid(Entry entry, long now) {
+        Key key = entry.key;
+        return now - entry.created < maxAgeNanos &&
+               key.globalGeneration == globalGeneration.get() &&
+               key.accountGeneration == getGeneration(key.accountId);
+    }
+
+    private void removeExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry> values = entries.values().iterator();
+        while (values.hasNext()) {
+            if (!isValid(values.next(), now)) {
+                values.remove();
+            }
+        }
+    }
+
+    /**
+     * Identifies the cached authentication of a user from a client. The
+     * HMAC of the credentials and the generations captured when the key was
+     * created are not part of its identity.
+     */
+    public static class Key {
+        private final String accountId;
+        private final String username;
+        private final String clientIp;
+        private final byte[] hmac;
+        private final long globalGeneration;
+        private final long accountGeneration;
+        private final int hash;
+
+        private Key(String accountId,
+                    String username,
+                    String clientIp,
+                    byte[] hmac,
+                    long globalGeneration,
+                    long accountGeneration) {
+            this.accountId = accountId;
+            this.username = username;
+            this.clientIp = clientIp;
+            this.hmac = hmac;
+            this.globalGeneration = globalGeneration;
+            this.accountGeneration = accountGeneration;
+            this.hash = Objects.hash(accountId, username, clientIp);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash &&
+                   Objects.equals(accountId, other.accountId) &&
+                   Objects.equals(username, other.username) &&
+                   Objects.equals(clientIp, other.clientIp);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cached authentication, which holds the key it was added under so
+     * that the credentials and generations can be checked.
+     */
+    private static class Entry {
+        private final Key key;
+        private final Authentication authentication;
+        private final long created = System.nanoTime();
+
+        private Entry(Key key, Authentication authentication) {
+            this.key = key;
+            this.authentication = authentication;
+        }
+    }
+
+}
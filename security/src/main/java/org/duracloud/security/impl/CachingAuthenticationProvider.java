@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.impl;
+
+import org.duracloud.common.rest.DuraCloudRequestContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Authentication provider which reuses recent successful authentications
+ * of the wrapped provider, so that a user who presents the same username
+ * and password from the same client IP address is not authenticated in
+ * full for every request.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final Logger log =
+        LoggerFactory.getLogger(CachingAuthenticationProvider.class);
+
+    private AuthenticationProvider authProvider;
+    private AuthenticationCache authCache;
+    private DuraCloudRequestContextUtil accountIdUtil =
+        new DuraCloudRequestContextUtil();
+
+    public CachingAuthenticationProvider(AuthenticationProvider authProvider,
+                                         AuthenticationCache authCache) {
+        this.authProvider = authProvider;
+        this.authCache = authCache;
+    }
+
+    public void setAccountIdUtil(DuraCloudRequestContextUtil accountIdUtil) {
+        this.accountIdUtil = accountIdUtil;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication)
+        throws AuthenticationException {
+        AuthenticationCache.Key key = getKey(authentication);
+        if (null == key) {
+            return authProvider.authenticate(authentication);
+        }
+
+        Authentication cached = authCache.get(key);
+        if (null != cached) {
+            log.debug("Using cached authentication for user {}",
+                      authentication.getName());
+            // Carries the details of this request, not the cached one
+            UsernamePasswordAuthenticationToken result =
+                new UsernamePasswordAuthenticationToken(cached.getPrincipal(),
+                                                        authentication.getCredentials(),
+                                                        cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Authentication result = authProvider.authenticate(authentication);
+        if (null != result && result.isAuthenticated()) {
+            authCache.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return authProvider.supports(authentication);
+    }
+
+    /*
+     * @return the cache key, or null if the request cannot be cached
+     */
+    private AuthenticationCache.Key getKey(Authentication authentication) {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken) ||
+            !(authentication.getCredentials() instanceof String)) {
+            return null;
+        }
+
+        String accountId;
+        try {
+            accountId = accountIdUtil.getAccountId();
+        } catch (IllegalStateException e) {
+            // Not within a request
+            return null;
+        }
+        if (null == accountId) {
+            return null;
+        }
+
+        String clientIp = null;
+        Object details = authentication.getDetails();
+        if (details instanceof WebAuthenticationDetails) {
+            clientIp = ((WebAuthenticationDetails) details).getRemoteAddress();
+        }
+
+        return authCache.createKey(accountId,
+                                   authentication.getName(),
+                                   (String) authentication.getCredentials(),
+                                   clientIp);
+    }
+
+}
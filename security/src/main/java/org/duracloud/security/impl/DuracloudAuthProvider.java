@@ -8,6 +8,7 @@
 package org.duracloud.security.impl;
 
 import org.duracloud.security.DuracloudUserDetailsService;
+import org.duracloud.security.util.IpRangeMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
@@ -16,7 +17,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
-import org.springframework.security.web.util.matcher.IpAddressMatcher;
 
 /**
  * Authentication provider which allows default authentication behavior
@@ -45,29 +45,26 @@ public class DuracloudAuthProvider extends DaoAuthenticationProvider {
         super.additionalAuthenticationChecks(userDetails, authentication);
 
         DuracloudUserDetails dcUserDetails = (DuracloudUserDetails) userDetails;
-        String userIpLimits = dcUserDetails.getIpLimits();
+        IpRangeMatcher ipLimits = dcUserDetails.getIpRangeMatcher();
 
         // if user IP limits are set, check request IP
-        if (null != userIpLimits && !userIpLimits.equals("")) {
+        if (null != ipLimits && ipLimits.hasRanges()) {
             WebAuthenticationDetails details =
                 (WebAuthenticationDetails) authentication.getDetails();
             String requestIp = details.getRemoteAddress();
 
-            String[] ipLimits = userIpLimits.split(";");
-            for (String ipLimit : ipLimits) {
-                if (ipInRange(requestIp, ipLimit)) {
-                    // User's IP is within this range, grant access
-                    log.debug("Allowing authentication check to continue for user " +
-                              dcUserDetails.getUsername() + " because their IP " +
-                              requestIp + " exists in a valid range " + ipLimit);
-                    return;
-                }
+            if (ipLimits.matches(requestIp)) {
+                // User's IP is within a valid range, grant access
+                log.debug("Allowing authentication check to continue for user " +
+                          dcUserDetails.getUsername() + " because their IP " +
+                          requestIp + " exists in a valid range " + ipLimits);
+                return;
             }
 
             // There are IP limits, and none of them match the user's IP, deny
             log.debug("Denying authentication request for user " +
                       dcUserDetails.getUsername() + " because their IP " +
-                      requestIp + " does not match any valid ranges " + userIpLimits);
+                      requestIp + " does not match any valid ranges " + ipLimits);
             throw new InsufficientAuthenticationException(
                 "Originating IP for authentication request" + requestIp +
                 " is not in an accepted range.");
@@ -78,16 +75,4 @@ public class DuracloudAuthProvider extends DaoAuthenticationProvider {
         }
     }
 
-    /**
-     * Determines if a given IP address is in the given IP range.
-     *
-     * @param ipAddress single IP address
-     * @param range     IP address range using CIDR notation
-     * @return true if the address is in the range, false otherwise
-     */
-    protected boolean ipInRange(String ipAddress, String range) {
-        IpAddressMatcher addressMatcher = new IpAddressMatcher(range);
-        return addressMatcher.matches(ipAddress);
-    }
-
 }
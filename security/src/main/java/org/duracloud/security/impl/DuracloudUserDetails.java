@@ -10,6 +10,7 @@ package org.duracloud.security.impl;
 import java.util.Collection;
 import java.util.List;
 
+import org.duracloud.security.util.IpRangeMatcher;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,6 +23,7 @@ public class DuracloudUserDetails extends User implements UserDetails {
 
     private String email;
     private String ipLimits;
+    private IpRangeMatcher ipRangeMatcher;
     private List<String> groups;
 
     public DuracloudUserDetails(String username,
@@ -44,6 +46,7 @@ public class DuracloudUserDetails extends User implements UserDetails {
               authorities);
         this.email = email;
         this.ipLimits = ipLimits;
+        this.ipRangeMatcher = new IpRangeMatcher(ipLimits);
         this.groups = groups;
     }
 
@@ -55,6 +58,13 @@ public class DuracloudUserDetails extends User implements UserDetails {
         return ipLimits;
     }
 
+    /**
+     * @return matcher for the user's IP limits, built when the user is loaded
+     */
+    public IpRangeMatcher getIpRangeMatcher() {
+        return ipRangeMatcher;
+    }
+
     @Override
     public void eraseCredentials() {
         //The credentials are getting erased despite my using the
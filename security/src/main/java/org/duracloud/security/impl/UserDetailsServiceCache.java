@@ -29,6 +29,7 @@ import org.duracloud.security.domain.SecurityUserBean;
 public class UserDetailsServiceCache extends AbstractAccountComponentCache<DuracloudUserDetailsService> {
     private DuracloudAccountRepo accountRepo;
     private UserFinderUtil userFinderUtil;
+    private AuthenticationCache authenticationCache;
 
     public UserDetailsServiceCache(DuracloudAccountRepo accountRepo,
                                    UserFinderUtil userFinderUtil) {
@@ -37,6 +38,16 @@ public class UserDetailsServiceCache extends AbstractAccountComponentCache<Durac
         this.userFinderUtil = userFinderUtil;
     }
 
+    /**
+     * Sets the cache of successful authentications, which is invalidated
+     * along with the user details of each account.
+     *
+     * @param authenticationCache cache shared by all accounts
+     */
+    public void setAuthenticationCache(AuthenticationCache authenticationCache) {
+        this.authenticationCache = authenticationCache;
+    }
+
     @Override
     public void onEvent(AccountChangeEvent event) {
         String accountId = event.getAccountId();
@@ -45,9 +56,15 @@ public class UserDetailsServiceCache extends AbstractAccountComponentCache<Durac
             if (eventType.equals(EventType.USERS_CHANGED) ||
                 eventType.equals(EventType.ACCOUNT_CHANGED)) {
                 remove(accountId);
+                if (null != authenticationCache) {
+                    authenticationCache.invalidateAccount(accountId);
+                }
             }
         } else if (eventType.equals(EventType.ALL_ACCOUNTS_CHANGED)) {
             removeAll();
+            if (null != authenticationCache) {
+                authenticationCache.invalidateAll();
+            }
         }
     }
 
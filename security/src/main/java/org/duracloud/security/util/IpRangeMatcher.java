@@ -0,0 +1,277 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.util;
+
+import java.io.Serializable;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Determines if IP addresses fall within a set of IP ranges, given as a
+ * semicolon-separated list of IPv4 and/or IPv6 addresses in CIDR notation
+ * (the format of user IP limits). An address without a prefix length
+ * matches only itself.
+ *
+ * The ranges are parsed once, and held as sorted lists of non-overlapping
+ * address intervals, so that checking an address is a binary search rather
+ * than a parse of every range. Entries which cannot be parsed are logged
+ * and do not match any address.
+ */
+public class IpRangeMatcher implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger log =
+        LoggerFactory.getLogger(IpRangeMatcher.class);
+
+    private static final String RANGE_DELIM = ";";
+    private static final int IPV4_BITS = 32;
+    private static final int IPV6_BITS = 128;
+
+    // Dotted decimal IPv4, or IPv6 (which always includes a colon)
+    private static final Pattern IP_LITERAL =
+        Pattern.compile("[0-9.]+|[0-9a-fA-F.:]*:[0-9a-fA-F.:]*");
+
+    private final String ranges;
+    private final boolean limited;
+    private final Intervals ipv4;
+    private final Intervals ipv6;
+
+    /**
+     * @param ranges semicolon-separated list of IP ranges in CIDR notation,
+     *               may be null or empty if there are no ranges
+     */
+    public IpRangeMatcher(String ranges) {
+        this.ranges = ranges;
+        this.limited = null != ranges && !ranges.trim().isEmpty();
+
+        List<long[]> ipv4Ranges = new ArrayList<>();
+        List<long[]> ipv6Ranges = new ArrayList<>();
+        if (limited) {
+            for (String range : ranges.split(RANGE_DELIM)) {
+                range = range.trim();
+                if (range.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    addRange(range, ipv4Ranges, ipv6Ranges);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring invalid IP range {}: {}",
+                             range, e.getMessage());
+                }
+            }
+        }
+        this.ipv4 = new Intervals(ipv4Ranges);
+        this.ipv6 = new Intervals(ipv6Ranges);
+    }
+
+    /**
+     * @return true if any ranges were provided (whether or not they are
+     * valid), meaning that only addresses in those ranges should be accepted
+     */
+    public boolean hasRanges() {
+        return limited;
+    }
+
+    /**
+     * Determines if the given IP address is within any of the ranges.
+     *
+     * @param ipAddress single IP address
+     * @return true if the address is in a range, false otherwise (including
+     * when the address is not valid)
+     */
+    public boolean matches(String ipAddress) {
+        if (null == ipAddress || ipAddress.isEmpty()) {
+            return false;
+        }
+
+        InetAddress address = parseAddress(ipAddress);
+        if (null == address) {
+            return false;
+        }
+
+        long[] value = toValue(address.getAddress());
+        if (address instanceof Inet4Address) {
+            return ipv4.contains(value[0], value[1]);
+        }
+        return ipv6.contains(value[0], value[1]);
+    }
+
+    @Override
+    public String toString() {
+        return ranges;
+    }
+
+    private static void addRange(String range,
+                                 List<long[]> ipv4Ranges,
+                                 List<long[]> ipv6Ranges) {
+        String address = range;
+        int prefixLength = -1;
+        int slashIndex = range.indexOf('/');
+        if (slashIndex > -1) {
+            address = range.substring(0, slashIndex);
+            try {
+                prefixLength = Integer.parseInt(range.substring(slashIndex + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid prefix length");
+            }
+        }
+
+        InetAddress inetAddress = parseAddress(address);
+        if (null == inetAddress) {
+            throw new IllegalArgumentException("not an IP address");
+        }
+
+        boolean isIpv4 = inetAddress instanceof Inet4Address;
+        int addressBits = isIpv4 ? IPV4_BITS : IPV6_BITS;
+        if (prefixLength < 0) {
+            prefixLength = addressBits;
+        } else if (prefixLength > addressBits) {
+            throw new IllegalArgumentException(
+                "prefix length exceeds " + addressBits + " bits");
+        }
+
+        // Addresses are held as two longs (high and low 64 bits), with the
+        // host bits cleared for the start and set for the end of the range
+        long[] value = toValue(inetAddress.getAddress());
+        int hostBits = addressBits - prefixLength;
+        long highMask = hostMask(hostBits - 64);
+        long lowMask = hostMask(hostBits);
+        long[] interval = {value[0] & ~highMask, value[1] & ~lowMask,
+                           value[0] | highMask, value[1] | lowMask};
+        if (isIpv4) {
+            ipv4Ranges.add(interval);
+        } else {
+            ipv6Ranges.add(interval);
+        }
+    }
+
+    /*
+     * Parses an IP address, without ever looking up a host name
+     *
+     * @return the address, or null if the value is not an IP address
+     */
+    private static InetAddress parseAddress(String address) {
+        if (!IP_LITERAL.matcher(address).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /*
+     * A mask with the given number of low bits set
+     */
+    private static long hostMask(int bits) {
+        if (bits <= 0) {
+            return 0L;
+        } else if (bits >= 64) {
+            return -1L;
+        }
+        return (1L << bits) - 1;
+    }
+
+    /*
+     * Converts a 4 or 16 byte address to its high and low 64 bits
+     */
+    private static long[] toValue(byte[] bytes) {
+        long high = 0;
+        long low = 0;
+        int lowStart = Math.max(0, bytes.length - 8);
+        for (int i = 0; i < lowStart; i++) {
+            high = (high << 8) | (bytes[i] & 0xFF);
+        }
+        for (int i = lowStart; i < bytes.length; i++) {
+            low = (low << 8) | (bytes[i] & 0xFF);
+        }
+        return new long[] {high, low};
+    }
+
+    private static int compare(long high1, long low1, long high2, long low2) {
+        int result = Long.compareUnsigned(high1, high2);
+        return result != 0 ? result : Long.compareUnsigned(low1, low2);
+    }
+
+    /**
+     * Non-overlapping address intervals, sorted by start address
+     */
+    private static class Intervals implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] startHigh;
+        private final long[] startLow;
+        private final long[] endHigh;
+        private final long[] endLow;
+
+        /**
+         * @param ranges intervals as {startHigh, startLow, endHigh, endLow}
+         */
+        Intervals(List<long[]> ranges) {
+            ranges.sort((r1, r2) -> compare(r1[0], r1[1], r2[0], r2[1]));
+
+            // Merge overlapping intervals
+            List<long[]> merged = new ArrayList<>();
+            for (long[] range : ranges) {
+                long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (null != last &&
+                    compare(range[0], range[1], last[2], last[3]) <= 0) {
+                    if (compare(range[2], range[3], last[2], last[3]) > 0) {
+                        last[2] = range[2];
+                        last[3] = range[3];
+                    }
+                } else {
+                    merged.add(range.clone());
+                }
+            }
+
+            int size = merged.size();
+            startHigh = new long[size];
+            startLow = new long[size];
+            endHigh = new long[size];
+            endLow = new long[size];
+            for (int i = 0; i < size; i++) {
+                long[] range = merged.get(i);
+                startHigh[i] = range[0];
+                startLow[i] = range[1];
+                endHigh[i] = range[2];
+                endLow[i] = range[3];
+            }
+        }
+
+        boolean contains(long high, long low) {
+            // Find the last interval which starts at or before the address
+            int lowIndex = 0;
+            int highIndex = startHigh.length - 1;
+            int found = -1;
+            while (lowIndex <= highIndex) {
+                int mid = (lowIndex + highIndex) >>> 1;
+                if (compare(startHigh[mid], startLow[mid], high, low) <= 0) {
+                    found = mid;
+                    lowIndex = mid + 1;
+                } else {
+                    highIndex = mid - 1;
+                }
+            }
+            return found > -1 &&
+                   compare(high, low, endHigh[found], endLow[found]) <= 0;
+        }
+    }
+
+}
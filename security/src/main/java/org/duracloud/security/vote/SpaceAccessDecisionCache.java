@@ -0,0 +1,239 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.vote;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A short-lived cache of space access granted by ACLs, so that a burst of
+ * requests by a user against a space does not evaluate the space ACLs for
+ * every request. Only grants are cached; a request which is not granted by
+ * the ACLs is always evaluated in full.
+ *
+ * Decisions are keyed by account, user, user groups, store, space and
+ * whether read or write access was requested. As with the metadata cache,
+ * invalidating an account increments its generation rather than locating
+ * and removing its entries, and a key captures the generation before the
+ * ACLs are read, so a grant evaluated while the ACLs changed is never
+ * cached. Entries expire after a few seconds, which limits how long a
+ * missed notification from another node can leave a grant in place.
+ */
+public class SpaceAccessDecisionCache {
+
+    private final Logger log =
+        LoggerFactory.getLogger(SpaceAccessDecisionCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final long DEFAULT_MAX_AGE_MILLIS = 5000;
+
+    private final Map<Key, Grant> grants = new ConcurrentHashMap<>();
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final int maxEntries;
+    private final long maxAgeNanos;
+
+    public SpaceAccessDecisionCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * @param maxEntries   maximum number of cached grants
+     * @param maxAgeMillis time for which a grant is cached
+     */
+    public SpaceAccessDecisionCache(int maxEntries, long maxAgeMillis) {
+        this.maxEntries = maxEntries;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    }
+
+    /**
+     * Creates the key for an access decision. The key must be created before
+     * the space ACLs are read to make the decision.
+     *
+     * @param accountId ID of the account
+     * @param username  name of the user requesting access
+     * @param groups    groups of the user, may be null
+     * @param storeId   ID of the store, may be null for the primary store
+     * @param spaceId   ID of the space
+     * @param write     true if write access is requested, false for read
+     * @return key for the decision
+     */
+    public Key createKey(String accountId,
+                         String username,
+                         List<String> groups,
+                         String storeId,
+                         String spaceId,
+                         boolean write) {
+        return new Key(accountId, username, groups, storeId, spaceId, write,
+                       globalGeneration.get(), getGeneration(accountId));
+    }
+
+    /**
+     * @param key key of the decision
+     * @return true if access was granted recently, false if the decision
+     * must be evaluated
+     */
+    public boolean isGranted(Key key) {
+        Grant grant = grants.get(key);
+        if (null == grant) {
+            return false;
+        }
+        if (!isValid(grant, System.nanoTime())) {
+            grants.remove(key, grant);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records that access was granted for the key.
+     *
+     * @param key key created before the decision was evaluated
+     */
+    public void grant(Key key) {
+        Grant grant = new Grant(key);
+        if (!isValid(grant, grant.created)) {
+            return;
+        }
+        if (grants.size() >= maxEntries) {
+            removeExpired();
+            if (grants.size() >= maxEntries) {
+                grants.clear();
+            }
+        }
+        grants.put(key, grant);
+    }
+
+    /**
+     * Invalidates all decisions for an account, such as when space ACLs
+     * in the account are changed.
+     *
+     * @param accountId ID of the account
+     */
+    public void invalidateAccount(String accountId) {
+        if (null == accountId) {
+            invalidateAll();
+            return;
+        }
+        log.debug("Invalidating cached access decisions for account {}",
+                  accountId);
+        generations.merge(accountId, 1L, Long::sum);
+    }
+
+    /**
+     * Invalidates all decisions for all accounts.
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all cached access decisions");
+        globalGeneration.incrementAndGet();
+        grants.clear();
+    }
+
+    private long getGeneration(String accountId) {
+        Long generation = generations.get(accountId);
+        return null == generation ? 0 : generation;
+    }
+
+    private boolean isValid(Grant grant, long now) {
+        Key key = grant.key;
+        return now - grant.created < maxAgeNanos &&
+               key.globalGeneration == globalGeneration.get() &&
+               key.accountGeneration == getGeneration(key.accountId);
+    }
+
+    private void removeExpired() {
+        long now = System.nanoTime();
+        Iterator<Grant> entries = grants.values().iterator();
+        while (entries.hasNext()) {
+            if (!isValid(entries.next(), now)) {
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Identifies an access decision. The generations captured when the key
+     * was created are not part of its identity.
+     */
+    public static class Key {
+        private final String accountId;
+        private final String username;
+        private final List<String> groups;
+        private final String storeId;
+        private final String spaceId;
+        private final boolean write;
+        private final long globalGeneration;
+        private final long accountGeneration;
+        private final int hash;
+
+        private Key(String accountId,
+                    String username,
+                    List<String> groups,
+                    String storeId,
+                    String spaceId,
+                    boolean write,
+                    long globalGeneration,
+                    long accountGeneration) {
+            this.accountId = accountId;
+            this.username = username;
+            this.groups = groups;
+            this.storeId = storeId;
+            this.spaceId = spaceId;
+            this.write = write;
+            this.globalGeneration = globalGeneration;
+            this.accountGeneration = accountGeneration;
+            this.hash = Objects.hash(accountId, username, groups, storeId,
+                                     spaceId, write);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash &&
+                   write == other.write &&
+                   Objects.equals(accountId, other.accountId) &&
+                   Objects.equals(username, other.username) &&
+                   Objects.equals(spaceId, other.spaceId) &&
+                   Objects.equals(storeId, other.storeId) &&
+                   Objects.equals(groups, other.groups);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cached grant, which holds the key it was added under so that the
+     * generations it was evaluated under can be checked.
+     */
+    private static class Grant {
+        private final Key key;
+        private final long created = System.nanoTime();
+
+        private Grant(Key key) {
+            this.key = key;
+        }
+    }
+
+}
@@ -39,8 +39,11 @@ public abstract class SpaceAccessVoter implements AccessDecisionVoter {
     private UserDetailsService userDetailsService;
     private AuthorizationHelper authHelper;
     private StorageProviderFactory storageProviderFactory;
+    private SpaceAccessDecisionCache decisionCache;
     private static String[] EXCEPTIONAL_PATH_PREFIXES =
         {"/manifest/", "/bit-integrity/", "/report/space/"};
+    private static final String CONTENTS_PROPERTIES_PARAM = "properties";
+    private static final String CONTENTS_PROPERTIES_GET = "get";
 
     public SpaceAccessVoter(StorageProviderFactory storageProviderFactory,
                             UserDetailsService userDetailsService) {
@@ -49,6 +52,69 @@ public abstract class SpaceAccessVoter implements AccessDecisionVoter {
         this.authHelper = new AuthorizationHelper(storageProviderFactory);
     }
 
+    /**
+     * Enables caching of access granted by space ACLs.
+     *
+     * @param decisionCache cache shared by the space access voters
+     */
+    public void setDecisionCache(SpaceAccessDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Creates the key under which access to the requested space, as granted
+     * by the space ACLs, is cached. This must be called before the ACLs are
+     * read.
+     *
+     * @param auth    principal seeking access
+     * @param request containing spaceId and storeId
+     * @param write   true if write access is being checked, false for read
+     * @return key, or null if decisions are not cached for the request
+     */
+    protected SpaceAccessDecisionCache.Key getDecisionKey(Authentication auth,
+                                                          HttpServletRequest request,
+                                                          boolean write) {
+        if (null == decisionCache) {
+            return null;
+        }
+
+        Object accountId = request.getAttribute(Constants.ACCOUNT_ID_ATTRIBUTE);
+        if (!(accountId instanceof String)) {
+            return null;
+        }
+
+        List<String> groups = null;
+        Object principal = auth.getPrincipal();
+        if (principal instanceof DuracloudUserDetails) {
+            groups = ((DuracloudUserDetails) principal).getGroups();
+        }
+        return decisionCache.createKey((String) accountId,
+                                       auth.getName(),
+                                       groups,
+                                       getStoreId(request),
+                                       getSpaceId(request),
+                                       write);
+    }
+
+    /**
+     * @param key decision key, may be null
+     * @return true if access was recently granted by the space ACLs
+     */
+    protected boolean isGrantCached(SpaceAccessDecisionCache.Key key) {
+        return null != key && decisionCache.isGranted(key);
+    }
+
+    /**
+     * Records that access was granted by the space ACLs.
+     *
+     * @param key decision key, may be null
+     */
+    protected void cacheGrant(SpaceAccessDecisionCache.Key key) {
+        if (null != key) {
+            decisionCache.grant(key);
+        }
+    }
+
     protected boolean isOpenResource(HttpServletRequest httpRequest) {
         String spaceId = getSpaceId(httpRequest);
         if (null == spaceId) {
@@ -159,6 +225,39 @@ public abstract class SpaceAccessVoter implements AccessDecisionVoter {
         }
     }
 
+    /**
+     * Determines if a request only reads from storage. Retrieving the
+     * properties of multiple content items is a read, even though it is
+     * made using POST so that the content IDs can be included in the body.
+     */
+    protected boolean isReadRequest(HttpServletRequest httpRequest,
+                                    HttpVerb verb) {
+        if (verb.isRead()) {
+            return true;
+        }
+        return HttpVerb.POST.equals(verb) && !hasContentId(httpRequest) &&
+               isContentsPropertiesRetrieval(
+                   httpRequest.getParameterValues(CONTENTS_PROPERTIES_PARAM));
+    }
+
+    /*
+     * The values are decoded by the container, as they are for the REST API.
+     * Every value of the parameter must request retrieval, so that a request
+     * which also asks for an update (however it is encoded) is not voted a
+     * read.
+     */
+    private boolean isContentsPropertiesRetrieval(String[] values) {
+        if (null == values || values.length == 0) {
+            return false;
+        }
+        for (String value : values) {
+            if (!CONTENTS_PROPERTIES_GET.equals(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected List<String> getUserGroups(Authentication auth) {
         DuracloudUserDetails userDetails =
             (DuracloudUserDetails) auth.getPrincipal();
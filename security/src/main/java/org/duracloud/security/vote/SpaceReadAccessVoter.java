@@ -93,8 +93,8 @@ public class SpaceReadAccessVoter extends SpaceAccessVoter {
             return ACCESS_DENIED;
         }
 
-        // This class only handles HTTP read verbs.
-        if (!verb.isRead()) {
+        // This class only handles HTTP read verbs, and reads made using POST.
+        if (!isReadRequest(httpRequest, verb)) {
             log.debug(debugText(label, auth, config, resource, ACCESS_ABSTAIN));
             return ACCESS_ABSTAIN;
         }
@@ -110,9 +110,17 @@ public class SpaceReadAccessVoter extends SpaceAccessVoter {
             return ACCESS_GRANTED;
         }
 
+        SpaceAccessDecisionCache.Key decisionKey =
+            getDecisionKey(auth, httpRequest, false);
+        if (isGrantCached(decisionKey)) {
+            log.debug(debugText(label, auth, config, resource, ACCESS_GRANTED));
+            return ACCESS_GRANTED;
+        }
+
         Map<String, AclType> acls = getSpaceACLs(httpRequest);
         // All READs on PUBLIC spaces are granted.
         if (acls.containsKey(StorageProvider.PROPERTIES_SPACE_ACL_PUBLIC)) {
+            cacheGrant(decisionKey);
             log.debug(debugText(label, auth, config, resource, ACCESS_GRANTED));
             return ACCESS_GRANTED;
         }
@@ -125,12 +133,14 @@ public class SpaceReadAccessVoter extends SpaceAccessVoter {
 
         String username = auth.getName();
         if (hasReadAccess(username, acls)) {
+            cacheGrant(decisionKey);
             log.debug(debugText(label, auth, config, resource, ACCESS_GRANTED));
             return ACCESS_GRANTED;
         }
 
         List<String> userGroups = getUserGroups(auth);
         if (groupsHaveReadAccess(userGroups, acls)) {
+            cacheGrant(decisionKey);
             log.debug(debugText(label, auth, config, resource, ACCESS_GRANTED));
             return ACCESS_GRANTED;
         }
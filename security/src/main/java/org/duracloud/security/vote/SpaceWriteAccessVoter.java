@@ -78,8 +78,9 @@ public class SpaceWriteAccessVoter extends SpaceAccessVoter {
             return ACCESS_DENIED;
         }
 
-        // This class only handles HTTP write verbs.
-        if (verb.isRead()) {
+        // This class only handles HTTP write verbs, other than reads made
+        // using POST.
+        if (isReadRequest(httpRequest, verb)) {
             log.debug(debugText(label, auth, config, resource, ACCESS_ABSTAIN));
             return ACCESS_ABSTAIN;
         }
@@ -139,14 +140,23 @@ public class SpaceWriteAccessVoter extends SpaceAccessVoter {
             return ACCESS_DENIED;
         }
 
+        SpaceAccessDecisionCache.Key decisionKey =
+            getDecisionKey(auth, httpRequest, true);
+        if (isGrantCached(decisionKey)) {
+            log.debug(debugText(label, auth, config, resource, ACCESS_GRANTED));
+            return ACCESS_GRANTED;
+        }
+
         Map<String, AclType> acls = getSpaceACLs(httpRequest);
         if (hasWriteAccess(auth.getName(), acls)) {
+            cacheGrant(decisionKey);
             log.debug(debugText(label, auth, config, resource, ACCESS_GRANTED));
             return ACCESS_GRANTED;
         }
 
         List<String> userGroups = getUserGroups(auth);
         if (groupsHaveWriteAccess(userGroups, acls)) {
+            cacheGrant(decisionKey);
             log.debug(debugText(label, auth, config, resource, ACCESS_GRANTED));
             return ACCESS_GRANTED;
         }
@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.rest.DuraCloudRequestContextUtil;
+import org.duracloud.security.domain.SecurityUserBean;
+import org.easymock.EasyMock;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authentication.encoding.ShaPasswordEncoder;
+
+/**
+ * Compares authenticating repeated Basic auth requests through the
+ * authentication manager configured for DuraStore (a password encoding
+ * provider, followed by a plain provider) with and without caching of
+ * successful authentications.
+ *
+ * 20,000 requests are authenticated only when the security.benchmark.large
+ * system property is set to true, as it takes some time to run; 2,000
+ * requests are authenticated otherwise.
+ */
+public class AuthenticationCacheBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(AuthenticationCacheBenchmarkTest.class);
+
+    private static final int userCount = 20;
+    private static final int requestCount =
+        Boolean.getBoolean("security.benchmark.large") ? 20000 : 2000;
+
+    @Test
+    public void testAuthenticateBenchmark() {
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ShaPasswordEncoder encoder = new ShaPasswordEncoder(256);
+        List<SecurityUserBean> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add(new SecurityUserBean("user-" + i,
+                                           encoder.encodePassword("pass-" + i, null),
+                                           "user-" + i + "@example.com",
+                                           "",
+                                           true,
+                                           true,
+                                           true,
+                                           true,
+                                           Arrays.asList("ROLE_USER"),
+                                           new ArrayList<>()));
+        }
+        userDetailsService.setUsers(users);
+
+        DuraCloudRequestContextUtil contextUtil =
+            EasyMock.createMock(DuraCloudRequestContextUtil.class);
+        EasyMock.expect(contextUtil.getAccountId())
+                .andReturn("account")
+                .anyTimes();
+        EasyMock.replay(contextUtil);
+
+        AuthenticationManager uncached =
+            createManager(userDetailsService, encoder, null, contextUtil);
+        AuthenticationManager cached =
+            createManager(userDetailsService, encoder,
+                          new AuthenticationCache(), contextUtil);
+
+        long uncachedMicros = authenticate(uncached);
+        long cachedMicros = authenticate(cached);
+
+        log.info("Authenticated {} requests from {} users: uncached {} us, " +
+                 "cached {} us", requestCount, userCount, uncachedMicros,
+                 cachedMicros);
+    }
+
+    private AuthenticationManager createManager(UserDetailsServiceImpl userDetailsService,
+                                                ShaPasswordEncoder encoder,
+                                                AuthenticationCache authCache,
+                                                DuraCloudRequestContextUtil contextUtil) {
+        DaoAuthenticationProvider encodedProvider = new DaoAuthenticationProvider();
+        encodedProvider.setUserDetailsService(userDetailsService);
+        encodedProvider.setPasswordEncoder(encoder);
+        DaoAuthenticationProvider plainProvider = new DaoAuthenticationProvider();
+        plainProvider.setUserDetailsService(userDetailsService);
+
+        List<AuthenticationProvider> providers = new ArrayList<>();
+        if (null == authCache) {
+            providers.add(encodedProvider);
+            providers.add(plainProvider);
+        } else {
+            for (AuthenticationProvider provider :
+                Arrays.asList(encodedProvider, plainProvider)) {
+                CachingAuthenticationProvider cachingProvider =
+                    new CachingAuthenticationProvider(provider, authCache);
+                cachingProvider.setAccountIdUtil(contextUtil);
+                providers.add(cachingProvider);
+            }
+        }
+        ProviderManager manager = new ProviderManager(providers);
+        manager.setEraseCredentialsAfterAuthentication(false);
+        return manager;
+    }
+
+    private long authenticate(AuthenticationManager manager) {
+        int authenticated = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < requestCount; i++) {
+            int user = i % userCount;
+            UsernamePasswordAuthenticationToken request =
+                new UsernamePasswordAuthenticationToken("user-" + user,
+                                                        "pass-" + user);
+            if (manager.authenticate(request).isAuthenticated()) {
+                authenticated++;
+            }
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        assertEquals(requestCount, authenticated);
+        return elapsed;
+    }
+
+}
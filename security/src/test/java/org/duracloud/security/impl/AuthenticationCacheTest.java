@@ -0,0 +1,97 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.impl;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+public class AuthenticationCacheTest {
+
+    private final Authentication auth =
+        new UsernamePasswordAuthenticationToken("user", "pass", new ArrayList<>());
+
+    @Test
+    public void testGet() {
+        AuthenticationCache cache = new AuthenticationCache();
+        assertNull(cache.get(key(cache, "account", "user", "pass")));
+
+        cache.put(key(cache, "account", "user", "pass"), auth);
+        assertSame(auth, cache.get(key(cache, "account", "user", "pass")));
+
+        // A different password does not match, or replace the cached entry
+        assertNull(cache.get(key(cache, "account", "user", "wrong")));
+        assertSame(auth, cache.get(key(cache, "account", "user", "pass")));
+
+        // Each of account, user and client IP identifies a separate entry
+        assertNull(cache.get(key(cache, "other", "user", "pass")));
+        assertNull(cache.get(key(cache, "account", "other", "pass")));
+        assertNull(cache.get(cache.createKey("account", "user", "pass", "5.6.7.8")));
+        assertNull(cache.get(cache.createKey("account", "user", "pass", null)));
+    }
+
+    @Test
+    public void testInvalidateAccount() {
+        AuthenticationCache cache = new AuthenticationCache();
+        cache.put(key(cache, "account", "user", "pass"), auth);
+        cache.put(key(cache, "other", "user", "pass"), auth);
+
+        cache.invalidateAccount("account");
+        assertNull(cache.get(key(cache, "account", "user", "pass")));
+        assertSame(auth, cache.get(key(cache, "other", "user", "pass")));
+
+        cache.invalidateAll();
+        assertNull(cache.get(key(cache, "other", "user", "pass")));
+    }
+
+    @Test
+    public void testAuthenticatedDuringInvalidation() {
+        AuthenticationCache cache = new AuthenticationCache();
+
+        // The key is created before the user details are loaded, and the
+        // users change before authentication completes
+        AuthenticationCache.Key key = key(cache, "account", "user", "pass");
+        cache.invalidateAccount("account");
+        cache.put(key, auth);
+        assertNull(cache.get(key(cache, "account", "user", "pass")));
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        AuthenticationCache cache = new AuthenticationCache(10, 50);
+        cache.put(key(cache, "account", "user", "pass"), auth);
+        assertSame(auth, cache.get(key(cache, "account", "user", "pass")));
+
+        Thread.sleep(100);
+        assertNull(cache.get(key(cache, "account", "user", "pass")));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        AuthenticationCache cache = new AuthenticationCache(2, 60000);
+        cache.put(key(cache, "account", "user-1", "pass"), auth);
+        cache.put(key(cache, "account", "user-2", "pass"), auth);
+        cache.put(key(cache, "account", "user-3", "pass"), auth);
+
+        assertSame(auth, cache.get(key(cache, "account", "user-3", "pass")));
+        assertNull(cache.get(key(cache, "account", "user-1", "pass")));
+    }
+
+    private AuthenticationCache.Key key(AuthenticationCache cache,
+                                        String accountId,
+                                        String username,
+                                        String password) {
+        return cache.createKey(accountId, username, password, "1.2.3.4");
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+
+import org.duracloud.common.rest.DuraCloudRequestContextUtil;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+public class CachingAuthenticationProviderTest {
+
+    private AuthenticationProvider delegate;
+    private DuraCloudRequestContextUtil contextUtil;
+    private CachingAuthenticationProvider authProvider;
+
+    @Before
+    public void setUp() {
+        delegate = EasyMock.createMock(AuthenticationProvider.class);
+        contextUtil = EasyMock.createMock(DuraCloudRequestContextUtil.class);
+        EasyMock.expect(contextUtil.getAccountId())
+                .andReturn("account")
+                .anyTimes();
+
+        authProvider = new CachingAuthenticationProvider(delegate,
+                                                         new AuthenticationCache());
+        authProvider.setAccountIdUtil(contextUtil);
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(delegate, contextUtil);
+    }
+
+    @Test
+    public void testAuthenticateCached() {
+        Authentication result =
+            new UsernamePasswordAuthenticationToken("user", "pass", new ArrayList<>());
+        EasyMock.expect(delegate.authenticate(EasyMock.isA(Authentication.class)))
+                .andReturn(result)
+                .times(1);
+        EasyMock.replay(delegate, contextUtil);
+
+        assertSame(result, authProvider.authenticate(request("pass")));
+
+        // Later requests with the same credentials do not reach the delegate
+        Authentication cached = authProvider.authenticate(request("pass"));
+        assertEquals("user", cached.getPrincipal());
+        assertEquals(result.getAuthorities(), cached.getAuthorities());
+        assertTrue(cached.isAuthenticated());
+    }
+
+    @Test
+    public void testAuthenticateFailureNotCached() {
+        EasyMock.expect(delegate.authenticate(EasyMock.isA(Authentication.class)))
+                .andThrow(new BadCredentialsException("bad credentials"))
+                .times(2);
+        EasyMock.replay(delegate, contextUtil);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                authProvider.authenticate(request("wrong"));
+                fail("Exception expected");
+            } catch (BadCredentialsException e) {
+                assertEquals("bad credentials", e.getMessage());
+            }
+        }
+    }
+
+    private Authentication request(String password) {
+        return new UsernamePasswordAuthenticationToken("user", password);
+    }
+
+}
@@ -10,6 +10,7 @@ package org.duracloud.security.impl;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import org.duracloud.security.util.IpRangeMatcher;
 import org.easymock.EasyMock;
 import org.junit.Test;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
@@ -57,8 +58,8 @@ public class DuracloudAuthProviderTest {
                 .times(1);
 
         // Direct calls expected
-        EasyMock.expect(userDetails.getIpLimits())
-                .andReturn(ipLimits)
+        EasyMock.expect(userDetails.getIpRangeMatcher())
+                .andReturn(new IpRangeMatcher(ipLimits))
                 .times(1);
         EasyMock.expect(userDetails.getUsername())
                 .andReturn(username)
@@ -84,15 +85,35 @@ public class DuracloudAuthProviderTest {
     }
 
     @Test
-    public void testIpInRange() {
+    public void testNoIpRangeMatcher() {
         DuracloudAuthProvider authProvider =
             new DuracloudAuthProvider(null, new ShaPasswordEncoder(256));
 
-        assertTrue(authProvider.ipInRange("1.2.3.4", "1.1.1.1/0"));
-        assertTrue(authProvider.ipInRange("1.2.3.4", "1.2.3.4/32"));
-        assertTrue(authProvider.ipInRange("1.2.3.127", "1.2.3.4/25"));
+        String password = "pass";
+        String passwordHash = "d74ff0ee8da3b9806b18c877dbf29bbde50b5bd8e4dad7a3a725000feb82e8f1";
+
+        DuracloudUserDetails userDetails =
+            EasyMock.createMock(DuracloudUserDetails.class);
+        UsernamePasswordAuthenticationToken authToken =
+            EasyMock.createMock(UsernamePasswordAuthenticationToken.class);
+
+        EasyMock.expect(authToken.getCredentials())
+                .andReturn(password)
+                .times(2);
+        EasyMock.expect(userDetails.getPassword())
+                .andReturn(passwordHash)
+                .times(1);
+
+        // Users without a matcher have no IP limits
+        EasyMock.expect(userDetails.getIpRangeMatcher())
+                .andReturn(null)
+                .times(1);
+        EasyMock.expect(userDetails.getUsername())
+                .andReturn("user")
+                .times(1);
 
-        assertFalse(authProvider.ipInRange("1.2.2.2", "1.2.3.4/30"));
-        assertFalse(authProvider.ipInRange("1.2.3.5", "1.2.3.4/32"));
+        EasyMock.replay(userDetails, authToken);
+        authProvider.additionalAuthenticationChecks(userDetails, authToken);
+        EasyMock.verify(userDetails, authToken);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+/**
+ * Compares checking request addresses against a list of IP ranges by
+ * parsing each range for every request (as was done previously) with
+ * checking against a precompiled IpRangeMatcher.
+ *
+ * 2,000 requests are checked against 500 ranges only when the
+ * security.benchmark.large system property is set to true, as it takes some
+ * time to run; 200 requests are checked against 100 ranges otherwise.
+ */
+public class IpRangeMatcherBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(IpRangeMatcherBenchmarkTest.class);
+
+    private static final boolean large =
+        Boolean.getBoolean("security.benchmark.large");
+    private static final int rangeCount = large ? 500 : 100;
+    private static final int requestCount = large ? 2000 : 200;
+
+    @Test
+    public void testMatchBenchmark() {
+        Random random = new Random(42);
+        StringBuilder limits = new StringBuilder();
+        for (int i = 0; i < rangeCount; i++) {
+            if (i > 0) {
+                limits.append(";");
+            }
+            if (i % 5 == 0) {
+                limits.append("2001:db8:").append(Integer.toHexString(i))
+                      .append("::/48");
+            } else {
+                limits.append(randomIpv4(random)).append("/")
+                      .append(16 + random.nextInt(17));
+            }
+        }
+        String ipLimits = limits.toString();
+
+        String[] requestIps = new String[requestCount];
+        for (int i = 0; i < requestCount; i++) {
+            requestIps[i] = (i % 10 == 0) ? "2001:db8:a::" + i
+                                          : randomIpv4(random);
+        }
+
+        // Parse every range for each request
+        long start = System.nanoTime();
+        int parsedMatches = 0;
+        for (String requestIp : requestIps) {
+            for (String range : ipLimits.split(";")) {
+                if (new IpAddressMatcher(range).matches(requestIp)) {
+                    parsedMatches++;
+                    break;
+                }
+            }
+        }
+        long parsedMicros = elapsedMicros(start);
+
+        // Compile once, then search for each request
+        start = System.nanoTime();
+        IpRangeMatcher matcher = new IpRangeMatcher(ipLimits);
+        long compileMicros = elapsedMicros(start);
+        start = System.nanoTime();
+        int compiledMatches = 0;
+        for (String requestIp : requestIps) {
+            if (matcher.matches(requestIp)) {
+                compiledMatches++;
+            }
+        }
+        long compiledMicros = elapsedMicros(start);
+
+        assertEquals(parsedMatches, compiledMatches);
+        log.info("Checked {} requests against {} ranges: parsed per request " +
+                 "{} us, compiled {} us (plus {} us to compile)",
+                 requestCount, rangeCount, parsedMicros, compiledMicros,
+                 compileMicros);
+    }
+
+    private String randomIpv4(Random random) {
+        return random.nextInt(256) + "." + random.nextInt(256) + "." +
+               random.nextInt(256) + "." + random.nextInt(256);
+    }
+
+    private long elapsedMicros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IpRangeMatcherTest {
+
+    @Test
+    public void testNoRanges() {
+        assertFalse(new IpRangeMatcher(null).hasRanges());
+        assertFalse(new IpRangeMatcher("").hasRanges());
+        assertFalse(new IpRangeMatcher("").matches("1.2.3.4"));
+    }
+
+    @Test
+    public void testIpv4Ranges() {
+        IpRangeMatcher matcher =
+            new IpRangeMatcher("1.2.3.4/32;1.2.5.6/30;10.0.0.0/8;10.1.0.0/16");
+        assertTrue(matcher.hasRanges());
+
+        assertTrue(matcher.matches("1.2.3.4"));
+        assertTrue(matcher.matches("1.2.5.4"));
+        assertTrue(matcher.matches("1.2.5.7"));
+        assertTrue(matcher.matches("10.0.0.0"));
+        assertTrue(matcher.matches("10.1.2.3"));
+        assertTrue(matcher.matches("10.255.255.255"));
+
+        assertFalse(matcher.matches("1.2.3.5"));
+        assertFalse(matcher.matches("1.2.5.8"));
+        assertFalse(matcher.matches("9.255.255.255"));
+        assertFalse(matcher.matches("11.0.0.0"));
+        assertFalse(matcher.matches("::1"));
+        assertFalse(matcher.matches(null));
+        assertFalse(matcher.matches("not an address"));
+
+        // Host bits of the range address are ignored
+        matcher = new IpRangeMatcher("1.2.3.4/25");
+        assertTrue(matcher.matches("1.2.3.0"));
+        assertTrue(matcher.matches("1.2.3.127"));
+        assertFalse(matcher.matches("1.2.3.128"));
+
+        matcher = new IpRangeMatcher("1.2.3.4/30");
+        assertTrue(matcher.matches("1.2.3.7"));
+        assertFalse(matcher.matches("1.2.2.2"));
+
+        matcher = new IpRangeMatcher("1.1.1.1/0");
+        assertTrue(matcher.matches("0.0.0.0"));
+        assertTrue(matcher.matches("255.255.255.255"));
+    }
+
+    @Test
+    public void testIpv6Ranges() {
+        IpRangeMatcher matcher =
+            new IpRangeMatcher("2001:db8::/32;fe80::1;2001:db8:0:0:8000::/65");
+
+        assertTrue(matcher.matches("2001:db8::1"));
+        assertTrue(matcher.matches("2001:db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertTrue(matcher.matches("fe80::1"));
+
+        assertFalse(matcher.matches("fe80::2"));
+        assertFalse(matcher.matches("2001:db9::"));
+        assertFalse(matcher.matches("1.2.3.4"));
+
+        // Ranges which split the low 64 bits
+        matcher = new IpRangeMatcher("2001:db8::8000:0:0:0/65");
+        assertTrue(matcher.matches("2001:db8::8000:0:0:1"));
+        assertTrue(matcher.matches("2001:db8::ffff:ffff:ffff:ffff"));
+        assertFalse(matcher.matches("2001:db8::7fff:ffff:ffff:ffff"));
+        assertFalse(matcher.matches("2001:db8:0:1::"));
+    }
+
+    @Test
+    public void testInvalidRanges() {
+        // Invalid entries are ignored, but still count as limits
+        IpRangeMatcher matcher = new IpRangeMatcher("1.2.3.4/33;;5.6.7.8/x");
+        assertTrue(matcher.hasRanges());
+        assertFalse(matcher.matches("1.2.3.4"));
+        assertFalse(matcher.matches("5.6.7.8"));
+
+        matcher = new IpRangeMatcher("1.2.3.4/33; 5.6.7.8 ");
+        assertTrue(matcher.matches("5.6.7.8"));
+    }
+
+}
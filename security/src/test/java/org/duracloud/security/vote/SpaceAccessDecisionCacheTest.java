@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.security.vote;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SpaceAccessDecisionCacheTest {
+
+    private final List<String> groups = Arrays.asList("group-a", "group-b");
+
+    @Test
+    public void testGrant() {
+        SpaceAccessDecisionCache cache = new SpaceAccessDecisionCache();
+        assertFalse(cache.isGranted(readKey(cache, "account", "user")));
+
+        cache.grant(readKey(cache, "account", "user"));
+        assertTrue(cache.isGranted(readKey(cache, "account", "user")));
+
+        // Each part of the key identifies a separate decision
+        assertFalse(cache.isGranted(readKey(cache, "account", "other")));
+        assertFalse(cache.isGranted(readKey(cache, "other", "user")));
+        assertFalse(cache.isGranted(
+            cache.createKey("account", "user", groups, "1", "space", true)));
+        assertFalse(cache.isGranted(
+            cache.createKey("account", "user", groups, "2", "space", false)));
+        assertFalse(cache.isGranted(
+            cache.createKey("account", "user", groups, "1", "other", false)));
+        assertFalse(cache.isGranted(cache.createKey(
+            "account", "user", Arrays.asList("group-a"), "1", "space", false)));
+    }
+
+    @Test
+    public void testInvalidateAccount() {
+        SpaceAccessDecisionCache cache = new SpaceAccessDecisionCache();
+        cache.grant(readKey(cache, "account", "user"));
+        cache.grant(readKey(cache, "other", "user"));
+
+        cache.invalidateAccount("account");
+        assertFalse(cache.isGranted(readKey(cache, "account", "user")));
+        assertTrue(cache.isGranted(readKey(cache, "other", "user")));
+
+        cache.invalidateAll();
+        assertFalse(cache.isGranted(readKey(cache, "other", "user")));
+    }
+
+    @Test
+    public void testGrantEvaluatedDuringInvalidation() {
+        SpaceAccessDecisionCache cache = new SpaceAccessDecisionCache();
+
+        // The key is created before ACLs are read, and the ACLs change
+        // before access is granted
+        SpaceAccessDecisionCache.Key key = readKey(cache, "account", "user");
+        cache.invalidateAccount("account");
+        cache.grant(key);
+        assertFalse(cache.isGranted(readKey(cache, "account", "user")));
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        SpaceAccessDecisionCache cache = new SpaceAccessDecisionCache(10, 50);
+        cache.grant(readKey(cache, "account", "user"));
+        assertTrue(cache.isGranted(readKey(cache, "account", "user")));
+
+        Thread.sleep(100);
+        assertFalse(cache.isGranted(readKey(cache, "account", "user")));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        SpaceAccessDecisionCache cache = new SpaceAccessDecisionCache(2, 60000);
+        cache.grant(readKey(cache, "account", "user-1"));
+        cache.grant(readKey(cache, "account", "user-2"));
+        cache.grant(readKey(cache, "account", "user-3"));
+
+        assertTrue(cache.isGranted(readKey(cache, "account", "user-3")));
+        assertFalse(cache.isGranted(readKey(cache, "account", "user-1")));
+    }
+
+    private SpaceAccessDecisionCache.Key readKey(SpaceAccessDecisionCache cache,
+                                                 String accountId,
+                                                 String username) {
+        return cache.createKey(accountId, username, groups, "1", "space", false);
+    }
+
+}
@@ -166,6 +166,24 @@ public class SpaceReadAccessVoterTest {
         Assert.assertEquals(ACCESS_DENIED, decision);
     }
 
+    @Test
+    public void testUserAccessCachedGET() {
+        voter.setDecisionCache(new SpaceAccessDecisionCache());
+        boolean securedSpace = true;
+        Authentication caller = registeredUser(userRead, "none");
+        createMockInvocation(caller, securedSpace, HttpVerb.GET, 2);
+        createMockInvocation(caller, securedSpace, HttpVerb.GET, 2);
+        expect(request.getAttribute(Constants.ACCOUNT_ID_ATTRIBUTE))
+            .andReturn("account-id").times(2);
+        Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
+        // ACLs are only read for the first request
+        setupGetSpaceAcls();
+        replayMocks();
+
+        Assert.assertEquals(ACCESS_GRANTED, voter.vote(caller, resource, config));
+        Assert.assertEquals(ACCESS_GRANTED, voter.vote(caller, resource, config));
+    }
+
     @Test
     public void testMethodsPUT() {
         boolean securedSpace = true;
@@ -179,6 +197,58 @@ public class SpaceReadAccessVoterTest {
         Assert.assertEquals(ACCESS_ABSTAIN, decision);
     }
 
+    @Test
+    public void testUserAccessContentsPropertiesPOST() {
+        boolean securedSpace = true;
+        Authentication caller = registeredUser(userRead, "none");
+        createMockContentsPropertiesInvocation("get");
+        Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
+        setupGetSpaceAcls();
+        replayMocks();
+
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(ACCESS_GRANTED, decision);
+    }
+
+    @Test
+    public void testUpdateContentsPropertiesPOST() {
+        boolean securedSpace = true;
+        Authentication caller = registeredUser(userRead, "none");
+        createMockContentsPropertiesInvocation("set");
+        Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
+        replayMocks();
+
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(ACCESS_ABSTAIN, decision);
+    }
+
+    @Test
+    public void testRepeatedContentsPropertiesPOST() {
+        boolean securedSpace = true;
+        Authentication caller = registeredUser(userRead, "none");
+        createMockContentsPropertiesInvocation("get", "get");
+        Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
+        setupGetSpaceAcls();
+        replayMocks();
+
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(ACCESS_GRANTED, decision);
+    }
+
+    @Test
+    public void testMixedContentsPropertiesPOST() {
+        boolean securedSpace = true;
+        Authentication caller = registeredUser(userRead, "none");
+        // As for ?propertie%73=set&properties=get, which the container
+        // decodes into two values of the same parameter
+        createMockContentsPropertiesInvocation("set", "get");
+        Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
+        replayMocks();
+
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(ACCESS_ABSTAIN, decision);
+    }
+
     @Test
     public void testVoteReservedResourcesOpenSpaces() {
         doTestVoteReservedResourcesOpen("spaces");
@@ -394,6 +464,19 @@ public class SpaceReadAccessVoterTest {
         return resource;
     }
 
+    /*
+     * The operations are the decoded values of the properties parameter, as
+     * returned by the container.
+     */
+    private FilterInvocation createMockContentsPropertiesInvocation(String... operations) {
+        expect(request.getMethod()).andReturn(HttpVerb.POST.name());
+        expect(request.getParameterValues("properties")).andReturn(operations);
+        expect(request.getQueryString()).andReturn("storeID=" + storeId).anyTimes();
+        expect(request.getPathInfo()).andReturn("/some-closed-space").atLeastOnce();
+        expect(resource.getHttpRequest()).andReturn(request);
+        return resource;
+    }
+
     private FilterInvocation createMockInvocation(String pathInfo,
                                                   HttpVerb method) {
         return createMockInvocation(pathInfo, method, 1);
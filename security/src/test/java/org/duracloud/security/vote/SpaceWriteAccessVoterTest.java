@@ -276,6 +276,7 @@ public class SpaceWriteAccessVoterTest {
 
         EasyMock.expect(resource.getHttpRequest()).andReturn(request);
         addGetQueryStringInvocation(1);
+        EasyMock.expect(request.getParameterValues("properties")).andReturn(null);
         Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
         StorageAccount account =
             new StorageAccountImpl(storeId,
@@ -295,6 +296,42 @@ public class SpaceWriteAccessVoterTest {
         Assert.assertEquals(expectedDecision, decision);
     }
 
+    @Test
+    public void testContentsPropertiesPOST() {
+        Authentication caller = registeredUser(LOGIN.USER_READ, "none");
+
+        EasyMock.expect(request.getPathInfo()).andReturn("/test").atLeastOnce();
+        EasyMock.expect(request.getMethod()).andReturn(HttpVerb.POST.name());
+        EasyMock.expect(request.getParameterValues("properties"))
+                .andReturn(new String[] {"get"});
+        EasyMock.expect(resource.getHttpRequest()).andReturn(request);
+        Collection<ConfigAttribute> config = getConfigAttribute(true);
+        replayMocks();
+
+        // Retrieving properties is left to the read voter
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(ACCESS_ABSTAIN, decision);
+    }
+
+    @Test
+    public void testMixedContentsPropertiesPOST() {
+        Authentication caller = anonymousUser();
+
+        EasyMock.expect(request.getPathInfo()).andReturn("/test").atLeastOnce();
+        EasyMock.expect(request.getMethod()).andReturn(HttpVerb.POST.name());
+        // As for ?propertie%73=set&properties=get, which the container
+        // decodes into two values of the same parameter
+        EasyMock.expect(request.getParameterValues("properties"))
+                .andReturn(new String[] {"set", "get"});
+        EasyMock.expect(resource.getHttpRequest()).andReturn(request);
+        Collection<ConfigAttribute> config = getConfigAttribute(true);
+        replayMocks();
+
+        // An update is voted on as a write, however it is encoded
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(ACCESS_DENIED, decision);
+    }
+
     @Test
     public void testSnapshotMetdataSpaceAdminNotDeletable() {
         LOGIN login = LOGIN.ADMIN;
@@ -497,6 +534,12 @@ public class SpaceWriteAccessVoterTest {
             EasyMock.expect(request.getQueryString()).andReturn(
                 "storeID=" + storeId + "&attachment=true");
             EasyMock.expect(request.getPathInfo()).andReturn(spaceId).atLeastOnce();
+        } else if (HttpVerb.POST.equals(method)) {
+            // POST requests to a space are checked for property retrievals
+            EasyMock.expect(request.getPathInfo()).andReturn(spaceId).atLeastOnce();
+        }
+        if (HttpVerb.POST.equals(method)) {
+            EasyMock.expect(request.getParameterValues("properties")).andReturn(null);
         }
 
         EasyMock.expect(request.getMethod()).andReturn(method.name()).times(
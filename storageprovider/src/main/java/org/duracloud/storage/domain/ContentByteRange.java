@@ -7,6 +7,10 @@
  */
 package org.duracloud.storage.domain;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -18,6 +22,8 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class ContentByteRange {
 
+    private static final String PREFIX = "bytes=";
+
     private Long rangeStart = null;
     private Long rangeEnd = null;
 
@@ -30,6 +36,68 @@ public class ContentByteRange {
         parseRange(range);
     }
 
+    private ContentByteRange(Long rangeStart, Long rangeEnd) {
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    /**
+     * Captures each of the ranges described in an HTTP Range header
+     *
+     * @param range HTTP Range header with format 'bytes=X-Y[,X-Y]...'
+     * @return the ranges, in the order in which they were listed
+     * @throws IllegalArgumentException if any of the ranges is not valid
+     */
+    public static List<ContentByteRange> parseRanges(String range) {
+        if (null == range || !range.startsWith(PREFIX)) {
+            throw new IllegalArgumentException(getUsage(range));
+        }
+
+        List<ContentByteRange> ranges = new ArrayList<>();
+        for (String byteRange : range.substring(PREFIX.length()).split(",")) {
+            ContentByteRange parsed = new ContentByteRange(null, null);
+            parsed.parseByteRange(byteRange.trim(), range);
+            ranges.add(parsed);
+        }
+        return ranges;
+    }
+
+    /**
+     * Combines resolved ranges which overlap or which are separated by no
+     * more than maxGap bytes, so that each remaining range can be retrieved
+     * with a single request. The result is ordered by starting position.
+     *
+     * @param resolved ranges with both start and end values set
+     * @param maxGap   largest number of unrequested bytes which may be
+     *                 included between two ranges in order to combine them
+     * @return the combined ranges
+     */
+    public static List<ContentByteRange> coalesce(List<ContentByteRange> resolved,
+                                                  long maxGap) {
+        List<ContentByteRange> sorted = new ArrayList<>(resolved);
+        sorted.sort(Comparator.comparing(ContentByteRange::getRangeStart));
+
+        List<ContentByteRange> combined = new ArrayList<>();
+        ContentByteRange current = null;
+        for (ContentByteRange byteRange : sorted) {
+            if (null != current &&
+                byteRange.getRangeStart() - current.getRangeEnd() - 1 <= maxGap) {
+                current = new ContentByteRange(current.getRangeStart(),
+                                               Math.max(current.getRangeEnd(),
+                                                        byteRange.getRangeEnd()));
+            } else {
+                if (null != current) {
+                    combined.add(current);
+                }
+                current = byteRange;
+            }
+        }
+        if (null != current) {
+            combined.add(current);
+        }
+        return combined;
+    }
+
     /**
      * Gets the starting point of the byte range (the number preceding the "-"),
      * or null if there is no number preceding the dash
@@ -46,6 +114,64 @@ public class ContentByteRange {
         return rangeEnd;
     }
 
+    /**
+     * Indicates that this is a suffix range (format 'bytes=-Y'), which
+     * describes the last Y bytes of the content
+     */
+    public boolean isSuffixRange() {
+        return null == rangeStart;
+    }
+
+    /**
+     * Determines the absolute byte positions of this range within content of
+     * the given size. Suffix ranges are converted to the matching offset from
+     * the start of the content, and ranges which extend past the end of the
+     * content are shortened to end with the last byte.
+     *
+     * @param contentSize size of the content, in bytes
+     * @return range with both start and end values set
+     * @throws IllegalArgumentException if no part of the range is within the
+     *                                  content (the range is not satisfiable)
+     */
+    public ContentByteRange resolve(long contentSize) {
+        long start;
+        long end = contentSize - 1;
+        if (isSuffixRange()) {
+            start = Math.max(0, contentSize - rangeEnd);
+            if (rangeEnd == 0) {
+                start = contentSize;
+            }
+        } else {
+            start = rangeStart;
+            if (null != rangeEnd) {
+                end = Math.min(rangeEnd, end);
+            }
+        }
+
+        if (start >= contentSize) {
+            throw new IllegalArgumentException(
+                "The range " + this + " is not satisfiable for content of " +
+                contentSize + " bytes.");
+        }
+        return new ContentByteRange(start, end);
+    }
+
+    /**
+     * Gets the number of bytes in a resolved range
+     */
+    public long getLength() {
+        return rangeEnd - rangeStart + 1;
+    }
+
+    /**
+     * Gets the Content-Range header value describing a resolved range
+     *
+     * @param contentSize size of the full content, in bytes
+     */
+    public String getContentRange(long contentSize) {
+        return "bytes " + rangeStart + "-" + rangeEnd + "/" + contentSize;
+    }
+
     /**
      * Parses the Range HTTP header value. Only a single range is supported (others are dropped).
      *
@@ -53,26 +179,44 @@ public class ContentByteRange {
      * @throws IllegalArgumentException if range value is not valid
      */
     protected void parseRange(String range) {
-        String prefix = "bytes=";
-        if (!range.startsWith(prefix) || StringUtils.containsNone(range, "-")) {
+        if (!range.startsWith(PREFIX) || StringUtils.containsNone(range, "-")) {
             throw new IllegalArgumentException(getUsage(range));
         } else {
             // Strip the prefix and drop all but the first range (if there is a list)
-            String byteRange = range.substring(prefix.length()).split(",")[0];
-
-            try {
-                // Parse out the range values
-                setRangeStart(byteRange.substring(0, byteRange.indexOf("-")));
-                setRangeEnd(byteRange.substring(byteRange.indexOf("-") + 1, byteRange.length()));
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException(getUsage(range));
-            }
+            String byteRange = range.substring(PREFIX.length()).split(",")[0];
+            parseByteRange(byteRange, range);
+        }
+    }
 
-            // Verify that there is either a start or end value for the range (or both)
-            if (null == getRangeStart() && null == getRangeEnd()) {
-                throw new IllegalArgumentException(getUsage(range));
-            }
+    private void parseByteRange(String byteRange, String range) {
+        if (!byteRange.contains("-")) {
+            throw new IllegalArgumentException(getUsage(range));
+        }
+
+        try {
+            // Parse out the range values
+            setRangeStart(byteRange.substring(0, byteRange.indexOf("-")));
+            setRangeEnd(byteRange.substring(byteRange.indexOf("-") + 1, byteRange.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(getUsage(range));
         }
+
+        // Verify that there is either a start or end value for the range (or both),
+        // and that the range does not end before it starts
+        if ((null == getRangeStart() && null == getRangeEnd()) ||
+            (null != getRangeStart() && null != getRangeEnd() &&
+             getRangeEnd() < getRangeStart())) {
+            throw new IllegalArgumentException(getUsage(range));
+        }
+    }
+
+    /**
+     * Provides the range in HTTP Range header format
+     */
+    @Override
+    public String toString() {
+        return PREFIX + (null == rangeStart ? "" : rangeStart) + "-" +
+               (null == rangeEnd ? "" : rangeEnd);
     }
 
     /**
@@ -82,7 +226,7 @@ public class ContentByteRange {
      * @param range invalid range value
      * @return
      */
-    public String getUsage(String range) {
+    public static String getUsage(String range) {
         return "The Range header value, when utilized, must be in the format " +
                "'bytes=X-Y', where X and Y are numerical values. The value provided (" +
                range + ") is not valid.";
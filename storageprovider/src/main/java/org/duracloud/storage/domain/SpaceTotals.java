@@ -0,0 +1,36 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.domain;
+
+/**
+ * The number of content items in a space, and their total size in bytes.
+ */
+public class SpaceTotals {
+
+    private final long itemCount;
+    private final long byteCount;
+
+    public SpaceTotals(long itemCount, long byteCount) {
+        this.itemCount = itemCount;
+        this.byteCount = byteCount;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SpaceTotals[itemCount=" + itemCount + ", byteCount=" + byteCount + "]";
+    }
+
+}
@@ -35,6 +35,7 @@ public interface StorageAccount {
         BASE_DIRECTORY,
         RESOURCE,
         TEMP_PATH,
+        BLOCK_SIZE,
         // Snapshot below
         SNAPSHOT_USER,
         BRIDGE_HOST,
@@ -91,6 +91,15 @@ public class BrokeredStorageProvider
                                        contentId);
     }
 
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds)
+        throws StorageException {
+        return dispatchProvider.deleteContents(targetProvider,
+                                               storeId,
+                                               spaceId,
+                                               contentIds);
+    }
+
     public void deleteSpace(String spaceId) throws StorageException {
         dispatchProvider.deleteSpace(targetProvider, storeId, spaceId);
 
@@ -122,6 +131,15 @@ public class BrokeredStorageProvider
                                                      contentId);
     }
 
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds)
+        throws StorageException {
+        return dispatchProvider.getContentsProperties(targetProvider,
+                                                      storeId,
+                                                      spaceId,
+                                                      contentIds);
+    }
+
     public Iterator<String> getSpaceContents(String spaceId, String prefix)
         throws StorageException {
         return dispatchProvider.getSpaceContents(targetProvider,
@@ -165,6 +183,15 @@ public class BrokeredStorageProvider
                                               contentProperties);
     }
 
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties)
+        throws StorageException {
+        return dispatchProvider.setContentsProperties(targetProvider,
+                                                      storeId,
+                                                      spaceId,
+                                                      contentProperties);
+    }
+
     @Override
     public Map<String, AclType> getSpaceACLs(String spaceId) {
         return dispatchProvider.getSpaceACLs(targetProvider, storeId, spaceId);
@@ -128,6 +128,16 @@ public abstract class ProbedStorageProvider
         stopMetric("deleteContent");
     }
 
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds)
+        throws StorageException {
+        startMetric("deleteContents");
+        Map<String, Map<String, String>> result =
+            storageProvider.deleteContents(spaceId, contentIds);
+        stopMetric("deleteContents");
+        return result;
+    }
+
     public void deleteSpace(String spaceId) throws StorageException {
         startMetric("deleteSpace");
         storageProvider.deleteSpace(spaceId);
@@ -160,6 +170,16 @@ public abstract class ProbedStorageProvider
         return result;
     }
 
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds)
+        throws StorageException {
+        startMetric("getContentsProperties");
+        Map<String, Map<String, String>> result =
+            storageProvider.getContentsProperties(spaceId, contentIds);
+        stopMetric("getContentsProperties");
+        return result;
+    }
+
     public Iterator<String> getSpaceContents(String spaceId, String prefix)
         throws StorageException {
         startMetric("getSpaceContents");
@@ -209,6 +229,16 @@ public abstract class ProbedStorageProvider
         stopMetric("setContentProperties");
     }
 
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties)
+        throws StorageException {
+        startMetric("setContentsProperties");
+        List<String> result =
+            storageProvider.setContentsProperties(spaceId, contentProperties);
+        stopMetric("setContentsProperties");
+        return result;
+    }
+
     @Override
     public Map<String, AclType> getSpaceACLs(String spaceId) {
         startMetric("getSpaceACLs");
@@ -0,0 +1,28 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider;
+
+import org.duracloud.storage.domain.SpaceTotals;
+
+/**
+ * Implemented by storage providers which can determine the number and total
+ * size of the items in a space more efficiently than by retrieving the
+ * properties of each item.
+ */
+public interface SpaceTotalsCalculator {
+
+    /**
+     * Determines the number and total size of all items in a space. This
+     * requires the full contents of the space to be listed.
+     *
+     * @param spaceId ID of the space
+     * @return totals for the space
+     */
+    SpaceTotals calculateSpaceTotals(String spaceId);
+
+}
@@ -51,6 +51,12 @@ public interface StatelessStorageProvider {
                                        String contentId)
         throws StorageException;
 
+    public abstract Map<String, Map<String, String>> deleteContents(StorageProvider targetProvider,
+                                                                    String storeId,
+                                                                    String spaceId,
+                                                                    List<String> contentIds)
+        throws StorageException;
+
     public abstract void deleteSpace(StorageProvider targetProvider,
                                      String storeId,
                                      String spaceId)
@@ -75,6 +81,12 @@ public interface StatelessStorageProvider {
                                                              String contentId)
         throws StorageException;
 
+    public abstract Map<String, Map<String, String>> getContentsProperties(StorageProvider targetProvider,
+                                                                           String storeId,
+                                                                           String spaceId,
+                                                                           List<String> contentIds)
+        throws StorageException;
+
     public abstract Iterator<String> getSpaceContents(StorageProvider targetProvider,
                                                       String storeId,
                                                       String spaceId,
@@ -110,6 +122,12 @@ public interface StatelessStorageProvider {
                                               Map<String, String> contentProperties)
         throws StorageException;
 
+    public abstract List<String> setContentsProperties(StorageProvider targetProvider,
+                                                       String storeId,
+                                                       String spaceId,
+                                                       Map<String, Map<String, String>> contentProperties)
+        throws StorageException;
+
     public abstract void setSpaceACLs(StorageProvider targetProvider,
                                       String storeId,
                                       String spaceId,
@@ -79,6 +79,17 @@ public class StatelessStorageProviderImpl
         targetProvider.deleteContent(spaceId, contentId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Map<String, Map<String, String>> deleteContents(StorageProvider targetProvider,
+                                                           String storeId,
+                                                           String spaceId,
+                                                           List<String> contentIds)
+        throws StorageException {
+        return targetProvider.deleteContents(spaceId, contentIds);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -121,6 +132,17 @@ public class StatelessStorageProviderImpl
         return targetProvider.getContentProperties(spaceId, contentId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Map<String, Map<String, String>> getContentsProperties(StorageProvider targetProvider,
+                                                                  String storeId,
+                                                                  String spaceId,
+                                                                  List<String> contentIds)
+        throws StorageException {
+        return targetProvider.getContentsProperties(spaceId, contentIds);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -186,6 +208,17 @@ public class StatelessStorageProviderImpl
         targetProvider.setContentProperties(spaceId, contentId, contentProperties);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public List<String> setContentsProperties(StorageProvider targetProvider,
+                                              String storeId,
+                                              String spaceId,
+                                              Map<String, Map<String, String>> contentProperties)
+        throws StorageException {
+        return targetProvider.setContentsProperties(spaceId, contentProperties);
+    }
+
     @Override
     public void setSpaceACLs(StorageProvider targetProvider,
                              String storeId,
@@ -240,7 +240,8 @@ public interface StorageProvider {
      * @param contentId - ID of the content in the space
      * @param range     - Range of bytes to retrieve, as defined in:
      *                  https://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.35,
-     *                  only one range is supported per request
+     *                  only one range is supported per request, which may be a
+     *                  suffix range (format 'bytes=-Y')
      * @return object containing metadata and the specified bytes of the content stream
      * @throws NotFoundException        if space with ID spaceId does not exist or the
      *                                  content item with ID contentId does not exist
@@ -263,6 +264,27 @@ public interface StorageProvider {
     public void deleteContent(String spaceId,
                               String contentId);
 
+    /**
+     * Removes multiple content items from a space. Items which do not exist
+     * or which could not be removed are not included in the result, and do
+     * not cause the remaining items to be skipped.
+     *
+     * The properties of each removed item are those known to the provider
+     * at the time of removal. These always include the size and checksum
+     * where the underlying storage system reports them, but may omit
+     * properties (such as the mimetype) which could only be retrieved by
+     * an additional request per item.
+     *
+     * @param spaceId    - ID of the space
+     * @param contentIds - IDs of the content items in the space
+     * @return the properties of the content items which were removed, by
+     *         content ID, in the order requested
+     * @throws NotFoundException if space with ID spaceId does not exist
+     * @throws StorageException  if errors occur
+     */
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds);
+
     /**
      * Sets the properties associated with content. This effectively
      * removes all of the current content properties and adds a new
@@ -306,4 +328,34 @@ public interface StorageProvider {
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId);
 
+    /**
+     * Sets the properties of multiple content items in a space, in the same
+     * way as setContentProperties(). Items which do not exist or which could
+     * not be updated are not included in the result, and do not cause the
+     * remaining items to be skipped.
+     *
+     * @param spaceId           - ID of the space
+     * @param contentProperties - new content properties, by content ID
+     * @return the IDs of the content items which were updated
+     * @throws NotFoundException if space with ID spaceId does not exist
+     * @throws StorageException  if errors occur
+     */
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties);
+
+    /**
+     * Retrieves the properties of multiple content items in a space, in the
+     * same way as getContentProperties(). Items which do not exist or whose
+     * properties could not be retrieved are not included in the result, and
+     * do not cause the remaining items to be skipped.
+     *
+     * @param spaceId    - ID of the space
+     * @param contentIds - IDs of the content items in the space
+     * @return content properties by content ID, in the order requested
+     * @throws NotFoundException if space with ID spaceId does not exist
+     * @throws StorageException  if errors occur
+     */
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds);
+
 }
@@ -7,12 +7,26 @@
  */
 package org.duracloud.storage.provider;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.duracloud.common.executor.ExecutorPoolConfig;
+import org.duracloud.common.executor.ExecutorRegistry;
 import org.duracloud.common.model.AclType;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
@@ -32,6 +46,22 @@ public abstract class StorageProviderBase implements StorageProvider {
     protected static final String ACL_GROUP_WRITE = "acl-group-write";
     protected static final String ACL_DELIM = ":";
 
+    // Number of content items removed in each call to deleteContents when
+    // deleting a space, and the number of those calls made in parallel
+    protected static final int DELETE_BATCH_SIZE = 1000;
+    protected static final int DELETE_BATCHES_IN_FLIGHT = 4;
+
+    // Number of content items whose properties are retrieved or updated in
+    // parallel by each call to getContentsProperties or setContentsProperties
+    protected static final int PROPERTIES_ITEMS_IN_FLIGHT = 8;
+
+    private static final ExecutorPoolConfig SPACE_DELETE_POOL =
+        new ExecutorPoolConfig("space-delete", 4, 1000);
+    private static final ExecutorPoolConfig SPACE_DELETE_BATCH_POOL =
+        new ExecutorPoolConfig("space-delete-batch", 8, 100);
+    private static final ExecutorPoolConfig CONTENT_PROPERTIES_POOL =
+        new ExecutorPoolConfig("content-properties", 20, 200);
+
     protected final Logger log = LoggerFactory.getLogger(StorageProviderBase.class);
     private StorageProvider wrappedStorageProvider;
 
@@ -44,6 +74,20 @@ public abstract class StorageProviderBase implements StorageProvider {
     protected abstract void doSetSpaceProperties(String spaceId,
                                                  Map<String, String> spaceProps);
 
+    /**
+     * Retrieves the properties which are stored with a space, including
+     * ACLs, but not calculated values such as the space item count.
+     * Providers which calculate values in getAllSpaceProperties should
+     * override this method to avoid that cost when only the stored
+     * properties are needed.
+     *
+     * @param spaceId - ID of the space
+     * @return map of stored space properties
+     */
+    protected Map<String, String> getStoredSpaceProperties(String spaceId) {
+        return getAllSpaceProperties(spaceId);
+    }
+
     /**
      * This method returns all of the space properties EXCEPT the ACLs
      *
@@ -115,8 +159,8 @@ public abstract class StorageProviderBase implements StorageProvider {
     }
 
     public Map<String, AclType> getSpaceACLs(String spaceId) {
-        Map<String, String> allProps = getAllSpaceProperties(spaceId);
-        return unpackACLs(allProps);
+        Map<String, String> storedProps = getStoredSpaceProperties(spaceId);
+        return unpackACLs(storedProps);
     }
 
     /*
@@ -173,10 +217,13 @@ public abstract class StorageProviderBase implements StorageProvider {
     public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
         Map<String, String> newProps = new HashMap<>();
 
-        // get properties excluding ACLs
-        Map<String, String> spaceProps = getSpaceProperties(spaceId);
-        // add existing non ACLs properties
-        newProps.putAll(spaceProps);
+        // add existing stored properties, excluding ACLs
+        Map<String, String> storedProps = getStoredSpaceProperties(spaceId);
+        for (String name : storedProps.keySet()) {
+            if (!name.startsWith(PROPERTIES_SPACE_ACL)) {
+                newProps.put(name, storedProps.get(name));
+            }
+        }
 
         // convert ACL format and add to props list
         newProps.putAll(packACLs(spaceACLs));
@@ -290,12 +337,187 @@ public abstract class StorageProviderBase implements StorageProvider {
         log.debug("deleteSpace(" + spaceId + ")");
         throwIfSpaceNotExist(spaceId);
 
-        Map<String, String> allProps = getAllSpaceProperties(spaceId);
+        Map<String, String> allProps = getStoredSpaceProperties(spaceId);
         allProps.put("is-delete", "true");
         doSetSpaceProperties(spaceId, allProps);
 
-        SpaceDeleteWorker deleteThread = getSpaceDeleteWorker(spaceId);
-        new Thread(deleteThread).start();
+        SpaceDeleteWorker deleteWorker = getSpaceDeleteWorker(spaceId);
+        try {
+            ExecutorRegistry.getInstance()
+                            .getExecutor(SPACE_DELETE_POOL)
+                            .execute(deleteWorker);
+        } catch (RejectedExecutionException e) {
+            allProps.remove("is-delete");
+            doSetSpaceProperties(spaceId, allProps);
+            throw new StorageException("Space " + spaceId + " could not be " +
+                                       "deleted at this time, too many space " +
+                                       "deletions are in progress.", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Retrieves the properties of each item and then removes it
+     * individually. Providers which support removing multiple items in a
+     * single call should override this method.
+     */
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds) {
+        Map<String, Map<String, String>> deleted = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            try {
+                Map<String, String> properties =
+                    getContentProperties(spaceId, contentId);
+                deleteContent(spaceId, contentId);
+                deleted.put(contentId, properties);
+            } catch (StorageException e) {
+                log.warn("Unable to delete content " + contentId +
+                         " in space " + spaceId + ": " + e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Retrieves the properties of each item individually, with a limited
+     * number of items being processed in parallel.
+     */
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds) {
+        throwIfSpaceNotExist(spaceId);
+        return getEachContentProperties(spaceId, contentIds,
+                                        contentId -> getContentProperties(spaceId,
+                                                                          contentId));
+    }
+
+    /**
+     * Retrieves the properties of each content item with the given lookup,
+     * with a limited number of items being processed in parallel. Items
+     * which do not exist, or whose properties cannot be retrieved, are left
+     * out of the result.
+     *
+     * @param spaceId    - ID of the space, used in log messages
+     * @param contentIds - IDs of the content items in the space
+     * @param lookup     - retrieves the properties of one content item
+     * @return map of content ID to content properties, in request order
+     */
+    protected Map<String, Map<String, String>> getEachContentProperties(
+        String spaceId,
+        List<String> contentIds,
+        Function<String, Map<String, String>> lookup) {
+        Map<String, Map<String, String>> found = new ConcurrentHashMap<>();
+        forEachContentItem(contentIds, contentId -> {
+            try {
+                found.put(contentId, lookup.apply(contentId));
+            } catch (NotFoundException e) {
+                // Items which do not exist are left out
+            } catch (StorageException e) {
+                log.warn("Unable to get properties of content " + contentId +
+                         " in space " + spaceId + ": " + e.getMessage());
+            }
+        });
+
+        Map<String, Map<String, String>> contentsProps = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            Map<String, String> contentProps = found.get(contentId);
+            if (null != contentProps) {
+                contentsProps.put(contentId, contentProps);
+            }
+        }
+        return contentsProps;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Updates the properties of each item individually, with a limited
+     * number of items being processed in parallel.
+     */
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties) {
+        throwIfSpaceNotExist(spaceId);
+
+        List<String> contentIds = new ArrayList<>(contentProperties.keySet());
+        Set<String> updated = ConcurrentHashMap.newKeySet();
+        forEachContentItem(contentIds, contentId -> {
+            try {
+                setContentProperties(spaceId, contentId,
+                                     contentProperties.get(contentId));
+                updated.add(contentId);
+            } catch (StorageException e) {
+                log.warn("Unable to set properties of content " + contentId +
+                         " in space " + spaceId + ": " + e.getMessage());
+            }
+        });
+
+        List<String> updatedIds = new ArrayList<>(updated.size());
+        for (String contentId : contentIds) {
+            if (updated.contains(contentId)) {
+                updatedIds.add(contentId);
+            }
+        }
+        return updatedIds;
+    }
+
+    /*
+     * Performs an action for each content item, with a limited number of
+     * items being processed in parallel. Items which cannot be handed to the
+     * executor are processed on the calling thread.
+     */
+    private void forEachContentItem(List<String> contentIds,
+                                    Consumer<String> action) {
+        if (contentIds.size() <= 1) {
+            for (String contentId : contentIds) {
+                action.accept(contentId);
+            }
+            return;
+        }
+
+        ExecutorService executor = ExecutorRegistry.getInstance()
+            .getExecutor(CONTENT_PROPERTIES_POOL);
+        Deque<Future<?>> inFlight = new ArrayDeque<>();
+        try {
+            for (String contentId : contentIds) {
+                Runnable itemAction = () -> action.accept(contentId);
+                try {
+                    inFlight.add(executor.submit(itemAction));
+                } catch (RejectedExecutionException e) {
+                    itemAction.run();
+                }
+
+                while (inFlight.size() >= PROPERTIES_ITEMS_IN_FLIGHT) {
+                    waitForItem(inFlight.poll());
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                waitForItem(inFlight.poll());
+            }
+        } finally {
+            for (Future<?> remaining : inFlight) {
+                remaining.cancel(true);
+            }
+        }
+    }
+
+    private void waitForItem(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while processing " +
+                                       "content items", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new StorageException("Error processing content items: " +
+                                       cause.getMessage(), cause);
+        }
     }
 
     /**
@@ -307,7 +529,7 @@ public abstract class StorageProviderBase implements StorageProvider {
         log.debug("deleteSpaceSync(" + spaceId + ")");
         throwIfSpaceNotExist(spaceId);
 
-        Map<String, String> allProps = getAllSpaceProperties(spaceId);
+        Map<String, String> allProps = getStoredSpaceProperties(spaceId);
         allProps.put("is-delete", "true");
         doSetSpaceProperties(spaceId, allProps);
 
@@ -331,11 +553,13 @@ public abstract class StorageProviderBase implements StorageProvider {
             Iterator<String> contents = getSpaceContents(spaceId, null);
             int count = 0;
 
-            while (contents.hasNext() && count++ < 5) {
+            while (contents.hasNext() && count++ < 5 &&
+                   !Thread.currentThread().isInterrupted()) {
                 try {
                     Thread.sleep((long) Math.pow(2, count) * 100);
                 } catch (InterruptedException e) {
-                    // Return from sleep on interrupt
+                    Thread.currentThread().interrupt();
+                    break;
                 }
 
                 StorageProvider sp = StorageProviderBase.this;
@@ -343,18 +567,7 @@ public abstract class StorageProviderBase implements StorageProvider {
                     sp = wrappedStorageProvider;
                 }
 
-                while (contents.hasNext()) {
-                    String contentId = contents.next();
-                    log.debug("deleteContent(" + spaceId + ", " +
-                              contentId + ") - count=" + count);
-
-                    try {
-                        sp.deleteContent(spaceId, contentId);
-                    } catch (Exception e) {
-                        log.error("Error deleting content " + contentId +
-                                  " in space " + spaceId, e);
-                    }
-                }
+                deleteContents(sp, contents);
                 contents = getSpaceContents(spaceId, null);
             }
 
@@ -362,7 +575,8 @@ public abstract class StorageProviderBase implements StorageProvider {
                 log.debug("deleteSpaceContents(" + spaceId +
                           ") exceeded retries");
 
-                Map<String, String> allProps = getAllSpaceProperties(spaceId);
+                Map<String, String> allProps =
+                    getStoredSpaceProperties(spaceId);
                 allProps.put("delete-error", "Unable to delete all contents");
                 doSetSpaceProperties(spaceId, allProps);
             } else {
@@ -371,6 +585,88 @@ public abstract class StorageProviderBase implements StorageProvider {
             }
             log.debug("SpaceDeleteWorker ended!");
         }
+
+        /*
+         * Removes the listed content items in batches, with a limited
+         * number of batches being processed in parallel. Batches which
+         * cannot be handed to the executor are processed on this thread.
+         * No further batches are started once this thread is interrupted,
+         * and batches which are still in flight are cancelled.
+         */
+        private void deleteContents(StorageProvider sp,
+                                    Iterator<String> contents) {
+            ExecutorService executor = ExecutorRegistry.getInstance()
+                .getExecutor(SPACE_DELETE_BATCH_POOL);
+            Deque<Future<?>> inFlight = new ArrayDeque<>();
+            try {
+                while (contents.hasNext()) {
+                    List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+                    while (contents.hasNext() &&
+                           batch.size() < DELETE_BATCH_SIZE) {
+                        batch.add(contents.next());
+                    }
+
+                    Runnable batchDelete = () -> deleteBatch(sp, batch);
+                    try {
+                        inFlight.add(executor.submit(batchDelete));
+                    } catch (RejectedExecutionException e) {
+                        batchDelete.run();
+                    }
+
+                    while (inFlight.size() >= DELETE_BATCHES_IN_FLIGHT) {
+                        if (!waitFor(inFlight.poll())) {
+                            return;
+                        }
+                    }
+                }
+
+                while (!inFlight.isEmpty()) {
+                    if (!waitFor(inFlight.poll())) {
+                        return;
+                    }
+                }
+            } finally {
+                for (Future<?> remaining : inFlight) {
+                    remaining.cancel(true);
+                }
+            }
+        }
+
+        private void deleteBatch(StorageProvider sp, List<String> contentIds) {
+            log.debug("deleteContents(" + spaceId + ", " + contentIds.size() +
+                      " items)");
+            try {
+                Map<String, Map<String, String>> deleted =
+                    sp.deleteContents(spaceId, contentIds);
+                if (deleted.size() < contentIds.size()) {
+                    log.warn((contentIds.size() - deleted.size()) + " of " +
+                             contentIds.size() + " content items in space " +
+                             spaceId + " were not deleted");
+                }
+            } catch (Exception e) {
+                log.error("Error deleting " + contentIds.size() +
+                          " content items in space " + spaceId, e);
+            }
+        }
+
+        /*
+         * Waits for a batch to complete. Returns false if this thread was
+         * interrupted while waiting, in which case the interrupt is kept.
+         */
+        private boolean waitFor(Future<?> future) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                log.warn("Interrupted while deleting content in space " +
+                         spaceId);
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                log.error("Error deleting content in space " + spaceId,
+                          e.getCause());
+            }
+            return true;
+        }
     }
 
     public SpaceDeleteWorker getSpaceDeleteWorker(String spaceId) {
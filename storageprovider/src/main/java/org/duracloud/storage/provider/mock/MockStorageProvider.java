@@ -11,6 +11,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -97,6 +98,17 @@ public class MockStorageProvider implements StorageProvider {
         this.contentId = contentId;
     }
 
+    public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                           List<String> contentIds)
+        throws StorageException {
+        this.spaceId = spaceId;
+        Map<String, Map<String, String>> deleted = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            deleted.put(contentId, new HashMap<>());
+        }
+        return deleted;
+    }
+
     public void deleteSpace(String spaceId) throws StorageException {
         this.spaceId = spaceId;
     }
@@ -117,6 +129,17 @@ public class MockStorageProvider implements StorageProvider {
         return contentProperties;
     }
 
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds)
+        throws StorageException {
+        this.spaceId = spaceId;
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            result.put(contentId, contentProperties);
+        }
+        return result;
+    }
+
     public Iterator<String> getSpaceContents(String spaceId, String prefix)
         throws StorageException {
         return spaceContents.iterator();
@@ -148,6 +171,13 @@ public class MockStorageProvider implements StorageProvider {
         this.contentProperties = contentProperties;
     }
 
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties)
+        throws StorageException {
+        this.spaceId = spaceId;
+        return new ArrayList<>(contentProperties.keySet());
+    }
+
     @Override
     public Map<String, AclType> getSpaceACLs(String spaceId) {
         throw new UnsupportedOperationException("getSpaceACLs not implemented");
@@ -35,6 +35,28 @@ public interface StorageProviderFactory {
 
     public void expireStorageProvider(String storageAccountId);
 
+    /**
+     * Refreshes information cached by the storage providers which have
+     * already been created, without expiring the providers themselves.
+     */
+    public void refreshStorageProviders();
+
+    /**
+     * Refreshes information cached about a single space by the storage
+     * provider which has already been created for a storage account.
+     *
+     * @param storageAccountId - the ID of the storage provider account,
+     *                         null for the primary storage account
+     * @param spaceId          - the ID of the space
+     */
+    public void refreshStorageProvider(String storageAccountId, String spaceId);
+
     public TaskQueue getAuditQueue();
 
+    /**
+     * Releases the connections held by the storage providers which have been
+     * created, once the factory is no longer in use.
+     */
+    public void close();
+
 }
@@ -26,8 +26,10 @@ import java.util.List;
 import java.util.Map;
 
 import org.duracloud.common.util.DateUtil;
+import org.duracloud.storage.domain.SpaceTotals;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.SpaceTotalsCalculator;
 import org.duracloud.storage.provider.StorageProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +43,10 @@ public class StorageProviderUtil {
 
     private static Logger log = LoggerFactory.getLogger(StorageProviderUtil.class);
 
+    // Items listed, and their properties retrieved, together when
+    // calculating space totals
+    private static final long TOTALS_PAGE_SIZE = 1000;
+
     private StorageProviderUtil() {
         // Ensures no instances are made of this class, as there are only static members.
     }
@@ -207,6 +213,97 @@ public class StorageProviderUtil {
         return contents;
     }
 
+    /**
+     * Counts the number of items in a space up to the maxCount. If maxCount
+     * is reached or exceeded, the returned string will indicate this with a
+     * trailing '+' character (e.g. 1000+).
+     *
+     * Note that anecdotal evidence shows that this method of counting
+     * (using size of chunked calls) is faster in most cases than enumerating
+     * the Iteration: StorageProviderUtil.count(getSpaceContents(spaceId, null))
+     *
+     * @param provider storage provider which holds the space
+     * @param spaceId  ID of the space
+     * @param maxCount number of items after which counting stops
+     * @return the count of items in the space
+     */
+    public static String getSpaceCount(StorageProvider provider,
+                                       String spaceId,
+                                       int maxCount) {
+        List<String> spaceContentChunk = null;
+        long count = 0;
+
+        do {
+            String marker = null;
+            if (spaceContentChunk != null && spaceContentChunk.size() > 0) {
+                marker = spaceContentChunk.get(spaceContentChunk.size() - 1);
+            }
+            spaceContentChunk = provider.getSpaceContentsChunked(spaceId,
+                                                                 null,
+                                                                 TOTALS_PAGE_SIZE,
+                                                                 marker);
+            count += spaceContentChunk.size();
+        } while (spaceContentChunk.size() > 0 && count < maxCount);
+
+        String suffix = "";
+        if (count >= maxCount) {
+            suffix = "+";
+        }
+        return String.valueOf(count) + suffix;
+    }
+
+    /**
+     * Determines the number and total size of the items in a space, by
+     * listing the space and retrieving the properties of its items a page
+     * at a time. Providers which implement SpaceTotalsCalculator are able to
+     * do this more efficiently.
+     *
+     * @param provider storage provider which holds the space
+     * @param spaceId  ID of the space
+     * @return totals for the space
+     */
+    public static SpaceTotals calculateSpaceTotals(StorageProvider provider,
+                                                   String spaceId) {
+        if (provider instanceof SpaceTotalsCalculator) {
+            return ((SpaceTotalsCalculator) provider).calculateSpaceTotals(spaceId);
+        }
+
+        long itemCount = 0;
+        long byteCount = 0;
+        String marker = null;
+        List<String> page;
+        do {
+            page = provider.getSpaceContentsChunked(spaceId, null,
+                                                    TOTALS_PAGE_SIZE, marker);
+            if (!page.isEmpty()) {
+                itemCount += page.size();
+                for (Map<String, String> props :
+                    provider.getContentsProperties(spaceId, page).values()) {
+                    byteCount += getContentSize(props);
+                }
+                marker = page.get(page.size() - 1);
+            }
+        } while (!page.isEmpty());
+        return new SpaceTotals(itemCount, byteCount);
+    }
+
+    /**
+     * @param contentProperties properties of a content item
+     * @return the size of the item in bytes, or 0 if the size is not known
+     */
+    public static long getContentSize(Map<String, String> contentProperties) {
+        String size = null == contentProperties ? null :
+            contentProperties.get(StorageProvider.PROPERTIES_CONTENT_SIZE);
+        if (null != size) {
+            try {
+                return Long.parseLong(size.trim());
+            } catch (NumberFormatException e) {
+                log.debug("Invalid content size: {}", size);
+            }
+        }
+        return 0;
+    }
+
     /**
      * Generates a map of all client-side default content properties to be
      * added with new content.
@@ -0,0 +1,282 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Reads and writes the XML documents used to retrieve or update the
+ * properties of many content items in a single request. Documents are
+ * written and read one item at a time, so that results can be sent to the
+ * caller as they become available rather than once all items are complete.
+ *
+ * A list of content IDs:
+ * <pre>
+ * &lt;contentIds&gt;
+ *   &lt;contentId&gt;item-1&lt;/contentId&gt;
+ * &lt;/contentIds&gt;
+ * </pre>
+ *
+ * Properties by content ID:
+ * <pre>
+ * &lt;contentProperties&gt;
+ *   &lt;content id="item-1"&gt;
+ *     &lt;property name="content-mimetype"&gt;text/plain&lt;/property&gt;
+ *   &lt;/content&gt;
+ * &lt;/contentProperties&gt;
+ * </pre>
+ */
+public class ContentPropertiesDocument {
+
+    public static final String CONTENT_IDS = "contentIds";
+    public static final String CONTENT_ID = "contentId";
+    public static final String CONTENT_PROPERTIES = "contentProperties";
+    public static final String CONTENT = "content";
+    public static final String PROPERTY = "property";
+    public static final String ID = "id";
+    public static final String NAME = "name";
+
+    private static final String ENCODING = "UTF-8";
+
+    private static final XMLOutputFactory outputFactory =
+        XMLOutputFactory.newInstance();
+    private static final XMLInputFactory inputFactory = createInputFactory();
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                            false);
+        return factory;
+    }
+
+    private ContentPropertiesDocument() {
+        // Ensures no instances are made of this class, as there are only static members.
+    }
+
+    /**
+     * Starts a document listing content IDs, to which IDs are added using
+     * ContentWriter.writeContentId()
+     */
+    public static ContentWriter startContentIds(OutputStream output)
+        throws XMLStreamException {
+        return new ContentWriter(output, CONTENT_IDS);
+    }
+
+    /**
+     * Starts a document of content properties, to which items are added
+     * using ContentWriter.writeContent()
+     */
+    public static ContentWriter startContentProperties(OutputStream output)
+        throws XMLStreamException {
+        return new ContentWriter(output, CONTENT_PROPERTIES);
+    }
+
+    /**
+     * @return document listing the given content IDs
+     */
+    public static String createContentIdsXml(List<String> contentIds)
+        throws XMLStreamException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ContentWriter writer = startContentIds(output)) {
+            for (String contentId : contentIds) {
+                writer.writeContentId(contentId);
+            }
+        }
+        return toString(output);
+    }
+
+    /**
+     * @return document including the given properties of each content item
+     */
+    public static String createContentPropertiesXml(
+        Map<String, Map<String, String>> contentProperties)
+        throws XMLStreamException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ContentWriter writer = startContentProperties(output)) {
+            for (Map.Entry<String, Map<String, String>> entry :
+                contentProperties.entrySet()) {
+                writer.writeContent(entry.getKey(), entry.getValue());
+            }
+        }
+        return toString(output);
+    }
+
+    private static String toString(ByteArrayOutputStream output)
+        throws XMLStreamException {
+        try {
+            return output.toString(ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    /**
+     * Reads a document listing content IDs, handing each ID to the handler
+     * as it is read.
+     */
+    public static void readContentIds(InputStream input,
+                                      Consumer<String> handler)
+        throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(input);
+        try {
+            requireRoot(reader, CONTENT_IDS);
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                requireElement(reader, CONTENT_ID);
+                handler.accept(reader.getElementText());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @return the content IDs listed in the document
+     */
+    public static List<String> readContentIds(InputStream input)
+        throws XMLStreamException {
+        List<String> contentIds = new ArrayList<>();
+        readContentIds(input, contentIds::add);
+        return contentIds;
+    }
+
+    /**
+     * Reads a document of content properties, handing the properties of each
+     * content item to the handler as they are read.
+     */
+    public static void readContentProperties(
+        InputStream input,
+        BiConsumer<String, Map<String, String>> handler)
+        throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(input);
+        try {
+            requireRoot(reader, CONTENT_PROPERTIES);
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                requireElement(reader, CONTENT);
+                String contentId = requireAttribute(reader, ID);
+                Map<String, String> properties = new HashMap<>();
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    requireElement(reader, PROPERTY);
+                    String name = requireAttribute(reader, NAME);
+                    properties.put(name, reader.getElementText());
+                }
+                handler.accept(contentId, properties);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @return properties by content ID, in document order
+     */
+    public static Map<String, Map<String, String>> readContentProperties(
+        InputStream input) throws XMLStreamException {
+        Map<String, Map<String, String>> contentProperties =
+            new LinkedHashMap<>();
+        readContentProperties(input, contentProperties::put);
+        return contentProperties;
+    }
+
+    private static void requireRoot(XMLStreamReader reader, String name)
+        throws XMLStreamException {
+        reader.nextTag();
+        requireElement(reader, name);
+    }
+
+    private static void requireElement(XMLStreamReader reader, String name)
+        throws XMLStreamException {
+        if (!name.equals(reader.getLocalName())) {
+            throw new XMLStreamException("Expected element " + name +
+                                         " but found " + reader.getLocalName(),
+                                         reader.getLocation());
+        }
+    }
+
+    private static String requireAttribute(XMLStreamReader reader,
+                                           String name)
+        throws XMLStreamException {
+        String value = reader.getAttributeValue(null, name);
+        if (null == value) {
+            throw new XMLStreamException("Element " + reader.getLocalName() +
+                                         " is missing attribute " + name,
+                                         reader.getLocation());
+        }
+        return value;
+    }
+
+    /**
+     * Writes a document one item at a time. Closing the writer completes the
+     * document, but does not close the underlying stream.
+     */
+    public static class ContentWriter implements AutoCloseable {
+
+        private final XMLStreamWriter writer;
+
+        private ContentWriter(OutputStream output, String rootElement)
+            throws XMLStreamException {
+            this.writer = outputFactory.createXMLStreamWriter(output, ENCODING);
+            writer.writeStartDocument(ENCODING, "1.0");
+            writer.writeStartElement(rootElement);
+        }
+
+        public void writeContentId(String contentId)
+            throws XMLStreamException {
+            writer.writeStartElement(CONTENT_ID);
+            writer.writeCharacters(contentId);
+            writer.writeEndElement();
+        }
+
+        public void writeContent(String contentId,
+                                 Map<String, String> properties)
+            throws XMLStreamException {
+            writer.writeStartElement(CONTENT);
+            writer.writeAttribute(ID, contentId);
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                writer.writeStartElement(PROPERTY);
+                writer.writeAttribute(NAME, property.getKey());
+                if (null != property.getValue()) {
+                    writer.writeCharacters(property.getValue());
+                }
+                writer.writeEndElement();
+            }
+            writer.writeEndElement();
+        }
+
+        /**
+         * Sends the items written so far to the underlying stream
+         */
+        public void flush() throws XMLStreamException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws XMLStreamException {
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        }
+    }
+
+}
@@ -10,6 +10,11 @@ package org.duracloud.storage.domain;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -86,4 +91,85 @@ public class ContentByteRangeTest {
         }
     }
 
+    @Test
+    public void testParseRanges() {
+        List<ContentByteRange> ranges =
+            ContentByteRange.parseRanges("bytes=0-5, 10-, -20");
+        assertEquals(3, ranges.size());
+        assertEquals("bytes=0-5", ranges.get(0).toString());
+        assertEquals("bytes=10-", ranges.get(1).toString());
+        assertEquals("bytes=-20", ranges.get(2).toString());
+        assertTrue(ranges.get(2).isSuffixRange());
+
+        String[] invalid = {"0-5", "bytes=0-5,ten-", "bytes=5-1"};
+        for (String range : invalid) {
+            try {
+                ContentByteRange.parseRanges(range);
+                fail("Exception expected for " + range);
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e);
+            }
+        }
+    }
+
+    @Test
+    public void testResolve() {
+        long size = 100;
+
+        ContentByteRange range = new ContentByteRange("bytes=-10").resolve(size);
+        assertEquals(Long.valueOf(90), range.getRangeStart());
+        assertEquals(Long.valueOf(99), range.getRangeEnd());
+        assertEquals(10, range.getLength());
+        assertEquals("bytes 90-99/100", range.getContentRange(size));
+
+        // Suffix longer than the content
+        range = new ContentByteRange("bytes=-500").resolve(size);
+        assertEquals(Long.valueOf(0), range.getRangeStart());
+
+        // Open ended and overlong ranges end with the last byte
+        range = new ContentByteRange("bytes=50-").resolve(size);
+        assertEquals(Long.valueOf(99), range.getRangeEnd());
+        range = new ContentByteRange("bytes=50-500").resolve(size);
+        assertEquals(Long.valueOf(99), range.getRangeEnd());
+
+        // Unsatisfiable ranges
+        String[] unsatisfiable = {"bytes=100-", "bytes=-0"};
+        for (String value : unsatisfiable) {
+            try {
+                new ContentByteRange(value).resolve(size);
+                fail("Exception expected for " + value);
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e);
+            }
+        }
+    }
+
+    @Test
+    public void testCoalesce() {
+        long size = 100;
+        List<ContentByteRange> resolved = new ArrayList<>();
+        for (ContentByteRange range :
+            ContentByteRange.parseRanges("bytes=50-59,0-0,2-2,4-4,55-70,90-")) {
+            resolved.add(range.resolve(size));
+        }
+
+        // Overlapping ranges are always combined
+        List<ContentByteRange> combined = ContentByteRange.coalesce(resolved, 0);
+        assertEquals(5, combined.size());
+        assertEquals("bytes=0-0", combined.get(0).toString());
+        assertEquals("bytes=50-70", combined.get(3).toString());
+        assertEquals("bytes=90-99", combined.get(4).toString());
+
+        // Ranges separated by a small gap are combined
+        combined = ContentByteRange.coalesce(resolved, 1);
+        assertEquals(3, combined.size());
+        assertEquals("bytes=0-4", combined.get(0).toString());
+        assertEquals("bytes=50-70", combined.get(1).toString());
+        assertEquals("bytes=90-99", combined.get(2).toString());
+
+        combined = ContentByteRange.coalesce(resolved, 50);
+        assertEquals(1, combined.size());
+        assertEquals("bytes=0-99", combined.get(0).toString());
+    }
+
 }
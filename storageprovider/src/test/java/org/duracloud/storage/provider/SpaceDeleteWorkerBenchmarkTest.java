@@ -0,0 +1,240 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.duracloud.storage.domain.RetrievedContent;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares deleting the contents of a space one item at a time with the
+ * batched, parallel deletes performed by the SpaceDeleteWorker, using a
+ * provider which simulates a fixed latency for each storage request.
+ *
+ * 1,500 items are deleted by default. The full 5,000 items are only used
+ * when the storageprovider.benchmark.large system property is set to true,
+ * as the serial deletes take some time to run.
+ */
+public class SpaceDeleteWorkerBenchmarkTest {
+
+    private final Logger log =
+        LoggerFactory.getLogger(SpaceDeleteWorkerBenchmarkTest.class);
+
+    private static final String spaceId = "space-id";
+    private static final int itemCount =
+        Boolean.getBoolean("storageprovider.benchmark.large") ? 5000 : 1500;
+    private static final long requestLatencyNanos =
+        TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Test
+    public void testDeleteBenchmark() {
+        LatencyStorageProvider provider = new LatencyStorageProvider();
+
+        // Serial deletes, one request per item
+        provider.populate(itemCount);
+        long start = System.nanoTime();
+        Iterator<String> contents = provider.getSpaceContents(spaceId, null);
+        while (contents.hasNext()) {
+            provider.deleteContent(spaceId, contents.next());
+        }
+        long serialMillis = elapsedMillis(start);
+        assertEquals(itemCount, provider.getRequestCount());
+        assertTrue(provider.isEmpty());
+
+        // Batched deletes
+        provider.populate(itemCount);
+        start = System.nanoTime();
+        provider.getSpaceDeleteWorker(spaceId).run();
+        long batchedMillis = elapsedMillis(start);
+        assertTrue(provider.isEmpty());
+        assertTrue(provider.isSpaceRemoved());
+        int batches = (itemCount + StorageProviderBase.DELETE_BATCH_SIZE - 1) /
+                      StorageProviderBase.DELETE_BATCH_SIZE;
+        assertEquals(batches, provider.getRequestCount());
+
+        log.info("Deleted {} items: serial {} ms, batched {} ms " +
+                 "(including the worker's initial wait)",
+                 itemCount, serialMillis, batchedMillis);
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Holds content IDs in memory, pausing for a fixed time on each delete
+     * request. The bulk delete is a single request, as with the S3
+     * multi-object delete.
+     */
+    private static class LatencyStorageProvider extends StorageProviderBase {
+
+        private Set<String> contents = new ConcurrentSkipListSet<>();
+        private AtomicInteger requestCount = new AtomicInteger();
+        private boolean spaceRemoved;
+
+        public void populate(int count) {
+            for (int i = 0; i < count; i++) {
+                contents.add("content-" + i);
+            }
+            requestCount.set(0);
+            spaceRemoved = false;
+        }
+
+        public boolean isEmpty() {
+            return contents.isEmpty();
+        }
+
+        public int getRequestCount() {
+            return requestCount.get();
+        }
+
+        public boolean isSpaceRemoved() {
+            return spaceRemoved;
+        }
+
+        private void request() {
+            requestCount.incrementAndGet();
+            LockSupport.parkNanos(requestLatencyNanos);
+        }
+
+        @Override
+        public void deleteContent(String spaceId, String contentId) {
+            request();
+            if (!contents.remove(contentId)) {
+                throw new NotFoundException(contentId);
+            }
+        }
+
+        @Override
+        public Map<String, Map<String, String>> deleteContents(String spaceId,
+                                                               List<String> contentIds) {
+            request();
+            Map<String, Map<String, String>> deleted = new LinkedHashMap<>();
+            for (String contentId : contentIds) {
+                if (contents.remove(contentId)) {
+                    deleted.put(contentId, new HashMap<>());
+                }
+            }
+            return deleted;
+        }
+
+        @Override
+        public Iterator<String> getSpaceContents(String spaceId,
+                                                 String prefix) {
+            return new ArrayList<>(contents).iterator();
+        }
+
+        @Override
+        protected boolean spaceExists(String spaceId) {
+            return true;
+        }
+
+        @Override
+        protected void removeSpace(String spaceId) {
+            spaceRemoved = true;
+        }
+
+        @Override
+        protected Map<String, String> getAllSpaceProperties(String spaceId) {
+            return new HashMap<>();
+        }
+
+        @Override
+        protected void doSetSpaceProperties(String spaceId,
+                                            Map<String, String> spaceProps) {
+            // Properties are not retained
+        }
+
+        @Override
+        public StorageProviderType getStorageProviderType() {
+            return StorageProviderType.UNKNOWN;
+        }
+
+        @Override
+        public Iterator<String> getSpaces() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> getSpaceContentsChunked(String spaceId,
+                                                    String prefix,
+                                                    long maxResults,
+                                                    String marker) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void createSpace(String spaceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String addContent(String spaceId,
+                                 String contentId,
+                                 String contentMimeType,
+                                 Map<String, String> userProperties,
+                                 long contentSize,
+                                 String contentChecksum,
+                                 InputStream content) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String copyContent(String sourceSpaceId,
+                                  String sourceContentId,
+                                  String destSpaceId,
+                                  String destContentId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RetrievedContent getContent(String spaceId, String contentId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RetrievedContent getContent(String spaceId,
+                                           String contentId,
+                                           String range) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setContentProperties(String spaceId,
+                                         String contentId,
+                                         Map<String, String> contentProperties) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, String> getContentProperties(String spaceId,
+                                                        String contentId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
@@ -10,9 +10,11 @@ package org.duracloud.storage.provider;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -349,6 +351,9 @@ public class StorageProviderBaseTest {
                 .andReturn(contents.iterator())
                 .once();
 
+        EasyMock.expect(providerMock.getContentProperties(spaceId, contentId))
+                .andReturn(new HashMap<String, String>())
+                .once();
         providerMock.deleteContent(spaceId, contentId);
         EasyMock.expectLastCall().once();
 
@@ -379,8 +384,10 @@ public class StorageProviderBaseTest {
                 .andReturn(contents.iterator())
                 .once();
 
-        wrappedProvider.deleteContent(spaceId, contentId);
-        EasyMock.expectLastCall().once();
+        EasyMock.expect(wrappedProvider.deleteContents(spaceId, contents))
+                .andReturn(Collections.singletonMap(contentId,
+                                                    new HashMap<String, String>()))
+                .once();
 
         EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
                                                       EasyMock.<String>isNull()))
@@ -411,6 +418,9 @@ public class StorageProviderBaseTest {
                 .andReturn(contents.iterator())
                 .once();
 
+        EasyMock.expect(providerMock.getContentProperties(spaceId, contentId))
+                .andReturn(new HashMap<String, String>())
+                .times(2);
         providerMock.deleteContent(spaceId, contentId);
         EasyMock.expectLastCall().times(2);
 
@@ -443,6 +453,8 @@ public class StorageProviderBaseTest {
             EasyMock.expect(providerMock.getSpaceContents(spaceId, null))
                     .andReturn(contents.iterator());
 
+            EasyMock.expect(providerMock.getContentProperties(spaceId, contentId))
+                    .andReturn(new HashMap<String, String>());
             providerMock.deleteContent(spaceId, contentId);
             EasyMock.expectLastCall().andThrow(new NotFoundException(""));
         }
@@ -461,6 +473,92 @@ public class StorageProviderBaseTest {
         worker.run();
     }
 
+    @Test
+    public void testInterruptedDeleteWorker() {
+        String contentId = "content-id";
+        List<String> contents = new ArrayList<String>();
+        contents.add(contentId);
+
+        // No content is deleted once the worker is interrupted
+        EasyMock.expect(providerMock.getSpaceContents(spaceId, null)).andReturn(
+            contents.iterator());
+
+        EasyMock.expect(providerMock.getAllSpaceProperties(spaceId)).andReturn(
+            new HashMap<String, String>());
+
+        providerMock.doSetSpaceProperties(EasyMock.<String>anyObject(),
+                                          EasyMock.<Map<String, String>>anyObject());
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        StorageProviderBase.SpaceDeleteWorker worker =
+            providerBase.getSpaceDeleteWorker(spaceId);
+        Thread.currentThread().interrupt();
+        try {
+            worker.run();
+            Assert.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testGetContentsProperties() {
+        List<String> contentIds = Arrays.asList("item-0", "item-1", "item-2");
+        providerMock.throwIfSpaceNotExist(spaceId);
+        EasyMock.expectLastCall().once();
+        for (String contentId : contentIds) {
+            if (contentId.equals("item-1")) {
+                EasyMock.expect(providerMock.getContentProperties(spaceId, contentId))
+                        .andThrow(new NotFoundException("not found"));
+            } else {
+                Map<String, String> props = new HashMap<>();
+                props.put(mimePrefix, contentId);
+                EasyMock.expect(providerMock.getContentProperties(spaceId, contentId))
+                        .andReturn(props);
+            }
+        }
+        EasyMock.makeThreadSafe(providerMock, true);
+        replayMocks();
+
+        // Missing items are left out, other items are returned in order
+        Map<String, Map<String, String>> contentsProps =
+            providerBase.getContentsProperties(spaceId, contentIds);
+        Assert.assertEquals(Arrays.asList("item-0", "item-2"),
+                            new ArrayList<>(contentsProps.keySet()));
+        Assert.assertEquals("item-2", contentsProps.get("item-2").get(mimePrefix));
+    }
+
+    @Test
+    public void testSetContentsProperties() {
+        Map<String, Map<String, String>> contentsProps = new LinkedHashMap<>();
+        providerMock.throwIfSpaceNotExist(spaceId);
+        EasyMock.expectLastCall().once();
+        for (int i = 0; i < 20; i++) {
+            String contentId = "item-" + i;
+            Map<String, String> props = new HashMap<>();
+            props.put(mimePrefix, "text/plain");
+            contentsProps.put(contentId, props);
+
+            providerMock.setContentProperties(spaceId, contentId, props);
+            if (i == 5) {
+                EasyMock.expectLastCall().andThrow(new NotFoundException("not found"));
+            } else {
+                EasyMock.expectLastCall().once();
+            }
+        }
+        EasyMock.makeThreadSafe(providerMock, true);
+        replayMocks();
+
+        List<String> updated =
+            providerBase.setContentsProperties(spaceId, contentsProps);
+        Assert.assertEquals(19, updated.size());
+        Assert.assertFalse(updated.contains("item-5"));
+        Assert.assertEquals("item-0", updated.get(0));
+        Assert.assertEquals("item-19", updated.get(18));
+    }
+
     /**
      * This is an implementation of the abstract StorageProviderBase class,
      * which is the class actually under test.
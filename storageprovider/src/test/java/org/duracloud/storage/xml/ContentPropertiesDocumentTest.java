@@ -0,0 +1,106 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ContentPropertiesDocumentTest {
+
+    private InputStream toStream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testContentIds() throws Exception {
+        List<String> contentIds =
+            Arrays.asList("item-1", "dir/item <2> & more", "\u00e9t\u00e9");
+        String xml = ContentPropertiesDocument.createContentIdsXml(contentIds);
+        Assert.assertEquals(contentIds,
+                            ContentPropertiesDocument.readContentIds(toStream(xml)));
+
+        xml = ContentPropertiesDocument.createContentIdsXml(new ArrayList<>());
+        Assert.assertTrue(
+            ContentPropertiesDocument.readContentIds(toStream(xml)).isEmpty());
+    }
+
+    @Test
+    public void testContentProperties() throws Exception {
+        Map<String, Map<String, String>> contentProperties = new LinkedHashMap<>();
+        Map<String, String> props = new HashMap<>();
+        props.put("content-mimetype", "text/plain");
+        props.put("name", "a \"quoted\" value");
+        contentProperties.put("item-2", props);
+        contentProperties.put("item-1", new HashMap<>());
+
+        String xml =
+            ContentPropertiesDocument.createContentPropertiesXml(contentProperties);
+        Map<String, Map<String, String>> read =
+            ContentPropertiesDocument.readContentProperties(toStream(xml));
+        Assert.assertEquals(contentProperties, read);
+        Assert.assertEquals(Arrays.asList("item-2", "item-1"),
+                            new ArrayList<>(read.keySet()));
+    }
+
+    @Test
+    public void testStreamedWrite() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ContentPropertiesDocument.ContentWriter writer =
+            ContentPropertiesDocument.startContentIds(output);
+        writer.writeContentId("item-1");
+        writer.flush();
+
+        // Items are available to the reader of the stream before it completes
+        Assert.assertTrue(output.toString("UTF-8").contains("item-1"));
+
+        writer.writeContentId("item-2");
+        writer.close();
+        Assert.assertEquals(Arrays.asList("item-1", "item-2"),
+                            ContentPropertiesDocument.readContentIds(
+                                new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    @Test
+    public void testInvalidDocument() throws Exception {
+        verifyInvalidContentIds(
+            "<contentProperties><content id=\"a\"/></contentProperties>");
+        verifyInvalidContentIds("<contentIds><content id=\"a\"/></contentIds>");
+        verifyInvalidContentIds("<contentIds><contentId>a</contentId>");
+
+        try {
+            ContentPropertiesDocument.readContentProperties(toStream(
+                "<contentProperties><content><property name=\"n\">v</property>" +
+                "</content></contentProperties>"));
+            Assert.fail("Exception expected when content ID is missing");
+        } catch (XMLStreamException e) {
+            // Expected
+        }
+    }
+
+    private void verifyInvalidContentIds(String xml) {
+        try {
+            ContentPropertiesDocument.readContentIds(toStream(xml));
+            Assert.fail("Exception expected reading " + xml);
+        } catch (XMLStreamException e) {
+            // Expected
+        }
+    }
+
+}
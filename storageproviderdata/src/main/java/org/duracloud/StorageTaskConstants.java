@@ -20,6 +20,11 @@ public class StorageTaskConstants {
     //Base
     public static final String TASK_BASE_PATH = "/task";
 
+    // Asynchronous task jobs
+    public static final String TASK_JOB_PATH = "/job";
+    public static final String ASYNC_PARAM = "async";
+    public static final String WAIT_PARAM = "wait";
+
     // Streaming
     public static final String ENABLE_STREAMING_TASK_NAME = "enable-streaming";
     public static final String DISABLE_STREAMING_TASK_NAME = "disable-streaming";
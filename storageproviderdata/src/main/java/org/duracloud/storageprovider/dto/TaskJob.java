@@ -0,0 +1,198 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import java.io.IOException;
+import java.util.Date;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * The status of a task which is being performed asynchronously. A job is
+ * created when the task is submitted, and its status is updated as the task
+ * is started and completed. Once the job has completed, it holds either the
+ * result of the task (in the same form as is returned when the task is
+ * performed synchronously) or the error which caused the task to fail.
+ */
+public class TaskJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isComplete() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    @XmlValue
+    private String jobId;
+
+    @XmlValue
+    private String taskName;
+
+    @XmlValue
+    private String storeId;
+
+    @XmlValue
+    private Status status;
+
+    /**
+     * The result of the task, set when the task succeeds
+     */
+    @XmlValue
+    private String result;
+
+    /**
+     * The error message, set when the task fails
+     */
+    @XmlValue
+    private String error;
+
+    /**
+     * The HTTP status code which would have been returned had the task
+     * been performed synchronously, set when the task fails
+     */
+    @XmlValue
+    private int errorCode;
+
+    @XmlValue
+    private Date submitted;
+
+    @XmlValue
+    private Date started;
+
+    @XmlValue
+    private Date completed;
+
+    // Required by JAXB
+    public TaskJob() {
+    }
+
+    public TaskJob(String jobId, String taskName, String storeId) {
+        this.jobId = jobId;
+        this.taskName = taskName;
+        this.storeId = storeId;
+        this.status = Status.QUEUED;
+        this.submitted = new Date();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public void setTaskName(String taskName) {
+        this.taskName = taskName;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(String storeId) {
+        this.storeId = storeId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(int errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public Date getSubmitted() {
+        return submitted;
+    }
+
+    public void setSubmitted(Date submitted) {
+        this.submitted = submitted;
+    }
+
+    public Date getStarted() {
+        return started;
+    }
+
+    public void setStarted(Date started) {
+        this.started = started;
+    }
+
+    public Date getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Date completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * Creates a serialized version of the job
+     *
+     * @return JSON formatted job info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<TaskJob> serializer =
+            new JaxbJsonSerializer<>(TaskJob.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to serialize task job due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses job info
+     *
+     * @param taskJob - JSON formatted job info
+     */
+    public static TaskJob deserialize(String taskJob) {
+        JaxbJsonSerializer<TaskJob> serializer =
+            new JaxbJsonSerializer<>(TaskJob.class);
+        try {
+            return serializer.deserialize(taskJob);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to parse task job due to: " + e.getMessage());
+        }
+    }
+
+}
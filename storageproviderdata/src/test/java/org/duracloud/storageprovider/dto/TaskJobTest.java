@@ -0,0 +1,51 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+public class TaskJobTest {
+
+    @Test
+    public void testSerializeDeserialize() {
+        TaskJob job = new TaskJob("job-id", "task-name", "store-id");
+        job.setStatus(TaskJob.Status.FAILED);
+        job.setError("task failed");
+        job.setErrorCode(409);
+        job.setStarted(new Date(job.getSubmitted().getTime() + 10));
+        job.setCompleted(new Date(job.getSubmitted().getTime() + 20));
+
+        TaskJob result = TaskJob.deserialize(job.serialize());
+        assertEquals("job-id", result.getJobId());
+        assertEquals("task-name", result.getTaskName());
+        assertEquals("store-id", result.getStoreId());
+        assertEquals(TaskJob.Status.FAILED, result.getStatus());
+        assertNull(result.getResult());
+        assertEquals("task failed", result.getError());
+        assertEquals(409, result.getErrorCode());
+        assertEquals(job.getSubmitted(), result.getSubmitted());
+        assertEquals(job.getStarted(), result.getStarted());
+        assertEquals(job.getCompleted(), result.getCompleted());
+    }
+
+    @Test
+    public void testStatus() {
+        assertFalse(TaskJob.Status.QUEUED.isComplete());
+        assertFalse(TaskJob.Status.RUNNING.isComplete());
+        assertTrue(TaskJob.Status.SUCCEEDED.isComplete());
+        assertTrue(TaskJob.Status.FAILED.isComplete());
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.client;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used, in-memory cache of retrieved content items, used
+ * by a ContentStoreImpl to revalidate content with DuraStore rather than
+ * retrieving it again. Only content items no larger than the maximum entry
+ * size are cached, and the total size of the cached content is limited to
+ * the maximum cache size.
+ */
+public class ContentCache {
+
+    public static final long DEFAULT_MAX_ENTRY_BYTES = 1024 * 1024;
+    public static final long DEFAULT_MAX_TOTAL_BYTES = 32 * 1024 * 1024;
+
+    private final LinkedHashMap<String, Entry> entries =
+        new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxEntryBytes;
+    private final long maxTotalBytes;
+    private long totalBytes = 0;
+
+    public ContentCache() {
+        this(DEFAULT_MAX_ENTRY_BYTES, DEFAULT_MAX_TOTAL_BYTES);
+    }
+
+    /**
+     * @param maxEntryBytes size of the largest content item to be cached
+     * @param maxTotalBytes total size of all cached content items
+     */
+    public ContentCache(long maxEntryBytes, long maxTotalBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxTotalBytes = maxTotalBytes;
+    }
+
+    /**
+     * @param size size of a content item, in bytes
+     * @return true if a content item of the given size can be cached
+     */
+    public boolean isCacheable(long size) {
+        return size >= 0 && size <= maxEntryBytes && size <= maxTotalBytes;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        remove(key);
+        if (!isCacheable(entry.getContent().length)) {
+            return;
+        }
+
+        entries.put(key, entry);
+        totalBytes += entry.getContent().length;
+
+        Iterator<Entry> lru = entries.values().iterator();
+        while (totalBytes > maxTotalBytes && lru.hasNext()) {
+            totalBytes -= lru.next().getContent().length;
+            lru.remove();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (null != removed) {
+            totalBytes -= removed.getContent().length;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * A cached content item, along with the validators used to determine
+     * whether it has changed.
+     */
+    public static class Entry {
+        private final byte[] content;
+        private final Map<String, String> properties;
+        private final String etag;
+        private final String lastModified;
+
+        public Entry(byte[] content,
+                     Map<String, String> properties,
+                     String etag,
+                     String lastModified) {
+            this.content = content;
+            this.properties = new HashMap<>(properties);
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * @return a copy of the cached content properties
+         */
+        public Map<String, String> getProperties() {
+            return new HashMap<>(properties);
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+
+}
@@ -24,6 +24,7 @@ import org.duracloud.error.NotFoundException;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReport;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportProperties;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storageprovider.dto.TaskJob;
 
 /**
  * Provides access to a content store
@@ -365,6 +366,21 @@ public interface ContentStore {
     public Content getContent(String spaceId, String contentId, Long startByte, Long endByte)
         throws ContentStoreException;
 
+    /**
+     * Gets the final bytes of a content item from a space. If the content
+     * item is smaller than the requested length, the full content item is
+     * retrieved.
+     *
+     * @param spaceId   the identifier of the DuraCloud Space
+     * @param contentId the identifier of the content item
+     * @param length    the number of bytes to retrieve, must be greater than 0
+     * @return the content stream
+     * @throws NotFoundException     if the space or content does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public Content getContentSuffix(String spaceId, String contentId, long length)
+        throws ContentStoreException;
+
     /**
      * Removes content from a space.
      *
@@ -409,6 +425,37 @@ public interface ContentStore {
                                                     String contentId)
         throws ContentStoreException;
 
+    /**
+     * Sets the properties associated with many content items in a space,
+     * in the same way as setContentProperties(). Items are updated in
+     * batches, and an item which cannot be updated (for example, because it
+     * does not exist) does not prevent the others from being updated.
+     *
+     * @param spaceId           the identifier of the DuraCloud Space
+     * @param contentProperties properties to set, keyed by content ID
+     * @return the IDs of the content items which were updated
+     * @throws NotFoundException     if the space does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public List<String> setContentsProperties(String spaceId,
+                                              Map<String, Map<String, String>> contentProperties)
+        throws ContentStoreException;
+
+    /**
+     * Retrieves the properties associated with many content items in a
+     * space, in the same way as getContentProperties(). Items are retrieved
+     * in batches, and items which do not exist are not included in the result.
+     *
+     * @param spaceId    the identifier of the DuraCloud Space
+     * @param contentIds the identifiers of the content items
+     * @return properties keyed by content ID, in the order requested
+     * @throws NotFoundException     if the space does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public Map<String, Map<String, String>> getContentsProperties(String spaceId,
+                                                                  List<String> contentIds)
+        throws ContentStoreException;
+
     /**
      * Determines if a content item exists in a given space
      *
@@ -472,6 +519,48 @@ public interface ContentStore {
     public String performTaskWithNoRetries(String taskName, String taskParameters)
         throws ContentStoreException;
 
+    /**
+     * Submits a task to be performed asynchronously. This is intended for
+     * tasks which may take longer to complete than a client is willing to
+     * wait on a single request. The submission is not retried on failure,
+     * as a retry could cause the task to be performed more than once.
+     *
+     * @param taskName       the name of the task to be performed
+     * @param taskParameters the parameters of the task, what is included here
+     *                       and how the information is formatted is
+     *                       task-specific
+     * @return the status of the job which will perform the task
+     */
+    public TaskJob performTaskAsync(String taskName, String taskParameters)
+        throws ContentStoreException;
+
+    /**
+     * Gets the status of a job created by performTaskAsync. Jobs are
+     * available only to the user who submitted them, and only for a limited
+     * time after the job completes.
+     *
+     * @param jobId       the ID of the job
+     * @param waitSeconds number of seconds to wait for the job to complete
+     *                    before returning its status, 0 to return immediately
+     * @return the status of the job
+     * @throws NotFoundException if the job is not found
+     */
+    public TaskJob getTaskJob(String jobId, int waitSeconds)
+        throws ContentStoreException;
+
+    /**
+     * Waits for a job created by performTaskAsync to complete.
+     *
+     * @param jobId          the ID of the job
+     * @param timeoutSeconds the longest time to wait for the job to complete
+     * @return the return value of the task, as would have been returned by
+     * performTask
+     * @throws ContentStoreException if the task failed, or did not complete
+     *                               in the time allowed
+     */
+    public String waitForTask(String jobId, long timeoutSeconds)
+        throws ContentStoreException;
+
     /**
      * Sets the Exception Handler which will be used to process any Exceptions
      * that are thrown when an action fails but will be retried. The default
@@ -20,13 +20,18 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.http.Header;
 import org.apache.http.HttpStatus;
+import org.duracloud.StorageTaskConstants;
 import org.duracloud.common.constant.Constants;
 import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.common.json.JaxbJsonSerializer;
@@ -55,6 +60,8 @@ import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.util.IdUtil;
+import org.duracloud.storage.xml.ContentPropertiesDocument;
+import org.duracloud.storageprovider.dto.TaskJob;
 import org.jdom.Document;
 import org.jdom.Element;
 import org.jdom.input.SAXBuilder;
@@ -80,6 +87,17 @@ public class ContentStoreImpl implements ContentStore {
 
     private static final String HEADER_PREFIX = Constants.HEADER_PREFIX;
 
+    private static final Pattern CONTENT_RANGE_PATTERN =
+        Pattern.compile("bytes (\\d+)-(\\d+)/");
+
+    // Longest wait per request for a task job, kept well below typical
+    // socket timeouts
+    private static final int MAX_TASK_JOB_WAIT_SECONDS = 20;
+
+    // Most content items included in a single request for the properties of
+    // many items, matching the limit enforced by DuraStore
+    private static final int CONTENTS_BATCH_SIZE = 1000;
+
     private int maxRetries = 3;
 
     private final Logger log =
@@ -89,6 +107,8 @@ public class ContentStoreImpl implements ContentStore {
 
     private String clientVersion;
 
+    private ContentCache contentCache;
+
     /**
      * Creates a ContentStore. This ContentStore uses the default number of
      * retries when a failure occurs (3).
@@ -142,6 +162,18 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * Enables caching of retrieved content. Content items which are in the
+     * cache are revalidated with DuraStore when they are retrieved again,
+     * and are only transferred again if they have changed.
+     *
+     * @param contentCache cache to hold retrieved content, null to disable
+     *                     caching
+     */
+    public void setContentCache(ContentCache contentCache) {
+        this.contentCache = contentCache;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -206,6 +238,12 @@ public class ContentStoreImpl implements ContentStore {
         return addStoreIdQueryParameter(url, storeId);
     }
 
+    private String buildContentsPropertiesURL(String spaceId, String operation) {
+        String url = buildURL("/" + spaceId);
+        url = addQueryParameter(url, "properties", operation);
+        return addStoreIdQueryParameter(url);
+    }
+
     private String buildAclURL(String spaceId) {
         String url = buildURL("/acl/" + spaceId);
         return addStoreIdQueryParameter(url);
@@ -221,6 +259,17 @@ public class ContentStoreImpl implements ContentStore {
         return addStoreIdQueryParameter(url);
     }
 
+    private String buildTaskJobURL(String jobId, int waitSeconds) {
+        String url = buildURL(StorageTaskConstants.TASK_BASE_PATH +
+                              StorageTaskConstants.TASK_JOB_PATH + "/" +
+                              EncodeUtil.urlEncode(jobId));
+        if (waitSeconds > 0) {
+            url = addQueryParameter(url, StorageTaskConstants.WAIT_PARAM,
+                                    String.valueOf(waitSeconds));
+        }
+        return url;
+    }
+
     private String buildSpaceURL(String spaceId,
                                  String prefix,
                                  long maxResults,
@@ -620,6 +669,7 @@ public class ContentStoreImpl implements ContentStore {
         validateContentId(contentId);
         String task = "add content";
         String url = buildContentURL(spaceId, contentId);
+        removeCachedContent(url);
 
         // Include mimetype as properties
         if (contentMimeType != null && !contentMimeType.equals("")) {
@@ -718,6 +768,7 @@ public class ContentStoreImpl implements ContentStore {
 
         srcContentId = EncodeUtil.urlEncode(srcContentId);
         String url = buildContentURL(destStoreId, destSpaceId, destContentId);
+        removeCachedContent(url);
 
         Map<String, String> headers = new HashMap<String, String>();
 
@@ -836,6 +887,10 @@ public class ContentStoreImpl implements ContentStore {
             throw new IllegalArgumentException("endByte must be null or greater than the startByte.");
         }
 
+        if (null != contentCache && startByte == 0 && endByte == null) {
+            return execute(() -> doGetCachedContent(spaceId, contentId));
+        }
+
         return execute(() -> {
             try {
                 final HttpResponse response = doGetContent(spaceId, contentId, startByte, endByte);
@@ -855,6 +910,39 @@ public class ContentStoreImpl implements ContentStore {
         return getContent(spaceId, contentId, 0l, null);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Content getContentSuffix(String spaceId, String contentId, long length)
+        throws ContentStoreException {
+        if (length <= 0) {
+            throw new IllegalArgumentException("length must be greater than zero.");
+        }
+
+        return execute(() -> {
+            try {
+                HttpResponse response =
+                    doGetContent(spaceId, contentId, "bytes=-" + length, true);
+                // The absolute positions of the returned bytes are needed in
+                // order to resume an interrupted transfer
+                Long startByte = 0L;
+                Long endByte = null;
+                Header contentRange = response.getResponseHeader(HttpHeaders.CONTENT_RANGE);
+                if (null != contentRange) {
+                    Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange.getValue());
+                    if (matcher.find()) {
+                        startByte = Long.valueOf(matcher.group(1));
+                        endByte = Long.valueOf(matcher.group(2));
+                    }
+                }
+                return toContent(response, spaceId, contentId, startByte, endByte);
+            } catch (IOException ex) {
+                throw new ContentStoreException(ex.getMessage(), ex);
+            }
+        });
+    }
+
     private Content toContent(HttpResponse response, String spaceId, String contentId, Long startByte, Long endByte)
         throws IOException {
         Content content = new Content();
@@ -868,18 +956,149 @@ public class ContentStoreImpl implements ContentStore {
         return content;
     }
 
+    /*
+     * Retrieves a full content item, sending the validators of the cached copy
+     * of the item (if any) so that DuraStore only returns the content if it
+     * has changed. Content items small enough to be cached are read into
+     * memory and added to the cache.
+     */
+    private Content doGetCachedContent(String spaceId, String contentId)
+        throws ContentStoreException {
+        String task = "get content";
+        String url = buildContentURL(spaceId, contentId);
+        ContentCache.Entry cached = contentCache.get(url);
+        try {
+            Map<String, String> headers = new HashMap<>();
+            if (null != cached) {
+                if (null != cached.getETag()) {
+                    headers.put(HttpHeaders.IF_NONE_MATCH, cached.getETag());
+                }
+                if (null != cached.getLastModified()) {
+                    headers.put(HttpHeaders.IF_MODIFIED_SINCE,
+                                cached.getLastModified());
+                }
+            }
+
+            HttpResponse response = restHelper.get(url, headers);
+            if (null != cached &&
+                response.getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                log.debug("Content {}/{} is unchanged, using cached copy",
+                          spaceId, contentId);
+                Map<String, String> properties =
+                    getNotModifiedProperties(response, cached);
+                // Properties may be updated without changing the content
+                contentCache.put(url, new ContentCache.Entry(cached.getContent(),
+                                                             properties,
+                                                             cached.getETag(),
+                                                             cached.getLastModified()));
+                return toContent(contentId, cached.getContent(), properties);
+            }
+
+            checkResponse(response, HttpStatus.SC_OK);
+            Map<String, String> properties =
+                mergeMaps(extractPropertiesFromHeaders(response),
+                          extractNonPropertiesHeaders(response));
+            if (isCacheable(properties)) {
+                byte[] bytes;
+                try (InputStream stream = response.getResponseStream()) {
+                    bytes = IOUtils.toByteArray(stream);
+                }
+                contentCache.put(url, new ContentCache.Entry(
+                    bytes,
+                    properties,
+                    getHeaderValue(response, HttpHeaders.ETAG),
+                    getHeaderValue(response, HttpHeaders.LAST_MODIFIED)));
+                return toContent(contentId, bytes, properties);
+            }
+
+            contentCache.remove(url);
+            return toContent(response, spaceId, contentId, 0L, null);
+        } catch (NotFoundException e) {
+            contentCache.remove(url);
+            throw new NotFoundException(task, spaceId, contentId, e);
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException(task, spaceId, contentId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task, spaceId, contentId, e);
+        }
+    }
+
+    /*
+     * A not modified response includes the current properties of the content
+     * item, but may leave out the standard headers which describe the
+     * content itself, in which case the cached values are used.
+     */
+    private Map<String, String> getNotModifiedProperties(HttpResponse response,
+                                                         ContentCache.Entry cached) {
+        Map<String, String> properties =
+            mergeMaps(extractPropertiesFromHeaders(response),
+                      extractNonPropertiesHeaders(response));
+        Map<String, String> cachedProperties = cached.getProperties();
+        String[] contentHeaders = {CONTENT_MIMETYPE,
+                                   CONTENT_SIZE,
+                                   CONTENT_CHECKSUM,
+                                   CONTENT_MODIFIED,
+                                   CONTENT_ENCODING};
+        for (String name : contentHeaders) {
+            if (!properties.containsKey(name) &&
+                cachedProperties.containsKey(name)) {
+                properties.put(name, cachedProperties.get(name));
+            }
+        }
+        return properties;
+    }
+
+    private boolean isCacheable(Map<String, String> properties) {
+        String size = properties.get(CONTENT_SIZE);
+        if (null == size) {
+            return false;
+        }
+        try {
+            return contentCache.isCacheable(Long.parseLong(size));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String getHeaderValue(HttpResponse response, String headerName) {
+        Header header = response.getResponseHeader(headerName);
+        return null == header ? null : header.getValue();
+    }
+
+    private Content toContent(String contentId,
+                              byte[] bytes,
+                              Map<String, String> properties) {
+        Content content = new Content();
+        content.setId(contentId);
+        content.setStream(new ByteArrayInputStream(bytes));
+        content.setProperties(properties);
+        return content;
+    }
+
+    private void removeCachedContent(String url) {
+        if (null != contentCache) {
+            contentCache.remove(url);
+        }
+    }
+
     protected HttpResponse doGetContent(String spaceId, String contentId, Long startByte, Long endByte)
+        throws ContentStoreException {
+        final boolean hasRange = !(startByte == 0l && endByte == null);
+        String range = "bytes=" + startByte + "-" + (endByte != null ? endByte : "");
+        return doGetContent(spaceId, contentId, range, hasRange);
+    }
+
+    private HttpResponse doGetContent(String spaceId, String contentId, String range, boolean hasRange)
         throws ContentStoreException {
         String task = "get content";
         String url = buildContentURL(spaceId, contentId);
         try {
-            final boolean hasRange = !(startByte == 0l && endByte == null);
             final HttpResponse response;
             if (!hasRange) {
                 response = restHelper.get(url);
             } else {
                 Map<String, String> headers = new HashMap<>();
-                headers.put("Range", "bytes=" + startByte + "-" + (endByte != null ? endByte : ""));
+                headers.put("Range", range);
                 response = restHelper.get(url, headers);
             }
             checkResponse(response, hasRange ? HttpStatus.SC_PARTIAL_CONTENT : HttpStatus.SC_OK);
@@ -913,6 +1132,7 @@ public class ContentStoreImpl implements ContentStore {
         throws ContentStoreException {
         String task = "delete content";
         String url = buildContentURL(spaceId, contentId);
+        removeCachedContent(url);
         try {
             HttpResponse response = restHelper.delete(url);
             checkResponse(response, HttpStatus.SC_OK);
@@ -949,6 +1169,7 @@ public class ContentStoreImpl implements ContentStore {
         throws ContentStoreException {
         String task = "update content properties";
         String url = buildContentURL(spaceId, contentId);
+        removeCachedContent(url);
         Map<String, String> headers =
             convertPropertiesToHeaders(contentProperties);
         try {
@@ -1000,6 +1221,113 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> setContentsProperties(final String spaceId,
+                                              final Map<String, Map<String, String>> contentProperties)
+        throws ContentStoreException {
+        List<String> updated = new ArrayList<>();
+        Map<String, Map<String, String>> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, Map<String, String>>> entries =
+            contentProperties.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Map<String, String>> entry = entries.next();
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == CONTENTS_BATCH_SIZE || !entries.hasNext()) {
+                final Map<String, Map<String, String>> batchProperties = batch;
+                updated.addAll(execute(new Retriable() {
+                    @Override
+                    public List<String> retry() throws ContentStoreException {
+                        // The actual method being executed
+                        return doSetContentsProperties(spaceId, batchProperties);
+                    }
+                }));
+                batch = new LinkedHashMap<>();
+            }
+        }
+        return updated;
+    }
+
+    private List<String> doSetContentsProperties(String spaceId,
+                                                 Map<String, Map<String, String>> contentProperties)
+        throws ContentStoreException {
+        String task = "update properties of contents";
+        String url = buildContentsPropertiesURL(spaceId, "set");
+        for (String contentId : contentProperties.keySet()) {
+            removeCachedContent(buildContentURL(spaceId, contentId));
+        }
+        try {
+            String xml =
+                ContentPropertiesDocument.createContentPropertiesXml(contentProperties);
+            HttpResponse response =
+                restHelper.post(url, xml, "application/xml", null);
+            checkResponse(response, HttpStatus.SC_OK);
+            try (InputStream stream = response.getResponseStream()) {
+                return ContentPropertiesDocument.readContentIds(stream);
+            }
+        } catch (NotFoundException e) {
+            throw new NotFoundException(task, spaceId, e);
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException(task, spaceId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task, spaceId, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Map<String, String>> getContentsProperties(final String spaceId,
+                                                                  final List<String> contentIds)
+        throws ContentStoreException {
+        final Map<String, Map<String, String>> properties = new LinkedHashMap<>();
+        for (int i = 0; i < contentIds.size(); i += CONTENTS_BATCH_SIZE) {
+            final List<String> batch =
+                contentIds.subList(i, Math.min(i + CONTENTS_BATCH_SIZE,
+                                               contentIds.size()));
+            execute(new Retriable() {
+                @Override
+                public Boolean retry() throws ContentStoreException {
+                    // The actual method being executed
+                    doGetContentsProperties(spaceId, batch, properties);
+                    return true;
+                }
+            });
+        }
+        return properties;
+    }
+
+    /*
+     * Items are added to the result as they are read from the response, so
+     * that a large batch is never held in memory as a whole document.
+     */
+    private void doGetContentsProperties(String spaceId,
+                                         List<String> contentIds,
+                                         Map<String, Map<String, String>> properties)
+        throws ContentStoreException {
+        String task = "get properties of contents";
+        String url = buildContentsPropertiesURL(spaceId, "get");
+        try {
+            String xml = ContentPropertiesDocument.createContentIdsXml(contentIds);
+            HttpResponse response =
+                restHelper.post(url, xml, "application/xml", null);
+            checkResponse(response, HttpStatus.SC_OK);
+            try (InputStream stream = response.getResponseStream()) {
+                ContentPropertiesDocument.readContentProperties(stream,
+                                                                properties::put);
+            }
+        } catch (NotFoundException e) {
+            throw new NotFoundException(task, spaceId, e);
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException(task, spaceId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task, spaceId, e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1228,6 +1556,106 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskJob performTaskAsync(String taskName, String taskParameters)
+        throws ContentStoreException {
+        String url = addQueryParameter(buildTaskURL(taskName),
+                                       StorageTaskConstants.ASYNC_PARAM,
+                                       "true");
+        try {
+            HttpResponse response = restHelper.post(url, taskParameters, null);
+            checkResponse(response, HttpStatus.SC_ACCEPTED);
+            return TaskJob.deserialize(response.getResponseBody());
+        } catch (InvalidIdException e) {
+            throw new UnsupportedTaskException(taskName, e);
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException("Not authorized to perform task: " +
+                                                taskName, e);
+        } catch (ContentStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ContentStoreException("Error submitting task (" +
+                                                taskName + "):  " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskJob getTaskJob(final String jobId, final int waitSeconds)
+        throws ContentStoreException {
+        return execute(new Retriable() {
+            @Override
+            public TaskJob retry() throws ContentStoreException {
+                // The actual method being executed
+                return doGetTaskJob(jobId, waitSeconds);
+            }
+        });
+    }
+
+    private TaskJob doGetTaskJob(String jobId, int waitSeconds)
+        throws ContentStoreException {
+        String url = buildTaskJobURL(jobId, waitSeconds);
+        try {
+            HttpResponse response = restHelper.get(url);
+            checkResponse(response, HttpStatus.SC_OK);
+            return TaskJob.deserialize(response.getResponseBody());
+        } catch (NotFoundException e) {
+            throw new NotFoundException("Task job " + jobId + " was not found");
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException("Not authorized to get task job: " +
+                                                jobId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException("Error getting task job (" +
+                                                jobId + "): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String waitForTask(String jobId, long timeoutSeconds)
+        throws ContentStoreException {
+        long end = System.currentTimeMillis() + (timeoutSeconds * 1000);
+        TaskJob job = getTaskJob(jobId, 0);
+        long remaining = end - System.currentTimeMillis();
+        while (!job.getStatus().isComplete() && remaining > 0) {
+            // Waiting is done by the server, a request returns as the job completes
+            int wait = (int) Math.max(1, Math.min(remaining / 1000,
+                                                  MAX_TASK_JOB_WAIT_SECONDS));
+            job = getTaskJob(jobId, wait);
+            remaining = end - System.currentTimeMillis();
+        }
+
+        String taskName = job.getTaskName();
+        if (TaskJob.Status.SUCCEEDED.equals(job.getStatus())) {
+            return job.getResult();
+        } else if (!job.getStatus().isComplete()) {
+            throw new ContentStoreException("Task (" + taskName + ") job " +
+                                            jobId + " did not complete within " +
+                                            timeoutSeconds + " seconds");
+        }
+
+        String error = job.getError();
+        int errorCode = job.getErrorCode();
+        if (errorCode == HttpStatus.SC_BAD_REQUEST) {
+            throw new UnsupportedTaskException(taskName,
+                                               new ContentStoreException(error));
+        } else if (errorCode == HttpStatus.SC_FORBIDDEN) {
+            throw new UnauthorizedException("Not authorized to perform task: " +
+                                            taskName);
+        } else if (errorCode == HttpStatus.SC_CONFLICT) {
+            throw new ContentStateException(error);
+        }
+        throw new ContentStoreException("Error performing task (" +
+                                        taskName + "):  " + error);
+    }
+
     @Override
     public InputStream getManifest(String spaceId, ManifestFormat format)
         throws ContentStoreException {
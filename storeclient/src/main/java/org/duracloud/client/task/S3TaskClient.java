@@ -14,6 +14,7 @@ import org.duracloud.s3storageprovider.dto.EnableStreamingTaskResult;
 import org.duracloud.s3storageprovider.dto.GetSignedCookiesUrlTaskResult;
 import org.duracloud.s3storageprovider.dto.GetSignedUrlTaskResult;
 import org.duracloud.s3storageprovider.dto.GetUrlTaskResult;
+import org.duracloud.storageprovider.dto.TaskJob;
 
 /**
  * Provides a client interface for S3StorageProvider's set of tasks.
@@ -141,6 +142,33 @@ public interface S3TaskClient {
     public DeleteStreamingTaskResult deleteHlsStreaming(String spaceId)
         throws ContentStoreException;
 
+    /**
+     * Submits a request to enable HLS streaming on a space without waiting
+     * for the streaming distribution to be created. The result can be
+     * retrieved using ContentStore.waitForTask and parsed using
+     * EnableStreamingTaskResult.deserialize.
+     *
+     * @param spaceId the ID of the space where streaming will be enabled
+     * @param secure  true if signed URLs should be required to stream space content
+     * @return the status of the job performing the task
+     * @throws ContentStoreException on error
+     */
+    public TaskJob enableHlsStreamingAsync(String spaceId, boolean secure)
+        throws ContentStoreException;
+
+    /**
+     * Submits a request to delete the HLS streaming distribution for a space
+     * without waiting for the distribution to be removed. The result can be
+     * retrieved using ContentStore.waitForTask and parsed using
+     * DeleteStreamingTaskResult.deserialize.
+     *
+     * @param spaceId the ID of the space where streaming will be disabled
+     * @return the status of the job performing the task
+     * @throws ContentStoreException on error
+     */
+    public TaskJob deleteHlsStreamingAsync(String spaceId)
+        throws ContentStoreException;
+
     /**
      * Returns a URL representing an HLS streamable resource.
      * @param spaceId the space ID that contains the content to be streamed
@@ -23,6 +23,7 @@ import org.duracloud.s3storageprovider.dto.GetSignedUrlTaskParameters;
 import org.duracloud.s3storageprovider.dto.GetSignedUrlTaskResult;
 import org.duracloud.s3storageprovider.dto.GetUrlTaskParameters;
 import org.duracloud.s3storageprovider.dto.GetUrlTaskResult;
+import org.duracloud.storageprovider.dto.TaskJob;
 
 /**
  * Implements the S3 task client interface by making task calls through
@@ -176,6 +177,33 @@ public class S3TaskClientImpl implements S3TaskClient {
                                      taskParams.serialize()));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskJob enableHlsStreamingAsync(String spaceId, boolean secure)
+        throws ContentStoreException {
+        EnableStreamingTaskParameters taskParams = new EnableStreamingTaskParameters();
+        taskParams.setSpaceId(spaceId);
+        taskParams.setSecure(secure);
+
+        return contentStore.performTaskAsync(StorageTaskConstants.ENABLE_HLS_TASK_NAME,
+                                             taskParams.serialize());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskJob deleteHlsStreamingAsync(String spaceId)
+        throws ContentStoreException {
+        DeleteStreamingTaskParameters taskParams = new DeleteStreamingTaskParameters();
+        taskParams.setSpaceId(spaceId);
+
+        return contentStore.performTaskAsync(StorageTaskConstants.DELETE_HLS_TASK_NAME,
+                                             taskParams.serialize());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -19,6 +19,7 @@ import org.duracloud.snapshot.dto.task.GetSnapshotListTaskResult;
 import org.duracloud.snapshot.dto.task.GetSnapshotTaskResult;
 import org.duracloud.snapshot.dto.task.RequestRestoreSnapshotTaskResult;
 import org.duracloud.snapshot.dto.task.RestoreSnapshotTaskResult;
+import org.duracloud.storageprovider.dto.TaskJob;
 
 /**
  * Provides a client interface for the SnapshotStorageProvider's set of tasks.
@@ -68,6 +69,19 @@ public interface SnapshotTaskClient {
     public CleanupSnapshotTaskResult cleanupSnapshot(String spaceId)
         throws ContentStoreException;
 
+    /**
+     * Submits a request to clean up the content of a transferred snapshot
+     * without waiting for the content to be removed. The result can be
+     * retrieved using ContentStore.waitForTask and parsed using
+     * CleanupSnapshotTaskResult.deserialize.
+     *
+     * @param spaceId the ID of the space that hosted the snapshot content
+     * @return the status of the job performing the task
+     * @throws ContentStoreException on error
+     */
+    public TaskJob cleanupSnapshotAsync(String spaceId)
+        throws ContentStoreException;
+
     /**
      * Completes the snapshot. The cleanupSnapshot call should be made and
      * all content should have been removed from the snapshot space prior
@@ -135,6 +149,20 @@ public interface SnapshotTaskClient {
                                                      String userEmail)
         throws ContentStoreException;
 
+    /**
+     * Submits a request to begin restoring a snapshot without waiting for
+     * the landing space to be prepared. The result can be retrieved using
+     * ContentStore.waitForTask and parsed using
+     * RestoreSnapshotTaskResult.deserialize.
+     *
+     * @param snapshotId the ID of the snapshot to restore
+     * @param userEmail  address to inform when restoration is complete
+     * @return the status of the job performing the task
+     * @throws ContentStoreException on error
+     */
+    public TaskJob restoreSnapshotAsync(String snapshotId, String userEmail)
+        throws ContentStoreException;
+
     /**
      * Sends a snapshot restore request to the DuraCloud Admin.
      *
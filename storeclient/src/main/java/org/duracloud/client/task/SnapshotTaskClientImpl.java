@@ -30,6 +30,7 @@ import org.duracloud.snapshot.dto.task.GetSnapshotTaskResult;
 import org.duracloud.snapshot.dto.task.RequestRestoreSnapshotTaskResult;
 import org.duracloud.snapshot.dto.task.RestoreSnapshotTaskParameters;
 import org.duracloud.snapshot.dto.task.RestoreSnapshotTaskResult;
+import org.duracloud.storageprovider.dto.TaskJob;
 
 /**
  * Implements the snapshot task client interface by making task calls through
@@ -100,6 +101,20 @@ public class SnapshotTaskClientImpl implements SnapshotTaskClient {
         return CleanupSnapshotTaskResult.deserialize(taskResult);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskJob cleanupSnapshotAsync(String spaceId)
+        throws ContentStoreException {
+        CleanupSnapshotTaskParameters taskParams =
+            new CleanupSnapshotTaskParameters();
+        taskParams.setSpaceId(spaceId);
+
+        return contentStore.performTaskAsync(SnapshotConstants.CLEANUP_SNAPSHOT_TASK_NAME,
+                                             taskParams.serialize());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -189,6 +204,21 @@ public class SnapshotTaskClientImpl implements SnapshotTaskClient {
         return RestoreSnapshotTaskResult.deserialize(taskResult);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskJob restoreSnapshotAsync(String snapshotId, String userEmail)
+        throws ContentStoreException {
+        RestoreSnapshotTaskParameters taskParams =
+            new RestoreSnapshotTaskParameters();
+        taskParams.setSnapshotId(snapshotId);
+        taskParams.setUserEmail(userEmail);
+
+        return contentStore.performTaskAsync(SnapshotConstants.RESTORE_SNAPSHOT_TASK_NAME,
+                                             taskParams.serialize());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,58 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+public class ContentCacheTest {
+
+    private ContentCache.Entry entry(int size) {
+        return new ContentCache.Entry(new byte[size],
+                                      new HashMap<String, String>(),
+                                      "etag",
+                                      null);
+    }
+
+    @Test
+    public void testEntrySizeLimit() {
+        ContentCache cache = new ContentCache(10, 100);
+        assertTrue(cache.isCacheable(10));
+        assertFalse(cache.isCacheable(11));
+
+        cache.put("one", entry(11));
+        assertNull(cache.get("one"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEviction() {
+        ContentCache cache = new ContentCache(10, 25);
+        cache.put("one", entry(10));
+        cache.put("two", entry(10));
+        cache.get("one");
+        cache.put("three", entry(10));
+
+        // The least recently used entry is evicted
+        assertNotNull(cache.get("one"));
+        assertNull(cache.get("two"));
+        assertNotNull(cache.get("three"));
+
+        cache.remove("one");
+        cache.put("four", entry(10));
+        assertEquals(2, cache.size());
+    }
+
+}
@@ -42,11 +42,14 @@ import org.duracloud.common.util.SerializationUtil;
 import org.duracloud.common.web.RestHttpHelper;
 import org.duracloud.domain.Content;
 import org.duracloud.domain.Space;
+import org.duracloud.error.ContentStateException;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.error.InvalidIdException;
 import org.duracloud.reportdata.storage.SpaceStatsDTO;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.xml.ContentPropertiesDocument;
+import org.duracloud.storageprovider.dto.TaskJob;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.junit.After;
@@ -392,6 +395,91 @@ public class ContentStoreImplTest {
         Assert.assertEquals(streamContent, IOUtils.toString(content.getStream()));
     }
 
+    @Test
+    public void testGetContentRevalidatesCachedCopy() throws Exception {
+        String streamContent = "content";
+        String etag = "etag";
+        String lastModified = "2026-10-18T10:30:00";
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId + "?storeID=" + storeId;
+
+        // Initial retrieval
+        Capture<Map<String, String>> initialHeaders = Capture.newInstance();
+        EasyMock.expect(restHelper.get(eq(fullURL), capture(initialHeaders)))
+                .andReturn(response);
+        EasyMock.expect(response.getStatusCode()).andReturn(200);
+        Header[] headers =
+            new Header[] {new BasicHeader(HttpHeaders.CONTENT_LENGTH, "7"),
+                          new BasicHeader(HttpHeaders.ETAG, etag),
+                          new BasicHeader(HttpHeaders.LAST_MODIFIED, lastModified),
+                          new BasicHeader(HEADER_PREFIX + "name", "one")};
+        EasyMock.expect(response.getResponseHeaders()).andReturn(headers).times(2);
+        EasyMock.expect(response.getResponseHeader(HttpHeaders.ETAG))
+                .andReturn(headers[1]);
+        EasyMock.expect(response.getResponseHeader(HttpHeaders.LAST_MODIFIED))
+                .andReturn(headers[2]);
+        EasyMock.expect(response.getResponseStream())
+                .andReturn(IOUtils.toInputStream(streamContent));
+
+        // Revalidation, the content is unchanged but properties are updated
+        RestHttpHelper.HttpResponse notModified =
+            EasyMock.createMock("NotModified", RestHttpHelper.HttpResponse.class);
+        Capture<Map<String, String>> revalidateHeaders = Capture.newInstance();
+        EasyMock.expect(restHelper.get(eq(fullURL), capture(revalidateHeaders)))
+                .andReturn(notModified);
+        EasyMock.expect(notModified.getStatusCode()).andReturn(304);
+        EasyMock.expect(notModified.getResponseHeaders())
+                .andReturn(new Header[] {new BasicHeader(HttpHeaders.ETAG, etag),
+                                         new BasicHeader(HEADER_PREFIX + "name", "two")})
+                .times(2);
+
+        replayMocks();
+        EasyMock.replay(notModified);
+
+        ContentCache cache = new ContentCache();
+        ((ContentStoreImpl) contentStore).setContentCache(cache);
+
+        Content content = contentStore.getContent(spaceId, contentId);
+        Assert.assertEquals(streamContent, IOUtils.toString(content.getStream()));
+        Assert.assertEquals("one", content.getProperties().get("name"));
+        Assert.assertTrue(initialHeaders.getValue().isEmpty());
+        Assert.assertEquals(1, cache.size());
+
+        content = contentStore.getContent(spaceId, contentId);
+        Assert.assertEquals(streamContent, IOUtils.toString(content.getStream()));
+        Assert.assertEquals("two", content.getProperties().get("name"));
+        Assert.assertEquals("7", content.getProperties().get(
+            StorageProvider.PROPERTIES_CONTENT_SIZE));
+        Map<String, String> conditions = revalidateHeaders.getValue();
+        Assert.assertEquals(etag, conditions.get(HttpHeaders.IF_NONE_MATCH));
+        Assert.assertEquals(lastModified, conditions.get(HttpHeaders.IF_MODIFIED_SINCE));
+
+        EasyMock.verify(notModified);
+    }
+
+    @Test
+    public void testGetContentTooLargeToCache() throws Exception {
+        String streamContent = "content";
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId + "?storeID=" + storeId;
+
+        EasyMock.expect(restHelper.get(eq(fullURL), EasyMock.<Map<String, String>>anyObject()))
+                .andReturn(response);
+        EasyMock.expect(response.getStatusCode()).andReturn(200);
+        Header[] headers =
+            new Header[] {new BasicHeader(HttpHeaders.CONTENT_LENGTH, "7")};
+        EasyMock.expect(response.getResponseHeaders()).andReturn(headers).times(4);
+        EasyMock.expect(response.getResponseStream())
+                .andReturn(IOUtils.toInputStream(streamContent));
+
+        replayMocks();
+
+        ContentCache cache = new ContentCache(5, 100);
+        ((ContentStoreImpl) contentStore).setContentCache(cache);
+
+        Content content = contentStore.getContent(spaceId, contentId);
+        Assert.assertEquals(streamContent, IOUtils.toString(content.getStream()));
+        Assert.assertEquals(0, cache.size());
+    }
+
     @Test
     public void testGetContentWithMidstreamNetworkFailureAndRecovery() throws Exception {
         String streamContent = "content";
@@ -467,6 +555,27 @@ public class ContentStoreImplTest {
 
     }
 
+    @Test
+    public void testGetContentSuffix() throws Exception {
+        String streamContent = "tent";
+        InputStream stream = IOUtils.toInputStream(streamContent);
+
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId + "?storeID=" + storeId;
+        EasyMock.expect(response.getStatusCode()).andReturn(206);
+        EasyMock.expect(response.getResponseHeader(HttpHeaders.CONTENT_RANGE))
+                .andReturn(new BasicHeader(HttpHeaders.CONTENT_RANGE, "bytes 3-6/7"));
+        EasyMock.expect(response.getResponseHeaders())
+                .andReturn(new Header[0]).times(2);
+        EasyMock.expect(response.getResponseStream()).andReturn(stream);
+        Capture<Map<String, String>> captureHeaders = Capture.newInstance();
+        EasyMock.expect(restHelper.get(eq(fullURL), capture(captureHeaders))).andReturn(response);
+        replayMocks();
+
+        Content content = contentStore.getContentSuffix(spaceId, contentId, 4);
+        Assert.assertEquals("bytes=-4", captureHeaders.getValue().get("Range"));
+        Assert.assertEquals(streamContent, IOUtils.toString(content.getStream()));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testGetContentWithInvalidRange1() throws Exception {
         //start byte must be non-null
@@ -521,6 +630,37 @@ public class ContentStoreImplTest {
         Assert.assertEquals("value2", headers.get("x-dura-meta-key2"));
     }
 
+    @Test
+    public void testGetContentsProperties() throws Exception {
+        String fullURL = baseURL + "/" + spaceId + "?properties=get&storeID=" + storeId;
+        List<String> contentIds = Arrays.asList("item-1", "item-2");
+
+        Map<String, Map<String, String>> found = new HashMap<>();
+        Map<String, String> props = new HashMap<>();
+        props.put("content-mimetype", "text/plain");
+        found.put("item-2", props);
+        String responseXml =
+            ContentPropertiesDocument.createContentPropertiesXml(found);
+
+        Capture<String> bodyCapture = Capture.newInstance();
+        EasyMock.expect(response.getStatusCode()).andReturn(200);
+        EasyMock.expect(response.getResponseStream())
+                .andReturn(IOUtils.toInputStream(responseXml, "UTF-8"));
+        EasyMock.expect(restHelper.post(eq(fullURL),
+                                        capture(bodyCapture),
+                                        eq("application/xml"),
+                                        EasyMock.<Map<String, String>>isNull()))
+                .andReturn(response);
+
+        replayMocks();
+
+        Map<String, Map<String, String>> contentsProps =
+            contentStore.getContentsProperties(spaceId, contentIds);
+        assertEquals(found, contentsProps);
+        assertEquals(contentIds, ContentPropertiesDocument.readContentIds(
+            IOUtils.toInputStream(bodyCapture.getValue(), "UTF-8")));
+    }
+
     @Test
     public void testGetContentProperties() throws Exception {
         String fullURL = baseURL + "/" + spaceId + "/" + contentId + "?storeID=" + storeId;
@@ -977,6 +1117,71 @@ public class ContentStoreImplTest {
         }
     }
 
+    @Test
+    public void testPerformTaskAsync() throws Exception {
+        String taskName = "task1";
+        String taskParams = "params";
+
+        TaskJob job = new TaskJob("job-id", taskName, storeId);
+        String fullURL = baseURL + "/task/" + taskName + "?storeID=" + storeId +
+                         "&async=true";
+        EasyMock.expect(response.getStatusCode()).andReturn(202);
+        EasyMock.expect(response.getResponseBody()).andReturn(job.serialize());
+        EasyMock.expect(restHelper.post(fullURL, taskParams, null))
+                .andReturn(response);
+
+        replayMocks();
+
+        TaskJob result = contentStore.performTaskAsync(taskName, taskParams);
+        Assert.assertEquals("job-id", result.getJobId());
+        Assert.assertEquals(TaskJob.Status.QUEUED, result.getStatus());
+    }
+
+    @Test
+    public void testWaitForTask() throws Exception {
+        String jobId = "job-id";
+        String jobURL = baseURL + "/task/job/" + jobId;
+
+        TaskJob running = new TaskJob(jobId, "task1", storeId);
+        running.setStatus(TaskJob.Status.RUNNING);
+        TaskJob succeeded = new TaskJob(jobId, "task1", storeId);
+        succeeded.setStatus(TaskJob.Status.SUCCEEDED);
+        succeeded.setResult("success");
+
+        EasyMock.expect(response.getStatusCode()).andReturn(200).times(2);
+        EasyMock.expect(response.getResponseBody())
+                .andReturn(running.serialize())
+                .andReturn(succeeded.serialize());
+        EasyMock.expect(restHelper.get(jobURL)).andReturn(response);
+        EasyMock.expect(restHelper.get(jobURL + "?wait=20")).andReturn(response);
+
+        replayMocks();
+
+        Assert.assertEquals("success", contentStore.waitForTask(jobId, 60));
+    }
+
+    @Test
+    public void testWaitForTaskFailure() throws Exception {
+        String jobId = "job-id";
+        TaskJob failed = new TaskJob(jobId, "task1", storeId);
+        failed.setStatus(TaskJob.Status.FAILED);
+        failed.setError("conflict");
+        failed.setErrorCode(409);
+
+        EasyMock.expect(response.getStatusCode()).andReturn(200);
+        EasyMock.expect(response.getResponseBody()).andReturn(failed.serialize());
+        EasyMock.expect(restHelper.get(baseURL + "/task/job/" + jobId))
+                .andReturn(response);
+
+        replayMocks();
+        try {
+            contentStore.waitForTask(jobId, 60);
+            Assert.fail("Exception expected for failed task");
+        } catch (ContentStateException e) {
+            Assert.assertEquals("conflict", e.getMessage());
+        }
+    }
+
     @Test
     public void testGetSpaceStats() throws Exception {
 
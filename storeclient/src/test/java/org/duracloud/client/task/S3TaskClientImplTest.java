@@ -18,6 +18,7 @@ import org.duracloud.s3storageprovider.dto.EnableStreamingTaskResult;
 import org.duracloud.s3storageprovider.dto.GetSignedCookiesUrlTaskResult;
 import org.duracloud.s3storageprovider.dto.GetSignedUrlTaskResult;
 import org.duracloud.s3storageprovider.dto.GetUrlTaskResult;
+import org.duracloud.storageprovider.dto.TaskJob;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Before;
@@ -105,6 +106,19 @@ public class S3TaskClientImplTest {
         assertThat(completionResult, equalTo(result.getResult()));
     }
 
+    @Test
+    public void testDeleteHlsStreamingAsync() throws Exception {
+        String taskName = StorageTaskConstants.DELETE_HLS_TASK_NAME;
+        TaskJob job = new TaskJob("job-id", taskName, "0");
+
+        EasyMock.expect(contentStore.performTaskAsync(EasyMock.eq(taskName),
+                                                      EasyMock.isA(String.class)))
+                .andReturn(job);
+        replayMocks();
+
+        assertThat(job, equalTo(taskClient.deleteHlsStreamingAsync(spaceId)));
+    }
+
     @Test
     public void testGetUrl() throws Exception {
         String taskName = StorageTaskConstants.GET_URL_TASK_NAME;
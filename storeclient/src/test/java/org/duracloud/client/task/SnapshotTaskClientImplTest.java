@@ -34,6 +34,7 @@ import org.duracloud.snapshot.dto.task.GetSnapshotListTaskResult;
 import org.duracloud.snapshot.dto.task.GetSnapshotTaskResult;
 import org.duracloud.snapshot.dto.task.RequestRestoreSnapshotTaskResult;
 import org.duracloud.snapshot.dto.task.RestoreSnapshotTaskResult;
+import org.duracloud.storageprovider.dto.TaskJob;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Before;
@@ -156,6 +157,20 @@ public class SnapshotTaskClientImplTest {
                    equalTo(result.getContentExpirationDays()));
     }
 
+    @Test
+    public void testRestoreSnapshotAsync() throws Exception {
+        String taskName = SnapshotConstants.RESTORE_SNAPSHOT_TASK_NAME;
+        TaskJob job = new TaskJob("job-id", taskName, "0");
+
+        EasyMock.expect(contentStore.performTaskAsync(EasyMock.eq(taskName),
+                                                      EasyMock.isA(String.class)))
+                .andReturn(job);
+        replayMocks();
+
+        assertThat(job, equalTo(taskClient.restoreSnapshotAsync(snapshotId,
+                                                                userEmail)));
+    }
+
     @Test
     public void testCompleteSnapshot() throws Exception {
         String taskName = SnapshotConstants.COMPLETE_SNAPSHOT_TASK_NAME;
@@ -98,6 +98,7 @@ public class SwiftStorageProvider extends S3StorageProvider {
         // Space properties are stored as tags with the S3 bucket.
         // So with Swift we need to delete the associated properties object in Swift.
         s3Client.deleteObject(propertiesBucketName, spaceId);
+        forgetBucketName(spaceId);
     }
 
     @Override
@@ -132,11 +133,11 @@ public class SwiftStorageProvider extends S3StorageProvider {
     }
 
     @Override
-    protected Map<String, String> getAllSpaceProperties(String spaceId) {
-        log.debug("getAllSpaceProperties(" + spaceId + ")");
+    protected Map<String, String> getStoredSpaceProperties(String spaceId) {
+        log.debug("getStoredSpaceProperties(" + spaceId + ")");
 
         // Will throw if bucket does not exist
-        String propsBucketName = getBucketName(PROPERTIES_BUCKET);
+        String propsBucketName = getKnownBucketName(PROPERTIES_BUCKET);
 
         Map<String, String> spaceProperties = new HashMap<>();
         String spacePropertiesString;
@@ -151,6 +152,9 @@ public class SwiftStorageProvider extends S3StorageProvider {
                 spaceProperties.put(props[0], props[1]);
             }
         } catch (AmazonS3Exception e) {
+            // Properties are removed with the space, so check that the space exists
+            getBucketName(spaceId);
+
             // If no space properties have been set yet, then the object will not exist.
             // But we don't need to create it here, as it gets created when properties are set.
             log.debug(
@@ -163,9 +167,8 @@ public class SwiftStorageProvider extends S3StorageProvider {
         // Handle @ symbol (change from +), to allow for email usernames in ACLs
         spaceProperties = replaceInMapValues(spaceProperties, "+", "@");
 
-        // Add space count
-        spaceProperties.put(PROPERTIES_SPACE_COUNT,
-                            getSpaceCount(spaceId, MAX_ITEM_COUNT));
+        // Counts stored by earlier versions are out of date
+        spaceProperties.remove(PROPERTIES_SPACE_COUNT);
         return spaceProperties;
     }
 
@@ -176,7 +179,7 @@ public class SwiftStorageProvider extends S3StorageProvider {
 
         Map<String, String> originalProperties;
         try {
-            originalProperties = getAllSpaceProperties(spaceId);
+            originalProperties = getStoredSpaceProperties(spaceId);
         } catch (NotFoundException e) {
             // The metadata bucket does not exist yet, so create it
             createHiddenSpace(PROPERTIES_BUCKET, 0);
@@ -199,6 +202,9 @@ public class SwiftStorageProvider extends S3StorageProvider {
         }
         spaceProperties.put(PROPERTIES_SPACE_CREATED, creationDate);
 
+        // The space count is calculated, so is not stored
+        spaceProperties.remove(PROPERTIES_SPACE_COUNT);
+
         // Handle @ symbol (change to +), to allow for email usernames in ACLs
         spaceProperties = replaceInMapValues(spaceProperties, "@", "+");
 
@@ -17,21 +17,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.Bucket;
-import com.amazonaws.services.s3.model.ListObjectsRequest;
-import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectResult;
-import com.amazonaws.services.s3.model.S3ObjectSummary;
 import org.apache.commons.lang.StringUtils;
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.provider.StorageProvider;
-import org.easymock.EasyMock;
 import org.junit.Test;
 
 /**
@@ -137,21 +132,6 @@ public class SwiftStorageProviderTest {
         verify(s3Client, bucket, propsBucket);
     }
 
-    private void setUpListObjects(ObjectListing objectListing, int numItems) {
-        List<S3ObjectSummary> objectSummaries = new ArrayList<>();
-        for (int i = 0; i < numItems; i++) {
-            S3ObjectSummary summary = new S3ObjectSummary();
-            summary.setKey("item" + i);
-            objectSummaries.add(summary);
-        }
-
-        expect(
-            s3Client.listObjects(EasyMock.isA(ListObjectsRequest.class)))
-                .andReturn(objectListing);
-        expect(objectListing.getObjectSummaries())
-                .andReturn(objectSummaries);
-    }
-
     @Test
     public void testGetAllSpaceProperties() {
         setupS3Client();
@@ -166,23 +146,20 @@ public class SwiftStorageProviderTest {
         expect(propsBucket.getName()).andReturn(propsBucketName);
         expect(s3Client.listBuckets()).andReturn(Arrays.asList(bucket, propsBucket)).anyTimes();
         expect(s3Client.getObjectAsString(propsBucketName, spaceId)).andReturn(properties);
-        ObjectListing objectListing = createMock("ObjectListing", ObjectListing.class);
-        setUpListObjects(objectListing, 1);
-        setUpListObjects(objectListing, 0);
 
         SwiftStorageProvider provider = getProvider();
 
-        replay(s3Client, bucket, propsBucket, objectListing);
+        replay(s3Client, bucket, propsBucket);
 
-        Map<String, String> spaceProps = provider.getAllSpaceProperties(spaceId);
+        // The bucket is not listed to count its items
+        Map<String, String> spaceProps = provider.getSpaceProperties(spaceId);
         assertNotNull(spaceProps);
         assertEquals("value1", spaceProps.get("key1"));
         assertEquals("value2", spaceProps.get("key2"));
         assertEquals("value@3", spaceProps.get("key3"));
-        assertEquals(String.valueOf(1),
-                     spaceProps.get(StorageProvider.PROPERTIES_SPACE_COUNT));
+        assertNull(spaceProps.get(StorageProvider.PROPERTIES_SPACE_COUNT));
 
-        verify(s3Client, bucket, propsBucket, objectListing);
+        verify(s3Client, bucket, propsBucket);
     }
 
     @Test
@@ -206,16 +183,13 @@ public class SwiftStorageProviderTest {
         expect(propsBucket.getName()).andReturn(propsBucketName).anyTimes();
         expect(s3Client.listBuckets()).andReturn(Arrays.asList(bucket, propsBucket)).anyTimes();
         expect(s3Client.getObjectAsString(propsBucketName, spaceId)).andReturn(properties);
-        ObjectListing objectListing = createMock("ObjectListing", ObjectListing.class);
-        setUpListObjects(objectListing, 1);
-        setUpListObjects(objectListing, 0);
         expect(s3Client.putObject(
             propsBucketName, spaceId, propsWithDate
         )).andReturn(createMock(PutObjectResult.class));
 
         SwiftStorageProvider provider = getProvider();
 
-        replay(s3Client, bucket, propsBucket, objectListing);
+        replay(s3Client, bucket, propsBucket);
 
         Map<String, String> spaceProps = new HashMap<>();
         spaceProps.put("key1", "value1");
@@ -223,7 +197,7 @@ public class SwiftStorageProviderTest {
         spaceProps.put("key3", "value@3");
         provider.doSetSpaceProperties(spaceId, spaceProps);
 
-        verify(s3Client, bucket, propsBucket, objectListing);
+        verify(s3Client, bucket, propsBucket);
     }
 
     @Test
@@ -204,10 +204,20 @@ public class SyncTool {
     }
 
     private void startDeleteChecker() {
-        deleteChecker = DeleteChecker.start(syncEndpoint,
-                                            syncConfig.getSpaceId(),
-                                            syncConfig.getContentDirs(),
-                                            syncConfig.getPrefix());
+        if (syncConfig.isIndexedDeleteCheck()) {
+            File indexDir = new File(syncConfig.getWorkDir(), "delete-index");
+            deleteChecker = DeleteChecker.start(syncEndpoint,
+                                                syncConfig.getSpaceId(),
+                                                syncConfig.getContentDirs(),
+                                                syncConfig.getPrefix(),
+                                                indexDir,
+                                                syncConfig.getNumThreads());
+        } else {
+            deleteChecker = DeleteChecker.start(syncEndpoint,
+                                                syncConfig.getSpaceId(),
+                                                syncConfig.getContentDirs(),
+                                                syncConfig.getPrefix());
+        }
     }
 
     private void startDirMonitor() {
@@ -35,6 +35,7 @@ public class SyncToolConfig implements Serializable {
     private int numThreads = 5;
     private long maxFileSize;
     private boolean syncDeletes;
+    private boolean indexedDeleteCheck;
     private boolean cleanStart;
     private boolean exitOnCompletion;
     private File excludeList;
@@ -84,6 +85,10 @@ public class SyncToolConfig implements Serializable {
         config.append(getMaxFileSize()).append(" bytes\n");
         config.append("SyncTool Syncing Deletes: ");
         config.append(syncDeletes()).append("\n");
+        if (syncDeletes()) {
+            config.append("SyncTool Indexed Delete Check: ");
+            config.append(isIndexedDeleteCheck()).append("\n");
+        }
 
         if (getExcludeList() != null) {
             config.append("SyncTool Exclude List: ");
@@ -215,6 +220,14 @@ public class SyncToolConfig implements Serializable {
         this.syncDeletes = syncDeletes;
     }
 
+    public boolean isIndexedDeleteCheck() {
+        return indexedDeleteCheck;
+    }
+
+    public void setIndexedDeleteCheck(boolean indexedDeleteCheck) {
+        this.indexedDeleteCheck = indexedDeleteCheck;
+    }
+
     public boolean isCleanStart() {
         return cleanStart;
     }
@@ -176,6 +176,18 @@ public class SyncToolConfigParser {
         syncDeletes.setRequired(false);
         cmdOptions.addOption(syncDeletes);
 
+        Option indexedDeleteCheck =
+            new Option("k", "indexed-delete-check", false,
+                       "indicates that the check for deleted files (see -d) " +
+                       "should compare a sorted index of local files, built " +
+                       "in the work directory, against the DuraCloud listing " +
+                       "rather than checking for each file individually; " +
+                       "deletes are performed in parallel using the number " +
+                       "of threads set by -t. Recommended for large data " +
+                       "sets (optional, not set by default)");
+        indexedDeleteCheck.setRequired(false);
+        cmdOptions.addOption(indexedDeleteCheck);
+
         Option cleanStart =
             new Option("l", "clean-start", false,
                        "indicates that the sync tool should perform a clean " +
@@ -437,6 +449,17 @@ public class SyncToolConfigParser {
             config.setSyncDeletes(false);
         }
 
+        if (cmd.hasOption("k")) {
+            if (!cmd.hasOption("d")) {
+                throw new ParseException("The indexed delete check option " +
+                                         "(-k) requires that deletes be " +
+                                         "synced (-d).");
+            }
+            config.setIndexedDeleteCheck(true);
+        } else {
+            config.setIndexedDeleteCheck(false);
+        }
+
         if (cmd.hasOption("l")) {
             config.setCleanStart(true);
         } else {
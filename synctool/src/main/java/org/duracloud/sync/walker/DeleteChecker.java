@@ -8,8 +8,12 @@
 package org.duracloud.sync.walker;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
@@ -33,6 +37,9 @@ public class DeleteChecker implements Runnable {
     private boolean complete = false;
     private boolean stopped = false;
     private String prefix;
+    private File indexDir;
+    private int threads;
+    private ThreadPoolExecutor deletePool;
 
     /**
      * Creates a delete checker
@@ -44,10 +51,33 @@ public class DeleteChecker implements Runnable {
                             String spaceId,
                             List<File> syncDirs,
                             String prefix) {
+        this(syncEndpoint, spaceId, syncDirs, prefix, null, 1);
+    }
+
+    /**
+     * Creates a delete checker which runs in indexed mode: rather than
+     * checking for each file individually, a sorted index of the local files
+     * is built in indexDir and compared to the endpoint listing in a single
+     * pass. Deletes are performed using a pool of the given size.
+     *
+     * @param syncEndpoint the endpoint to which files are synced
+     * @param syncDirs     the list of local source directories being synced
+     * @param indexDir     the directory in which to store the local index,
+     *                     null to check each file individually
+     * @param threads      the number of threads used to perform deletes
+     */
+    protected DeleteChecker(SyncEndpoint syncEndpoint,
+                            String spaceId,
+                            List<File> syncDirs,
+                            String prefix,
+                            File indexDir,
+                            int threads) {
         this.syncEndpoint = syncEndpoint;
         this.spaceId = spaceId;
         this.syncDirs = syncDirs;
         this.prefix = prefix;
+        this.indexDir = indexDir;
+        this.threads = Math.max(1, threads);
 
         this.filesList = syncEndpoint.getFilesList();
     }
@@ -65,6 +95,11 @@ public class DeleteChecker implements Runnable {
      * what the content ID will be for files pushed up with the prefix.)
      */
     public void run() {
+        if (null != indexDir) {
+            runIndexed();
+            return;
+        }
+
         logger.info("Running Delete Checker");
 
         while (filesList.hasNext() && !stopped) {
@@ -86,6 +121,76 @@ public class DeleteChecker implements Runnable {
         complete = true;
     }
 
+    /**
+     * Performs the same check as run(), but compares the endpoint listing to
+     * a sorted index of local files rather than checking for the existence of
+     * each file individually. Endpoint listings are expected to be (mostly)
+     * sorted; any item which arrives out of order is checked directly against
+     * the filesystem. Items not found in the index are verified against the
+     * filesystem before being deleted, so files which appear locally after
+     * the index is built are never removed.
+     */
+    protected void runIndexed() {
+        logger.info("Running Delete Checker in indexed mode with " + threads +
+                    " threads");
+
+        LocalPathIndex index = new LocalPathIndex(syncDirs, indexDir);
+        deletePool = new ThreadPoolExecutor(threads,
+                                            threads,
+                                            0L,
+                                            TimeUnit.MILLISECONDS,
+                                            new ArrayBlockingQueue<>(threads * 100),
+                                            new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            index.build();
+            try (LocalPathIndex.Cursor cursor = index.openCursor()) {
+                String lastPath = null;
+                while (filesList.hasNext() && !stopped) {
+                    String contentId = filesList.next();
+                    if (null != prefix && !contentId.startsWith(prefix)) {
+                        submitDelete(contentId);
+                        continue;
+                    }
+
+                    String path = (null != prefix) ?
+                                  contentId.substring(prefix.length()) : contentId;
+                    boolean indexed = false;
+                    if (null == lastPath || path.compareTo(lastPath) >= 0) {
+                        indexed = cursor.contains(path);
+                        lastPath = path;
+                    } // else out of order, the cursor cannot move backwards
+
+                    if (!indexed && !exists(path)) {
+                        submitDelete(contentId);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Unable to complete indexed delete check for space " +
+                         spaceId + " due to: " + e.getMessage(), e);
+        } finally {
+            deletePool.shutdown();
+            try {
+                deletePool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted waiting for deletes to complete");
+            }
+            index.delete();
+        }
+        complete = true;
+    }
+
+    private void submitDelete(final String contentId) {
+        deletePool.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!stopped) {
+                    deleteContent(contentId);
+                }
+            }
+        });
+    }
+
     private boolean exists(String fileToCheck) {
         boolean exists = false;
         for (File syncDir : syncDirs) {
@@ -132,4 +237,22 @@ public class DeleteChecker implements Runnable {
         (new Thread(deleteChecker)).start();
         return deleteChecker;
     }
+
+    /**
+     * Starts a delete checker in indexed mode.
+     *
+     * @see #DeleteChecker(SyncEndpoint, String, List, String, File, int)
+     */
+    public static DeleteChecker start(SyncEndpoint syncEndpoint,
+                                      String spaceId,
+                                      List<File> syncDirs,
+                                      String prefix,
+                                      File indexDir,
+                                      int threads) {
+        DeleteChecker deleteChecker =
+            new DeleteChecker(syncEndpoint, spaceId, syncDirs, prefix,
+                              indexDir, threads);
+        (new Thread(deleteChecker)).start();
+        return deleteChecker;
+    }
 }
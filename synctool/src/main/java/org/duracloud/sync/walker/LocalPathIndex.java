@@ -0,0 +1,283 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.walker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.commons.io.DirectoryWalker;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A sorted, file-backed index of the relative paths of all files found in a
+ * set of sync directories. The index is built by walking the directories
+ * once, sorting the discovered paths in bounded batches, and merging those
+ * batches into a single sorted file (one path per line). Once built, the
+ * index can be compared against another sorted listing in a single forward
+ * pass using a {@link Cursor}, without any per-file filesystem calls.
+ */
+public class LocalPathIndex {
+
+    private final Logger log = LoggerFactory.getLogger(LocalPathIndex.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 250000;
+
+    private List<File> syncDirs;
+    private File indexDir;
+    private int batchSize;
+
+    private File indexFile;
+    private long size = 0;
+
+    /**
+     * @param syncDirs  the local directories to be indexed
+     * @param indexDir  directory in which to store index files
+     * @param batchSize the maximum number of paths to hold in memory at once
+     */
+    public LocalPathIndex(List<File> syncDirs, File indexDir, int batchSize) {
+        this.syncDirs = syncDirs;
+        this.indexDir = indexDir;
+        this.batchSize = batchSize;
+    }
+
+    public LocalPathIndex(List<File> syncDirs, File indexDir) {
+        this(syncDirs, indexDir, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Walks all sync directories and writes the sorted index file.
+     *
+     * @throws IOException on failure to walk a directory or write the index
+     */
+    public void build() throws IOException {
+        indexDir.mkdirs();
+        List<File> runs = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+
+        try {
+            for (File syncDir : syncDirs) {
+                if (syncDir.isDirectory()) {
+                    new IndexWalker(syncDir, batch, runs).index();
+                }
+            }
+            if (!batch.isEmpty() || runs.isEmpty()) {
+                runs.add(writeRun(batch));
+            }
+
+            indexFile = File.createTempFile("local-path-index-", ".idx", indexDir);
+            size = mergeRuns(runs, indexFile);
+            log.info("Built local path index of {} files at {}",
+                     size, indexFile.getAbsolutePath());
+        } finally {
+            for (File run : runs) {
+                FileUtils.deleteQuietly(run);
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct paths in the index
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Opens a cursor over the index. The index must be built first.
+     */
+    public Cursor openCursor() throws IOException {
+        if (null == indexFile) {
+            throw new IllegalStateException("Index has not been built");
+        }
+        return new Cursor(openReader(indexFile));
+    }
+
+    /**
+     * Removes the index file from disk.
+     */
+    public void delete() {
+        if (null != indexFile) {
+            FileUtils.deleteQuietly(indexFile);
+            indexFile = null;
+        }
+    }
+
+    private File writeRun(List<String> batch) throws IOException {
+        Collections.sort(batch);
+        File run = File.createTempFile("local-path-run-", ".tmp", indexDir);
+        try (BufferedWriter writer = openWriter(run)) {
+            for (String path : batch) {
+                writer.write(path);
+                writer.newLine();
+            }
+        }
+        batch.clear();
+        return run;
+    }
+
+    /*
+     * Performs a k-way merge of the sorted run files into the target file,
+     * dropping duplicate paths (the same relative path can exist in more
+     * than one sync directory). Returns the number of paths written.
+     */
+    private long mergeRuns(List<File> runs, File target) throws IOException {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(
+            Math.max(1, runs.size()),
+            (a, b) -> a.current.compareTo(b.current));
+        long count = 0;
+        try (BufferedWriter writer = openWriter(target)) {
+            for (File run : runs) {
+                Cursor cursor = new Cursor(openReader(run));
+                if (null != cursor.current) {
+                    queue.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+
+            String last = null;
+            while (!queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                String path = cursor.current;
+                if (!path.equals(last)) {
+                    writer.write(path);
+                    writer.newLine();
+                    last = path;
+                    count++;
+                }
+                if (null != cursor.advance()) {
+                    queue.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+        } finally {
+            for (Cursor cursor : queue) {
+                IOUtils.closeQuietly(cursor);
+            }
+        }
+        return count;
+    }
+
+    private BufferedReader openReader(File file) throws IOException {
+        return new BufferedReader(
+            new InputStreamReader(new FileInputStream(file),
+                                  StandardCharsets.UTF_8));
+    }
+
+    private BufferedWriter openWriter(File file) throws IOException {
+        return new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file),
+                                   StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Walks a single sync directory, collecting relative paths (using '/' as
+     * the separator, matching content IDs) into the shared batch and spilling
+     * the batch to a sorted run file whenever it fills.
+     */
+    private class IndexWalker extends DirectoryWalker {
+
+        private File syncDir;
+        private int rootLength;
+        private List<String> batch;
+        private List<File> runs;
+
+        public IndexWalker(File syncDir, List<String> batch, List<File> runs) {
+            super();
+            this.syncDir = syncDir;
+            this.rootLength = syncDir.getPath().length() + 1;
+            this.batch = batch;
+            this.runs = runs;
+        }
+
+        public void index() throws IOException {
+            walk(syncDir, null);
+        }
+
+        @Override
+        protected void handleFile(File file, int depth, Collection results)
+            throws IOException {
+            String path = file.getPath();
+            if (path.length() <= rootLength) {
+                return;
+            }
+            path = path.substring(rootLength);
+            if (File.separatorChar != '/') {
+                path = path.replace(File.separatorChar, '/');
+            }
+            // Paths which cannot be stored one-per-line are left out of the
+            // index; callers must verify misses against the filesystem
+            if (path.indexOf('\n') >= 0 || path.indexOf('\r') >= 0) {
+                return;
+            }
+
+            batch.add(path);
+            if (batch.size() >= batchSize) {
+                runs.add(writeRun(batch));
+            }
+        }
+    }
+
+    /**
+     * Forward-only cursor over a sorted listing of paths. Lookups must be
+     * made in non-decreasing order.
+     */
+    public static class Cursor implements Closeable {
+
+        private BufferedReader reader;
+        private String current;
+
+        protected Cursor(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            this.current = reader.readLine();
+        }
+
+        protected String advance() throws IOException {
+            current = reader.readLine();
+            return current;
+        }
+
+        /**
+         * Determines if the given path is in the index, moving the cursor
+         * forward past all entries which sort before it.
+         *
+         * @param path relative path, must not sort before a previously
+         *             checked path
+         * @return true if the path is in the index
+         */
+        public boolean contains(String path) throws IOException {
+            while (null != current && current.compareTo(path) < 0) {
+                advance();
+            }
+            return null != current && current.equals(path);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+}
@@ -7,6 +7,8 @@
  */
 package org.duracloud.sync.walker;
 
+import static org.junit.Assert.assertTrue;
+
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -138,4 +140,55 @@ public class DeleteCheckerTest extends SyncTestBase {
         deleteChecker.run();
     }
 
+    /*
+     * Verifies that in indexed mode:
+     * 1. Existing files (including nested files) are not deleted
+     * 2. Files which are not in the content dir are deleted, both when the
+     *    listing is in sorted order and when an item arrives out of order
+     * 3. Files without the expected prefix are deleted
+     */
+    @Test
+    public void testDeleteCheckerIndexed() throws Exception {
+        File subDir = new File(tempDir, "sub");
+        subDir.mkdirs();
+        File nestedFile = new File(subDir, "nested.txt");
+        FileUtils.writeStringToFile(nestedFile, "nested");
+        File topFile = new File(tempDir, "top.txt");
+        FileUtils.writeStringToFile(topFile, "top");
+
+        String prefix = "prefix/";
+
+        List<String> filesList = new ArrayList<>();
+        filesList.add(prefix + "a-deleted.txt");
+        filesList.add(prefix + "sub/nested.txt");
+        filesList.add(prefix + "top.txt");
+        filesList.add(prefix + "b-deleted.txt"); // out of order
+        filesList.add("no-prefix.txt");
+
+        List<File> syncDirs = new ArrayList<>();
+        syncDirs.add(tempDir);
+
+        EasyMock.expect(syncEndpoint.getFilesList())
+                .andReturn(filesList.iterator());
+        syncEndpoint.deleteContent(spaceId, prefix + "a-deleted.txt");
+        EasyMock.expectLastCall().once();
+        syncEndpoint.deleteContent(spaceId, prefix + "b-deleted.txt");
+        EasyMock.expectLastCall().once();
+        syncEndpoint.deleteContent(spaceId, "no-prefix.txt");
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        File indexDir = createTempDir("delete-check-index");
+        try {
+            DeleteChecker deleteChecker =
+                new DeleteChecker(syncEndpoint, spaceId, syncDirs, prefix,
+                                  indexDir, 3);
+            deleteChecker.run();
+            assertTrue(deleteChecker.checkComplete());
+        } finally {
+            FileUtils.deleteDirectory(indexDir);
+        }
+    }
+
 }
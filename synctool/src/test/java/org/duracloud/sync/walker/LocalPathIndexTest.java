@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.walker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.sync.SyncTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalPathIndexTest extends SyncTestBase {
+
+    private File dirA;
+    private File dirB;
+    private File indexDir;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        dirA = createTempDir("path-index-a");
+        dirB = createTempDir("path-index-b");
+        indexDir = createTempDir("path-index-work");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+        FileUtils.deleteDirectory(dirA);
+        FileUtils.deleteDirectory(dirB);
+        FileUtils.deleteDirectory(indexDir);
+    }
+
+    /*
+     * Verifies that paths from multiple directories are merged into a single
+     * sorted, de-duplicated index, even when the walk spills to several
+     * sorted runs.
+     */
+    @Test
+    public void testBuildAndLookup() throws Exception {
+        FileUtils.writeStringToFile(new File(dirA, "c.txt"), "c");
+        FileUtils.writeStringToFile(new File(dirA, "a/x.txt"), "x");
+        FileUtils.writeStringToFile(new File(dirA, "shared.txt"), "s");
+        FileUtils.writeStringToFile(new File(dirB, "b.txt"), "b");
+        FileUtils.writeStringToFile(new File(dirB, "shared.txt"), "s");
+
+        List<File> dirs = new ArrayList<>();
+        dirs.add(dirA);
+        dirs.add(dirB);
+
+        LocalPathIndex index = new LocalPathIndex(dirs, indexDir, 2);
+        index.build();
+        assertEquals(4, index.size());
+
+        try (LocalPathIndex.Cursor cursor = index.openCursor()) {
+            assertTrue(cursor.contains("a/x.txt"));
+            assertFalse(cursor.contains("a/y.txt"));
+            assertTrue(cursor.contains("b.txt"));
+            assertTrue(cursor.contains("c.txt"));
+            assertFalse(cursor.contains("d.txt"));
+            assertTrue(cursor.contains("shared.txt"));
+            assertFalse(cursor.contains("z.txt"));
+        }
+
+        index.delete();
+        assertEquals(0, indexDir.listFiles().length);
+    }
+
+    @Test
+    public void testEmptyIndex() throws Exception {
+        List<File> dirs = new ArrayList<>();
+        dirs.add(dirA);
+
+        LocalPathIndex index = new LocalPathIndex(dirs, indexDir);
+        index.build();
+        assertEquals(0, index.size());
+
+        try (LocalPathIndex.Cursor cursor = index.openCursor()) {
+            assertFalse(cursor.contains("a.txt"));
+        }
+        index.delete();
+    }
+
+}